@@ -23,6 +23,7 @@ import org.kohsuke.args4j.Argument;
 import org.kohsuke.args4j.Option;
 
 import net.sf.jailer.subsetting.ScriptFormat;
+import net.sf.jailer.util.ParallelDeflaterOutputStream;
 
 /**
  * Holds command-line arguments.
@@ -63,6 +64,9 @@ public class CommandLine {
 	
 	@Option(name="-disallow-non-aggregated",usage="raise an error if there are objects that are not aggregated into any other object in JSON/YAML/XML export file")
 	public boolean disallowNonAggregated;
+
+	@Option(name="-streamed-hierarchy",usage="read the objects aggregated in other objects with a single query per aggregation path, ordered by the keys of the aggregating objects, instead of querying them for each object separately (JSON/YAML/XML export, working-table scopes GLOBAL, SESSION_LOCAL and TRANSACTION_LOCAL only)")
+	public boolean streamedHierarchy;
 	
 	@Option(name="-xml-root",usage="root tag of XML export file",metaVar="tag-name")
 	public String xmlRootTag = "root";
@@ -118,13 +122,85 @@ public class CommandLine {
 	@Option(name="-threads",usage="number of threads (default is 1)", metaVar="#threads")
 	public int numberOfThreads = 1;
 
+	@Option(name="-work-stealing",usage="execute concurrent jobs on a work-stealing thread pool (see \"-threads\")")
+	public boolean workStealing = false;
+
+	@Option(name="-pipelined-collection",usage="resolve associations of a table as soon as its rows are final, without waiting for the other tables (useful with multiple threads)")
+	public boolean pipelinedCollection = false;
+
+	@Option(name="-cost-based-resolution-order",usage="resolve the associations with the highest estimated costs (according to the catalog statistics and the rows collected so far) first and skip associations into empty tables")
+	public boolean costBasedResolutionOrder = false;
+
+	@Option(name="-segmented-output",usage="write the rows of each table exported concurrently into a temporary segment of its own (compressed in parallel if the script is a \".gz\" file), the segments are appended to the script one after another")
+	public boolean segmentedOutput = false;
+
+	@Option(name="-compression-threads",usage="number of threads compressing \".gz\" and \".zip\" files (default is the number of processors)", metaVar="#threads")
+	public int compressionThreads = 0;
+
+	@Option(name="-compression-block-size",usage="size in KB of the blocks compressed in parallel (default is 128)", metaVar="KB")
+	public int compressionBlockSize = ParallelDeflaterOutputStream.DEFAULT_BLOCK_SIZE / 1024;
+
+	@Option(name="-delta",usage="export only the rows that are new or have changed since the export that wrote the given snapshot file, then write the snapshot of this export into the file (SQL format only). The rows are written as upserts. Rows that are no longer part of the subset are not deleted.", metaVar="file")
+	public String deltaFile = null;
+
+	@Option(name="-delta-version-column",usage="column (such as a row version or a last-modification timestamp) identifying changed rows in a delta export (see \"-delta\"). Rows of tables without this column are compared by content.", metaVar="column")
+	public String deltaVersionColumn = null;
+
+	@Option(name="-checkpoint",usage="keep the collected rows in the working tables and write the progress of the export into the given file, so that an interrupted export can be resumed (see \"-resume\"). Requires \"-scope GLOBAL\" and the SQL, DbUnit or Liquibase format.", metaVar="file")
+	public String checkpointFile = null;
+
+	@Option(name="-resume",usage="resume an interrupted export from the checkpoint file (see \"-checkpoint\")")
+	public boolean resume = false;
+
+	@Option(name="-narrow-working-tables",usage="collect the rows of each table in an entity table of its own that has exactly the primary key columns of the table, instead of in the table JAILER_ENTITY with the universal primary key (working-table scopes GLOBAL, SESSION_LOCAL and TRANSACTION_LOCAL only)")
+	public boolean narrowWorkingTables = false;
+
+	@Option(name="-multi-tenant",usage="run many exports concurrently within one JVM. The working tables are partitioned by entity-graph (PostgreSQL, Oracle), the partitions of an export are dropped instead of deleting its rows, and the exports only share a JVM-global lock while exporting, which is held exclusively while the working tables are re-created (working-table scope GLOBAL only)")
+	public boolean multiTenant = false;
+
+	@Option(name="-direct-delete",usage="delete the rows directly in the database in chunks of rows with consecutive primary keys, each in a transaction of its own, instead of writing the deletions into the delete-script (see \"-d\"). Independent tables are processed concurrently (see \"-threads\"). Rows of tables with cyclic dependencies are still written into the delete-script (working-table scope GLOBAL only)")
+	public boolean directDelete = false;
+
+	@Option(name="-delete-commit-interval",usage="maximum number of rows deleted per transaction (see \"-direct-delete\", default is 10000)", metaVar="#rows")
+	public int deleteCommitInterval = 10000;
+
+	@Option(name="-delete-rows-per-second",usage="maximum number of rows deleted per second (see \"-direct-delete\", default is unlimited)", metaVar="#rows")
+	public int deleteRowsPerSecond = 0;
+
+	@Option(name="-pk-check-timeout",usage="timeout of each check of the primary key validation. Tables whose check times out are reported as unchecked (default is unlimited)", metaVar="#sec")
+	public int pkCheckTimeout = 0;
+
+	@Option(name="-pk-check-sample-size",usage="number of rows per table checked by the primary key validation. Only a sample of each table is checked for duplicate and null keys (default is all rows)", metaVar="#rows")
+	public int pkCheckSampleSize = 0;
+
+	@Option(name="-use-bind-variables",usage="use bind variables instead of literals in the statements of the local entity-graph (\"-scope LOCAL_DATABASE\" or \"-scope MEMORY\")")
+	public boolean useBindVariables = false;
+
 	@Option(name="-entities",usage="maximum number of entities per insert-statement (in export-file, default is 10)", metaVar="#entities")
 	public int numberOfEntities = 10;
 
 	@Option(name="-upsert-only",usage="generate 'upsert'-statements for all entities (in export-file)")
 	public boolean upsertOnly = false;
 
-	@Option(name="-scope",usage="scope of working tables, GLOBAL, SESSION_LOCAL or LOCAL_DATABASE")
+	@Option(name="-import-url",usage="JDBC URL of a database into which the exported rows are inserted directly, using batched prepared statements (instead of script text)", metaVar="url")
+	public String importUrl = null;
+
+	@Option(name="-import-user",usage="user of the database into which the exported rows are inserted (see \"-import-url\")", metaVar="user")
+	public String importUser = null;
+
+	@Option(name="-import-password",usage="password of the database into which the exported rows are inserted (see \"-import-url\")", metaVar="password")
+	public String importPassword = null;
+
+	@Option(name="-import-driver",usage="JDBC driver class of the database into which the exported rows are inserted (default is the driver of the source database)", metaVar="driver-class")
+	public String importDriver = null;
+
+	@Option(name="-import-batch-size",usage="number of rows per JDBC batch (see \"-import-url\", default is 1000)", metaVar="#rows")
+	public int importBatchSize = 1000;
+
+	@Option(name="-import-commit-interval",usage="number of rows per transaction (see \"-import-url\", default is 10000)", metaVar="#rows")
+	public int importCommitInterval = 10000;
+
+	@Option(name="-scope",usage="scope of working tables, GLOBAL, SESSION_LOCAL, LOCAL_DATABASE or MEMORY")
 	public String scope = null;
 
 	@Option(name="-working-table-schema", usage="schema in which the working tables will be created")
@@ -32,6 +32,7 @@ import net.sf.jailer.subsetting.InconsistentSubsettingResultException;
 import net.sf.jailer.subsetting.ScriptFormat;
 import net.sf.jailer.util.CsvFile;
 import net.sf.jailer.util.LayoutStorage;
+import net.sf.jailer.util.ParallelDeflaterOutputStream;
 
 /**
  * Execution context of import-/export commands.
@@ -74,8 +75,32 @@ public class ExecutionContext {
 		this.rawdeletionschemamapping = other.rawdeletionschemamapping;
 		this.parameters = copy(other.parameters);
 		this.numberOfThreads = other.numberOfThreads;
+		this.pipelinedCollection = other.pipelinedCollection;
+		this.costBasedResolutionOrder = other.costBasedResolutionOrder;
+		this.segmentedOutput = other.segmentedOutput;
+		this.compressionThreads = other.compressionThreads;
+		this.compressionBlockSize = other.compressionBlockSize;
+		this.deltaFile = other.deltaFile;
+		this.deltaVersionColumn = other.deltaVersionColumn;
+		this.checkpointFile = other.checkpointFile;
+		this.resume = other.resume;
+		this.narrowWorkingTables = other.narrowWorkingTables;
+		this.multiTenant = other.multiTenant;
+		this.directDelete = other.directDelete;
+		this.deleteCommitInterval = other.deleteCommitInterval;
+		this.deleteRowsPerSecond = other.deleteRowsPerSecond;
+		this.pkCheckTimeout = other.pkCheckTimeout;
+		this.pkCheckSampleSize = other.pkCheckSampleSize;
+		this.workStealing = other.workStealing;
+		this.useBindVariables = other.useBindVariables;
 		this.numberOfEntities = other.numberOfEntities;
 		this.upsertOnly = other.upsertOnly;
+		this.importUrl = other.importUrl;
+		this.importUser = other.importUser;
+		this.importPassword = other.importPassword;
+		this.importDriver = other.importDriver;
+		this.importBatchSize = other.importBatchSize;
+		this.importCommitInterval = other.importCommitInterval;
 		this.workingTableSchema = other.workingTableSchema;
 		this.datamodelFolder = other.datamodelFolder;
 		this.noSorting = other.noSorting;
@@ -98,6 +123,7 @@ public class ExecutionContext {
 		this.includeNonAggregated = other.includeNonAggregated;
 		this.ignoreNonAggregated = other.ignoreNonAggregated;
 		this.disallowNonAggregated = other.disallowNonAggregated;
+		this.streamedHierarchy = other.streamedHierarchy;
 // don't share progressListenerRegistry, was: this.progressListenerRegistry = other.progressListenerRegistry;
 	}
 
@@ -327,6 +353,354 @@ public class ExecutionContext {
 		this.numberOfThreads = numberOfThreads;
 	}
 
+	/**
+	 * If <code>true</code>, concurrent jobs are executed on a work-stealing thread pool
+	 * with {@link #getNumberOfThreads()} threads.
+	 *
+	 * @return <code>true</code> if a work-stealing thread pool is used
+	 */
+	public boolean isWorkStealing() {
+		return workStealing;
+	}
+
+	/**
+	 * If <code>true</code>, concurrent jobs are executed on a work-stealing thread pool
+	 * with {@link #getNumberOfThreads()} threads.
+	 *
+	 * @param workStealing <code>true</code> if a work-stealing thread pool is used
+	 */
+	public void setWorkStealing(boolean workStealing) {
+		this.workStealing = workStealing;
+	}
+
+	/**
+	 * If <code>true</code>, the inline-views of the local entity-graph (see {@link WorkingTableScope#LOCAL_DATABASE} and {@link WorkingTableScope#MEMORY})
+	 * contain bind variables instead of literals.
+	 *
+	 * @return <code>true</code> if bind variables are used
+	 */
+	public boolean isUseBindVariables() {
+		return useBindVariables;
+	}
+
+	/**
+	 * If <code>true</code>, the inline-views of the local entity-graph (see {@link WorkingTableScope#LOCAL_DATABASE} and {@link WorkingTableScope#MEMORY})
+	 * contain bind variables instead of literals.
+	 *
+	 * @param useBindVariables <code>true</code> if bind variables are used
+	 */
+	public void setUseBindVariables(boolean useBindVariables) {
+		this.useBindVariables = useBindVariables;
+	}
+
+	/**
+	 * If <code>true</code>, associations of a table are resolved as soon as the
+	 * rows of the table are final, without waiting for the other tables.
+	 *
+	 * @return <code>true</code> if collection is pipelined
+	 */
+	public boolean isPipelinedCollection() {
+		return pipelinedCollection;
+	}
+
+	/**
+	 * If <code>true</code>, associations of a table are resolved as soon as the
+	 * rows of the table are final, without waiting for the other tables.
+	 *
+	 * @param pipelinedCollection <code>true</code> if collection is pipelined
+	 */
+	public void setPipelinedCollection(boolean pipelinedCollection) {
+		this.pipelinedCollection = pipelinedCollection;
+	}
+
+	/**
+	 * If <code>true</code>, the associations with the highest estimated costs are resolved first
+	 * and associations into empty tables are skipped.
+	 *
+	 * @return <code>true</code> if the resolution order is cost-based
+	 */
+	public boolean isCostBasedResolutionOrder() {
+		return costBasedResolutionOrder;
+	}
+
+	/**
+	 * If <code>true</code>, the associations with the highest estimated costs are resolved first
+	 * and associations into empty tables are skipped.
+	 *
+	 * @param costBasedResolutionOrder <code>true</code> if the resolution order is cost-based
+	 */
+	public void setCostBasedResolutionOrder(boolean costBasedResolutionOrder) {
+		this.costBasedResolutionOrder = costBasedResolutionOrder;
+	}
+
+	/**
+	 * If <code>true</code>, the rows of each table that are exported concurrently
+	 * are written into a segment of their own (compressed in parallel if the script is a ".gz" file).
+	 * The segments are appended to the script one after another.
+	 *
+	 * @return <code>true</code> if output is segmented
+	 */
+	public boolean isSegmentedOutput() {
+		return segmentedOutput;
+	}
+
+	/**
+	 * If <code>true</code>, the rows of each table that are exported concurrently
+	 * are written into a segment of their own (compressed in parallel if the script is a ".gz" file).
+	 * The segments are appended to the script one after another.
+	 *
+	 * @param segmentedOutput <code>true</code> if output is segmented
+	 */
+	public void setSegmentedOutput(boolean segmentedOutput) {
+		this.segmentedOutput = segmentedOutput;
+	}
+
+	/**
+	 * Gets number of threads compressing ".gz" and ".zip" files (0 for the number of available processors).
+	 *
+	 * @return number of threads compressing ".gz" and ".zip" files
+	 */
+	public int getCompressionThreads() {
+		return compressionThreads;
+	}
+
+	/**
+	 * Sets number of threads compressing ".gz" and ".zip" files (0 for the number of available processors).
+	 *
+	 * @param compressionThreads number of threads compressing ".gz" and ".zip" files
+	 */
+	public void setCompressionThreads(int compressionThreads) {
+		this.compressionThreads = compressionThreads;
+	}
+
+	/**
+	 * Gets size (in KB) of the blocks compressed in parallel.
+	 *
+	 * @return size (in KB) of the blocks compressed in parallel
+	 */
+	public int getCompressionBlockSize() {
+		return compressionBlockSize;
+	}
+
+	/**
+	 * Sets size (in KB) of the blocks compressed in parallel.
+	 *
+	 * @param compressionBlockSize size (in KB) of the blocks compressed in parallel
+	 */
+	public void setCompressionBlockSize(int compressionBlockSize) {
+		this.compressionBlockSize = compressionBlockSize;
+	}
+
+	/**
+	 * Gets the snapshot file of a delta export. If set, only rows that are new or have changed
+	 * since the export that wrote the snapshot are exported (as upserts), and the snapshot is replaced.
+	 * Rows that are no longer part of the subset are not deleted (see {@link net.sf.jailer.subsetting.DeltaFilter}).
+	 *
+	 * @return the snapshot file, or <code>null</code> if all rows are exported
+	 */
+	public String getDeltaFile() {
+		return deltaFile;
+	}
+
+	/**
+	 * Sets the snapshot file of a delta export. If set, only rows that are new or have changed
+	 * since the export that wrote the snapshot are exported, and the snapshot is replaced.
+	 *
+	 * @param deltaFile the snapshot file, or <code>null</code> if all rows are exported
+	 */
+	public void setDeltaFile(String deltaFile) {
+		this.deltaFile = deltaFile;
+	}
+
+	/**
+	 * Gets the name of the column (such as a row version or a last-modification timestamp) identifying changed rows in a delta export.
+	 *
+	 * @return the column name, or <code>null</code> if changed rows are identified by content
+	 */
+	public String getDeltaVersionColumn() {
+		return deltaVersionColumn;
+	}
+
+	/**
+	 * Sets the name of the column (such as a row version or a last-modification timestamp) identifying changed rows in a delta export.
+	 *
+	 * @param deltaVersionColumn the column name, or <code>null</code> if changed rows are identified by content
+	 */
+	public void setDeltaVersionColumn(String deltaVersionColumn) {
+		this.deltaVersionColumn = deltaVersionColumn;
+	}
+
+	/**
+	 * Gets the checkpoint file of a resumable export.
+	 *
+	 * @return the checkpoint file, or <code>null</code> if the export can't be resumed
+	 */
+	public String getCheckpointFile() {
+		return checkpointFile;
+	}
+
+	/**
+	 * Sets the checkpoint file of a resumable export. If set, the collected rows are kept in the
+	 * working tables and the progress of the export is written into the file.
+	 *
+	 * @param checkpointFile the checkpoint file, or <code>null</code> if the export can't be resumed
+	 */
+	public void setCheckpointFile(String checkpointFile) {
+		this.checkpointFile = checkpointFile;
+	}
+
+	/**
+	 * Gets whether an interrupted export is resumed from the checkpoint file.
+	 *
+	 * @return <code>true</code> if an interrupted export is resumed
+	 */
+	public boolean isResume() {
+		return resume;
+	}
+
+	/**
+	 * Sets whether an interrupted export is resumed from the checkpoint file.
+	 *
+	 * @param resume <code>true</code> if an interrupted export is resumed
+	 */
+	public void setResume(boolean resume) {
+		this.resume = resume;
+	}
+
+	/**
+	 * Gets whether the rows of each table are collected in an entity table of its own
+	 * that has exactly the primary key columns of the table.
+	 *
+	 * @return <code>true</code> if narrow entity tables are used instead of the universal one
+	 */
+	public boolean getNarrowWorkingTables() {
+		return narrowWorkingTables;
+	}
+
+	/**
+	 * Sets whether the rows of each table are collected in an entity table of its own
+	 * that has exactly the primary key columns of the table.
+	 *
+	 * @param narrowWorkingTables <code>true</code> if narrow entity tables are used instead of the universal one
+	 */
+	public void setNarrowWorkingTables(boolean narrowWorkingTables) {
+		this.narrowWorkingTables = narrowWorkingTables;
+	}
+
+	/**
+	 * Gets whether many exports run concurrently within one JVM. If so, the working tables
+	 * are partitioned by entity-graph where the DBMS supports it, and the working tables are checked only once
+	 * per database and data model. Re-creating them waits until the running exports are finished.
+	 *
+	 * @return <code>true</code> in multi-tenant mode
+	 */
+	public boolean getMultiTenant() {
+		return multiTenant;
+	}
+
+	/**
+	 * Sets whether many exports run concurrently within one JVM. If so, the working tables
+	 * are partitioned by entity-graph where the DBMS supports it, and the working tables are checked only once
+	 * per database and data model. Re-creating them waits until the running exports are finished.
+	 *
+	 * @param multiTenant <code>true</code> in multi-tenant mode
+	 */
+	public void setMultiTenant(boolean multiTenant) {
+		this.multiTenant = multiTenant;
+	}
+
+	/**
+	 * Gets whether the rows are deleted directly in the database in chunks instead of
+	 * writing the deletions into the delete-script.
+	 *
+	 * @return <code>true</code> if the rows are deleted directly
+	 */
+	public boolean isDirectDelete() {
+		return directDelete;
+	}
+
+	/**
+	 * Sets whether the rows are deleted directly in the database in chunks instead of
+	 * writing the deletions into the delete-script.
+	 *
+	 * @param directDelete <code>true</code> if the rows are deleted directly
+	 */
+	public void setDirectDelete(boolean directDelete) {
+		this.directDelete = directDelete;
+	}
+
+	/**
+	 * Gets the maximum number of rows deleted per transaction (see {@link #isDirectDelete()}).
+	 *
+	 * @return maximum number of rows deleted per transaction
+	 */
+	public int getDeleteCommitInterval() {
+		return deleteCommitInterval;
+	}
+
+	/**
+	 * Sets the maximum number of rows deleted per transaction (see {@link #isDirectDelete()}).
+	 *
+	 * @param deleteCommitInterval maximum number of rows deleted per transaction
+	 */
+	public void setDeleteCommitInterval(int deleteCommitInterval) {
+		this.deleteCommitInterval = deleteCommitInterval;
+	}
+
+	/**
+	 * Gets the maximum number of rows deleted per second (see {@link #isDirectDelete()}).
+	 *
+	 * @return maximum number of rows deleted per second, 0 for unlimited
+	 */
+	public int getDeleteRowsPerSecond() {
+		return deleteRowsPerSecond;
+	}
+
+	/**
+	 * Sets the maximum number of rows deleted per second (see {@link #isDirectDelete()}).
+	 *
+	 * @param deleteRowsPerSecond maximum number of rows deleted per second, 0 for unlimited
+	 */
+	public void setDeleteRowsPerSecond(int deleteRowsPerSecond) {
+		this.deleteRowsPerSecond = deleteRowsPerSecond;
+	}
+
+	/**
+	 * Gets the timeout of each check of the primary key validation.
+	 *
+	 * @return the timeout in sec, 0 for unlimited
+	 */
+	public int getPkCheckTimeout() {
+		return pkCheckTimeout;
+	}
+
+	/**
+	 * Sets the timeout of each check of the primary key validation.
+	 *
+	 * @param pkCheckTimeout the timeout in sec, 0 for unlimited
+	 */
+	public void setPkCheckTimeout(int pkCheckTimeout) {
+		this.pkCheckTimeout = pkCheckTimeout;
+	}
+
+	/**
+	 * Gets the number of rows per table checked by the primary key validation.
+	 *
+	 * @return number of rows per table, 0 for checking all rows
+	 */
+	public int getPkCheckSampleSize() {
+		return pkCheckSampleSize;
+	}
+
+	/**
+	 * Sets the number of rows per table checked by the primary key validation.
+	 *
+	 * @param pkCheckSampleSize number of rows per table, 0 for checking all rows
+	 */
+	public void setPkCheckSampleSize(int pkCheckSampleSize) {
+		this.pkCheckSampleSize = pkCheckSampleSize;
+	}
+
 	/**
 	 * Gets maximum number of entities per insert-statement (in export-file,
 	 * default is 10)
@@ -374,20 +748,130 @@ public class ExecutionContext {
 	}
 
 	/**
-	 * Gets scope of working tables, GLOBAL, SESSION_LOCAL or LOCAL_DATABASE
+	 * Gets the JDBC URL of the database into which the exported rows are inserted directly
+	 * (using batched prepared statements instead of script text).
+	 *
+	 * @return the URL or <code>null</code> if rows are written into the export-script
+	 */
+	public String getImportUrl() {
+		return importUrl;
+	}
+
+	/**
+	 * Sets the JDBC URL of the database into which the exported rows are inserted directly
+	 * (using batched prepared statements instead of script text).
+	 *
+	 * @param importUrl the URL or <code>null</code> if rows are written into the export-script
+	 */
+	public void setImportUrl(String importUrl) {
+		this.importUrl = importUrl;
+	}
+
+	/**
+	 * Gets the user of the database into which the exported rows are inserted.
 	 *
-	 * @return scope of working tables, GLOBAL, SESSION_LOCAL or LOCAL_DATABASE
+	 * @return the user
+	 */
+	public String getImportUser() {
+		return importUser;
+	}
+
+	/**
+	 * Sets the user of the database into which the exported rows are inserted.
+	 *
+	 * @param importUser the user
+	 */
+	public void setImportUser(String importUser) {
+		this.importUser = importUser;
+	}
+
+	/**
+	 * Gets the password of the database into which the exported rows are inserted.
+	 *
+	 * @return the password
+	 */
+	public String getImportPassword() {
+		return importPassword;
+	}
+
+	/**
+	 * Sets the password of the database into which the exported rows are inserted.
+	 *
+	 * @param importPassword the password
+	 */
+	public void setImportPassword(String importPassword) {
+		this.importPassword = importPassword;
+	}
+
+	/**
+	 * Gets the JDBC driver class of the database into which the exported rows are inserted.
+	 *
+	 * @return the driver class or <code>null</code> to use the driver of the source database
+	 */
+	public String getImportDriver() {
+		return importDriver;
+	}
+
+	/**
+	 * Sets the JDBC driver class of the database into which the exported rows are inserted.
+	 *
+	 * @param importDriver the driver class or <code>null</code> to use the driver of the source database
+	 */
+	public void setImportDriver(String importDriver) {
+		this.importDriver = importDriver;
+	}
+
+	/**
+	 * Gets the number of rows per JDBC batch (default is 1000).
+	 *
+	 * @return number of rows per JDBC batch
+	 */
+	public int getImportBatchSize() {
+		return importBatchSize;
+	}
+
+	/**
+	 * Sets the number of rows per JDBC batch (default is 1000).
+	 *
+	 * @param importBatchSize number of rows per JDBC batch
+	 */
+	public void setImportBatchSize(int importBatchSize) {
+		this.importBatchSize = importBatchSize;
+	}
+
+	/**
+	 * Gets the number of rows per transaction (default is 10000).
+	 *
+	 * @return number of rows per transaction
+	 */
+	public int getImportCommitInterval() {
+		return importCommitInterval;
+	}
+
+	/**
+	 * Sets the number of rows per transaction (default is 10000).
+	 *
+	 * @param importCommitInterval number of rows per transaction
+	 */
+	public void setImportCommitInterval(int importCommitInterval) {
+		this.importCommitInterval = importCommitInterval;
+	}
+
+	/**
+	 * Gets scope of working tables, GLOBAL, SESSION_LOCAL, LOCAL_DATABASE or MEMORY
+	 *
+	 * @return scope of working tables, GLOBAL, SESSION_LOCAL, LOCAL_DATABASE or MEMORY
 	 */
 	public WorkingTableScope getScope() {
 		return scope;
 	}
 
 	/**
-	 * Sets scope of working tables, GLOBAL, SESSION_LOCAL or LOCAL_DATABASE
+	 * Sets scope of working tables, GLOBAL, SESSION_LOCAL, LOCAL_DATABASE or MEMORY
 	 *
 	 * @param scope
-	 *            scope of working tables, GLOBAL, SESSION_LOCAL or
-	 *            LOCAL_DATABASE
+	 *            scope of working tables, GLOBAL, SESSION_LOCAL,
+	 *            LOCAL_DATABASE or MEMORY
 	 */
 	public void setScope(WorkingTableScope scope) {
 		this.scope = scope;
@@ -898,6 +1382,60 @@ public class ExecutionContext {
 	// number of threads (default is 1)
 	private int numberOfThreads = 1;
 
+	// resolve associations of a table as soon as its rows are final
+	private boolean pipelinedCollection = false;
+
+	// resolve the most expensive associations first, skip associations into empty tables
+	private boolean costBasedResolutionOrder = false;
+
+	// write the rows of each table into a segment of its own
+	private boolean segmentedOutput = false;
+
+	// number of threads compressing ".gz" and ".zip" files
+	private int compressionThreads = 0;
+
+	// size (in KB) of the blocks compressed in parallel
+	private int compressionBlockSize = ParallelDeflaterOutputStream.DEFAULT_BLOCK_SIZE / 1024;
+
+	// snapshot file of a delta export
+	private String deltaFile = null;
+
+	// column identifying changed rows in a delta export
+	private String deltaVersionColumn = null;
+
+	// checkpoint file of a resumable export
+	private String checkpointFile = null;
+
+	// resume an interrupted export
+	private boolean resume = false;
+
+	// collect the rows of each table in an entity table of its own
+	private boolean narrowWorkingTables = false;
+
+	// run many exports concurrently within one JVM
+	private boolean multiTenant = false;
+
+	// delete the rows directly in chunks instead of writing the delete-script
+	private boolean directDelete = false;
+
+	// maximum number of rows deleted per transaction
+	private int deleteCommitInterval = 10000;
+
+	// maximum number of rows deleted per second, 0 for unlimited
+	private int deleteRowsPerSecond = 0;
+
+	// timeout in sec of each check of the primary key validation, 0 for unlimited
+	private int pkCheckTimeout = 0;
+
+	// number of rows per table checked by the primary key validation, 0 for all rows
+	private int pkCheckSampleSize = 0;
+
+	// execute concurrent jobs on a work-stealing thread pool
+	private boolean workStealing = false;
+
+	// use bind variables in the inline-views of the local entity-graph
+	private boolean useBindVariables = false;
+
 	// maximum number of entities per insert-statement (in export-file, default
 	// is 10)
 	private int numberOfEntities = 10;
@@ -905,6 +1443,24 @@ public class ExecutionContext {
 	// generate 'upsert'-statements for all entities (in export-file)
 	private boolean upsertOnly = false;
 
+	// JDBC URL of the database into which the exported rows are inserted directly
+	private String importUrl = null;
+
+	// user of the database into which the exported rows are inserted
+	private String importUser = null;
+
+	// password of the database into which the exported rows are inserted
+	private String importPassword = null;
+
+	// JDBC driver class of the database into which the exported rows are inserted
+	private String importDriver = null;
+
+	// number of rows per JDBC batch
+	private int importBatchSize = 1000;
+
+	// number of rows per transaction
+	private int importCommitInterval = 10000;
+
 	// schema in which the working tables will be created
 	private String workingTableSchema = null;
 
@@ -1014,6 +1570,31 @@ public class ExecutionContext {
 	// raise an error if there are objects that are not aggregated into any other object in JSON/YAML/XML export file
 	private boolean disallowNonAggregated;
 
+	// read aggregated objects with a single query per aggregation path (JSON/YAML/XML export)
+	private boolean streamedHierarchy;
+
+	/**
+	 * If <code>true</code>, the objects aggregated in other objects are read with a single query per aggregation path,
+	 * ordered by the keys of the aggregating objects, and merged into the hierarchy while it is written out
+	 * (JSON/YAML/XML export).
+	 *
+	 * @return <code>true</code> if the hierarchy is streamed
+	 */
+	public boolean isStreamedHierarchy() {
+		return streamedHierarchy;
+	}
+
+	/**
+	 * If <code>true</code>, the objects aggregated in other objects are read with a single query per aggregation path,
+	 * ordered by the keys of the aggregating objects, and merged into the hierarchy while it is written out
+	 * (JSON/YAML/XML export).
+	 *
+	 * @param streamedHierarchy <code>true</code> if the hierarchy is streamed
+	 */
+	public void setStreamedHierarchy(boolean streamedHierarchy) {
+		this.streamedHierarchy = streamedHierarchy;
+	}
+
 	// the folder where the local database will be stored. Default temp folder is used if this is not specified.
 	private String localDatabaseStorage = null;
 
@@ -1132,6 +1713,7 @@ public class ExecutionContext {
 		includeNonAggregated = commandLine.includeNonAggregated;
 		ignoreNonAggregated = commandLine.ignoreNonAggregated;
 		disallowNonAggregated = commandLine.disallowNonAggregated;
+		streamedHierarchy = commandLine.streamedHierarchy;
 		
 		qualifyNames = commandLine.qualifyNames;
 		analyseAlias = commandLine.analyseAlias;
@@ -1142,8 +1724,32 @@ public class ExecutionContext {
 		rawdeletionschemamapping = commandLine.rawdeletionschemamapping;
 		rawparameters = commandLine.parameters;
 		numberOfThreads = commandLine.numberOfThreads;
+		pipelinedCollection = commandLine.pipelinedCollection;
+		costBasedResolutionOrder = commandLine.costBasedResolutionOrder;
+		segmentedOutput = commandLine.segmentedOutput;
+		compressionThreads = commandLine.compressionThreads;
+		compressionBlockSize = commandLine.compressionBlockSize;
+		deltaFile = commandLine.deltaFile;
+		deltaVersionColumn = commandLine.deltaVersionColumn;
+		checkpointFile = commandLine.checkpointFile;
+		resume = commandLine.resume;
+		narrowWorkingTables = commandLine.narrowWorkingTables;
+		multiTenant = commandLine.multiTenant;
+		directDelete = commandLine.directDelete;
+		deleteCommitInterval = commandLine.deleteCommitInterval;
+		deleteRowsPerSecond = commandLine.deleteRowsPerSecond;
+		pkCheckTimeout = commandLine.pkCheckTimeout;
+		pkCheckSampleSize = commandLine.pkCheckSampleSize;
+		workStealing = commandLine.workStealing;
+		useBindVariables = commandLine.useBindVariables;
 		numberOfEntities = commandLine.numberOfEntities;
 		upsertOnly = commandLine.upsertOnly;
+		importUrl = commandLine.importUrl;
+		importUser = commandLine.importUser;
+		importPassword = commandLine.importPassword;
+		importDriver = commandLine.importDriver;
+		importBatchSize = commandLine.importBatchSize;
+		importCommitInterval = commandLine.importCommitInterval;
 		if (commandLine.scope == null) {
 			scope = WorkingTableScope.GLOBAL;
 		} else {
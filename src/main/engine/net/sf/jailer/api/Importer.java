@@ -86,6 +86,10 @@ public class Importer {
 
 	/**
 	 * Sets number of threads. (default is 1)
+	 * <br>
+	 * With more than one thread, the sections of the script Jailer marked as independent are imported in parallel,
+	 * each section as soon as the sections containing the rows it depends on are imported.
+	 * Consecutive statements into the same table are executed as JDBC batches.
 	 *
 	 * @param numberOfThreads
 	 *            number of threads (default is 1)
@@ -592,21 +592,21 @@ public class Subsetter {
 	}
 
 	/**
-	 * Gets scope of working tables, GLOBAL, SESSION_LOCAL or LOCAL_DATABASE <br>
+	 * Gets scope of working tables, GLOBAL, SESSION_LOCAL, LOCAL_DATABASE or MEMORY <br>
 	 * Default is GLOBAL.
 	 *
-	 * @return scope of working tables, GLOBAL, SESSION_LOCAL or LOCAL_DATABASE
+	 * @return scope of working tables, GLOBAL, SESSION_LOCAL, LOCAL_DATABASE or MEMORY
 	 */
 	public WorkingTableScope getScope() {
 		return executionContext.getScope();
 	}
 
 	/**
-	 * Sets scope of working tables, GLOBAL, SESSION_LOCAL or LOCAL_DATABASE
+	 * Sets scope of working tables, GLOBAL, SESSION_LOCAL, LOCAL_DATABASE or MEMORY
 	 *
 	 * @param scope
-	 *            scope of working tables, GLOBAL, SESSION_LOCAL or
-	 *            LOCAL_DATABASE
+	 *            scope of working tables, GLOBAL, SESSION_LOCAL,
+	 *            LOCAL_DATABASE or MEMORY
 	 */
 	public void setScope(WorkingTableScope scope) {
 		executionContext.setScope(scope);
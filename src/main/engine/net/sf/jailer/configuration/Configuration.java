@@ -45,6 +45,8 @@ import net.sf.jailer.render.HtmlDataModelRenderer;
 	"additionalSQLKeywords",
 	"urlRewriteRule",
 	"databaseConnectionInteractiveTimeout",
+	"maxDatabaseConnections",
+	"databaseConnectionMaxLifetime",
 	"generateUpsertStatementsWithoutNulls"
 })
 @JsonIgnoreProperties({
@@ -53,6 +55,8 @@ import net.sf.jailer.render.HtmlDataModelRenderer;
 	"commentRenderer",
 	"commentAdditionalSQLKeywords",
 	"commentDatabaseConnectionInteractiveTimeout",
+	"commentMaxDatabaseConnections",
+	"commentDatabaseConnectionMaxLifetime",
 	"commentColumnsPerIFMTable"
 })
 public class Configuration {
@@ -172,6 +176,16 @@ public class Configuration {
 	 */
 	private int databaseConnectionInteractiveTimeout = 240;
 
+	/**
+	 * Maximum number of database connections per session, <code>0</code> for no limit.
+	 */
+	private int maxDatabaseConnections = 0;
+
+	/**
+	 * Maximum lifetime in seconds of a database connection, <code>0</code> for no limit.
+	 */
+	private int databaseConnectionMaxLifetime = 0;
+
 	private String additionalSQLKeywords;
 
 	public String getAdditionalSQLKeywords() {
@@ -212,6 +226,34 @@ public class Configuration {
 		this.databaseConnectionInteractiveTimeout = databaseConnectionInteractiveTimeout;
 	}
 
+	/**
+	 * Gets maximum number of database connections per session, <code>0</code> for no limit.
+	 */
+	public int getMaxDatabaseConnections() {
+		return maxDatabaseConnections;
+	}
+
+	/**
+	 * Sets maximum number of database connections per session, <code>0</code> for no limit.
+	 */
+	public void setMaxDatabaseConnections(int maxDatabaseConnections) {
+		this.maxDatabaseConnections = maxDatabaseConnections;
+	}
+
+	/**
+	 * Gets maximum lifetime in seconds of a database connection, <code>0</code> for no limit.
+	 */
+	public int getDatabaseConnectionMaxLifetime() {
+		return databaseConnectionMaxLifetime;
+	}
+
+	/**
+	 * Sets maximum lifetime in seconds of a database connection, <code>0</code> for no limit.
+	 */
+	public void setDatabaseConnectionMaxLifetime(int databaseConnectionMaxLifetime) {
+		this.databaseConnectionMaxLifetime = databaseConnectionMaxLifetime;
+	}
+
 	/**
 	 * The configuration.
 	 */
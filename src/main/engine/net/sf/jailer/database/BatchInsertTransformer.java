@@ -0,0 +1,684 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.ExecutionContext;
+import net.sf.jailer.database.Session.AbstractResultSetReader;
+import net.sf.jailer.database.Session.ResultSetReader;
+import net.sf.jailer.datamodel.Column;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.Filter;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.subsetting.TransformerFactory;
+import net.sf.jailer.util.CellContentConverter;
+import net.sf.jailer.util.CellContentConverter.PObjectWrapper;
+import net.sf.jailer.util.Quoting;
+import net.sf.jailer.util.SqlScriptExecutor;
+import net.sf.jailer.util.SqlUtil;
+
+/**
+ * A {@link ResultSetReader} that inserts the read rows directly into a target database
+ * using batched prepared statements (instead of writing DML-statements into the export-script).
+ * <br>
+ * Upserts are executed as batched "MERGE" statements if the target DBMS supports it
+ * (see {@link UPSERT_MODE#MERGE}), otherwise as batched updates followed by
+ * batched inserts of the rows that have not been updated.
+ *
+ * @author Ralf Wisser
+ */
+public class BatchInsertTransformer extends AbstractResultSetReader {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(BatchInsertTransformer.class);
+
+	/**
+	 * The table to read from.
+	 */
+	private final Table table;
+
+	/**
+	 * The factory.
+	 */
+	private final Factory factory;
+
+	/**
+	 * Connection to the target database.
+	 */
+	private Connection connection;
+
+	/**
+	 * Number of columns.
+	 */
+	private int columnCount;
+
+	/**
+	 * Labels of columns.
+	 */
+	private String[] columnLabel = null;
+
+	/**
+	 * SQL types of columns.
+	 */
+	private int[] columnType;
+
+	/**
+	 * Whether a column is part of the primary key.
+	 */
+	private boolean[] isPrimaryKey;
+
+	/**
+	 * Whether a primary key column is nullable.
+	 */
+	private boolean[] isNullable;
+
+	/**
+	 * Whether to create upserts or inserts.
+	 */
+	private final boolean upsert;
+
+	/**
+	 * If table has identity column (MSSQL/Sybase/Postgres)
+	 */
+	private final boolean tableHasIdentityColumn;
+
+	/**
+	 * Whether identity-inserts are enabled for the table.
+	 */
+	private boolean identityInsertEnabled = false;
+
+	/**
+	 * Statements, per SQL.
+	 */
+	private final Map<String, PreparedStatement> statements = new HashMap<String, PreparedStatement>();
+
+	/**
+	 * Rows not yet sent to the target database.
+	 */
+	private final List<Object[]> pendingRows = new ArrayList<Object[]>();
+
+	/**
+	 * Number of rows sent since last commit.
+	 */
+	private long uncommittedRows = 0;
+
+	/**
+	 * Factory.
+	 */
+	public static class Factory implements TransformerFactory {
+
+		private final Session session;
+		private final Session targetSession;
+		private final Quoting targetQuoting;
+		private final DMLTransformer.Factory scriptTransformerFactory;
+		private final boolean upsertOnly;
+		private final int batchSize;
+		private final int commitInterval;
+		private boolean withImportFilter = false;
+
+		/**
+		 * Idle connections to the target database.
+		 */
+		private final List<Connection> idleConnections = new LinkedList<Connection>();
+
+		/**
+		 * All connections to the target database.
+		 */
+		private final List<Connection> connections = new ArrayList<Connection>();
+
+		/**
+		 * The execution context.
+		 */
+		private final ExecutionContext executionContext;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param session the session (source)
+		 * @param targetSession session of the database into which the rows are inserted
+		 * @param scriptTransformerFactory writes rows that can't be inserted directly into the export-script
+		 * @param executionContext the execution context
+		 */
+		public Factory(Session session, Session targetSession, DMLTransformer.Factory scriptTransformerFactory, ExecutionContext executionContext) throws SQLException {
+			this.session = session;
+			this.targetSession = targetSession;
+			this.scriptTransformerFactory = scriptTransformerFactory;
+			this.executionContext = executionContext;
+			this.upsertOnly = scriptTransformerFactory.isUpsertOnly();
+			this.batchSize = Math.max(1, executionContext.getImportBatchSize());
+			this.commitInterval = Math.max(1, executionContext.getImportCommitInterval());
+			this.targetQuoting = Quoting.getQuoting(targetSession);
+		}
+
+		/**
+		 * Creates transformer (as {@link ResultSetReader} which
+		 * inserts rows of a given table into the target database.
+		 *
+		 * @param table the table
+		 * @return a transformer
+		 */
+		@Override
+		public ResultSetReader create(Table table) throws SQLException {
+			if (!isInsertable(table)) {
+				_log.info("writing rows of table " + table.getName() + " into export-script");
+				return scriptTransformerFactory.create(table);
+			}
+			return new BatchInsertTransformer(table, this);
+		}
+
+		/**
+		 * Sets the {@link ImportFilterTransformer}.
+		 */
+		public void setImportFilterTransformer(ImportFilterTransformer importFilterManager) {
+			scriptTransformerFactory.setImportFilterTransformer(importFilterManager);
+			withImportFilter = importFilterManager != null;
+		}
+
+		/**
+		 * Executes a script on the target database.
+		 *
+		 * @param file the script file
+		 */
+		public void executeScript(File file) throws SQLException {
+			try {
+				new SqlScriptExecutor(targetSession, 1, false).executeScript(file.getPath());
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		/**
+		 * Closes all connections to the target database.
+		 */
+		public synchronized void shutDown() {
+			for (Connection connection: connections) {
+				try {
+					connection.close();
+				} catch (SQLException e) {
+					_log.warn(e.getMessage());
+				}
+			}
+			connections.clear();
+			idleConnections.clear();
+		}
+
+		/**
+		 * Checks whether the rows of a table can be inserted directly.
+		 * Rows whose values are transformed into SQL expressions by filters
+		 * (import filters or literals) are written into the export-script.
+		 */
+		private boolean isInsertable(Table table) {
+			for (Column column: table.getSelectionClause()) {
+				Filter filter = column.getFilter();
+				if (filter != null) {
+					if (withImportFilter && !filter.isApplyAtExport()) {
+						return false;
+					}
+					if (filter.getExpression().trim().startsWith(Filter.LITERAL_PREFIX)) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		private synchronized Connection acquireConnection() throws SQLException {
+			if (!idleConnections.isEmpty()) {
+				return idleConnections.remove(0);
+			}
+			Connection connection = targetSession.createNewConnection();
+			connection.setAutoCommit(false);
+			connections.add(connection);
+			return connection;
+		}
+
+		private synchronized void releaseConnection(Connection connection) {
+			idleConnections.add(connection);
+		}
+
+		private synchronized void discardConnection(Connection connection) {
+			try {
+				connection.rollback();
+			} catch (SQLException e) {
+				// ignore
+			}
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				// ignore
+			}
+			connections.remove(connection);
+		}
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param table the table to read from
+	 * @param factory the factory
+	 */
+	private BatchInsertTransformer(Table table, Factory factory) {
+		this.table = table;
+		this.factory = factory;
+		this.upsert = table.getUpsert() || factory.upsertOnly;
+		boolean hasIdentityColumn = false;
+		for (Column c: table.getColumns()) {
+			if (c.isIdentityColumn) {
+				hasIdentityColumn = true;
+				break;
+			}
+		}
+		this.tableHasIdentityColumn = hasIdentityColumn;
+	}
+
+	/**
+	 * Reads result-set and inserts the row into the target database.
+	 */
+	@Override
+	public void readCurrentRow(ResultSet resultSet) throws SQLException {
+		if (columnLabel == null) {
+			initColumns(resultSet);
+		}
+		CellContentConverter cellContentConverter = getCellContentConverter(resultSet, factory.session, factory.targetSession.dbms);
+		Object[] row = new Object[columnCount + 1];
+		for (int i = 1; i <= columnCount; ++i) {
+			Object content = cellContentConverter.getObject(resultSet, i);
+			if (resultSet.wasNull()) {
+				content = null;
+			}
+			row[i] = toParameter(content);
+		}
+		pendingRows.add(row);
+		if (pendingRows.size() >= factory.batchSize) {
+			flush();
+		}
+	}
+
+	private void initColumns(ResultSet resultSet) throws SQLException {
+		columnCount = getMetaData(resultSet).getColumnCount();
+		columnLabel = new String[columnCount + 1];
+		columnType = new int[columnCount + 1];
+		isPrimaryKey = new boolean[columnCount + 1];
+		isNullable = new boolean[columnCount + 1];
+		List<Column> pk = table.getNonVirtualPKColumns(factory.session);
+		for (int i = 1; i <= columnCount; ++i) {
+			columnLabel[i] = SqlUtil.columnLabel(factory.targetQuoting, factory.session, factory.targetSession.dbms, table, getMetaData(resultSet).getColumnLabel(i));
+			columnType[i] = getMetaData(resultSet).getColumnType(i);
+			for (Column c: pk) {
+				if (Quoting.equalsIgnoreQuotingAndCase(c.name, getMetaData(resultSet).getColumnLabel(i))) {
+					isPrimaryKey[i] = true;
+					isNullable[i] = c.isNullable;
+				}
+			}
+		}
+		if (upsert && pk.isEmpty()) {
+			throw new DataModel.NoPrimaryKeyException(table, "has no " +
+					(table.primaryKey != null && table.primaryKey.getColumns() != null && !table.primaryKey.getColumns().isEmpty()? "non-virtual " : "") +
+					"primary key. Upsert statement can not be generated.");
+		}
+		connection = factory.acquireConnection();
+		if (tableHasIdentityColumn && factory.targetSession.dbms.isIdentityInserts()) {
+			execute("SET IDENTITY_INSERT " + qualifiedTableName(table) + " ON");
+			identityInsertEnabled = true;
+		}
+	}
+
+	/**
+	 * Converts cell content into a parameter value.
+	 */
+	private Object toParameter(Object content) throws SQLException {
+		if (content instanceof Blob) {
+			Blob blob = (Blob) content;
+			return blob.getBytes(1, (int) blob.length());
+		}
+		if (content instanceof Clob) {
+			Clob clob = (Clob) content;
+			return clob.getSubString(1, (int) clob.length());
+		}
+		if (content instanceof SQLXML) {
+			return ((SQLXML) content).getString();
+		}
+		if (content instanceof PObjectWrapper) {
+			return content;
+		}
+		if (content instanceof CellContentConverter.NCharWrapper || content instanceof CellContentConverter.SQLExpressionWrapper) {
+			return content.toString();
+		}
+		return content;
+	}
+
+	/**
+	 * Sends the pending rows to the target database.
+	 */
+	private void flush() throws SQLException {
+		if (pendingRows.isEmpty()) {
+			return;
+		}
+		try {
+			if (!upsert) {
+				executeBatch(insertStatement(), pendingRows, allColumns());
+			} else if (factory.targetSession.dbms.getSqlDialect().getUpsertMode() == UPSERT_MODE.MERGE) {
+				executeBatch(mergeStatement(), pendingRows, allColumns());
+			} else {
+				upsert(pendingRows);
+			}
+			uncommittedRows += pendingRows.size();
+			pendingRows.clear();
+			if (uncommittedRows >= factory.commitInterval) {
+				connection.commit();
+				uncommittedRows = 0;
+			}
+		} catch (SQLException e) {
+			factory.discardConnection(connection);
+			connection = null;
+			statements.clear();
+			throw e;
+		}
+	}
+
+	/**
+	 * Updates existing rows and inserts the other ones.
+	 */
+	private void upsert(List<Object[]> rows) throws SQLException {
+		List<Integer> nonPKColumns = new ArrayList<Integer>();
+		List<Integer> pkColumns = new ArrayList<Integer>();
+		for (int i = 1; i <= columnCount; ++i) {
+			(isPrimaryKey[i]? pkColumns : nonPKColumns).add(i);
+		}
+		List<Object[]> newRows = new ArrayList<Object[]>();
+		List<Object[]> batch = new ArrayList<Object[]>();
+		for (Object[] row: rows) {
+			if (hasNullPK(row) || nonPKColumns.isEmpty()) {
+				// "is null" can't be bound, check one by one
+				if (nonPKColumns.isEmpty()? !exists(row) : update(row, nonPKColumns) == 0) {
+					newRows.add(row);
+				}
+			} else {
+				batch.add(row);
+			}
+		}
+		if (!batch.isEmpty()) {
+			List<Integer> parameterColumns = new ArrayList<Integer>(nonPKColumns);
+			parameterColumns.addAll(pkColumns);
+			int[] counts = executeBatch(updateStatement(null, nonPKColumns), batch, parameterColumns);
+			for (int i = 0; i < batch.size(); ++i) {
+				int count = i < counts.length? counts[i] : Statement.SUCCESS_NO_INFO;
+				if (count == 0 || (count == Statement.SUCCESS_NO_INFO && !exists(batch.get(i)))) {
+					newRows.add(batch.get(i));
+				}
+			}
+		}
+		if (!newRows.isEmpty()) {
+			executeBatch(insertStatement(), newRows, allColumns());
+		}
+	}
+
+	/**
+	 * Updates a single row.
+	 *
+	 * @return update count
+	 */
+	private int update(Object[] row, List<Integer> nonPKColumns) throws SQLException {
+		PreparedStatement statement = updateStatement(row, nonPKColumns);
+		int p = 1;
+		for (int i: nonPKColumns) {
+			setParameter(statement, p++, row, i);
+		}
+		for (int i = 1; i <= columnCount; ++i) {
+			if (isPrimaryKey[i] && row[i] != null) {
+				setParameter(statement, p++, row, i);
+			}
+		}
+		return statement.executeUpdate();
+	}
+
+	/**
+	 * Checks whether a row exists in the target database.
+	 */
+	private boolean exists(Object[] row) throws SQLException {
+		PreparedStatement statement = statement("Select count(*) from " + qualifiedTableName(table) + " Where " + pkCondition(row));
+		int p = 1;
+		for (int i = 1; i <= columnCount; ++i) {
+			if (isPrimaryKey[i] && row[i] != null) {
+				setParameter(statement, p++, row, i);
+			}
+		}
+		ResultSet resultSet = statement.executeQuery();
+		try {
+			return resultSet.next() && resultSet.getLong(1) > 0;
+		} finally {
+			resultSet.close();
+		}
+	}
+
+	private boolean hasNullPK(Object[] row) {
+		for (int i = 1; i <= columnCount; ++i) {
+			if (isPrimaryKey[i] && row[i] == null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Binds rows to a statement and executes it as a batch.
+	 *
+	 * @return update counts
+	 */
+	private int[] executeBatch(PreparedStatement statement, List<Object[]> rows, List<Integer> parameterColumns) throws SQLException {
+		for (Object[] row: rows) {
+			int p = 1;
+			for (int i: parameterColumns) {
+				setParameter(statement, p++, row, i);
+			}
+			statement.addBatch();
+		}
+		return statement.executeBatch();
+	}
+
+	private void setParameter(PreparedStatement statement, int index, Object[] row, int column) throws SQLException {
+		Object value = row[column];
+		if (value == null) {
+			statement.setNull(index, columnType[column]);
+		} else if (value instanceof PObjectWrapper) {
+			statement.setObject(index, ((PObjectWrapper) value).getValue(), Types.OTHER);
+		} else {
+			statement.setObject(index, value);
+		}
+	}
+
+	private List<Integer> allColumns() {
+		List<Integer> columns = new ArrayList<Integer>();
+		for (int i = 1; i <= columnCount; ++i) {
+			columns.add(i);
+		}
+		return columns;
+	}
+
+	private PreparedStatement insertStatement() throws SQLException {
+		StringBuilder columns = new StringBuilder();
+		StringBuilder values = new StringBuilder();
+		for (int i = 1; i <= columnCount; ++i) {
+			if (i > 1) {
+				columns.append(", ");
+				values.append(", ");
+			}
+			columns.append(columnLabel[i]);
+			values.append("?");
+		}
+		String identityColumnInsertClause = tableHasIdentityColumn && factory.targetSession.dbms.getIdentityColumnInsertClause() != null? factory.targetSession.dbms.getIdentityColumnInsertClause() + " ": "";
+		return statement("Insert into " + qualifiedTableName(table) + "(" + columns + ") " + identityColumnInsertClause + "values (" + values + ")");
+	}
+
+	private PreparedStatement mergeStatement() throws SQLException {
+		StringBuilder select = new StringBuilder();
+		StringBuilder on = new StringBuilder();
+		StringBuilder sets = new StringBuilder();
+		StringBuilder tSchema = new StringBuilder();
+		StringBuilder iSchema = new StringBuilder();
+		for (int i = 1; i <= columnCount; ++i) {
+			if (i > 1) {
+				select.append(", ");
+				tSchema.append(", ");
+				iSchema.append(", ");
+			}
+			select.append("? " + columnLabel[i]);
+			tSchema.append("T." + columnLabel[i]);
+			iSchema.append("Q." + columnLabel[i]);
+			if (isPrimaryKey[i]) {
+				if (on.length() > 0) {
+					on.append(" and ");
+				}
+				if (isNullable[i]) {
+					on.append("(T." + columnLabel[i] + "=Q." + columnLabel[i]);
+					on.append(" or (T." + columnLabel[i] + " is null and Q." + columnLabel[i] + " is null))");
+				} else {
+					on.append("T." + columnLabel[i] + "=Q." + columnLabel[i]);
+				}
+			} else {
+				if (sets.length() > 0) {
+					sets.append(", ");
+				}
+				sets.append("T." + columnLabel[i] + "=Q." + columnLabel[i]);
+			}
+		}
+		return statement("MERGE INTO " + qualifiedTableName(table) + " T USING(Select " + select + " from dual) Q ON(" + on + ") "
+				+ (sets.length() > 0? "WHEN MATCHED THEN UPDATE SET " + sets + " " : "")
+				+ "WHEN NOT MATCHED THEN INSERT (" + tSchema + ") VALUES(" + iSchema + ")");
+	}
+
+	/**
+	 * Gets update statement.
+	 *
+	 * @param row the row (for null-PK checks) or <code>null</code> if no PK value is null
+	 */
+	private PreparedStatement updateStatement(Object[] row, List<Integer> nonPKColumns) throws SQLException {
+		StringBuilder sets = new StringBuilder();
+		for (int i: nonPKColumns) {
+			if (sets.length() > 0) {
+				sets.append(", ");
+			}
+			sets.append(columnLabel[i] + "=?");
+		}
+		return statement("Update " + qualifiedTableName(table) + " set " + sets + " Where " + pkCondition(row));
+	}
+
+	/**
+	 * Gets primary key condition.
+	 *
+	 * @param row the row (for null-PK checks) or <code>null</code> if no PK value is null
+	 */
+	private String pkCondition(Object[] row) {
+		StringBuilder where = new StringBuilder();
+		for (int i = 1; i <= columnCount; ++i) {
+			if (isPrimaryKey[i]) {
+				if (where.length() > 0) {
+					where.append(" and ");
+				}
+				where.append(columnLabel[i] + (row != null && row[i] == null? " is null" : "=?"));
+			}
+		}
+		return where.toString();
+	}
+
+	private PreparedStatement statement(String sql) throws SQLException {
+		PreparedStatement statement = statements.get(sql);
+		if (statement == null) {
+			Session._log.debug(sql);
+			statement = connection.prepareStatement(sql);
+			statements.put(sql, statement);
+		}
+		return statement;
+	}
+
+	private void execute(String sql) throws SQLException {
+		Session._log.debug(sql);
+		Statement statement = connection.createStatement();
+		try {
+			statement.execute(sql);
+		} finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Gets qualified table name.
+	 *
+	 * @param t the table
+	 * @return qualified name of t
+	 */
+	private String qualifiedTableName(Table t) {
+		String schema = t.getOriginalSchema("");
+		String mappedSchema = factory.executionContext.getSchemaMapping().get(schema);
+		if (mappedSchema != null) {
+			schema = mappedSchema;
+		}
+		if (schema.length() == 0) {
+			return factory.targetQuoting.requote(t.getUnqualifiedName());
+		}
+		return factory.targetQuoting.requote(schema) + "." + factory.targetQuoting.requote(t.getUnqualifiedName());
+	}
+
+	/**
+	 * Sends the pending rows and commits.
+	 */
+	@Override
+	public void close() throws SQLException {
+		if (connection == null) {
+			return;
+		}
+		flush();
+		try {
+			if (identityInsertEnabled) {
+				execute("SET IDENTITY_INSERT " + qualifiedTableName(table) + " OFF");
+				identityInsertEnabled = false;
+			}
+			for (PreparedStatement statement: statements.values()) {
+				statement.close();
+			}
+			statements.clear();
+			connection.commit();
+		} catch (SQLException e) {
+			factory.discardConnection(connection);
+			connection = null;
+			throw e;
+		}
+		factory.releaseConnection(connection);
+		connection = null;
+	}
+
+}
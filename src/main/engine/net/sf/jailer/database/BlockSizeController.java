@@ -0,0 +1,257 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.database;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adapts the number of rows per statement (the block size) of statements
+ * that contain blocks of rows, such as inline-views, to the measured latency.
+ * <br>
+ * The block size is doubled as long as the time per row decreases significantly,
+ * the maximum block size is not exceeded and the statements don't get longer than {@link #MAX_STATEMENT_LENGTH}.
+ * If a statement fails, the block size is halved and never increased again.
+ * <br>
+ * The learned block sizes are shared by all sessions of a database (identified by the connection alias
+ * (see {@link #setConnectionAlias(Session, String)}), if known, or else by the URL) until the VM terminates.
+ *
+ * @author Ralf Wisser
+ */
+public class BlockSizeController {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(BlockSizeController.class);
+
+	/**
+	 * Maximum length of a statement.
+	 */
+	public static final int MAX_STATEMENT_LENGTH = 256 * 1024;
+
+	/**
+	 * Number of measurements per block size.
+	 */
+	private static final int SAMPLES = 3;
+
+	/**
+	 * Minimum relative decrease of the time per row for which the block size is increased further.
+	 */
+	private static final double MIN_IMPROVEMENT = 0.1;
+
+	/**
+	 * Describes the controlled statements and the database.
+	 */
+	private final String description;
+
+	/**
+	 * Maximum block size.
+	 */
+	private int maxBlockSize;
+
+	/**
+	 * Current block size.
+	 */
+	private int blockSize;
+
+	/**
+	 * Block size before the last increase, 0 if there is none.
+	 */
+	private int previousBlockSize = 0;
+
+	/**
+	 * Time per row (in ns) with the previous block size.
+	 */
+	private double previousTimePerRow;
+
+	/**
+	 * Whether the block size is final.
+	 */
+	private boolean converged = false;
+
+	private int numSamples = 0;
+	private long sumNanos = 0;
+	private long sumRows = 0;
+	private long sumLength = 0;
+
+	/**
+	 * Controllers per statement kind and database.
+	 */
+	private static final Map<String, BlockSizeController> controllers = new ConcurrentHashMap<String, BlockSizeController>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param description describes the controlled statements and the database
+	 * @param initialBlockSize the initial block size
+	 * @param maxBlockSize the maximum block size
+	 */
+	private BlockSizeController(String description, int initialBlockSize, int maxBlockSize) {
+		this.description = description;
+		this.maxBlockSize = Math.max(1, maxBlockSize);
+		this.blockSize = Math.max(1, Math.min(initialBlockSize, this.maxBlockSize));
+	}
+
+	/**
+	 * Gets the controller of a kind of statements for the database of a session.
+	 *
+	 * @param session the session
+	 * @param kind the kind of the controlled statements
+	 * @param initialBlockSize the initial block size
+	 * @param maxBlockSize the maximum block size
+	 * @return the controller
+	 */
+	public static BlockSizeController forSession(Session session, String kind, int initialBlockSize, int maxBlockSize) {
+		Object alias = session.getSessionProperty(BlockSizeController.class, "connectionAlias");
+		String database;
+		if (alias != null) {
+			database = "alias " + alias;
+		} else if (session.dbUrl != null) {
+			database = session.dbUrl + " (" + session.getSchema() + ")";
+		} else {
+			BlockSizeController controller = (BlockSizeController) session.getSessionProperty(BlockSizeController.class, kind);
+			if (controller == null) {
+				controller = new BlockSizeController(kind, initialBlockSize, maxBlockSize);
+				session.setSessionProperty(BlockSizeController.class, kind, controller);
+			}
+			return controller;
+		}
+		final String description = kind + " at " + database;
+		return controllers.computeIfAbsent(description, d -> new BlockSizeController(description, initialBlockSize, maxBlockSize));
+	}
+
+	/**
+	 * Sets the alias of the connection of a session. The learned block sizes are remembered per alias.
+	 *
+	 * @param session the session
+	 * @param connectionAlias the alias
+	 */
+	public static void setConnectionAlias(Session session, String connectionAlias) {
+		session.setSessionProperty(BlockSizeController.class, "connectionAlias", connectionAlias);
+	}
+
+	/**
+	 * Gets the current block size.
+	 */
+	public synchronized int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Takes a measurement into account.
+	 *
+	 * @param usedBlockSize the block size used for the statement
+	 * @param rows number of rows in the statement
+	 * @param statementLength length of the statement
+	 * @param elapsedNanos time needed for executing the statement in ns
+	 */
+	public synchronized void measured(int usedBlockSize, int rows, long statementLength, long elapsedNanos) {
+		if (converged || usedBlockSize != blockSize || rows < blockSize) {
+			return;
+		}
+		++numSamples;
+		sumNanos += elapsedNanos;
+		sumRows += rows;
+		sumLength += statementLength;
+		if (numSamples < SAMPLES) {
+			return;
+		}
+		double timePerRow = sumNanos / (double) sumRows;
+		double lengthPerRow = sumLength / (double) sumRows;
+		numSamples = 0;
+		sumNanos = 0;
+		sumRows = 0;
+		sumLength = 0;
+
+		if (previousBlockSize > 0 && timePerRow > previousTimePerRow * (1 - MIN_IMPROVEMENT)) {
+			if (timePerRow > previousTimePerRow) {
+				blockSize = previousBlockSize;
+			}
+			converged = true;
+			_log.info("block size of " + description + ": " + blockSize);
+			return;
+		}
+		int nextBlockSize = Math.min(maxBlockSize, blockSize * 2);
+		if (lengthPerRow > 0) {
+			nextBlockSize = (int) Math.min(nextBlockSize, MAX_STATEMENT_LENGTH / lengthPerRow);
+		}
+		if (nextBlockSize <= blockSize) {
+			converged = true;
+			_log.info("block size of " + description + ": " + blockSize + " (limit reached)");
+			return;
+		}
+		previousBlockSize = blockSize;
+		previousTimePerRow = timePerRow;
+		blockSize = nextBlockSize;
+	}
+
+	/**
+	 * Checks whether a statement has been rejected for being too long or too complex.
+	 * These are the errors of SQL-state class "54" (program limit exceeded, PostgreSQL, DB2, H2),
+	 * SQL Server's errors 191, 8623 and 8632 and MySQL's error 1436 (thread stack overrun).
+	 *
+	 * @param e the error
+	 * @return <code>true</code> if the statement might succeed with a smaller block size
+	 */
+	public static boolean isSizeRelated(SQLException e) {
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof SQLException) {
+				SQLException sqlException = (SQLException) t;
+				String sqlState = sqlException.getSQLState();
+				if (sqlState != null && sqlState.startsWith("54")) {
+					return true;
+				}
+				switch (sqlException.getErrorCode()) {
+				case 191:
+				case 8623:
+				case 8632:
+				case 1436:
+					return true;
+				}
+			}
+			if (t.getCause() == t) {
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Notification that a statement has failed. Decreases the block size.
+	 *
+	 * @param usedBlockSize the block size used for the statement
+	 */
+	public synchronized void failed(int usedBlockSize) {
+		if (usedBlockSize <= 1) {
+			return;
+		}
+		maxBlockSize = Math.min(maxBlockSize, usedBlockSize - 1);
+		blockSize = Math.max(1, Math.min(blockSize, usedBlockSize / 2));
+		previousBlockSize = 0;
+		converged = true;
+		numSamples = 0;
+		sumNanos = 0;
+		sumRows = 0;
+		sumLength = 0;
+		_log.info("block size of " + description + " decreased to " + blockSize);
+	}
+
+}
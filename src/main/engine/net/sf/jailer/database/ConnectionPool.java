@@ -0,0 +1,561 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.database;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded, fair pool of the connections a {@link Session} binds to its threads.
+ * <br>
+ * A connection is leased by a thread and stays bound to it. Connections of terminated threads
+ * are reclaimed and leased again, so that short-lived threads don't open more and more connections.
+ * Idle connections are validated in the background and closed when they exceed their maximum lifetime.
+ *
+ * @author Ralf Wisser
+ */
+public class ConnectionPool {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(ConnectionPool.class);
+
+	/**
+	 * The lessee of the connections.
+	 */
+	public interface Lessee {
+
+		/**
+		 * Decides whether a connection is in use even though the thread that leased it is terminated.
+		 */
+		boolean isInUse(Connection connection);
+
+		/**
+		 * Called after the pool has closed an idle connection.
+		 */
+		void closed(Connection connection);
+	}
+
+	/**
+	 * Connection pool statistics.
+	 */
+	public static class Statistics {
+		/**
+		 * Number of leased connections.
+		 */
+		public final int active;
+
+		/**
+		 * Number of idle connections.
+		 */
+		public final int idle;
+
+		/**
+		 * Number of leases.
+		 */
+		public final long leases;
+
+		/**
+		 * Number of leases that had to wait for a connection.
+		 */
+		public final long waits;
+
+		/**
+		 * Total time in ms waited for connections.
+		 */
+		public final long totalWaitTime;
+
+		/**
+		 * Maximum time in ms waited for a connection.
+		 */
+		public final long maxWaitTime;
+
+		/**
+		 * Number of created connections.
+		 */
+		public final long created;
+
+		/**
+		 * Number of connections reclaimed from terminated threads.
+		 */
+		public final long reclaimed;
+
+		/**
+		 * Number of failed validations.
+		 */
+		public final long validationFailures;
+
+		private Statistics(int active, int idle, long leases, long waits, long totalWaitTime, long maxWaitTime, long created, long reclaimed, long validationFailures) {
+			this.active = active;
+			this.idle = idle;
+			this.leases = leases;
+			this.waits = waits;
+			this.totalWaitTime = totalWaitTime;
+			this.maxWaitTime = maxWaitTime;
+			this.created = created;
+			this.reclaimed = reclaimed;
+			this.validationFailures = validationFailures;
+		}
+
+		@Override
+		public String toString() {
+			return "active=" + active + ", idle=" + idle + ", leases=" + leases + ", waits=" + waits + ", waitTime=" + totalWaitTime + "ms, maxWaitTime=" + maxWaitTime
+					+ "ms, created=" + created + ", reclaimed=" + reclaimed + ", validationFailures=" + validationFailures;
+		}
+	}
+
+	/**
+	 * A pooled connection.
+	 */
+	private static class PooledConnection {
+		final Connection connection;
+		final long creationTime;
+		long idleSince;
+		WeakReference<Thread> owner;
+
+		PooledConnection(Connection connection) {
+			this.connection = connection;
+			this.creationTime = System.currentTimeMillis();
+		}
+	}
+
+	private final DataSource dataSource;
+	private final int maxSize;
+	private final long maxLifetime;
+	private final long validationTimeout;
+	private final Lessee lessee;
+
+	/**
+	 * Lock (fair) guarding the pool.
+	 */
+	private final ReentrantLock lock = new ReentrantLock(true);
+
+	/**
+	 * Signaled when a connection becomes available.
+	 */
+	private final Condition available = lock.newCondition();
+
+	private final Deque<PooledConnection> idle = new ArrayDeque<PooledConnection>();
+	private final Map<Connection, PooledConnection> leased = new IdentityHashMap<Connection, PooledConnection>();
+
+	/**
+	 * Creation times of all connections (allows to check the lifetime without locking).
+	 */
+	private final Map<Connection, Long> creationTime = new ConcurrentHashMap<Connection, Long>();
+
+	/**
+	 * Number of connections currently being created.
+	 */
+	private int pending = 0;
+
+	private boolean closed = false;
+
+	private long leases = 0;
+	private long waits = 0;
+	private long totalWaitTime = 0;
+	private long maxWaitTime = 0;
+	private long created = 0;
+	private long reclaimed = 0;
+	private long validationFailures = 0;
+
+	private final ScheduledFuture<?> validationTask;
+
+	/**
+	 * Validates the idle connections of all pools.
+	 */
+	private static ScheduledExecutorService validator;
+
+	private static synchronized ScheduledExecutorService getValidator() {
+		if (validator == null) {
+			validator = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "connection-validator");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return validator;
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataSource creates the connections
+	 * @param maxSize maximum number of connections, <code>0</code> for no limit
+	 * @param maxLifetime maximum lifetime of a connection in ms, <code>0</code> for no limit
+	 * @param validationTimeout time in ms after which an idle connection is validated
+	 * @param lessee the lessee
+	 */
+	public ConnectionPool(DataSource dataSource, int maxSize, long maxLifetime, long validationTimeout, Lessee lessee) {
+		this.dataSource = dataSource;
+		this.maxSize = maxSize;
+		this.maxLifetime = maxLifetime;
+		this.validationTimeout = validationTimeout;
+		this.lessee = lessee;
+		long interval = Math.max(validationTimeout / 4, 1000);
+		this.validationTask = getValidator().scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					validateIdleConnections();
+				} catch (Throwable t) {
+					_log.warn("validation failed", t);
+				}
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Leases a connection to the current thread. Waits if the maximum number of connections is reached.
+	 *
+	 * @param maxWait maximum time in ms to wait for a connection, <code>0</code> for not waiting at all
+	 * @return the connection
+	 * @throws SQLException if no connection became available within the given time
+	 */
+	public Connection lease(long maxWait) throws SQLException {
+		long startTime = System.currentTimeMillis();
+		boolean waited = false;
+		Connection toClose = null;
+		lock.lock();
+		try {
+			for (;;) {
+				if (closed) {
+					throw new SQLException("connection pool is closed");
+				}
+				PooledConnection pooledConnection = idle.pollLast();
+				if (pooledConnection != null) {
+					boolean expired = isExpired(pooledConnection.connection);
+					if (expired || System.currentTimeMillis() - pooledConnection.idleSince >= validationTimeout) {
+						// validate or close the connection without holding the lock, it counts as pending meanwhile
+						boolean valid = false;
+						++pending;
+						lock.unlock();
+						try {
+							valid = !expired && validate(pooledConnection.connection);
+							if (!valid) {
+								closeConnection(pooledConnection.connection);
+							}
+						} finally {
+							lock.lock();
+							--pending;
+						}
+						if (!valid) {
+							available.signal();
+							continue;
+						}
+						if (closed) {
+							toClose = pooledConnection.connection;
+							throw new SQLException("connection pool is closed");
+						}
+					}
+				} else if (maxSize <= 0 || leased.size() + idle.size() + pending < maxSize) {
+					++pending;
+					lock.unlock();
+					Connection connection;
+					try {
+						connection = dataSource.getConnection();
+					} finally {
+						lock.lock();
+						--pending;
+					}
+					pooledConnection = new PooledConnection(connection);
+					creationTime.put(connection, pooledConnection.creationTime);
+					++created;
+				} else if (reclaimConnectionsOfTerminatedThreads() == 0) {
+					long remaining = startTime + maxWait - System.currentTimeMillis();
+					if (remaining <= 0) {
+						throw new SQLException("no connection available within " + maxWait + " ms (maximum number of connections: " + maxSize + ")");
+					}
+					waited = true;
+					try {
+						available.await(Math.min(remaining, 100), TimeUnit.MILLISECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new SQLException("interrupted while waiting for a connection", e);
+					}
+					continue;
+				} else {
+					continue;
+				}
+				pooledConnection.owner = new WeakReference<Thread>(Thread.currentThread());
+				leased.put(pooledConnection.connection, pooledConnection);
+				++leases;
+				if (waited) {
+					long waitTime = System.currentTimeMillis() - startTime;
+					++waits;
+					totalWaitTime += waitTime;
+					maxWaitTime = Math.max(maxWaitTime, waitTime);
+				}
+				return pooledConnection.connection;
+			}
+		} finally {
+			lock.unlock();
+			if (toClose != null) {
+				closeConnection(toClose);
+			}
+		}
+	}
+
+	/**
+	 * Binds a leased connection to the current thread unless it is still bound to another living thread
+	 * (a connection shared by several threads stays with the thread that leased it).
+	 *
+	 * @param connection the connection
+	 */
+	public void setOwner(Connection connection) {
+		lock.lock();
+		try {
+			PooledConnection pooledConnection = leased.get(connection);
+			if (pooledConnection != null) {
+				Thread owner = pooledConnection.owner.get();
+				if (owner == null || !owner.isAlive()) {
+					pooledConnection.owner = new WeakReference<Thread>(Thread.currentThread());
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gives back a leased connection that has not been used.
+	 *
+	 * @param connection the connection
+	 */
+	public void release(Connection connection) {
+		boolean close = false;
+		lock.lock();
+		try {
+			PooledConnection pooledConnection = leased.remove(connection);
+			if (pooledConnection != null) {
+				if (closed) {
+					close = true;
+				} else {
+					pooledConnection.idleSince = System.currentTimeMillis();
+					idle.addLast(pooledConnection);
+					available.signal();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (close) {
+			closeConnection(connection);
+		}
+	}
+
+	/**
+	 * Removes a connection that has been closed by the lessee.
+	 *
+	 * @param connection the connection
+	 */
+	public void remove(Connection connection) {
+		lock.lock();
+		try {
+			if (leased.remove(connection) != null) {
+				creationTime.remove(connection);
+				available.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Checks if a connection has exceeded its maximum lifetime.
+	 *
+	 * @param connection the connection
+	 */
+	public boolean isExpired(Connection connection) {
+		if (maxLifetime <= 0) {
+			return false;
+		}
+		Long time = creationTime.get(connection);
+		return time != null && System.currentTimeMillis() - time >= maxLifetime;
+	}
+
+	/**
+	 * Validates a connection.
+	 *
+	 * @param connection the connection
+	 * @return <code>true</code> if the connection is valid
+	 */
+	public boolean validate(Connection connection) {
+		boolean valid;
+		try {
+			valid = connection.isValid(4);
+		} catch (Throwable t) {
+			valid = true;
+		}
+		if (valid) {
+			try {
+				valid = !connection.isClosed();
+			} catch (Throwable t) {
+				valid = true;
+			}
+		}
+		if (!valid) {
+			lock.lock();
+			try {
+				++validationFailures;
+			} finally {
+				lock.unlock();
+			}
+		}
+		return valid;
+	}
+
+	/**
+	 * Makes connections of terminated threads available again.
+	 * Caller must hold the lock.
+	 *
+	 * @return number of reclaimed connections
+	 */
+	private int reclaimConnectionsOfTerminatedThreads() {
+		List<PooledConnection> reclaimable = new ArrayList<PooledConnection>();
+		for (PooledConnection pooledConnection: leased.values()) {
+			Thread owner = pooledConnection.owner.get();
+			if ((owner == null || !owner.isAlive()) && !lessee.isInUse(pooledConnection.connection)) {
+				reclaimable.add(pooledConnection);
+			}
+		}
+		long now = System.currentTimeMillis();
+		for (PooledConnection pooledConnection: reclaimable) {
+			leased.remove(pooledConnection.connection);
+			pooledConnection.idleSince = now;
+			idle.addLast(pooledConnection);
+			++reclaimed;
+		}
+		if (!reclaimable.isEmpty()) {
+			_log.debug(reclaimable.size() + " connections of terminated threads reclaimed");
+		}
+		return reclaimable.size();
+	}
+
+	/**
+	 * Reclaims connections of terminated threads and validates the idle connections.
+	 */
+	private void validateIdleConnections() {
+		List<PooledConnection> toValidate = new ArrayList<PooledConnection>();
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			reclaimConnectionsOfTerminatedThreads();
+			toValidate.addAll(idle);
+			idle.clear();
+			pending += toValidate.size();
+		} finally {
+			lock.unlock();
+		}
+		List<PooledConnection> valid = new ArrayList<PooledConnection>();
+		for (PooledConnection pooledConnection: toValidate) {
+			if (!isExpired(pooledConnection.connection) && validate(pooledConnection.connection)) {
+				valid.add(pooledConnection);
+			} else {
+				closeConnection(pooledConnection.connection);
+			}
+		}
+		boolean close;
+		lock.lock();
+		try {
+			pending -= toValidate.size();
+			close = closed;
+			if (!close) {
+				idle.addAll(valid);
+			}
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		if (close) {
+			for (PooledConnection pooledConnection: valid) {
+				closeConnection(pooledConnection.connection);
+			}
+		}
+	}
+
+	/**
+	 * Closes a connection. Must not be called while holding the lock, since closing may block.
+	 */
+	private void closeConnection(Connection connection) {
+		creationTime.remove(connection);
+		try {
+			connection.close();
+		} catch (Throwable t) {
+			// ignore
+		}
+		lessee.closed(connection);
+	}
+
+	/**
+	 * Closes the idle connections and stops the validation. Leased connections are closed by the lessee.
+	 */
+	public void close() {
+		validationTask.cancel(false);
+		List<PooledConnection> toClose;
+		lock.lock();
+		try {
+			closed = true;
+			toClose = new ArrayList<PooledConnection>(idle);
+			idle.clear();
+			leased.clear();
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		for (PooledConnection pooledConnection: toClose) {
+			closeConnection(pooledConnection.connection);
+		}
+	}
+
+	/**
+	 * Gets the statistics.
+	 */
+	public Statistics getStatistics() {
+		lock.lock();
+		try {
+			return new Statistics(leased.size(), idle.size(), leases, waits, totalWaitTime, maxWaitTime, created, reclaimed, validationFailures);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+}
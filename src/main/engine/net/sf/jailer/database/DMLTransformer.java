@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -194,6 +195,11 @@ public class DMLTransformer extends AbstractResultSetReader {
 		private ImportFilterTransformer importFilterTransformer;
 		private final AtomicReference<Table> identityInsertTable = new AtomicReference<Table>();
 
+		/**
+		 * Writers into segments of the script, by the tables whose rows are written into them.
+		 */
+		private final Map<Table, OutputStreamWriter> segmentWriters = new ConcurrentHashMap<Table, OutputStreamWriter>();
+
 		/**
 		 * The execution context.
 		 */
@@ -215,6 +221,13 @@ public class DMLTransformer extends AbstractResultSetReader {
 			this.executionContext = executionContext;
 		}
 
+		/**
+		 * Whether 'upsert' statements are used for all entities.
+		 */
+		public boolean isUpsertOnly() {
+			return upsertOnly;
+		}
+
 		/**
 		 * Creates transformer (as {@link ResultSetReader} which
 		 * transforms rows of a given table into an external representation.
@@ -224,9 +237,27 @@ public class DMLTransformer extends AbstractResultSetReader {
 		 */
 		@Override
 		public ResultSetReader create(Table table) throws SQLException {
+			OutputStreamWriter segmentWriter = segmentWriters.get(table);
+			if (segmentWriter != null) {
+				return new DMLTransformer(table, segmentWriter, upsertOnly, maxBodySize, session, targetDBMSConfiguration, importFilterTransformer, new AtomicReference<Table>(), executionContext);
+			}
 			return new DMLTransformer(table, scriptFileWriter, upsertOnly, maxBodySize, session, targetDBMSConfiguration, importFilterTransformer, identityInsertTable, executionContext);
 		}
 
+		/**
+		 * Lets the rows of a table be written into a segment of the script instead of into the script itself.
+		 *
+		 * @param table the table
+		 * @param segmentWriter writer into the segment, <code>null</code> to write into the script again
+		 */
+		public void setSegmentWriter(Table table, OutputStreamWriter segmentWriter) {
+			if (segmentWriter == null) {
+				segmentWriters.remove(table);
+			} else {
+				segmentWriters.put(table, segmentWriter);
+			}
+		}
+
 		/**
 		 * Sets the {@link ImportFilterTransformer}.
 		 */
@@ -294,65 +325,90 @@ public class DMLTransformer extends AbstractResultSetReader {
 
 	private Map<Integer, String> columnTypeFromDatamodel = new HashMap<Integer, String>();
 
+	/**
+	 * Types and type names of columns (according to the result set meta data).
+	 */
+	private int[] mdColumnType;
+	private String[] mdColumnTypeName;
+
+	/**
+	 * Whether a column is part of the primary key / is nullable.
+	 */
+	private boolean[] isPrimaryKeyColumnAt;
+	private boolean[] isNullableColumnAt;
+
+	/**
+	 * Non-virtual primary key columns.
+	 */
+	private List<Column> nonVirtualPKColumns;
+
+	/**
+	 * Result set indexes of the primary key columns (<code>-1</code> if not selected).
+	 */
+	private int[] pkColumnIndex;
+	private int[] lobPKColumnIndex;
+
+	/**
+	 * Content of the cells of the current row. (Small lobs as SQL literal.)
+	 */
+	private Object[] cellContent;
+
+	/**
+	 * Small lobs of the current row as SQL literal, <code>null</code> if cell is not a small lob.
+	 */
+	private String[] smallLob;
+
+	/**
+	 * SQL literals of the current row (for upserts).
+	 */
+	private String[] upsertValue;
+	private boolean[] upsertValueIsNull;
+
+	/**
+	 * Row independent parts of the statements.
+	 */
+	private String identityColumnInsertClause;
+	private String whereForTerminator;
+	private String mergeTerminator;
+
+	/**
+	 * Buffers for rendering the current row.
+	 */
+	private final StringBuilder valueList = new StringBuilder();
+	private final StringBuilder namedValues = new StringBuilder();
+	private final StringBuilder valuesWONull = new StringBuilder();
+	private final StringBuilder namedValuesWONull = new StringBuilder();
+	private final StringBuilder columnsWONull = new StringBuilder();
+	private final StringBuilder where = new StringBuilder();
+	private final StringBuilder whereWOAlias = new StringBuilder();
+	private final StringBuilder whereForTerminatorWONull = new StringBuilder();
+
 	/**
 	 * Reads result-set and writes into export-script.
 	 */
 	@Override
 	public void readCurrentRow(ResultSet resultSet) throws SQLException {
 		if (columnLabel == null) {
-			columnCount = getMetaData(resultSet).getColumnCount();
-			columnLabel = new String[columnCount + 1];
-			lobColumns = new ArrayList<String>();
-			isLobColumn = new boolean[columnCount + 1];
-			emptyLobValue = new String[columnCount + 1];
-			lobColumnIndexes = new ArrayList<Integer>();
-			labelCSL = "";
-			tableHasLobs = false;
-			for (int i = 1; i <= columnCount; ++i) {
-				// TODO get rid of #getColumnLabel(int). Pass selection-clause as list of columns (for all Transformers).
-				String mdColumnLabel = SqlUtil.columnLabel(quoting, session, targetDBMSConfiguration, table, getMetaData(resultSet).getColumnLabel(i));
-				// int mdColumnType = getMetaData(resultSet).getColumnType(i);
-				int mdColumnType = SqlUtil.getColumnType(session.dbms, resultSet, getMetaData(resultSet), i, null);
-				if ((mdColumnType == Types.BLOB || mdColumnType == Types.CLOB || mdColumnType == Types.NCLOB || mdColumnType == Types.SQLXML) && !DBMS.SQLITE.equals(targetDBMSConfiguration)) {
-					tableHasLobs = true;
-					isLobColumn[i] = true;
-					lobColumnIndexes.add(i);
-					lobColumns.add(mdColumnLabel);
-					if (mdColumnType == Types.SQLXML) {
-						emptyLobValue[i] = null;
-					} else {
-						DBMS c = targetDBMSConfiguration;
-						emptyLobValue[i] = mdColumnType == Types.BLOB? c.getEmptyBLOBValue() : mdColumnType == Types.CLOB? c.getEmptyCLOBValue() : c.getEmptyNCLOBValue();
-					}
-					if (emptyLobValue[i] == null) {
-						continue;
-					}
-				}
-				columnLabel[i] = mdColumnLabel;
-				if (labelCSL.length() > 0) {
-					labelCSL += ", ";
-				}
-				labelCSL += columnLabel[i];
-			}
+			initColumns(resultSet);
 		}
 		try {
-			StringBuffer valueList = new StringBuffer("");
-			StringBuffer namedValues = new StringBuffer("");
-			boolean f = true;
-			Map<Integer, String> smallLobsPerIndex = new HashMap<Integer, String>();
 			CellContentConverter cellContentConverter = getCellContentConverter(resultSet, session, targetDBMSConfiguration);
 			for (int i = 1; i <= columnCount; ++i) {
 				Object content = null;
+				smallLob[i] = null;
 				if (columnLabel[i] == null) {
+					if (isLobColumn[i]) {
+						content = cellContentConverter.getObject(resultSet, i);
+						if (resultSet.wasNull()) {
+							content = null;
+						}
+					}
+					cellContent[i] = content;
 					continue;
 				}
-				boolean isSmallLob = false;
 				if (isLobColumn[i]) {
-					content = cellContentConverter.getSmallLob(resultSet, i);
-					if (content != null) {
-						isSmallLob = true;
-						smallLobsPerIndex.put(i, (String) content);
-					}
+					smallLob[i] = cellContentConverter.getSmallLob(resultSet, i);
+					content = smallLob[i];
 				}
 				if (content == null) {
 					content = cellContentConverter.getObject(resultSet, i);
@@ -360,48 +416,57 @@ public class DMLTransformer extends AbstractResultSetReader {
 						content = null;
 					}
 				}
-				if (!f) {
-					namedValues.append(", ");
-					valueList.append(", ");
-				}
-				f = false;
-				String cVal = isSmallLob? (String) content :
-					 convertToSql(cellContentConverter, resultSet, i, content, 0, null);
-				if (!isSmallLob && content != null && emptyLobValue[i] != null) {
-					cVal = emptyLobValue[i];
+				cellContent[i] = content;
+			}
+
+			boolean upsert = table.getUpsert() || upsertOnly;
+			boolean merge = currentDialect.getUpsertMode() == UPSERT_MODE.MERGE && !tableHasLobs;
+			boolean f;
+			if (!upsert || merge) {
+				valueList.setLength(0);
+				namedValues.setLength(0);
+				f = true;
+				for (int i = 1; i <= columnCount; ++i) {
+					if (columnLabel[i] == null) {
+						continue;
+					}
+					Object content = cellContent[i];
+					if (!f) {
+						namedValues.append(", ");
+						valueList.append(", ");
+					}
+					f = false;
+					String cVal = smallLob[i] != null? smallLob[i] :
+						 convertToSql(cellContentConverter, resultSet, i, content, 0, null);
+					if (smallLob[i] == null && content != null && emptyLobValue[i] != null) {
+						cVal = emptyLobValue[i];
+					}
+					valueList.append(cVal);
+					namedValues.append(cVal).append(' ').append(columnLabel[i]);
 				}
-				valueList.append(cVal);
-				namedValues.append(cVal + " " + columnLabel[i]);
 			}
-			String identityColumnInsertClause = tableHasIdentityColumn && session.dbms != null && session.dbms.getIdentityColumnInsertClause() != null? session.dbms.getIdentityColumnInsertClause() + " ": "";
-			if (table.getUpsert() || upsertOnly) {
-				if (table.getNonVirtualPKColumns(session).isEmpty()) {
+			if (upsert) {
+				if (nonVirtualPKColumns.isEmpty()) {
 					throw new DataModel.NoPrimaryKeyException(table, "has no " +
 							(table.primaryKey != null && table.primaryKey.getColumns() != null && !table.primaryKey.getColumns().isEmpty()? "non-virtual " : "") +
 							"primary key. Upsert statement can not be generated.");
 				}
 
-				Map<String, String> val = new HashMap<String, String>();
-				Map<String, Boolean> valIsNull = new HashMap<String, Boolean>();
-				StringBuffer valuesWONull = new StringBuffer("");
-				StringBuffer namedValuesWONull = new StringBuffer("");
-				StringBuffer columnsWONull = new StringBuffer("");
+				valuesWONull.setLength(0);
+				namedValuesWONull.setLength(0);
+				columnsWONull.setLength(0);
 				f = true;
 				boolean generateUpsertStatementsWithoutNulls = Configuration.getInstance().isGenerateUpsertStatementsWithoutNulls();
 				for (int i = 1; i <= columnCount; ++i) {
 					if (columnLabel[i] == null) {
 						continue;
 					}
-					Object content = cellContentConverter.getObject(resultSet, i);
-					if (resultSet.wasNull()) {
-						content = null;
-					}
+					Object content = cellContent[i];
 					String suffix = null;
 					if (DBMS.POSTGRESQL.equals(targetDBMSConfiguration)) {
-						int mdColumnType = getMetaData(resultSet).getColumnType(i);
-						if (mdColumnType == Types.TIME || (content == null && ((currentDialect.getUpdateMode() == UPDATE_MODE.PG || !generateUpsertStatementsWithoutNulls)))) {
+						if (mdColumnType[i] == Types.TIME || (content == null && ((currentDialect.getUpdateMode() == UPDATE_MODE.PG || !generateUpsertStatementsWithoutNulls)))) {
 							// explicit cast needed
-							if (mdColumnType == Types.OTHER) {
+							if (mdColumnType[i] == Types.OTHER) {
 								String type = null;
 								if (!columnTypeFromDatamodel.containsKey(i)) {
 									for (Column c: table.getColumns()) {
@@ -418,19 +483,19 @@ public class DMLTransformer extends AbstractResultSetReader {
 									suffix = "::" + type;
 								}
 							} else {
-								suffix = "::" + getMetaData(resultSet).getColumnTypeName(i);
+								suffix = "::" + mdColumnTypeName[i];
 							}
 						}
 					}
 					String cVal = convertToSql(cellContentConverter, resultSet, i, content, 1, suffix);
 					if (content != null && emptyLobValue[i] != null) {
-						cVal = smallLobsPerIndex.get(i);
+						cVal = smallLob[i];
 						if (cVal == null) {
 							cVal = emptyLobValue[i];
 						}
 					}
-					valIsNull.put(columnLabel[i], content == null);
-					val.put(columnLabel[i], cVal);
+					upsertValueIsNull[i] = content == null;
+					upsertValue[i] = cVal;
 					if (content != null || !generateUpsertStatementsWithoutNulls) {
 						if (!f) {
 							valuesWONull.append(", ");
@@ -440,7 +505,7 @@ public class DMLTransformer extends AbstractResultSetReader {
 						f = false;
 						valuesWONull.append(cVal);
 						namedValuesWONull.append(cVal);
-						namedValuesWONull.append(" ");
+						namedValuesWONull.append(' ');
 						namedValuesWONull.append(columnLabel[i]);
 						columnsWONull.append(columnLabel[i]);
 					}
@@ -448,79 +513,38 @@ public class DMLTransformer extends AbstractResultSetReader {
 
 				String insertHead = "Insert into " + qualifiedTableName(table) + "(" + columnsWONull + ") " + identityColumnInsertClause;
 				f = true;
-				StringBuffer whereForTerminator = new StringBuffer("");
-				StringBuffer whereForTerminatorWONull = new StringBuffer("");
-				StringBuffer where = new StringBuffer("");
-				StringBuffer whereWOAlias = new StringBuffer("");
+				whereForTerminatorWONull.setLength(0);
+				where.setLength(0);
+				whereWOAlias.setLength(0);
 
 				// assemble 'where' for sub-select and update
-				for (Column pk: table.getNonVirtualPKColumns(session)) {
+				for (int k = 0; k < nonVirtualPKColumns.size(); ++k) {
 					if (!f) {
-						whereForTerminator.append(" and ");
 						whereForTerminatorWONull.append(" and ");
 						where.append(" and ");
 						whereWOAlias.append(" and ");
 					}
 					f = false;
-					String value;
-					Boolean isNull;
-					String name = quoting.unquote(pk.name);
-					if (val.containsKey(name)) {
-						value = val.get(name);
-						isNull = valIsNull.get(name);
-					} else if (val.containsKey(name.toLowerCase(Locale.ENGLISH))) {
-						value = val.get(name.toLowerCase(Locale.ENGLISH));
-						isNull = valIsNull.get(name.toLowerCase(Locale.ENGLISH));
-					} else {
-						value = val.get(name.toUpperCase(Locale.ENGLISH));
-						isNull = valIsNull.get(name.toUpperCase(Locale.ENGLISH));
-					}
-					String op = Boolean.TRUE.equals(isNull)? " is null" : ("=" + value);
-					where.append("T." + quoting.requote(pk.name) + op);
-					whereWOAlias.append(quoting.requote(pk.name) + op);
-					if (pk.isNullable) {
-						whereForTerminator.append("(T." + quoting.requote(pk.name) + "=Q." + quoting.requote(pk.name));
-						whereForTerminator.append(" or (T." + quoting.requote(pk.name) + " is null and Q." + quoting.requote(pk.name) + " is null))");
+					int index = pkColumnIndex[k];
+					boolean isNull = index >= 0 && upsertValueIsNull[index];
+					String op = isNull? " is null" : ("=" + (index >= 0? upsertValue[index] : null));
+					String pkName = quoting.requote(nonVirtualPKColumns.get(k).name);
+					where.append("T.").append(pkName).append(op);
+					whereWOAlias.append(pkName).append(op);
+					whereForTerminatorWONull.append("T.").append(pkName);
+					if (isNull) {
+						whereForTerminatorWONull.append(" is null");
 					} else {
-						whereForTerminator.append("T." + quoting.requote(pk.name) + "=Q." + quoting.requote(pk.name));
+						whereForTerminatorWONull.append("=Q.").append(pkName);
 					}
-					whereForTerminatorWONull.append("T." + quoting.requote(pk.name) + (Boolean.TRUE.equals(isNull)? " is null" : ("=Q." + quoting.requote(pk.name))));
 				}
 
-				if (currentDialect.getUpsertMode() == UPSERT_MODE.MERGE && !tableHasLobs) {
+				if (merge) {
 					// MERGE INTO JL_TMP T USING (SELECT 1 c1, 2 c2 from dual) incoming
 					// ON (T.c1 = incoming.c1)
 					// WHEN MATCHED THEN UPDATE SET T.c2 = incoming.c2
 					// WHEN NOT MATCHED THEN INSERT (T.c1, T.c2) VALUES (incoming.c1, incoming.c2)
 					insertHead = "MERGE INTO " + qualifiedTableName(table) + " T USING(" + PrintUtil.LINE_SEPARATOR;
-					StringBuffer terminator = new StringBuffer(") Q ON(" + whereForTerminator + ") ");
-
-					StringBuffer sets = new StringBuffer();
-					StringBuffer tSchema = new StringBuffer();
-					StringBuffer iSchema = new StringBuffer();
-					for (int i = 1; i <= columnCount; ++i) {
-						if (columnLabel[i] == null) {
-							continue;
-						}
-						if (!isPrimaryKeyColumn(columnLabel[i])) {
-							if (sets.length() > 0) {
-								sets.append(", ");
-							}
-							sets.append("T." + columnLabel[i] + "=Q." + columnLabel[i]);
-						}
-						if (tSchema.length() > 0) {
-							tSchema.append(", ");
-						}
-						tSchema.append("T." + columnLabel[i]);
-						if (iSchema.length() > 0) {
-							iSchema.append(", ");
-						}
-						iSchema.append("Q." + columnLabel[i]);
-					}
-					if (sets.length() > 0) {
-						terminator.append(PrintUtil.LINE_SEPARATOR + "WHEN MATCHED THEN UPDATE SET " + sets + " ");
-					}
-					terminator.append(PrintUtil.LINE_SEPARATOR + "WHEN NOT MATCHED THEN INSERT (" + tSchema + ") VALUES(" + iSchema + ");" + PrintUtil.LINE_SEPARATOR);
 
 					StatementBuilder sb = upsertInsertStatementBuilder.get(insertHead);
 					if (sb == null) {
@@ -535,12 +559,12 @@ public class DMLTransformer extends AbstractResultSetReader {
 					if (sb.isEmpty()) {
 						item = "  Select " + namedValues + " from dual";
 					}
-					sb.append(insertHead, item, " UNION ALL " + PrintUtil.LINE_SEPARATOR, terminator.toString());
+					sb.append(insertHead, item, " UNION ALL " + PrintUtil.LINE_SEPARATOR, mergeTerminator);
 				} else if (currentDialect.getUpsertMode() == UPSERT_MODE.DB2) {
 					insertHead += "Select * From (values ";
-					StringBuffer terminator = new StringBuffer(") as Q(" + columnsWONull + ") Where not exists (Select * from " + qualifiedTableName(table) + " T "
-							+ "Where ");
-					terminator.append(whereForTerminatorWONull + ");" + PrintUtil.LINE_SEPARATOR);
+					StringBuilder terminator = new StringBuilder(") as Q(").append(columnsWONull).append(") Where not exists (Select * from ").append(qualifiedTableName(table)).append(" T ")
+							.append("Where ");
+					terminator.append(whereForTerminatorWONull).append(");").append(PrintUtil.LINE_SEPARATOR);
 
 					StatementBuilder sb = upsertInsertStatementBuilder.get(insertHead);
 					if (sb == null) {
@@ -555,9 +579,9 @@ public class DMLTransformer extends AbstractResultSetReader {
 					sb.append(insertHead, item, ", ", terminator.toString());
 				} else if (currentDialect.getUpsertMode() == UPSERT_MODE.UNION_ALL) {
 					insertHead += "Select * From (" + PrintUtil.LINE_SEPARATOR + " Select ";
-					StringBuffer terminator = new StringBuffer(") as Q " + PrintUtil.LINE_SEPARATOR + "Where not exists (Select * from " + qualifiedTableName(table) + " T "
-							+ "Where ");
-					terminator.append(whereForTerminatorWONull + ");" + PrintUtil.LINE_SEPARATOR);
+					StringBuilder terminator = new StringBuilder(") as Q ").append(PrintUtil.LINE_SEPARATOR).append("Where not exists (Select * from ").append(qualifiedTableName(table)).append(" T ")
+							.append("Where ");
+					terminator.append(whereForTerminatorWONull).append(");").append(PrintUtil.LINE_SEPARATOR);
 
 					StatementBuilder sb = upsertInsertStatementBuilder.get(insertHead);
 					if (sb == null) {
@@ -579,9 +603,9 @@ public class DMLTransformer extends AbstractResultSetReader {
 						(currentDialect.getUpsertMode() == UPSERT_MODE.FROM_DUAL ||
 						 currentDialect.getUpsertMode() == UPSERT_MODE.MERGE? // oracle table with lobs
 								 "dual" : currentDialect.getUpsertMode() == UPSERT_MODE.FROM_SYSDUMMY1? "sysibm.sysdummy1" : SQLDialect.DUAL_TABLE);
-					StringBuffer terminator = new StringBuffer(" Where not exists (Select * from " + qualifiedTableName(table) + " T "
-							+ "Where ");
-					terminator.append(where + ");" + PrintUtil.LINE_SEPARATOR);
+					StringBuilder terminator = new StringBuilder(" Where not exists (Select * from ").append(qualifiedTableName(table)).append(" T ")
+							.append("Where ");
+					terminator.append(where).append(");").append(PrintUtil.LINE_SEPARATOR);
 
 					StatementBuilder sb = upsertInsertStatementBuilder.get(insertHead);
 					if (sb == null) {
@@ -597,7 +621,7 @@ public class DMLTransformer extends AbstractResultSetReader {
 
 				// TODO refactoring, method is too long
 
-				if (currentDialect.getUpsertMode() != UPSERT_MODE.MERGE || tableHasLobs) {
+				if (!merge) {
 					if (currentDialect.getUpdateMode() == UPDATE_MODE.PG && DBMS.POSTGRESQL.equals(session.dbms)) {
 						StringBuilder item = new StringBuilder(" (");
 						StringBuilder terminator = new StringBuilder(") Q(");
@@ -605,14 +629,14 @@ public class DMLTransformer extends AbstractResultSetReader {
 						StringBuilder set = new StringBuilder();
 						f = true;
 						for (int i = 1; i <= columnCount; ++i) {
-							if (columnLabel[i] == null || (emptyLobValue[i] != null && !valIsNull.get(columnLabel[i]))) {
+							if (columnLabel[i] == null || (emptyLobValue[i] != null && !upsertValueIsNull[i])) {
 								continue;
 							}
-							if (!isPrimaryKeyColumn(columnLabel[i])) {
+							if (!isPrimaryKeyColumnAt[i]) {
 								if (set.length() > 0) {
 									set.append(", ");
 								}
-								set.append(columnLabel[i] + "=Q." + columnLabel[i]);
+								set.append(columnLabel[i]).append("=Q.").append(columnLabel[i]);
 							}
 							if (!f) {
 								terminator.append(", ");
@@ -620,7 +644,7 @@ public class DMLTransformer extends AbstractResultSetReader {
 							}
 							f = false;
 							terminator.append(columnLabel[i]);
-							item.append(val.get(columnLabel[i]));
+							item.append(upsertValue[i]);
 						}
 						head.append(set).append(PrintUtil.LINE_SEPARATOR + "From (values" + PrintUtil.LINE_SEPARATOR);
 						item.append(")");
@@ -649,7 +673,7 @@ public class DMLTransformer extends AbstractResultSetReader {
 						boolean tf = true;
 						boolean withLabel = !updateStatementBuilder.isAppendable(head.toString());
 						for (int i = 1; i <= columnCount; ++i) {
-							if (columnLabel[i] == null || (emptyLobValue[i] != null && !valIsNull.get(columnLabel[i]))) {
+							if (columnLabel[i] == null || (emptyLobValue[i] != null && !upsertValueIsNull[i])) {
 								continue;
 							}
 							if (!f) {
@@ -657,26 +681,26 @@ public class DMLTransformer extends AbstractResultSetReader {
 								columns.append(", ");
 							}
 							f = false;
-							if (isPrimaryKeyColumn(columnLabel[i])) {
+							if (isPrimaryKeyColumnAt[i]) {
 								if (!tf) {
 									terminator.append(" and ");
 								}
 								tf = false;
-								if (isNullableColumn(columnLabel[i])) {
-									terminator.append("(T." + columnLabel[i] + "=Q." + columnLabel[i]);
-									terminator.append(" or (T." + columnLabel[i] + " is null and Q." + columnLabel[i] + " is null))");
+								if (isNullableColumnAt[i]) {
+									terminator.append("(T.").append(columnLabel[i]).append("=Q.").append(columnLabel[i]);
+									terminator.append(" or (T.").append(columnLabel[i]).append(" is null and Q.").append(columnLabel[i]).append(" is null))");
 								} else {
-									terminator.append("T." + columnLabel[i] + "=Q." + columnLabel[i]);
+									terminator.append("T.").append(columnLabel[i]).append("=Q.").append(columnLabel[i]);
 								}
 							} else {
 								if (set.length() > 0) {
 									set.append(", ");
 								}
-								set.append("T." + columnLabel[i] + "=Q." + columnLabel[i]);
+								set.append("T.").append(columnLabel[i]).append("=Q.").append(columnLabel[i]);
 							}
-							item.append(val.get(columnLabel[i]));
+							item.append(upsertValue[i]);
 							if (!ms && updateStatementBuilder.isEmpty() || withLabel) {
-								item.append(" " + columnLabel[i]);
+								item.append(' ').append(columnLabel[i]);
 							}
 							if (ms) {
 								columns.append(columnLabel[i]);
@@ -705,24 +729,24 @@ public class DMLTransformer extends AbstractResultSetReader {
 									terminatorAsString);
 						}
 					} else {
-						StringBuffer update = new StringBuffer("");
-						update.append("Update " + qualifiedTableName(table) + " set ");
+						StringBuilder update = new StringBuilder();
+						update.append("Update ").append(qualifiedTableName(table)).append(" set ");
 						f = true;
 						for (int i = 1; i <= columnCount; ++i) {
-							if (columnLabel[i] == null || (emptyLobValue[i] != null && !valIsNull.get(columnLabel[i]))) {
+							if (columnLabel[i] == null || (emptyLobValue[i] != null && !upsertValueIsNull[i])) {
 								continue;
 							}
-							if (isPrimaryKeyColumn(columnLabel[i])) {
+							if (isPrimaryKeyColumnAt[i]) {
 								continue;
 							}
 							if (!f) {
 								update.append(", ");
 							}
 							f = false;
-							update.append(columnLabel[i] + "=" + val.get(columnLabel[i]));
+							update.append(columnLabel[i]).append('=').append(upsertValue[i]);
 						}
 						if (!f) {
-							update.append(" Where " + whereWOAlias + ";" + PrintUtil.LINE_SEPARATOR);
+							update.append(" Where ").append(whereWOAlias).append(";").append(PrintUtil.LINE_SEPARATOR);
 							writeToScriptFile(update.toString(), true);
 						}
 					}
@@ -764,12 +788,139 @@ public class DMLTransformer extends AbstractResultSetReader {
 				}
 			}
 
-			exportLobs(table, resultSet, smallLobsPerIndex.keySet());
+			exportLobs(table, resultSet);
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	/**
+	 * Initializes the per-column meta data and the row independent parts of the statements.
+	 *
+	 * @param resultSet the result set
+	 */
+	private void initColumns(ResultSet resultSet) throws SQLException {
+		columnCount = getMetaData(resultSet).getColumnCount();
+		columnLabel = new String[columnCount + 1];
+		lobColumns = new ArrayList<String>();
+		isLobColumn = new boolean[columnCount + 1];
+		emptyLobValue = new String[columnCount + 1];
+		lobColumnIndexes = new ArrayList<Integer>();
+		mdColumnType = new int[columnCount + 1];
+		mdColumnTypeName = new String[columnCount + 1];
+		isPrimaryKeyColumnAt = new boolean[columnCount + 1];
+		isNullableColumnAt = new boolean[columnCount + 1];
+		cellContent = new Object[columnCount + 1];
+		smallLob = new String[columnCount + 1];
+		upsertValue = new String[columnCount + 1];
+		upsertValueIsNull = new boolean[columnCount + 1];
+		labelCSL = "";
+		tableHasLobs = false;
+		for (int i = 1; i <= columnCount; ++i) {
+			// TODO get rid of #getColumnLabel(int). Pass selection-clause as list of columns (for all Transformers).
+			String mdColumnLabel = SqlUtil.columnLabel(quoting, session, targetDBMSConfiguration, table, getMetaData(resultSet).getColumnLabel(i));
+			mdColumnType[i] = getMetaData(resultSet).getColumnType(i);
+			mdColumnTypeName[i] = getMetaData(resultSet).getColumnTypeName(i);
+			int mdColumnType = SqlUtil.getColumnType(session.dbms, resultSet, getMetaData(resultSet), i, null);
+			if ((mdColumnType == Types.BLOB || mdColumnType == Types.CLOB || mdColumnType == Types.NCLOB || mdColumnType == Types.SQLXML) && !DBMS.SQLITE.equals(targetDBMSConfiguration)) {
+				tableHasLobs = true;
+				isLobColumn[i] = true;
+				lobColumnIndexes.add(i);
+				lobColumns.add(mdColumnLabel);
+				if (mdColumnType == Types.SQLXML) {
+					emptyLobValue[i] = null;
+				} else {
+					DBMS c = targetDBMSConfiguration;
+					emptyLobValue[i] = mdColumnType == Types.BLOB? c.getEmptyBLOBValue() : mdColumnType == Types.CLOB? c.getEmptyCLOBValue() : c.getEmptyNCLOBValue();
+				}
+				if (emptyLobValue[i] == null) {
+					continue;
+				}
+			}
+			columnLabel[i] = mdColumnLabel;
+			isPrimaryKeyColumnAt[i] = isPrimaryKeyColumn(columnLabel[i]);
+			isNullableColumnAt[i] = isNullableColumn(columnLabel[i]);
+			if (labelCSL.length() > 0) {
+				labelCSL += ", ";
+			}
+			labelCSL += columnLabel[i];
+		}
+
+		identityColumnInsertClause = tableHasIdentityColumn && session.dbms != null && session.dbms.getIdentityColumnInsertClause() != null? session.dbms.getIdentityColumnInsertClause() + " ": "";
+
+		nonVirtualPKColumns = table.getNonVirtualPKColumns(session);
+		pkColumnIndex = new int[nonVirtualPKColumns.size()];
+		lobPKColumnIndex = new int[nonVirtualPKColumns.size()];
+		StringBuilder whereForTerminator = new StringBuilder();
+		for (int k = 0; k < nonVirtualPKColumns.size(); ++k) {
+			Column pk = nonVirtualPKColumns.get(k);
+			String name = quoting.unquote(pk.name);
+			int index = columnIndex(name);
+			if (index < 0) {
+				index = columnIndex(name.toLowerCase(Locale.ENGLISH));
+			}
+			if (index < 0) {
+				index = columnIndex(name.toUpperCase(Locale.ENGLISH));
+			}
+			pkColumnIndex[k] = index;
+			lobPKColumnIndex[k] = columnIndex(pk.name);
+
+			if (k > 0) {
+				whereForTerminator.append(" and ");
+			}
+			if (pk.isNullable) {
+				whereForTerminator.append("(T." + quoting.requote(pk.name) + "=Q." + quoting.requote(pk.name));
+				whereForTerminator.append(" or (T." + quoting.requote(pk.name) + " is null and Q." + quoting.requote(pk.name) + " is null))");
+			} else {
+				whereForTerminator.append("T." + quoting.requote(pk.name) + "=Q." + quoting.requote(pk.name));
+			}
+		}
+		this.whereForTerminator = whereForTerminator.toString();
+
+		StringBuilder terminator = new StringBuilder(") Q ON(" + whereForTerminator + ") ");
+		StringBuilder sets = new StringBuilder();
+		StringBuilder tSchema = new StringBuilder();
+		StringBuilder iSchema = new StringBuilder();
+		for (int i = 1; i <= columnCount; ++i) {
+			if (columnLabel[i] == null) {
+				continue;
+			}
+			if (!isPrimaryKeyColumnAt[i]) {
+				if (sets.length() > 0) {
+					sets.append(", ");
+				}
+				sets.append("T." + columnLabel[i] + "=Q." + columnLabel[i]);
+			}
+			if (tSchema.length() > 0) {
+				tSchema.append(", ");
+			}
+			tSchema.append("T." + columnLabel[i]);
+			if (iSchema.length() > 0) {
+				iSchema.append(", ");
+			}
+			iSchema.append("Q." + columnLabel[i]);
+		}
+		if (sets.length() > 0) {
+			terminator.append(PrintUtil.LINE_SEPARATOR + "WHEN MATCHED THEN UPDATE SET " + sets + " ");
+		}
+		terminator.append(PrintUtil.LINE_SEPARATOR + "WHEN NOT MATCHED THEN INSERT (" + tSchema + ") VALUES(" + iSchema + ");" + PrintUtil.LINE_SEPARATOR);
+		mergeTerminator = terminator.toString();
+	}
+
+	/**
+	 * Gets the (last) result set index of a column with a given label.
+	 *
+	 * @return the index or <code>-1</code> if there is no such column
+	 */
+	private int columnIndex(String label) {
+		for (int i = columnCount; i >= 1; --i) {
+			if (label.equals(columnLabel[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * Converts cell content to SQL literals.
 	 *
@@ -853,39 +1004,28 @@ public class DMLTransformer extends AbstractResultSetReader {
 	 *
 	 * @param resultSet export current row
 	 */
-	private void exportLobs(Table table, ResultSet resultSet, Set<Integer> smallLobsIndexes) throws IOException, SQLException {
+	private void exportLobs(Table table, ResultSet resultSet) throws IOException, SQLException {
 		synchronized (scriptFileWriter) {
 			CellContentConverter cellContentConverter = getCellContentConverter(resultSet, session, targetDBMSConfiguration);
 			for (int i = 0; i < lobColumnIndexes.size(); ++i) {
-				if (smallLobsIndexes.contains(lobColumnIndexes.get(i))) {
+				if (smallLob[lobColumnIndexes.get(i)] != null) {
 					continue;
 				}
-				Object lob = cellContentConverter.getObject(resultSet, lobColumnIndexes.get(i));
-				Map<String, String> val = new HashMap<String, String>();
-				for (int j = 1; j <= columnCount; ++j) {
-					if (columnLabel[j] == null) {
-						continue;
-					}
-					Object content = cellContentConverter.getObject(resultSet, j);
-					if (resultSet.wasNull()) {
-						content = null;
-					}
-					String cVal = cellContentConverter.toSql(content);
-					val.put(columnLabel[j], cVal);
-				}
+				Object lob = cellContent[lobColumnIndexes.get(i)];
 				boolean f = true;
-				StringBuffer where = new StringBuffer("");
-				if (table.getNonVirtualPKColumns(session).isEmpty()) {
+				StringBuilder where = new StringBuilder();
+				if (nonVirtualPKColumns.isEmpty()) {
 					throw new DataModel.NoPrimaryKeyException(table, "has no " +
 							(table.primaryKey != null && table.primaryKey.getColumns() != null && !table.primaryKey.getColumns().isEmpty()? "non-virtual " : "") +
 							"primary key. Update statement to import CLOB/BLOB/XML can not be generated.");
 				}
-				for (Column pk: table.getNonVirtualPKColumns(session)) {
+				for (int k = 0; k < nonVirtualPKColumns.size(); ++k) {
 					if (!f) {
 						where.append(" and ");
 					}
 					f = false;
-					where.append(quoting.requote(pk.name) + "=" + val.get(pk.name));
+					int index = lobPKColumnIndex[k];
+					where.append(quoting.requote(nonVirtualPKColumns.get(k).name) + "=" + (index >= 0? cellContentConverter.toSql(cellContent[index]) : null));
 				}
 				if (lob instanceof SQLXML) {
 					numberOfExportedLOBs.incrementAndGet();
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import net.sf.jailer.configuration.DBMS;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.util.Quoting;
+
+/**
+ * Reads the estimated row counts of tables from the catalog statistics of the DBMS
+ * (see {@link DBMS#getEstimatedRowCountQuery()}).
+ *
+ * @author Ralf Wisser
+ */
+public class EstimatedRowCounts {
+
+	/**
+	 * Reads the estimated row counts of the tables, if the DBMS supports it.
+	 *
+	 * @param session the session
+	 * @param tables the tables
+	 * @param defaultSchema the default schema
+	 * @return estimated row count per table (missing if unknown)
+	 */
+	public static Map<Table, Long> read(Session session, Collection<Table> tables, String defaultSchema) {
+		final Map<Table, Long> rowCounts = new HashMap<Table, Long>();
+		String query = session.dbms == null? null : session.dbms.getEstimatedRowCountQuery();
+		if (query == null) {
+			return rowCounts;
+		}
+		Map<String, Map<String, Table>> tablesPerSchema = new HashMap<String, Map<String, Table>>();
+		for (Table table: tables) {
+			tablesPerSchema
+				.computeIfAbsent(Quoting.staticUnquote(table.getSchema(defaultSchema)), s -> new HashMap<String, Table>())
+				.put(Quoting.staticUnquote(table.getUnqualifiedName()), table);
+		}
+		boolean wasSilent = session.getSilent();
+		session.setSilent(true);
+		try {
+			for (Map.Entry<String, Map<String, Table>> e: tablesPerSchema.entrySet()) {
+				final Map<String, Table> tablesPerName = e.getValue();
+				try {
+					session.executeQuery(String.format(Locale.ENGLISH, query, e.getKey()), new Session.AbstractResultSetReader() {
+						@Override
+						public void readCurrentRow(ResultSet resultSet) throws SQLException {
+							Table table = tablesPerName.get(resultSet.getString(1));
+							long rowCount = resultSet.getLong(2);
+							if (table != null && !resultSet.wasNull()) {
+								rowCounts.put(table, rowCount);
+							}
+						}
+					});
+				} catch (SQLException ex) {
+					// ignore
+				}
+			}
+		} finally {
+			session.setSilent(wasSilent);
+		}
+		return rowCounts;
+	}
+
+}
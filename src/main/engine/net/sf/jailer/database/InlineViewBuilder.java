@@ -18,13 +18,21 @@ package net.sf.jailer.database;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import net.sf.jailer.util.CellContentConverter;
 
 /**
  * Reads {@link ResultSet}s and builds inline-views according to the content.
+ * <br>
+ * If bind variables are used (see {@link #useBindVariables(int, ParameterizedProcessor)}), the inline-views
+ * contain parameter markers instead of literals and have one of some fixed sizes
+ * (see {@link #BLOCK_SIZES}), so that there are only a few distinct statements
+ * which can be cached by the DBMS and by the {@link Session}.
  * 
  * @author Ralf Wisser
  */
@@ -37,7 +45,56 @@ public abstract class InlineViewBuilder implements Session.ResultSetReader {
 
 	public static final String DEFAULT_NAME = "JAILER_IV";
 
-	private static final int MAX_SIZE = 35;
+	/**
+	 * Initial number of rows of inline-views with literals.
+	 * The number adapts to the measured latency (see {@link BlockSizeController}).
+	 */
+	private static final int INITIAL_SIZE = 35;
+
+	/**
+	 * Maximum number of rows of inline-views with literals.
+	 */
+	private static final int MAX_SIZE = 256;
+
+	/**
+	 * Number of rows of parameterized inline-views.
+	 */
+	private static final int[] BLOCK_SIZES = new int[] { 1, 4, 16, 32 };
+
+	/**
+	 * Maximum number of parameters of a parameterized inline-view.
+	 */
+	private static final int MAX_PARAMETERS = 2000;
+
+	/**
+	 * Value returned by {@link #parameterValue(ResultSet, int)} if a value cannot be bound.
+	 */
+	protected static final Object NOT_BINDABLE = new Object();
+
+	/**
+	 * SQL type of the parameters (see {@link java.sql.Types}), <code>null</code> if literals are used.
+	 */
+	private Integer parameterType = null;
+
+	/**
+	 * Processes the parameterized inline-views, <code>null</code> if literals are used.
+	 */
+	private ParameterizedProcessor parameterizedProcessor = null;
+
+	/**
+	 * Rows of the current parameterized inline-view.
+	 */
+	private final List<Object[]> parameterRows = new ArrayList<Object[]>();
+
+	/**
+	 * Maximum number of rows of parameterized inline-views.
+	 */
+	private int maxBlockSize;
+
+	/**
+	 * Parameterized inline-views per number of rows.
+	 */
+	private final Map<Integer, String> parameterizedInlineViews = new HashMap<Integer, String>();
 
 	/**
 	 * The name of the Inline-View.
@@ -46,6 +103,18 @@ public abstract class InlineViewBuilder implements Session.ResultSetReader {
 
 	protected final StatementBuilder statementBuilder;
 
+	/**
+	 * Adapts the number of rows of inline-views with literals.
+	 * Each kind of builder (i.e. each subclass) has its own controller, because the rows and the
+	 * processing of the inline-views differ from builder to builder.
+	 */
+	private final BlockSizeController blockSizeController;
+
+	/**
+	 * Values of the rows of the inline-view built by the {@link #statementBuilder}.
+	 */
+	private final List<String[]> blockValues = new ArrayList<String[]>();
+
 	protected ResultSetMetaData resultSetMetaData = null;
 
 	protected Map<Integer, Integer> typeCache = new HashMap<Integer, Integer>();
@@ -69,7 +138,8 @@ public abstract class InlineViewBuilder implements Session.ResultSetReader {
 		this.style = style;
 		this.session = session;
 		this.columnNames = columnNames;
-		statementBuilder = new StatementBuilder(MAX_SIZE);
+		blockSizeController = BlockSizeController.forSession(session, "inline-views (" + getClass().getName() + ")", INITIAL_SIZE, MAX_SIZE);
+		statementBuilder = new StatementBuilder(blockSizeController.getBlockSize());
 	}
 
 	/**
@@ -82,6 +152,33 @@ public abstract class InlineViewBuilder implements Session.ResultSetReader {
 		this(style, DEFAULT_NAME, session, columnNames);
 	}
 
+	/**
+	 * Processes parameterized inline-views (see {@link InlineViewBuilder#useBindVariables(int, ParameterizedProcessor)}).
+	 */
+	public interface ParameterizedProcessor {
+
+		/**
+		 * Processes a parameterized inline-view.
+		 * The inline-view may contain duplicate rows.
+		 * 
+		 * @param inlineView the inline-view
+		 * @param parameters the parameters
+		 */
+		void process(String inlineView, Object[] parameters) throws SQLException;
+	}
+
+	/**
+	 * Uses bind variables instead of literals. Rows with values that cannot be bound
+	 * (see {@link #parameterValue(ResultSet, int)}) cause a fallback to literals.
+	 * 
+	 * @param sqlType SQL type of the parameters (see {@link java.sql.Types})
+	 * @param processor processes the parameterized inline-views
+	 */
+	public void useBindVariables(int sqlType, ParameterizedProcessor processor) {
+		parameterType = sqlType;
+		parameterizedProcessor = processor;
+	}
+
 	@Override
 	public void readCurrentRow(ResultSet resultSet) throws SQLException {
 		if (resultSetMetaData == null) {
@@ -89,6 +186,37 @@ public abstract class InlineViewBuilder implements Session.ResultSetReader {
 			cellContentConverter = createCellContentConverter();
 		}
 
+		if (parameterType != null) {
+			int columnCount = resultSetMetaData.getColumnCount();
+			Object[] row = new Object[columnCount];
+			boolean bindable = true;
+			for (int i = 1; i <= columnCount; ++i) {
+				Object value = parameterValue(resultSet, i);
+				if (value == NOT_BINDABLE) {
+					bindable = false;
+					break;
+				}
+				row[i - 1] = value == null? new Session.NullParameter(parameterType) : value;
+			}
+			if (bindable) {
+				if (maxBlockSize == 0) {
+					maxBlockSize = 1;
+					for (int size: BLOCK_SIZES) {
+						if (size * columnCount <= MAX_PARAMETERS) {
+							maxBlockSize = size;
+						}
+					}
+				}
+				parameterRows.add(row);
+				if (parameterRows.size() >= maxBlockSize) {
+					processParameterRows();
+				}
+				return;
+			}
+			processParameterRows();
+			parameterType = null;
+		}
+
 		String values[] = new String[resultSetMetaData.getColumnCount()];
 		for (int i = 1; i <= resultSetMetaData.getColumnCount(); ++i) {
 			values[i - 1] = sqlValue(resultSet, i);
@@ -100,11 +228,14 @@ public abstract class InlineViewBuilder implements Session.ResultSetReader {
 			boolean wasLogging = session.getLogStatements();
 			try {
 				session.setLogStatements(false);
-				process(statementBuilder.build());
+				processStatementBuilder();
 			} finally {
 				session.setLogStatements(wasLogging);
 			}
 		}
+		if (statementBuilder.isEmpty()) {
+			statementBuilder.setMaxBodySize(blockSizeController.getBlockSize());
+		}
 
 		String item = style.item(values, columnNames, statementBuilder.size());
 		statementBuilder.append(
@@ -112,6 +243,146 @@ public abstract class InlineViewBuilder implements Session.ResultSetReader {
 				item,
 				style.separator(),
 				style.terminator(name, columnNames));
+		blockValues.add(values);
+	}
+
+	/**
+	 * Processes the inline-view built by the {@link #statementBuilder} and measures the latency.
+	 * If the inline-view fails, the block size is decreased. If it has been rejected for being too long or
+	 * too complex (see {@link #isRetryable(SQLException, String)}), the rows are processed again in smaller blocks,
+	 * otherwise the error is thrown.
+	 */
+	private void processStatementBuilder() throws SQLException {
+		int blockSize = statementBuilder.getMaxBodySize();
+		int rows = statementBuilder.size();
+		String inlineView = statementBuilder.build();
+		List<String[]> values = new ArrayList<String[]>(blockValues);
+		blockValues.clear();
+		long startTime = System.nanoTime();
+		try {
+			process(inlineView);
+		} catch (SQLException e) {
+			if (rows > 1 && rows > blockSize / 2) {
+				blockSizeController.failed(rows);
+			}
+			if (rows <= 1 || !isRetryable(e, inlineView)) {
+				throw e;
+			}
+			processHalves(values, e);
+			return;
+		}
+		blockSizeController.measured(blockSize, rows, inlineView.length(), System.nanoTime() - startTime);
+	}
+
+	/**
+	 * Splits the rows of a rejected inline-view into two halves and processes them separately.
+	 * Halves that are rejected again are split further.
+	 *
+	 * @param rows values of the rows
+	 * @param error the error of the rejected inline-view, thrown if a single row is rejected
+	 */
+	private void processHalves(List<String[]> rows, SQLException error) throws SQLException {
+		int half = rows.size() / 2;
+		for (List<String[]> part: Arrays.asList(rows.subList(0, half), rows.subList(half, rows.size()))) {
+			StringBuilder sb = new StringBuilder(style.head(columnNames));
+			for (int rowNumber = 0; rowNumber < part.size(); ++rowNumber) {
+				if (rowNumber > 0) {
+					sb.append(style.separator());
+				}
+				sb.append(style.item(part.get(rowNumber), columnNames, rowNumber));
+			}
+			sb.append(style.terminator(name, columnNames));
+			String inlineView = sb.toString();
+			try {
+				process(inlineView);
+			} catch (SQLException e) {
+				if (!isRetryable(e, inlineView)) {
+					throw e;
+				}
+				if (part.size() <= 1) {
+					throw error;
+				}
+				blockSizeController.failed(part.size());
+				processHalves(part, error);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a failed inline-view can be processed again in smaller blocks.
+	 * That's the case if the statement containing the inline-view itself has been rejected for being
+	 * too long or too complex (see {@link BlockSizeController#isSizeRelated(SQLException)}).
+	 * Such statements are rejected before they are executed, so that no row has been processed yet.
+	 * Errors of other statements (such as the nested statements of the rows read via the inline-view) can't be retried.
+	 *
+	 * @param e the error
+	 * @param inlineView the inline-view
+	 */
+	private boolean isRetryable(SQLException e, String inlineView) {
+		if (!(e instanceof SqlException)) {
+			return false;
+		}
+		String sqlStatement = ((SqlException) e).sqlStatement;
+		return sqlStatement != null && sqlStatement.contains(inlineView) && BlockSizeController.isSizeRelated(e);
+	}
+
+	/**
+	 * Processes the rows of the current parameterized inline-view.
+	 * The inline-view is filled up with copies of the last row up to the next block size.
+	 */
+	private void processParameterRows() throws SQLException {
+		if (parameterRows.isEmpty()) {
+			return;
+		}
+		int blockSize = maxBlockSize;
+		for (int size: BLOCK_SIZES) {
+			if (size >= parameterRows.size() && size < blockSize) {
+				blockSize = size;
+			}
+		}
+		Object[] lastRow = parameterRows.get(parameterRows.size() - 1);
+		while (parameterRows.size() < blockSize) {
+			parameterRows.add(lastRow);
+		}
+		Object[] parameters = new Object[blockSize * lastRow.length];
+		int i = 0;
+		for (Object[] row: parameterRows) {
+			for (Object value: row) {
+				parameters[i++] = value;
+			}
+		}
+		parameterRows.clear();
+		boolean wasLogging = session.getLogStatements();
+		try {
+			session.setLogStatements(false);
+			parameterizedProcessor.process(parameterizedInlineView(blockSize), parameters);
+		} finally {
+			session.setLogStatements(wasLogging);
+		}
+	}
+
+	/**
+	 * Gets the parameterized inline-view with a given number of rows.
+	 */
+	private String parameterizedInlineView(int blockSize) throws SQLException {
+		String inlineView = parameterizedInlineViews.get(blockSize);
+		if (inlineView == null) {
+			String[] markers = new String[columnNames.length];
+			for (int i = 0; i < markers.length; ++i) {
+				markers[i] = parameterMarker();
+			}
+			StringBuilder sb = new StringBuilder(style.head(columnNames));
+			for (int rowNumber = 0; rowNumber < blockSize; ++rowNumber) {
+				if (rowNumber > 0) {
+					sb.append(style.separator());
+				}
+				sb.append(style.item(markers, columnNames, rowNumber));
+			}
+			sb.append(style.terminator(name, columnNames));
+			inlineView = sb.toString();
+			parameterizedInlineViews.put(blockSize, inlineView);
+		}
+		return inlineView;
 	}
 
 	protected abstract CellContentConverter createCellContentConverter();
@@ -120,10 +391,27 @@ public abstract class InlineViewBuilder implements Session.ResultSetReader {
 		return cellContentConverter.toSql(cellContentConverter.getObject(resultSet, i));
 	}
 
+	/**
+	 * Gets the value of a column to be bound to a parameter.
+	 * 
+	 * @return the value or {@link #NOT_BINDABLE}
+	 */
+	protected Object parameterValue(ResultSet resultSet, int i) throws SQLException {
+		return NOT_BINDABLE;
+	}
+
+	/**
+	 * Gets the marker of a parameter in a parameterized inline-view.
+	 */
+	protected String parameterMarker() {
+		return "?";
+	}
+
 	@Override
 	public void close() throws SQLException {
+		processParameterRows();
 		if (!statementBuilder.isEmpty()) {
-			process(statementBuilder.build());
+			processStatementBuilder();
 		}
 	}
 
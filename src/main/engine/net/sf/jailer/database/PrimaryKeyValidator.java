@@ -15,16 +15,24 @@
  */
 package net.sf.jailer.database;
 
+import java.nio.ByteBuffer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.Table;
 import net.sf.jailer.modelbuilder.JDBCMetaDataBasedModelElementFinder;
@@ -35,18 +43,80 @@ import net.sf.jailer.util.JobManager.Job;
 import net.sf.jailer.util.Quoting;
 
 /**
- * Validates all primary keys of a set of tables.
+ * Validates all primary keys of a set of tables.<br>
+ * The tables are checked concurrently, the largest tables (according to the estimated row counts) first.
+ * Optionally, each check is limited in time (see {@link ExecutionContext#getPkCheckTimeout()}) or
+ * only a sample of the rows of each table is checked (see {@link ExecutionContext#getPkCheckSampleSize()}).
  *
  * @author Ralf Wisser
  */
 public abstract class PrimaryKeyValidator {
 
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(PrimaryKeyValidator.class);
+
 	private final Object cancellationContext;
 
+	/**
+	 * Timeout of each check in sec, 0 for unlimited.
+	 */
+	private int timeout = 0;
+
+	/**
+	 * Number of rows per table to check in sampling mode, 0 for checking all rows.
+	 */
+	private int sampleSize = 0;
+
+	/**
+	 * Tables whose check timed out.
+	 */
+	private final Set<Table> uncheckedTables = new TreeSet<Table>();
+
 	public PrimaryKeyValidator(Object cancellationContext) {
 		this.cancellationContext = cancellationContext;
 	}
 
+	/**
+	 * Constructor.
+	 *
+	 * @param cancellationContext the cancellation context
+	 * @param executionContext provides the timeout and the sample size of the checks
+	 */
+	public PrimaryKeyValidator(Object cancellationContext, ExecutionContext executionContext) {
+		this(cancellationContext);
+		setTimeout(executionContext.getPkCheckTimeout());
+		setSampleSize(executionContext.getPkCheckSampleSize());
+	}
+
+	/**
+	 * Sets the timeout of each check. Tables whose check times out are not considered invalid,
+	 * they are reported by {@link #getUncheckedTables()}.
+	 *
+	 * @param timeout the timeout in sec, 0 for unlimited
+	 */
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Switches to sampling mode. Only the first rows of each table are read and checked for duplicate and null keys.
+	 * This is fast even for huge tables, but a table without errors in the sample may still have an invalid primary key.
+	 *
+	 * @param sampleSize number of rows per table to check, 0 for checking all rows
+	 */
+	public void setSampleSize(int sampleSize) {
+		this.sampleSize = sampleSize;
+	}
+
+	/**
+	 * Gets the tables whose check timed out during the last validation.
+	 */
+	public synchronized Set<Table> getUncheckedTables() {
+		return new TreeSet<Table>(uncheckedTables);
+	}
+
 	/**
 	 * Validates all primary keys of a set of tables.
 	 *
@@ -58,6 +128,9 @@ public abstract class PrimaryKeyValidator {
 		numTotal.set(0);
 		numErrors.set(0);
 		numDone.set(0);
+		synchronized (this) {
+			uncheckedTables.clear();
+		}
 		updateProgressBar();
 
 		String defaultSchema = JDBCMetaDataBasedModelElementFinder.getDefaultSchema(session, session.getSchema());
@@ -66,7 +139,11 @@ public abstract class PrimaryKeyValidator {
 		
 		List<Table> tablesWPK = new ArrayList<Table>(tables);
 		tablesWPK.removeIf(table -> table.primaryKey == null || table.primaryKey.getColumns().isEmpty());
-		tablesWPK.sort((a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+		final Map<Table, Long> rowCounts = EstimatedRowCounts.read(session, tablesWPK, defaultSchema);
+		tablesWPK.sort((a, b) -> {
+			int c = Long.compare(rowCounts.getOrDefault(b, 0L), rowCounts.getOrDefault(a, 0L));
+			return c != 0? c : a.getName().compareToIgnoreCase(b.getName());
+		});
 		numTotal.set(tablesWPK.size() * 3);
 		updateProgressBar();
 		
@@ -107,6 +184,14 @@ public abstract class PrimaryKeyValidator {
 			numDone.getAndIncrement();
 			updateProgressBar();
 			
+			if (sampleSize > 0) {
+				jobListToAddTo.add(() -> {
+					checkSample(session, table, Quoting.getQuoting(session));
+					numDone.getAndAdd(2);
+					updateProgressBar();
+				});
+				continue;
+			}
 			jobListToAddTo.add(() -> {
 				checkUniqueness(session, table, Quoting.getQuoting(session));
 				numDone.getAndIncrement();
@@ -130,6 +215,14 @@ public abstract class PrimaryKeyValidator {
 		}
 		throwIfErrorFound();
 		CancellationHandler.checkForCancellation(cancellationContext);
+		Set<Table> unchecked = getUncheckedTables();
+		if (!unchecked.isEmpty()) {
+			List<String> names = new ArrayList<String>();
+			for (Table table: unchecked) {
+				names.add(table.getName());
+			}
+			_log.warn("primary keys of " + unchecked.size() + " tables not checked (timeout of " + timeout + " sec exceeded): " + names);
+		}
 	}
 
 	private synchronized void throwIfErrorFound() throws SqlException {
@@ -165,15 +258,20 @@ public abstract class PrimaryKeyValidator {
 		}
 		final String sql = "Select " + pks + " from " + quoting.requote(table.getName()) + " " +
 				"Group by " + pks + " having count(*) > 1";
+		long startTime = System.currentTimeMillis();
 		try {
 			session.executeQuery(sql, new Session.AbstractResultSetReader() {
 				@Override
 				public void readCurrentRow(ResultSet resultSet) throws SQLException {
 					addError(null, "Primary key of table \"" + table.getName() + "\" is not unique.", sql.toString());
 				}
-			}, null, cancellationContext, 1, true);
+			}, null, cancellationContext, 1, timeout, true);
 		} catch (SqlException e) {
-			addError(table, "Table \"" + table.getName() + "\": " + e.message, sql.toString());
+			if (isTimeout(e, startTime)) {
+				addUncheckedTable(table);
+			} else {
+				addError(table, "Table \"" + table.getName() + "\": " + e.message, sql.toString());
+			}
 		}
 	}
 
@@ -190,17 +288,96 @@ public abstract class PrimaryKeyValidator {
 		if (hasNull.length() > 0) {
 			final String sql = "Select * from " + quoting.requote(table.getName()) + " " +
 					"Where " + hasNull;
+			long startTime = System.currentTimeMillis();
 			try {
 				session.executeQuery(sql, new Session.AbstractResultSetReader() {
 					@Override
 					public void readCurrentRow(ResultSet resultSet) throws SQLException {
 						addError(null, "Primary key of table \"" + table.getName() + "\" contains null.", sql.toString());
 					}
-				}, null, cancellationContext, 1, true);
+				}, null, cancellationContext, 1, timeout, true);
 			} catch (SqlException e) {
-				addError(table, "Table \"" + table.getName() + "\": " + e.message, sql.toString());
+				if (isTimeout(e, startTime)) {
+					addUncheckedTable(table);
+				} else {
+					addError(table, "Table \"" + table.getName() + "\": " + e.message, sql.toString());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the first rows of a table and checks them for duplicate and null keys.
+	 * The keys are hashed on the client, so the check doesn't need to sort or group the table.
+	 */
+	private void checkSample(Session session, final Table table, Quoting quoting) throws SQLException {
+		final List<Column> pkColumns = table.primaryKey.getColumns();
+		StringBuilder pks = new StringBuilder();
+		for (Column pkCol: pkColumns) {
+			if (pks.length() > 0) {
+				pks.append(", ");
+			}
+			pks.append(quoting.requote(pkCol.name));
+		}
+		final String sql = "Select " + pks + " from " + quoting.requote(table.getName());
+		final Set<List<Object>> keys = new HashSet<List<Object>>();
+		final boolean[] hasDuplicate = new boolean[1];
+		final boolean[] hasNull = new boolean[1];
+		long startTime = System.currentTimeMillis();
+		long numRows;
+		try {
+			numRows = session.executeQuery(sql, new Session.AbstractResultSetReader() {
+				@Override
+				public void readCurrentRow(ResultSet resultSet) throws SQLException {
+					List<Object> key = new ArrayList<Object>(pkColumns.size());
+					for (int i = 0; i < pkColumns.size(); ++i) {
+						Object value = resultSet.getObject(i + 1);
+						if (value == null && !pkColumns.get(i).isNullable) {
+							hasNull[0] = true;
+						}
+						if (value instanceof byte[]) {
+							value = ByteBuffer.wrap((byte[]) value);
+						}
+						key.add(value);
+					}
+					if (!keys.add(key)) {
+						hasDuplicate[0] = true;
+					}
+				}
+			}, null, cancellationContext, sampleSize, timeout, true);
+		} catch (SqlException e) {
+			if (isTimeout(e, startTime)) {
+				addUncheckedTable(table);
+			} else {
+				addError(table, "Table \"" + table.getName() + "\": " + e.message, sql);
+			}
+			return;
+		}
+		if (hasDuplicate[0]) {
+			addError(null, "Primary key of table \"" + table.getName() + "\" is not unique (found in a sample of " + numRows + " rows).", sql);
+		}
+		if (hasNull[0]) {
+			addError(null, "Primary key of table \"" + table.getName() + "\" contains null (found in a sample of " + numRows + " rows).", sql);
+		}
+	}
+
+	/**
+	 * Checks whether a check failed because of the timeout.
+	 */
+	private boolean isTimeout(SQLException e, long startTime) {
+		if (timeout <= 0) {
+			return false;
+		}
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof SQLTimeoutException) {
+				return true;
 			}
 		}
+		return System.currentTimeMillis() - startTime >= timeout * 1000L;
+	}
+
+	private synchronized void addUncheckedTable(Table table) {
+		uncheckedTables.add(table);
 	}
 
 	private List<String> errorMessage = new LinkedList<String>();
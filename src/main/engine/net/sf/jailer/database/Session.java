@@ -21,6 +21,7 @@ import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -33,6 +34,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -95,7 +97,28 @@ public class Session {
 	 */
 	private Map<Connection, Long> lastConnectionActiviyTimeStamp = Collections.synchronizedMap(new HashMap<Connection, Long>());
 
+	/**
+	 * Cached prepared statements per connection (see {@link #executePreparedQuery(String, Object[], ResultSetReader, boolean)}).
+	 */
+	private final Map<Connection, Map<String, PreparedStatement>> preparedStatements = Collections.synchronizedMap(new HashMap<Connection, Map<String, PreparedStatement>>());
+
+	/**
+	 * Maximum number of cached prepared statements per connection.
+	 */
+	private static final int MAX_CACHED_STATEMENTS = 64;
+
+	/**
+	 * Maximum time in ms a thread waits for a connection of the pool before it shares an existing one.
+	 */
+	private static final long CONNECTION_LEASE_TIMEOUT = 2000;
+
 	private final boolean transactional;
+
+	/**
+	 * Pool of the connections bound to threads.
+	 */
+	private final ConnectionPool connectionPool;
+
 	private Map<Long, Integer> connectionCount = new HashMap<Long, Integer>();
 	
 	/**
@@ -260,6 +283,22 @@ public class Session {
 		this.schema = (dataSource instanceof BasicDataSource)? ((BasicDataSource) dataSource).dbUser : "";
 		this.temporaryTableScope = scope;
 
+		Configuration configuration = Configuration.getInstance();
+		connectionPool = new ConnectionPool(dataSource, configuration.getMaxDatabaseConnections(),
+				configuration.getDatabaseConnectionMaxLifetime() * 1000L, configuration.getDatabaseConnectionInteractiveTimeout() * 1000L,
+				new ConnectionPool.Lessee() {
+			@Override
+			public boolean isInUse(Connection con) {
+				return con == defaultConnection || con == globalFallbackConnection || con == temporaryTableSession || isRunning(con);
+			}
+			@Override
+			public void closed(Connection con) {
+				connections.remove(con);
+				preparedStatements.remove(con);
+				lastConnectionActiviyTimeStamp.remove(con);
+			}
+		});
+
 		connectionFactory = new ConnectionFactory() {
 			private Random random = new Random();
 			@Override
@@ -268,14 +307,27 @@ public class Session {
 				Connection con = getConnectionIfExist();
 				if (con != null) {
 					Long ts = lastConnectionActiviyTimeStamp.get(con);
-					if (ts != null && System.currentTimeMillis() - ts < databaseConnectionInteractiveTimeout) {
+					if (ts != null && System.currentTimeMillis() - ts < databaseConnectionInteractiveTimeout && !connectionPool.isExpired(con)) {
 						// prevent synchronization
 						releaseConnection(con); // that's ok
 						return con;
 					}
 				}
+				// wait for a pooled connection without holding the lock
+				Connection leasedCon = null;
+				SQLException leaseError = null;
+				if (con == null && !isDown()) {
+					try {
+						leasedCon = connectionPool.lease(CONNECTION_LEASE_TIMEOUT);
+					} catch (SQLException e) {
+						leaseError = e;
+					}
+				}
 				synchronized (this) {
-					con = getConnection0();
+					con = getConnection0(leasedCon, leaseError);
+					if (leasedCon != null && con != leasedCon) {
+						connectionPool.release(leasedCon);
+					}
 					Long ts = lastConnectionActiviyTimeStamp.get(con);
 					releaseConnection(con);
 					boolean isInvalid = false;
@@ -290,24 +342,15 @@ public class Session {
 					if (ts != null && con != null && con == connection.get() && currentAutoCommit && !Session.this.transactional && !isDown()) {
 						long idleTime = System.currentTimeMillis() - ts;
 						
+						if (connectionPool.isExpired(con)) {
+							reconnect();
+							return getConnection0(null, null);
+						}
 						if (isInvalid || idleTime >= databaseConnectionInteractiveTimeout) {
-							boolean valid;
-							try {
-								valid = con.isValid(4);
-							} catch (Throwable t) {
-								valid = true;
-							}
-							if (valid) {
-								try {
-									valid = !con.isClosed();
-								} catch (Throwable t) {
-									valid = true;
-								}
-							}
-							if (!valid) {
+							if (!connectionPool.validate(con)) {
 								// LogUtil.warn(new RuntimeException("invalid connection, reconnecting (" + idleTime + ")"));
 								reconnect();
-								return getConnection0();
+								return getConnection0(null, null);
 							}
 						}
 					}
@@ -322,14 +365,27 @@ public class Session {
 				}
 				return con;
 			}
-			private Connection getConnection0() throws SQLException {
+			/**
+			 * Gets the connection of the current thread, binds a new one to it if it has none.
+			 * A thread that doesn't get a pooled connection shares an existing one.
+			 *
+			 * @param leasedCon connection leased for the current thread, or <code>null</code> to lease one without waiting
+			 * @param leaseError error of the lease, if any
+			 */
+			private Connection getConnection0(Connection leasedCon, SQLException leaseError) throws SQLException {
 				Connection con = getConnectionIfExist();
 				if (isDown()) {
 					return defaultConnection;
 				}
 				if (con == null) {
 					try {
-						con = dataSource.getConnection();
+						if (leasedCon != null) {
+							con = leasedCon;
+						} else if (leaseError != null) {
+							throw leaseError;
+						} else {
+							con = connectionPool.lease(0);
+						}
 						defaultConnection = con;
 					} catch (SQLException e) {
 						if (connections.size() > 1) {
@@ -392,6 +448,9 @@ public class Session {
 
 	protected void setConnection(Connection con) {
 		connection.set(con);
+		if (con != null) {
+			connectionPool.setOwner(con);
+		}
 		synchronized (this) {
 			Long tid = Thread.currentThread().getId();
 			if (con == null) {
@@ -441,6 +500,7 @@ public class Session {
 	public void reconnect() {
 		Connection con = connection.get();
 		if (con != null) {
+			preparedStatements.remove(con);
 			if (temporaryTableScope == WorkingTableScope.TRANSACTION_LOCAL) {
 				try {
 					con.commit();
@@ -454,6 +514,8 @@ public class Session {
 			} catch (Throwable e) { // SQLException e) {
 				// ignore
 			}
+			connectionPool.remove(con);
+			connections.remove(con);
 			setConnection(null);
 			if (con == temporaryTableSession) {
 				temporaryTableSession = null;
@@ -474,6 +536,7 @@ public class Session {
 			} catch (Throwable e) { // SQLException e) {
 				// ignore
 			}
+			connectionPool.remove(temporaryTableSession);
 			temporaryTableSession = null;
 		}
 	}
@@ -598,6 +661,7 @@ public class Session {
 	 *
 	 * @param theConnection connection to use
 	 * @param sqlQuery the query in SQL
+	 * @param parameter parameters of a cached prepared statement, or <code>null</code>
 	 * @param reader the reader for the result
 	 * @param alternativeSQL query to be executed if sqlQuery fails
 	 * @param context cancellation context
@@ -605,13 +669,13 @@ public class Session {
 	 * @param timeout the timeout in sec
 	 * @param withExplicitCommit if <code>true</code>, switch of autocommit and commit explicitly
 	 */
-	private long executeQuery(Connection theConnection, String sqlQuery, ResultSetReader reader, String alternativeSQL, Object context, long limit, int timeout, boolean withExplicitCommit) throws SQLException {
-		if (!transactional || DBMS.MySQL.equals(dbms)) {
+	private long executeQuery(Connection theConnection, String sqlQuery, Object[] parameter, ResultSetReader reader, String alternativeSQL, Object context, long limit, int timeout, boolean withExplicitCommit) throws SQLException {
+		if (!transactional || DBMS.MySQL.equals(dbms) || parameter != null) {
 			synchronized (theConnection) {
-				return executeQuery0(theConnection, sqlQuery, reader, alternativeSQL, context, limit, timeout, withExplicitCommit);
+				return executeQuery0(theConnection, sqlQuery, parameter, reader, alternativeSQL, context, limit, timeout, withExplicitCommit);
 			}
 		} else {
-			return executeQuery0(theConnection, sqlQuery, reader, alternativeSQL, context, limit, timeout, withExplicitCommit);
+			return executeQuery0(theConnection, sqlQuery, parameter, reader, alternativeSQL, context, limit, timeout, withExplicitCommit);
 		}
 	}
 
@@ -620,6 +684,7 @@ public class Session {
 	 *
 	 * @param theConnection connection to use
 	 * @param sqlQuery the query in SQL
+	 * @param parameter parameters of a cached prepared statement, or <code>null</code>
 	 * @param reader the reader for the result
 	 * @param alternativeSQL query to be executed if sqlQuery fails
 	 * @param context cancellation context
@@ -627,13 +692,13 @@ public class Session {
 	 * @param timeout the timeout in sec
 	 * @param withExplicitCommit if <code>true</code>, switch of autocommit and commit explicitly
 	 */
-	private long executeQuery0(Connection theConnection, String sqlQuery, ResultSetReader reader, String alternativeSQL, Object context, long limit, int timeout, boolean withExplicitCommit) throws SQLException {
+	private long executeQuery0(Connection theConnection, String sqlQuery, Object[] parameter, ResultSetReader reader, String alternativeSQL, Object context, long limit, int timeout, boolean withExplicitCommit) throws SQLException {
 		if (withExplicitCommit) {
 			synchronized (theConnection) {
 				if (theConnection.getAutoCommit()) {
 					try {
 						theConnection.setAutoCommit(false);
-						return executeQuery(theConnection, sqlQuery, reader, alternativeSQL, context, limit, timeout, false);
+						return executeQuery(theConnection, sqlQuery, parameter, reader, alternativeSQL, context, limit, timeout, false);
 					} finally {
 						try {
 							theConnection.commit();
@@ -655,7 +720,11 @@ public class Session {
 			if (wo) {
 				sqlQuery = sqlQuery.substring(0, sqlQuery.length() - woSuffix.length());
 			}
-			statement = theConnection.createStatement();
+			if (parameter != null) {
+				statement = getPreparedStatement(theConnection, sqlQuery);
+			} else {
+				statement = theConnection.createStatement();
+			}
 			if (dbms != null) {
 				if (!wo || !DBMS.MySQL.equals(dbms)) {
 					try {
@@ -670,16 +739,26 @@ public class Session {
 			try {
 				if (limit > 0 && limit < Integer.MAX_VALUE - 1) {
 					statement.setMaxRows((int) limit + 1);
+				} else if (parameter != null) {
+					statement.setMaxRows(0);
 				}
 			} catch (Exception e) {
 				// ignore
 			}
 			try {
-				if (timeout > 0) {
+				if (timeout > 0 || parameter != null) {
 					statement.setQueryTimeout(timeout);
 				}
-				resultSet = statement.executeQuery(sqlQuery);
+				if (parameter != null) {
+					setParameters((PreparedStatement) statement, parameter);
+					resultSet = ((PreparedStatement) statement).executeQuery();
+				} else {
+					resultSet = statement.executeQuery(sqlQuery);
+				}
 			} catch (SQLException e) {
+				if (parameter != null) {
+					removePreparedStatement(theConnection, sqlQuery);
+				}
 				checkKilled();
 				CancellationHandler.checkForCancellation(context);
 
@@ -709,10 +788,12 @@ public class Session {
 			resultSet.close();
 		} finally {
 			if (statement != null) {
-				try {
-					statement.close();
-				} catch (SQLException e) {
-					// ignore
+				if (parameter == null) {
+					try {
+						statement.close();
+					} catch (SQLException e) {
+						// ignore
+					}
 				}
 				end(statement, context);
 			}
@@ -735,13 +816,29 @@ public class Session {
 	 * @param withExplicitCommit if <code>true</code>, switch of autocommit and commit explicitly
 	 */
 	public long executeQuery(String sqlQuery, ResultSetReader reader, String alternativeSQL, Object context, long limit, int timeout, boolean withExplicitCommit) throws SQLException {
+		return executeQuery(sqlQuery, null, reader, alternativeSQL, context, limit, timeout, withExplicitCommit);
+	}
+
+	/**
+	 * Executes a SQL-Query (SELECT) with parameters using a cached {@link PreparedStatement}.
+	 *
+	 * @param sqlQuery the query in SQL
+	 * @param parameter the parameters
+	 * @param reader the reader for the result
+	 * @param withExplicitCommit if <code>true</code>, switch of autocommit and commit explicitly
+	 */
+	public long executePreparedQuery(String sqlQuery, Object[] parameter, ResultSetReader reader, boolean withExplicitCommit) throws SQLException {
+		return executeQuery(sqlQuery, parameter, reader, null, null, 0, 0, withExplicitCommit);
+	}
+
+	private long executeQuery(String sqlQuery, Object[] parameter, ResultSetReader reader, String alternativeSQL, Object context, long limit, int timeout, boolean withExplicitCommit) throws SQLException {
 		if (getLogStatements()) {
 			_log.info(logPrefix + sqlQuery);
 		}
 		Connection con = null;
 		try {
 			con = connectionFactory.getConnection();
-			long result = executeQuery(con, sqlQuery, reader, alternativeSQL, context, limit, timeout, withExplicitCommit);
+			long result = executeQuery(con, sqlQuery, parameter, reader, alternativeSQL, context, limit, timeout, withExplicitCommit);
 			releaseConnection(con);
 			return result;
 		} catch (SQLException e) {
@@ -804,6 +901,22 @@ public class Session {
 	 * @return update-count
 	 */
 	public int executeUpdate(String sqlUpdate) throws SQLException {
+		return executeUpdate0(sqlUpdate, null);
+	}
+
+	/**
+	 * Executes a SQL-Update (INSERT, DELETE or UPDATE) with parameters using a cached {@link PreparedStatement}.
+	 *
+	 * @param sqlUpdate the update in SQL
+	 * @param parameter the parameters
+	 *
+	 * @return update-count
+	 */
+	public int executePreparedUpdate(String sqlUpdate, Object[] parameter) throws SQLException {
+		return executeUpdate0(sqlUpdate, parameter);
+	}
+
+	private int executeUpdate0(String sqlUpdate, Object[] parameter) throws SQLException {
 		if (getLogStatements()) {
 			_log.info(logPrefix + sqlUpdate);
 		}
@@ -820,7 +933,11 @@ public class Session {
 				Connection con = null;
 				try {
 					con = connectionFactory.getConnection();
-					statement = con.createStatement();
+					if (parameter != null) {
+						statement = getPreparedStatement(con, sqlUpdate);
+					} else {
+						statement = con.createStatement();
+					}
 					begin(statement, null);
 					if (serializeAccess) {
 						boolean acquired;
@@ -832,7 +949,7 @@ public class Session {
 						}
 
 						try {
-							rowCount = statement.executeUpdate(sqlUpdate);
+							rowCount = executeUpdate(con, statement, sqlUpdate, parameter);
 						} finally {
 							if (acquired) {
 								semaphore.release(PERMITS);
@@ -848,7 +965,7 @@ public class Session {
 						}
 
 						try {
-							rowCount = statement.executeUpdate(sqlUpdate);
+							rowCount = executeUpdate(con, statement, sqlUpdate, parameter);
 						} finally {
 							if (acquired) {
 								semaphore.release(1);
@@ -865,6 +982,9 @@ public class Session {
 				} catch (SQLException e) {
 					if (con != null) {
 						markConnectionAsPotentiallyInvalid(con);
+						if (parameter != null) {
+							removePreparedStatement(con, sqlUpdate);
+						}
 					}
 					checkKilled();
 					CancellationHandler.checkForCancellation(null);
@@ -883,7 +1003,7 @@ public class Session {
 						// ignore
 					}
 				} finally {
-					if (statement != null) {
+					if (statement != null && parameter == null) {
 						try { statement.close(); } catch (SQLException e) { }
 					}
 				}
@@ -904,6 +1024,130 @@ public class Session {
 		}
 	}
 
+	/**
+	 * Executes a statement, binds the parameters of a cached {@link PreparedStatement}.
+	 */
+	private int executeUpdate(Connection con, Statement statement, String sqlUpdate, Object[] parameter) throws SQLException {
+		if (parameter == null) {
+			return statement.executeUpdate(sqlUpdate);
+		}
+		synchronized (con) {
+			setParameters((PreparedStatement) statement, parameter);
+			return ((PreparedStatement) statement).executeUpdate();
+		}
+	}
+
+	/**
+	 * Binds parameters.
+	 */
+	private void setParameters(PreparedStatement statement, Object[] parameter) throws SQLException {
+		int i = 1;
+		for (Object p: parameter) {
+			if (p instanceof NullParameter) {
+				statement.setNull(i++, ((NullParameter) p).sqlType);
+			} else {
+				statement.setObject(i++, p);
+			}
+		}
+	}
+
+	/**
+	 * Typed SQL NULL parameter.
+	 */
+	public static class NullParameter {
+		public final int sqlType;
+
+		public NullParameter(int sqlType) {
+			this.sqlType = sqlType;
+		}
+	}
+
+	/**
+	 * Gets a cached prepared statement.
+	 *
+	 * @param con the connection
+	 * @param sql the statement
+	 * @return cached statement for the connection
+	 */
+	private PreparedStatement getPreparedStatement(Connection con, String sql) throws SQLException {
+		Map<String, PreparedStatement> statements;
+		synchronized (preparedStatements) {
+			statements = preparedStatements.get(con);
+			if (statements == null) {
+				statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+					private static final long serialVersionUID = -6257412478296183440L;
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+						if (size() > MAX_CACHED_STATEMENTS) {
+							try {
+								eldest.getValue().close();
+							} catch (SQLException e) {
+								// ignore
+							}
+							return true;
+						}
+						return false;
+					}
+				};
+				preparedStatements.put(con, statements);
+			}
+		}
+		synchronized (statements) {
+			PreparedStatement statement = statements.get(sql);
+			if (statement == null || statement.isClosed()) {
+				statement = con.prepareStatement(sql);
+				statements.put(sql, statement);
+			}
+			return statement;
+		}
+	}
+
+	/**
+	 * Removes a statement from the cache and closes it.
+	 *
+	 * @param con the connection
+	 * @param sql the statement
+	 */
+	private void removePreparedStatement(Connection con, String sql) {
+		Map<String, PreparedStatement> statements = preparedStatements.get(con);
+		if (statements != null) {
+			PreparedStatement statement;
+			synchronized (statements) {
+				statement = statements.remove(sql);
+			}
+			if (statement != null) {
+				try {
+					statement.close();
+				} catch (SQLException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Closes all cached prepared statements.
+	 */
+	private void closePreparedStatements() {
+		List<Map<String, PreparedStatement>> allStatements;
+		synchronized (preparedStatements) {
+			allStatements = new ArrayList<Map<String, PreparedStatement>>(preparedStatements.values());
+			preparedStatements.clear();
+		}
+		for (Map<String, PreparedStatement> statements: allStatements) {
+			synchronized (statements) {
+				for (PreparedStatement statement: statements.values()) {
+					try {
+						statement.close();
+					} catch (SQLException e) {
+						// ignore
+					}
+				}
+				statements.clear();
+			}
+		}
+	}
+
 	/**
 	 * Executes a SQL-Update (INSERT, DELETE or UPDATE) with parameters.
 	 *
@@ -1194,6 +1438,218 @@ public class Session {
 		}
 	}
 
+	/**
+	 * Executes a list of SQL-Statements (INSERT, UPDATE, DELETE or MERGE) as a JDBC batch.
+	 * Statements are executed one by one if the driver doesn't support batch updates.
+	 *
+	 * @param sqls the SQL-Statements
+	 * @return total update-count
+	 */
+	public long executeBatch(List<String> sqls) throws SQLException {
+		if (getLogStatements()) {
+			for (String sql: sqls) {
+				_log.info(logPrefix + sql);
+			}
+		}
+		CancellationHandler.checkForCancellation(null);
+		long rowCount = 0;
+		long startTime = System.currentTimeMillis();
+		int failures = 0;
+		boolean serializeAccess = false;
+		List<String> pending = sqls;
+		for (;;) {
+			Statement statement = null;
+			Connection con = null;
+			try {
+				con = connectionFactory.getConnection();
+				if (supportsBatchUpdates == null) {
+					supportsBatchUpdates = con.getMetaData().supportsBatchUpdates();
+				}
+				if (!supportsBatchUpdates) {
+					for (String sql: pending) {
+						rowCount += execute(sql, null, false);
+					}
+					return rowCount;
+				}
+				statement = con.createStatement();
+				begin(statement, null);
+				for (String sql: pending) {
+					statement.addBatch(sql);
+				}
+				int permits = serializeAccess? PERMITS : 1;
+				boolean acquired;
+				try {
+					semaphore.acquire(permits);
+					acquired = true;
+				} catch (InterruptedException e) {
+					acquired = false;
+				}
+				try {
+					for (int count: statement.executeBatch()) {
+						if (count > 0) {
+							rowCount += count;
+						}
+					}
+					lastUpdateTS = System.currentTimeMillis();
+				} finally {
+					if (acquired) {
+						semaphore.release(permits);
+					}
+				}
+				end(statement, null);
+				releaseConnection(con);
+				if (getLogStatements()) {
+					_log.info(logPrefix + "" + rowCount + " row(s) in " + (System.currentTimeMillis() - startTime) + " ms");
+				}
+				return rowCount;
+			} catch (SQLException e) {
+				if (con != null) {
+					markConnectionAsPotentiallyInvalid(con);
+				}
+				checkKilled();
+				CancellationHandler.checkForCancellation(null);
+				end(statement, null);
+				if (e instanceof SqlException) {
+					throw e;
+				}
+				if (isRetrieable(e) && ++failures <= MAXIMUM_NUMBER_OF_FAILURES) {
+					// deadlock, retry the statements that have not been executed
+					List<String> remaining = new ArrayList<String>();
+					int[] counts = e instanceof BatchUpdateException? ((BatchUpdateException) e).getUpdateCounts() : null;
+					for (int i = 0; i < pending.size(); ++i) {
+						if (counts == null || i >= counts.length || counts[i] == Statement.EXECUTE_FAILED) {
+							remaining.add(pending.get(i));
+						} else if (counts[i] > 0) {
+							rowCount += counts[i];
+						}
+					}
+					pending = remaining;
+					serializeAccess = true;
+					_log.info(logPrefix + "Deadlock! Trying again...");
+					try {
+						Thread.sleep(140);
+					} catch (InterruptedException e1) {
+						// ignore
+					}
+					continue;
+				}
+				String sql = pending.get(getFailedBatchStatementIndex(e, pending.size()));
+				if (!silent) {
+					_log.error(logPrefix + "Error executing statement", e);
+				}
+				throw new SqlException("\"" + e.getMessage() + "\" in statement \"" + sql + "\"", sql, e);
+			} finally {
+				if (statement != null) {
+					try { statement.close(); } catch (SQLException e) { }
+				}
+			}
+		}
+	}
+
+	/**
+	 * Executes a SQL-Update (INSERT, DELETE or UPDATE) once per parameter row as a JDBC batch using a cached {@link PreparedStatement}.
+	 * Rows are executed one by one if the driver doesn't support batch updates.
+	 *
+	 * @param sqlUpdate the update in SQL
+	 * @param parameters the parameters of each row
+	 * @return total update-count
+	 */
+	public long executePreparedBatch(String sqlUpdate, List<Object[]> parameters) throws SQLException {
+		if (getLogStatements()) {
+			_log.info(logPrefix + sqlUpdate + " (" + parameters.size() + " rows)");
+		}
+		CancellationHandler.checkForCancellation(null);
+		long rowCount = 0;
+		long startTime = System.currentTimeMillis();
+		PreparedStatement statement = null;
+		Connection con = null;
+		try {
+			con = connectionFactory.getConnection();
+			if (supportsBatchUpdates == null) {
+				supportsBatchUpdates = con.getMetaData().supportsBatchUpdates();
+			}
+			if (!supportsBatchUpdates) {
+				for (Object[] parameter: parameters) {
+					rowCount += executePreparedUpdate(sqlUpdate, parameter);
+				}
+				return rowCount;
+			}
+			statement = getPreparedStatement(con, sqlUpdate);
+			begin(statement, null);
+			boolean acquired;
+			try {
+				semaphore.acquire(1);
+				acquired = true;
+			} catch (InterruptedException e) {
+				acquired = false;
+			}
+			try {
+				synchronized (con) {
+					for (Object[] parameter: parameters) {
+						setParameters(statement, parameter);
+						statement.addBatch();
+					}
+					for (int count: statement.executeBatch()) {
+						if (count > 0) {
+							rowCount += count;
+						}
+					}
+				}
+				lastUpdateTS = System.currentTimeMillis();
+			} finally {
+				if (acquired) {
+					semaphore.release(1);
+				}
+			}
+			end(statement, null);
+			releaseConnection(con);
+			if (getLogStatements()) {
+				_log.info(logPrefix + "" + rowCount + " row(s) in " + (System.currentTimeMillis() - startTime) + " ms");
+			}
+			return rowCount;
+		} catch (SQLException e) {
+			if (con != null) {
+				markConnectionAsPotentiallyInvalid(con);
+				removePreparedStatement(con, sqlUpdate);
+			}
+			checkKilled();
+			CancellationHandler.checkForCancellation(null);
+			end(statement, null);
+			if (e instanceof SqlException) {
+				throw e;
+			}
+			if (!silent) {
+				_log.error(logPrefix + "Error executing statement", e);
+			}
+			throw new SqlException("\"" + e.getMessage() + "\" in statement \"" + sqlUpdate + "\"", sqlUpdate, e);
+		}
+	}
+
+	/**
+	 * Gets the index of the statement of a batch that caused an error.
+	 */
+	private static int getFailedBatchStatementIndex(SQLException e, int batchSize) {
+		if (e instanceof BatchUpdateException) {
+			int[] counts = ((BatchUpdateException) e).getUpdateCounts();
+			if (counts != null) {
+				for (int i = 0; i < counts.length; ++i) {
+					if (counts[i] == Statement.EXECUTE_FAILED) {
+						return i;
+					}
+				}
+				if (counts.length < batchSize) {
+					return counts.length;
+				}
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Does the driver support batch updates?
+	 */
+	private Boolean supportsBatchUpdates = null;
+
 	private boolean isRetrieable(SQLException e) {
 		String sqlState = e.getSQLState();
 		boolean deadlock = sqlState != null && sqlState.matches("40.01"); // "serialization failure", see https://en.wikipedia.org/wiki/SQLSTATE
@@ -1244,6 +1700,7 @@ public class Session {
 	 */
 	public void shutDown() {
 		down.set(true);
+		closePreparedStatements();
 		_log.info(logPrefix + "closing connections... (" + connections.size() + ")");
 		for (;;) {
 			Connection con = null;
@@ -1262,6 +1719,7 @@ public class Session {
 			}
 		}
 		closeTemporaryTableSession();
+		connectionPool.close();
 		_log.info(logPrefix + "connection closed");
 	}
 
@@ -1308,6 +1766,22 @@ public class Session {
 		runningVersion.set(null);
 	}
 
+	/**
+	 * Checks if a statement is running on a given connection.
+	 */
+	private synchronized boolean isRunning(Connection con) {
+		for (Statement statement: runningStatements.keySet()) {
+			try {
+				if (statement.getConnection() == con) {
+					return true;
+				}
+			} catch (Throwable t) {
+				// ignore
+			}
+		}
+		return false;
+	}
+
 	private synchronized void checkKilled() {
 		Long v = runningVersion.get();
 		if (v != null && v != currentVersion) {
@@ -1319,6 +1793,7 @@ public class Session {
 	 * Rolls back and closes all connections.
 	 */
 	public void rollbackAll() throws SQLException {
+		closePreparedStatements();
 		for (Connection con: connections) {
 			try {
 				con.rollback();
@@ -1330,6 +1805,7 @@ public class Session {
 			} catch(SQLException e) {
 				_log.warn(logPrefix + e.getMessage());
 			}
+			connectionPool.remove(con);
 		}
 		if (temporaryTableSession != null) {
 			try {
@@ -1552,6 +2028,7 @@ public class Session {
 	private final static ThreadLocal<Boolean> sharesConnection = new ThreadLocal<Boolean>();
 
 	public final Object MD_GETCOLUMNS_LOCK = new String("MD_GETCOLUMNS_LOCK");
+	public final Object MD_CACHE_LOCK = new String("MD_CACHE_LOCK");
 
 	public static void setThreadSharesConnection() {
 		sharesConnection.set(true);
@@ -1581,8 +2058,20 @@ public class Session {
 		return count != null && count <= 1;
 	}
 
-	public synchronized String getConnectionStats() {
-		return "ConStats:" + connections.size() + "/" + connectionCount.size() + "/" + connectionCount.keySet().size();
+	public String getConnectionStats() {
+		ConnectionPool.Statistics statistics = connectionPool.getStatistics();
+		synchronized (this) {
+			return "ConStats:" + connections.size() + "/" + connectionCount.size() + "/" + connectionCount.keySet().size() + " (" + statistics + ")";
+		}
+	}
+
+	/**
+	 * Gets statistics of the pool of connections bound to threads.
+	 *
+	 * @return wait time, active and idle counts, validation failures etc.
+	 */
+	public ConnectionPool.Statistics getConnectionPoolStatistics() {
+		return connectionPool.getStatistics();
 	}
 
 }
@@ -19,7 +19,10 @@ package net.sf.jailer.database;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -82,6 +85,19 @@ public class SqlScriptBasedStatisticRenovator implements StatisticRenovator {
 	 */
 	@Override
 	public void renew(Session session, ExecutionContext executionContext) throws Exception {
+		renew(session, executionContext, Collections.<String>emptyList());
+	}
+
+	/**
+	 * Renews the DB table statistics for the working-tables and the narrow entity-tables
+	 * by executing the SQL-script. The script renews the statistics of the narrow entity-tables
+	 * in "${for-each:narrow-entity-tables}" (table references) or "${for-each:narrow-entity-table-names}" (unqualified names) blocks.
+	 * 
+	 * @param session for execution of SQL-statements
+	 * @param narrowEntityTables names of the narrow entity-tables in use
+	 */
+	@Override
+	public void renew(Session session, ExecutionContext executionContext, List<String> narrowEntityTables) throws Exception {
 		Map<String, String> arguments = new HashMap<String, String>();
 		arguments.put("JAILER_ENTITY", SQLDialect.dmlTableReference("JAILER_ENTITY", session, executionContext));
 		arguments.put("JAILER_GRAPH", SQLDialect.dmlTableReference("JAILER_GRAPH", session, executionContext));
@@ -104,9 +120,19 @@ public class SqlScriptBasedStatisticRenovator implements StatisticRenovator {
 			splittedArguments.put("TABLE_" + e.getKey(), tab);
 		}
 		arguments.putAll(splittedArguments);
+		List<String> narrowEntityTableReferences = new ArrayList<String>();
+		List<String> narrowEntityTableNames = new ArrayList<String>();
+		for (String narrowEntityTable: narrowEntityTables) {
+			String schtab = SQLDialect.dmlTableReference(narrowEntityTable, session, executionContext);
+			narrowEntityTableReferences.add(schtab);
+			narrowEntityTableNames.add(schtab.substring(schtab.lastIndexOf('.') + 1));
+		}
+		Map<String, List<String>> listArguments = new HashMap<String, List<String>>();
+		listArguments.put("narrow-entity-tables", narrowEntityTableReferences);
+		listArguments.put("narrow-entity-table-names", narrowEntityTableNames);
 		File file = Configuration.getInstance().createTempFile();
 		PrintWriter out = new PrintWriter(new FileOutputStream(file));
-		out.print(new PrintUtil().applyTemplate(scriptFileName.replace('/', File.separatorChar), arguments, null));
+		out.print(new PrintUtil().applyTemplate(scriptFileName.replace('/', File.separatorChar), arguments, listArguments));
 		out.close();
 		boolean silent = session.getSilent();
 		session.setSilent(true);
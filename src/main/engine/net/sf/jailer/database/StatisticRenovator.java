@@ -16,6 +16,8 @@
 
 package net.sf.jailer.database;
 
+import java.util.List;
+
 import net.sf.jailer.ExecutionContext;
 
 /**
@@ -31,6 +33,16 @@ public interface StatisticRenovator {
 	 * @param session for execution of SQL-statements
 	 */
 	void renew(Session session, ExecutionContext executionContext) throws Exception;
+
+	/**
+	 * Renews the DB table statistics for the working-tables, including the narrow entity-tables.
+	 * 
+	 * @param session for execution of SQL-statements
+	 * @param narrowEntityTables names of the narrow entity-tables in use
+	 */
+	default void renew(Session session, ExecutionContext executionContext, List<String> narrowEntityTables) throws Exception {
+		renew(session, executionContext);
+	}
 	
 }
 
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.sf.jailer.ExecutionContext;
+import net.sf.jailer.JailerVersion;
+import net.sf.jailer.configuration.DBMS;
+import net.sf.jailer.entitygraph.EntityGraph;
+
+/**
+ * DBMS-native list partitioning of the working tables by entity-graph
+ * (see {@link ExecutionContext#getMultiTenant()}).
+ * Each entity-graph has partitions of its own, which are dropped instead of deleting the graph's rows.
+ *
+ * @author Ralf Wisser
+ */
+public abstract class WorkingTablePartitioning {
+
+	/**
+	 * The working tables that are partitioned by entity-graph.
+	 */
+	public static final String[] PARTITIONED_TABLES = new String[] { EntityGraph.ENTITY, EntityGraph.DEPENDENCY };
+
+	/**
+	 * Key of the partitioning in the config table.
+	 */
+	public static final String CONFIG_KEY = "partitioning";
+
+	/**
+	 * Gets the name of the partitioning.
+	 */
+	public abstract String getName();
+
+	/**
+	 * Gets the suffix of the DDL statement that creates a partitioned working table.
+	 *
+	 * @param createTableSuffix suffix of the DDL statement of non-partitioned working tables
+	 */
+	public abstract String getCreateTableSuffix(String createTableSuffix);
+
+	/**
+	 * Gets DDL to be executed after creating a partitioned working table.
+	 *
+	 * @param tableReference reference to the table in DDL statements
+	 */
+	public abstract String getAdditionalDDL(String tableReference);
+
+	/**
+	 * Creates the partition of an entity-graph.
+	 *
+	 * @param tableReference reference to the table in DML statements
+	 * @param graphID the graph ID
+	 * @param session the session
+	 */
+	public abstract void createPartition(String tableReference, int graphID, Session session) throws SQLException;
+
+	/**
+	 * Drops the partition of an entity-graph.
+	 *
+	 * @param tableReference reference to the table in DML statements
+	 * @param graphID the graph ID
+	 * @param session the session
+	 */
+	public abstract void dropPartition(String tableReference, int graphID, Session session) throws SQLException;
+
+	/**
+	 * List partitioning of PostgreSQL. The partitions are created explicitly, rows of
+	 * graphs without partition go into a default partition.
+	 */
+	private static class PostgreSQLPartitioning extends WorkingTablePartitioning {
+		@Override
+		public String getName() {
+			return "POSTGRESQL_LIST";
+		}
+
+		@Override
+		public String getCreateTableSuffix(String createTableSuffix) {
+			return " PARTITION BY LIST (r_entitygraph) " + createTableSuffix;
+		}
+
+		@Override
+		public String getAdditionalDDL(String tableReference) {
+			return "CREATE TABLE " + tableReference + "_PD PARTITION OF " + tableReference + " DEFAULT;";
+		}
+
+		@Override
+		public void createPartition(String tableReference, int graphID, Session session) throws SQLException {
+			session.execute("CREATE TABLE " + tableReference + "_P" + graphID + " PARTITION OF " + tableReference + " FOR VALUES IN (" + graphID + ")");
+		}
+
+		@Override
+		public void dropPartition(String tableReference, int graphID, Session session) throws SQLException {
+			session.execute("DROP TABLE " + tableReference + "_P" + graphID);
+		}
+	}
+
+	/**
+	 * Automatic list partitioning of Oracle. The DBMS creates a partition on the first insert of a graph's row.
+	 */
+	private static class OraclePartitioning extends WorkingTablePartitioning {
+		@Override
+		public String getName() {
+			return "ORACLE_AUTOMATIC_LIST";
+		}
+
+		@Override
+		public String getCreateTableSuffix(String createTableSuffix) {
+			return createTableSuffix + " PARTITION BY LIST (r_entitygraph) AUTOMATIC (PARTITION jlr_p0 VALUES (0))";
+		}
+
+		@Override
+		public String getAdditionalDDL(String tableReference) {
+			return "";
+		}
+
+		@Override
+		public void createPartition(String tableReference, int graphID, Session session) throws SQLException {
+			// created on first insert
+		}
+
+		@Override
+		public void dropPartition(String tableReference, int graphID, Session session) throws SQLException {
+			session.execute("ALTER TABLE " + tableReference + " DROP PARTITION FOR (" + graphID + ") UPDATE GLOBAL INDEXES");
+		}
+	}
+
+	/**
+	 * Gets the partitioning that a DBMS supports.
+	 *
+	 * @param dbms the DBMS
+	 * @return the partitioning, or <code>null</code> if the DBMS doesn't support partitioning of the working tables
+	 */
+	public static WorkingTablePartitioning forDBMS(DBMS dbms) {
+		if (DBMS.POSTGRESQL.equals(dbms)) {
+			return new PostgreSQLPartitioning();
+		}
+		if (DBMS.ORACLE.equals(dbms)) {
+			return new OraclePartitioning();
+		}
+		return null;
+	}
+
+	/**
+	 * Partitionings of the working tables per database and working-table schema.
+	 */
+	private static final Map<String, String> partitioningPerDatabase = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Gets the partitioning of the working tables.
+	 *
+	 * @param session the session
+	 * @return the partitioning, or <code>null</code> if the working tables are not partitioned
+	 */
+	public static WorkingTablePartitioning forSession(Session session, ExecutionContext executionContext) throws SQLException {
+		WorkingTablePartitioning partitioning = forDBMS(session.dbms);
+		if (partitioning == null || executionContext.getScope() != WorkingTableScope.GLOBAL) {
+			return null;
+		}
+		String key = cacheKey(session, executionContext);
+		String name = key == null? null : partitioningPerDatabase.get(key);
+		if (name == null) {
+			final String[] value = new String[] { "" };
+			session.executeQuery("Select jvalue from " + SQLDialect.dmlTableReference(SQLDialect.CONFIG_TABLE_, session, executionContext) +
+					" where jversion='" + JailerVersion.WORKING_TABLE_VERSION + "' and jkey='" + CONFIG_KEY + "'", new Session.AbstractResultSetReader() {
+				@Override
+				public void readCurrentRow(ResultSet resultSet) throws SQLException {
+					value[0] = resultSet.getString(1);
+				}
+			});
+			name = value[0];
+			if (key != null) {
+				partitioningPerDatabase.put(key, name);
+			}
+		}
+		return partitioning.getName().equals(name)? partitioning : null;
+	}
+
+	/**
+	 * Forgets the partitioning of the working tables after they have been re-created.
+	 *
+	 * @param session the session
+	 */
+	public static void invalidate(Session session, ExecutionContext executionContext) {
+		String key = cacheKey(session, executionContext);
+		if (key != null) {
+			partitioningPerDatabase.remove(key);
+		}
+	}
+
+	/**
+	 * Gets a key identifying the working tables of a session.
+	 *
+	 * @return the key, or <code>null</code> if the database is unknown
+	 */
+	public static String cacheKey(Session session, ExecutionContext executionContext) {
+		if (session.dbUrl == null) {
+			return null;
+		}
+		return session.dbUrl + "|" + session.getSchema() + "|" + executionContext.getWorkingTableSchema();
+	}
+
+}
@@ -40,6 +40,12 @@ public enum WorkingTableScope {
 	/**
 	 * Create a local database (H2) for the working-tables (JAILER_*).
 	 */
-	LOCAL_DATABASE
+	LOCAL_DATABASE,
+
+	/**
+	 * Keep the entity-graph in memory. No working-tables are created at all.
+	 * Requires primary keys consisting of integers, strings or date/time values.
+	 */
+	MEMORY
 
 }
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.datamodel;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.jailer.util.Pair;
+
+/**
+ * Immutable, int-indexed adjacency structure of the associations of a {@link DataModel}.<br>
+ * Tables are identified by their ordinal. The associations of all tables are stored
+ * in compressed sparse row form, sets of tables are represented as {@link BitSet}s.
+ * Restrictions and the insertion order of the associations are not part of the structure,
+ * they depend on the (possibly transposed) restriction model and are evaluated during traversal.
+ *
+ * @see DataModel#getAssociationGraph()
+ * @author Ralf Wisser
+ */
+public class AssociationGraph {
+
+	/**
+	 * The tables, indexed by ordinal.
+	 */
+	private final Table[] tables;
+
+	/**
+	 * Tables by name.
+	 */
+	private final Map<String, Table> tablesByName;
+
+	/**
+	 * The associations of table <code>t</code> are the edges <code>edgeOffset[t]</code> to <code>edgeOffset[t + 1] - 1</code>.
+	 */
+	private final int[] edgeOffset;
+
+	/**
+	 * Ordinal of the source table of each edge.
+	 */
+	private final int[] edgeSource;
+
+	/**
+	 * Ordinal of the destination table of each edge (<code>-1</code> if the table is not part of the graph).
+	 */
+	private final int[] edgeDestination;
+
+	/**
+	 * Association of each edge.
+	 */
+	private final Association[] edgeAssociation;
+
+	/**
+	 * The incoming edges of table <code>t</code> are <code>incomingEdge[incomingOffset[t]]</code> to <code>incomingEdge[incomingOffset[t + 1] - 1]</code>.
+	 */
+	private final int[] incomingOffset;
+	private final int[] incomingEdge;
+
+	/**
+	 * Whether all associations lead to tables of the graph.
+	 */
+	private final boolean complete;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param tableList the tables, indexed by ordinal
+	 */
+	AssociationGraph(List<Table> tableList) {
+		int numTables = tableList.size();
+		tables = tableList.toArray(new Table[numTables]);
+		tablesByName = new HashMap<String, Table>(numTables * 2);
+		edgeOffset = new int[numTables + 1];
+		int numEdges = 0;
+		for (int t = 0; t < numTables; ++t) {
+			tablesByName.put(tables[t].getName(), tables[t]);
+			edgeOffset[t] = numEdges;
+			numEdges += tables[t].associations.size();
+		}
+		edgeOffset[numTables] = numEdges;
+
+		edgeSource = new int[numEdges];
+		edgeDestination = new int[numEdges];
+		edgeAssociation = new Association[numEdges];
+		incomingOffset = new int[numTables + 1];
+		boolean complete = true;
+		int e = 0;
+		for (int t = 0; t < numTables; ++t) {
+			for (Association association: tables[t].associations) {
+				int destination = ordinal(association.destination);
+				edgeSource[e] = t;
+				edgeDestination[e] = destination;
+				edgeAssociation[e] = association;
+				if (destination >= 0) {
+					++incomingOffset[destination + 1];
+				} else {
+					complete = false;
+				}
+				++e;
+			}
+		}
+		this.complete = complete;
+		for (int t = 0; t < numTables; ++t) {
+			incomingOffset[t + 1] += incomingOffset[t];
+		}
+		incomingEdge = new int[incomingOffset[numTables]];
+		int[] fill = new int[numTables];
+		for (int t = 0; t < numTables; ++t) {
+			for (e = edgeOffset[t]; e < edgeOffset[t + 1]; ++e) {
+				int destination = edgeDestination[e];
+				if (destination >= 0) {
+					incomingEdge[incomingOffset[destination] + fill[destination]++] = e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Whether all associations lead to tables of the graph.
+	 */
+	boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Gets the number of tables.
+	 */
+	public int size() {
+		return tables.length;
+	}
+
+	/**
+	 * Gets a table by ordinal.
+	 */
+	public Table getTable(int ordinal) {
+		return tables[ordinal];
+	}
+
+	/**
+	 * Gets the ordinal of a table of this graph.
+	 *
+	 * @return the ordinal or <code>-1</code> if the table is not part of this graph
+	 */
+	public int ordinal(Table table) {
+		if (table.ordinal >= 0 && table.ordinal < tables.length && tables[table.ordinal] == table) {
+			return table.ordinal;
+		}
+		Table t = tablesByName.get(table.getName());
+		return t == null? -1 : t.ordinal;
+	}
+
+	/**
+	 * Checks whether a table object is part of this graph and its associations are unchanged.
+	 */
+	public boolean contains(Table table) {
+		int t = table.ordinal;
+		return t >= 0 && t < tables.length && tables[t] == table && edgeOffset[t + 1] - edgeOffset[t] == table.associations.size();
+	}
+
+	/**
+	 * Converts a collection of tables into a set of ordinals. Tables are identified by name.
+	 *
+	 * @param tables the tables
+	 * @param skipUnknown if <code>true</code>, tables that are not part of this graph are skipped
+	 * @return set of ordinals or <code>null</code> if a table is not part of this graph and <code>skipUnknown</code> is <code>false</code>
+	 */
+	public BitSet toBitSet(Collection<Table> tables, boolean skipUnknown) {
+		BitSet result = new BitSet(this.tables.length);
+		for (Table table: tables) {
+			int ordinal = ordinal(table);
+			if (ordinal >= 0) {
+				result.set(ordinal);
+			} else if (!skipUnknown) {
+				return null;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the tables of a set of ordinals to a collection.
+	 *
+	 * @param ordinals set of ordinals
+	 * @param result the collection
+	 * @return the collection
+	 */
+	public <T extends Collection<Table>> T toTables(BitSet ordinals, T result) {
+		for (int t = ordinals.nextSetBit(0); t >= 0; t = ordinals.nextSetBit(t + 1)) {
+			result.add(tables[t]);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the closure of a table (all tables associated (in-)directly with the table).
+	 *
+	 * @param table the table
+	 * @param tablesToIgnore ordinals of tables to ignore
+	 * @param unrestricted if <code>true</code>, restrictions are ignored
+	 * @param distances if not <code>null</code>, put distances into it
+	 * @return ordinals of the tables in the closure
+	 */
+	public BitSet closure(Table table, BitSet tablesToIgnore, boolean unrestricted, Map<Table, Integer> distances) {
+		BitSet closure = new BitSet(tables.length);
+		int start = ordinal(table);
+		if (start < 0 || tablesToIgnore.get(start)) {
+			return closure;
+		}
+		int[] queue = new int[tables.length];
+		int head = 0;
+		int tail = 0;
+		int distance = 0;
+		int endOfLevel = 1;
+		queue[tail++] = start;
+		closure.set(start);
+		while (head < tail) {
+			if (head == endOfLevel) {
+				++distance;
+				endOfLevel = tail;
+			}
+			int t = queue[head++];
+			if (distances != null) {
+				distances.put(tables[t], distance);
+			}
+			for (int e = edgeOffset[t]; e < edgeOffset[t + 1]; ++e) {
+				int destination = edgeDestination[e];
+				if (destination >= 0 && !closure.get(destination) && !tablesToIgnore.get(destination)) {
+					if (unrestricted || edgeAssociation[e].getJoinCondition() != null) {
+						closure.set(destination);
+						queue[tail++] = destination;
+					}
+				}
+			}
+		}
+		return closure;
+	}
+
+	/**
+	 * Gets all independent tables
+	 * (i.e. tables which don't depend on other tables in the set)
+	 * of a given table-set.
+	 *
+	 * @param tableSet ordinals of the tables
+	 * @param associations the associations to consider, <code>null</code> for all associations
+	 * @return ordinals of the independent tables
+	 */
+	public BitSet independentTables(BitSet tableSet, Set<Association> associations) {
+		BitSet independentTables = new BitSet(tables.length);
+		for (int t = tableSet.nextSetBit(0); t >= 0; t = tableSet.nextSetBit(t + 1)) {
+			boolean depends = false;
+			for (int e = edgeOffset[t]; e < edgeOffset[t + 1]; ++e) {
+				int destination = edgeDestination[e];
+				if (destination >= 0 && tableSet.get(destination) && edgeAssociation[e].isInsertDestinationBeforeSource()) {
+					if (associations == null || associations.contains(edgeAssociation[e])) {
+						depends = true;
+						break;
+					}
+				}
+			}
+			if (!depends) {
+				independentTables.set(t);
+			}
+		}
+		return independentTables;
+	}
+
+	/**
+	 * Gets the set of all tables involved in a dependency cycle,
+	 * i.e. the largest sub-set in which each table has a predecessor and a successor.
+	 *
+	 * @param tableSet ordinals of the tables
+	 * @param tabu dependencies (from, to) to ignore
+	 * @return ordinals of the tables involved in a cycle
+	 */
+	public BitSet cycle(BitSet tableSet, Set<Pair<Table, Table>> tabu) {
+		BitSet cycle = (BitSet) tableSet.clone();
+		BitSet inEdges = new BitSet(edgeAssociation.length);
+		BitSet outEdges = new BitSet(edgeAssociation.length);
+		int[] numIn = new int[tables.length];
+		int[] numOut = new int[tables.length];
+		int[] toRemove = new int[tables.length];
+		int numToRemove = 0;
+		for (int t = cycle.nextSetBit(0); t >= 0; t = cycle.nextSetBit(t + 1)) {
+			for (int e = edgeOffset[t]; e < edgeOffset[t + 1]; ++e) {
+				int destination = edgeDestination[e];
+				if (destination >= 0 && cycle.get(destination)) {
+					Association association = edgeAssociation[e];
+					if (association.isInsertSourceBeforeDestination()) {
+						if (tabu.isEmpty() || !tabu.contains(new Pair<Table, Table>(association.destination, association.source))) {
+							outEdges.set(e);
+							++numOut[t];
+						}
+					}
+					if (association.isInsertDestinationBeforeSource()) {
+						if (tabu.isEmpty() || !tabu.contains(new Pair<Table, Table>(association.source, association.destination))) {
+							inEdges.set(e);
+							++numIn[t];
+						}
+					}
+				}
+			}
+			if (numIn[t] == 0 || numOut[t] == 0) {
+				toRemove[numToRemove++] = t;
+			}
+		}
+		while (numToRemove > 0) {
+			int t = toRemove[--numToRemove];
+			if (!cycle.get(t)) {
+				continue;
+			}
+			cycle.clear(t);
+			for (int i = incomingOffset[t]; i < incomingOffset[t + 1]; ++i) {
+				int e = incomingEdge[i];
+				int source = edgeSource[e];
+				if (source != t && cycle.get(source)) {
+					boolean wasInCycle = numIn[source] > 0 && numOut[source] > 0;
+					if (inEdges.get(e)) {
+						--numIn[source];
+					}
+					if (outEdges.get(e)) {
+						--numOut[source];
+					}
+					if (wasInCycle && (numIn[source] == 0 || numOut[source] == 0)) {
+						toRemove[numToRemove++] = source;
+					}
+				}
+			}
+		}
+		return cycle;
+	}
+
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.datamodel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.ExecutionContext;
+import net.sf.jailer.util.CsvFile;
+
+/**
+ * Compiled, binary form of the table-, column- and association-files of a data model.
+ * Contains the decoded lines (with interned strings) and the parsed column declarations.<br>
+ * It is written next to the CSV files and used instead of them as long as it is up to date,
+ * that is, as long as length and checksum of each CSV file are unchanged.
+ *
+ * @author Ralf Wisser
+ */
+class CompiledDataModel {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(CompiledDataModel.class);
+
+	/**
+	 * Name of the file containing the compiled data model.
+	 */
+	static final String FILE_NAME = "compiled-model.bin";
+
+	/**
+	 * Identifies the file format.
+	 */
+	private static final int MAGIC = 0x4A4C4D43;
+
+	/**
+	 * Version of the file format.
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Names of the compiled CSV files.
+	 */
+	private static final String[] SOURCE_FILES = { DataModel.TABLE_CSV_FILE, "column.csv", "association.csv" };
+
+	/**
+	 * Lines of the table-, column- and association-file (<code>null</code> if the file does not exist).
+	 */
+	final List<CsvFile.Line> tableLines;
+	final List<CsvFile.Line> columnLines;
+	final List<CsvFile.Line> associationLines;
+
+	/**
+	 * Parsed column declarations.
+	 */
+	final Map<String, Column> columns;
+
+	private CompiledDataModel(List<CsvFile.Line> tableLines, List<CsvFile.Line> columnLines, List<CsvFile.Line> associationLines, Map<String, Column> columns) {
+		this.tableLines = tableLines;
+		this.columnLines = columnLines;
+		this.associationLines = associationLines;
+		this.columns = columns;
+	}
+
+	/**
+	 * Gets the folder of the data model if it is located in the file system.
+	 *
+	 * @return the folder or <code>null</code> if the data model is not located in the file system
+	 */
+	static File getModelFolder(ExecutionContext executionContext) {
+		try {
+			URL dataModelURL = executionContext.getDataModelURL();
+			if (!"file".equalsIgnoreCase(dataModelURL.getProtocol())) {
+				return null;
+			}
+			URI uri = dataModelURL.toURI();
+			File folder = new File(uri);
+			return folder.isDirectory()? folder : null;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Computes the stamp of the CSV files of a data model.
+	 * Must be computed before the CSV files are read.
+	 *
+	 * @param folder the data model folder
+	 * @return length and checksum of each file (length is -1 if the file doesn't exist)
+	 */
+	static long[] stamp(File folder) throws IOException {
+		long[] stamp = new long[SOURCE_FILES.length * 2];
+		byte[] buffer = new byte[1024 * 64];
+		for (int i = 0; i < SOURCE_FILES.length; ++i) {
+			File file = new File(folder, SOURCE_FILES[i]);
+			long length = -1;
+			CRC32 crc = new CRC32();
+			if (file.exists()) {
+				length = 0;
+				try (InputStream in = new FileInputStream(file)) {
+					int n;
+					while ((n = in.read(buffer)) > 0) {
+						crc.update(buffer, 0, n);
+						length += n;
+					}
+				}
+			}
+			stamp[i * 2] = length;
+			stamp[i * 2 + 1] = crc.getValue();
+		}
+		return stamp;
+	}
+
+	/**
+	 * Reads the compiled data model.
+	 *
+	 * @param folder the data model folder
+	 * @param stamp current stamp of the CSV files
+	 * @param locations location prefixes of the lines of the table-, column- and association-file
+	 * @return the compiled data model or <code>null</code> if there is no up-to-date compiled data model
+	 */
+	static CompiledDataModel read(File folder, long[] stamp, String[] locations) {
+		File file = new File(folder, FILE_NAME);
+		if (!file.exists()) {
+			return null;
+		}
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+				return null;
+			}
+			if (!Charset.defaultCharset().name().equals(readString(buffer))) {
+				return null;
+			}
+			for (int i = 0; i < stamp.length; ++i) {
+				if (buffer.getLong() != stamp[i]) {
+					return null;
+				}
+			}
+			String[] strings = new String[buffer.getInt()];
+			for (int i = 0; i < strings.length; ++i) {
+				strings[i] = readString(buffer);
+			}
+			List<List<CsvFile.Line>> lines = new ArrayList<List<CsvFile.Line>>();
+			for (int f = 0; f < SOURCE_FILES.length; ++f) {
+				int numLines = buffer.getInt();
+				if (numLines < 0) {
+					lines.add(null);
+					continue;
+				}
+				List<CsvFile.Line> fileLines = new ArrayList<CsvFile.Line>(numLines);
+				for (int l = 0; l < numLines; ++l) {
+					int lineNr = buffer.getInt();
+					int numCells = buffer.getInt();
+					List<String> cells = new ArrayList<String>(numCells + 34);
+					for (int c = 0; c < numCells; ++c) {
+						cells.add(strings[buffer.getInt()]);
+					}
+					fileLines.add(new CsvFile.Line(locations[f] + ", line " + lineNr, cells));
+				}
+				lines.add(fileLines);
+			}
+			int numColumns = buffer.getInt();
+			Map<String, Column> columns = new HashMap<String, Column>(Math.max(16, numColumns * 2));
+			for (int i = 0; i < numColumns; ++i) {
+				String declaration = strings[buffer.getInt()];
+				Column column = new Column(strings[buffer.getInt()], strings[buffer.getInt()], buffer.getInt(), buffer.getInt());
+				byte flags = buffer.get();
+				column.isNullable = (flags & 1) != 0;
+				column.isIdentityColumn = (flags & 2) != 0;
+				column.isVirtual = (flags & 4) != 0;
+				columns.put(declaration, column);
+			}
+			return new CompiledDataModel(lines.get(0), lines.get(1), lines.get(2), columns);
+		} catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+			_log.warn("can't read " + file.getPath() + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the compiled data model. Failures are logged and otherwise ignored.
+	 *
+	 * @param folder the data model folder
+	 * @param stamp stamp of the CSV files, computed before the lines were read
+	 * @param tableLines lines of the table-file
+	 * @param columnLines lines of the column-file
+	 * @param associationLines lines of the association-file
+	 * @param columns parsed column declarations
+	 */
+	static void write(File folder, long[] stamp, List<CsvFile.Line> tableLines, List<CsvFile.Line> columnLines, List<CsvFile.Line> associationLines, Map<String, Column> columns) {
+		File tmpFile = null;
+		try {
+			Map<String, Integer> stringIDs = new HashMap<String, Integer>();
+			List<String> strings = new ArrayList<String>();
+			List<List<CsvFile.Line>> lines = new ArrayList<List<CsvFile.Line>>();
+			lines.add(tableLines);
+			lines.add(columnLines);
+			lines.add(associationLines);
+			for (List<CsvFile.Line> fileLines: lines) {
+				if (fileLines != null) {
+					for (CsvFile.Line line: fileLines) {
+						for (int c = 0; c < line.length; ++c) {
+							intern(line.cells.get(c), stringIDs, strings);
+						}
+					}
+				}
+			}
+			for (Map.Entry<String, Column> e: columns.entrySet()) {
+				intern(e.getKey(), stringIDs, strings);
+				intern(e.getValue().name, stringIDs, strings);
+				intern(e.getValue().type, stringIDs, strings);
+			}
+
+			tmpFile = File.createTempFile(FILE_NAME, ".tmp", folder);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), 1024 * 64))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				writeString(out, Charset.defaultCharset().name());
+				for (long s: stamp) {
+					out.writeLong(s);
+				}
+				out.writeInt(strings.size());
+				for (String s: strings) {
+					writeString(out, s);
+				}
+				for (List<CsvFile.Line> fileLines: lines) {
+					if (fileLines == null) {
+						out.writeInt(-1);
+						continue;
+					}
+					out.writeInt(fileLines.size());
+					for (CsvFile.Line line: fileLines) {
+						out.writeInt(lineNumber(line));
+						out.writeInt(line.length);
+						for (int c = 0; c < line.length; ++c) {
+							out.writeInt(stringIDs.get(line.cells.get(c)));
+						}
+					}
+				}
+				out.writeInt(columns.size());
+				for (Map.Entry<String, Column> e: columns.entrySet()) {
+					Column column = e.getValue();
+					out.writeInt(stringIDs.get(e.getKey()));
+					out.writeInt(stringIDs.get(column.name));
+					out.writeInt(stringIDs.get(column.type));
+					out.writeInt(column.length);
+					out.writeInt(column.precision);
+					out.writeByte((column.isNullable? 1 : 0) | (column.isIdentityColumn? 2 : 0) | (column.isVirtual? 4 : 0));
+				}
+			}
+			Files.move(tmpFile.toPath(), new File(folder, FILE_NAME).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			tmpFile = null;
+		} catch (Exception e) {
+			_log.info("can't write compiled data model into " + folder.getPath() + ": " + e.getMessage());
+		} finally {
+			if (tmpFile != null) {
+				tmpFile.delete();
+			}
+		}
+	}
+
+	private static void intern(String s, Map<String, Integer> stringIDs, List<String> strings) {
+		if (!stringIDs.containsKey(s)) {
+			stringIDs.put(s, strings.size());
+			strings.add(s);
+		}
+	}
+
+	/**
+	 * Gets the line number from the location of a line.
+	 */
+	private static int lineNumber(CsvFile.Line line) {
+		int i = line.location.lastIndexOf(", line ");
+		if (i >= 0) {
+			try {
+				return Integer.parseInt(line.location.substring(i + 7));
+			} catch (NumberFormatException e) {
+				// ignore
+			}
+		}
+		return 0;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		String s = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return s;
+	}
+
+}
@@ -27,6 +27,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.text.DateFormat;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -397,15 +398,33 @@ public class DataModel {
 			List<String> excludeFromDeletion = new ArrayList<String>();
 			PrintUtil.loadTableList(excludeFromDeletion, openModelFile(new File(DataModel.getExcludeFromDeletionFile(executionContext)), executionContext));
 
-			// tables
 			File tabFile = new File(getTablesFile(executionContext));
-			StringBuilder resourceName = new StringBuilder();
-			InputStream nTablesFile = openModelFile(tabFile, resourceName, false, executionContext);
-			if (failOnMissingTables && nTablesFile == null) {
-				throw new RuntimeException("Data model not found: " + resourceName);
+			File colFile = new File(getColumnsFile(executionContext));
+			File assFile = new File(getAssociationsFile(executionContext));
+
+			// compiled data model
+			File modelFolder = CompiledDataModel.getModelFolder(executionContext);
+			long[] stamp = null;
+			CompiledDataModel compiledDataModel = null;
+			if (modelFolder != null) {
+				stamp = CompiledDataModel.stamp(modelFolder);
+				compiledDataModel = CompiledDataModel.read(modelFolder, stamp, new String[] { tabFile.getPath(), colFile.getPath(), assFile.getPath() });
 			}
-			CsvFile tablesFile = new CsvFile(nTablesFile, null, tabFile.getPath(), null);
-			List<CsvFile.Line> tableList = new ArrayList<CsvFile.Line>(tablesFile.getLines());
+			Map<String, Column> parsedColumns = compiledDataModel != null? compiledDataModel.columns : new HashMap<String, Column>();
+
+			// tables
+			List<CsvFile.Line> tableLines;
+			if (compiledDataModel != null) {
+				tableLines = compiledDataModel.tableLines;
+			} else {
+				StringBuilder resourceName = new StringBuilder();
+				InputStream nTablesFile = openModelFile(tabFile, resourceName, false, executionContext);
+				if (failOnMissingTables && nTablesFile == null) {
+					throw new RuntimeException("Data model not found: " + resourceName);
+				}
+				tableLines = new CsvFile(nTablesFile, null, tabFile.getPath(), null).getLines();
+			}
+			List<CsvFile.Line> tableList = new ArrayList<CsvFile.Line>(tableLines);
 			if (additionalTablesFile != null) {
 				tableList.addAll(new CsvFile(new File(additionalTablesFile)).getLines());
 			}
@@ -418,14 +437,14 @@ public class DataModel {
 					String newName = null;
 					if (knownIdentifiers != null) {
 						try {
-							Column c = Column.parse(col);
+							Column c = parseColumn(null, col, parsedColumns);
 							newName = knownIdentifiers.getColumnName(line.cells.get(0), c.name);
 						} catch (Exception e) {
 							// ignore
 						}
 					}
 					try {
-						pk.add(Column.parse(newName, col));
+						pk.add(parseColumn(newName, col, parsedColumns));
 					} catch (Exception e) {
 						_log.warn("", e);
 						// ignore, was throw new RuntimeException("unable to load table '" + line.cells.get(0) + "'. " + line.location, e);
@@ -467,26 +486,31 @@ public class DataModel {
 			}
 
 			// columns
-			File colFile = new File(getColumnsFile(executionContext));
-			InputStream is = openModelFile(colFile, executionContext);
-			if (is != null) {
-				CsvFile columnsFile = new CsvFile(is, null, colFile.getPath(), null);
-				List<CsvFile.Line> columnsList = new ArrayList<CsvFile.Line>(columnsFile.getLines());
-				for (CsvFile.Line line: columnsList) {
+			List<CsvFile.Line> columnLines = null;
+			if (compiledDataModel != null) {
+				columnLines = compiledDataModel.columnLines;
+			} else {
+				InputStream is = openModelFile(colFile, executionContext);
+				if (is != null) {
+					columnLines = new CsvFile(is, null, colFile.getPath(), null).getLines();
+				}
+			}
+			if (columnLines != null) {
+				for (CsvFile.Line line: columnLines) {
 					List<Column> columns = new ArrayList<Column>();
 					for (int j = 1; j < line.cells.size() && line.cells.get(j).toString().length() > 0; ++j) {
 						String col = line.cells.get(j).trim();
 						String newName = null;
 						if (knownIdentifiers != null) {
 							try {
-								Column c = Column.parse(col);
+								Column c = parseColumn(null, col, parsedColumns);
 								newName = knownIdentifiers.getColumnName(Quoting.normalizeIdentifier(line.cells.get(0)), c.name);
 							} catch (Exception e) {
 								// ignore
 							}
 						}
 						try {
-							columns.add(Column.parse(newName, col));
+							columns.add(parseColumn(newName, col, parsedColumns));
 						} catch (Throwable e) {
 							e.printStackTrace();
 							// ignore
@@ -529,8 +553,21 @@ public class DataModel {
 			}
 
 			// associations
-			File assFile = new File(getAssociationsFile(executionContext));
-			List<CsvFile.Line> associationList = new ArrayList<CsvFile.Line>(new CsvFile(openModelFile(assFile, executionContext), null, assFile.getPath(), assocFilter).getLines());
+			List<CsvFile.Line> associationLines;
+			if (compiledDataModel != null) {
+				associationLines = compiledDataModel.associationLines;
+				if (associationLines == null) {
+					associationLines = new ArrayList<CsvFile.Line>();
+				}
+			} else {
+				associationLines = new CsvFile(openModelFile(assFile, executionContext), null, assFile.getPath(), null).getLines();
+			}
+			List<CsvFile.Line> associationList = new ArrayList<CsvFile.Line>();
+			for (CsvFile.Line line: associationLines) {
+				if (assocFilter == null || assocFilter.accept(line)) {
+					associationList.add(line);
+				}
+			}
 			if (additionalAssociationsFile != null) {
 				associationList.addAll(new CsvFile(new File(additionalAssociationsFile)).getLines());
 			}
@@ -602,6 +639,9 @@ public class DataModel {
 					throw new RuntimeException(location + ": " + e.getMessage(), e);
 				}
 			}
+			if (modelFolder != null && compiledDataModel == null) {
+				CompiledDataModel.write(modelFolder, stamp, tableLines, columnLines, associationLines, parsedColumns);
+			}
 			initDisplayNames();
 			initTableOrdinals();
 
@@ -638,6 +678,27 @@ public class DataModel {
 		}
 	}
 
+	/**
+	 * Parses a column declaration. Parsed declarations are memorized.
+	 *
+	 * @param columnName (optional) name of column
+	 * @param columnDeclaration the column declaration in SQL syntax
+	 * @param parsedColumns the parsed declarations
+	 * @return the column
+	 */
+	private static Column parseColumn(String columnName, String columnDeclaration, Map<String, Column> parsedColumns) {
+		Column parsed = parsedColumns.get(columnDeclaration);
+		if (parsed == null) {
+			parsed = Column.parse(columnDeclaration);
+			parsedColumns.put(columnDeclaration, parsed);
+		}
+		Column column = new Column(columnName == null? parsed.name : columnName, parsed.type, parsed.length, parsed.precision);
+		column.isNullable = parsed.isNullable;
+		column.isIdentityColumn = parsed.isIdentityColumn;
+		column.isVirtual = parsed.isVirtual;
+		return column;
+	}
+
 	private final List<Table> tableList = new ArrayList<Table>();
 	private final List<FilterTemplate> filterTemplates = new ArrayList<FilterTemplate>();
 
@@ -773,6 +834,14 @@ public class DataModel {
 	public Set<Table> getIndependentTables(Set<Table> tableSet, Set<Association> associations) {
 		Set<Table> independentTables = new TreeSet<Table>();
 
+		AssociationGraph graph = getAssociationGraph();
+		if (graph != null) {
+			BitSet ordinals = graph.toBitSet(tableSet, false);
+			if (ordinals != null) {
+				return graph.toTables(graph.independentTables(ordinals, associations), independentTables);
+			}
+		}
+
 		for (Table table: tableSet) {
 			boolean depends = false;
 			for (Association a: table.associations) {
@@ -860,6 +929,31 @@ public class DataModel {
 		for (Map.Entry<String, Association> e: namedAssociations.entrySet()) {
 			e.getValue().id = n++;
 		}
+		getAssociationGraph();
+	}
+
+	/**
+	 * Int-indexed adjacency structure of the associations. Built on demand.
+	 */
+	private AssociationGraph associationGraph;
+
+	/**
+	 * Gets the int-indexed adjacency structure of the associations.
+	 *
+	 * @return the adjacency structure or <code>null</code> if there are associations leading to tables outside of this model
+	 */
+	public synchronized AssociationGraph getAssociationGraph() {
+		if (associationGraph == null) {
+			associationGraph = new AssociationGraph(tableList);
+		}
+		return associationGraph.isComplete()? associationGraph : null;
+	}
+
+	/**
+	 * Discards the adjacency structure of the associations. Must be called after associations have been added.
+	 */
+	public synchronized void invalidateAssociationGraph() {
+		associationGraph = null;
 	}
 
 	/**
@@ -17,6 +17,7 @@ package net.sf.jailer.datamodel;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -269,6 +270,10 @@ public class Table extends ModelElement implements Comparable<Table> {
 	 * @return closure of the table (all tables associated (in-)direct with table)
 	 */
 	public Set<Table> closure(Set<Table> tablesToIgnore) {
+		AssociationGraph graph = getAssociationGraph();
+		if (graph != null) {
+			return graph.toTables(graph.closure(this, graph.toBitSet(tablesToIgnore, true), false, null), new HashSet<Table>());
+		}
 		Set<Table> closure = new HashSet<Table>();
 		List<Table> toCheck = new LinkedList<Table>();
 		Set<Table> checked = new HashSet<Table>(tablesToIgnore);
@@ -300,6 +305,10 @@ public class Table extends ModelElement implements Comparable<Table> {
 	 * @return closure of the table (all tables associated (in-)direct with table)
 	 */
 	public Set<Table> closure(Set<Table> tablesToIgnore, Map<Table, Integer> distances) {
+		AssociationGraph graph = getAssociationGraph();
+		if (graph != null) {
+			return graph.toTables(graph.closure(this, graph.toBitSet(tablesToIgnore, true), false, distances), new HashSet<Table>());
+		}
 		Set<Table> closure = new HashSet<Table>();
 		List<Pair<Table, Integer>> toCheck = new LinkedList<>();
 		Set<Table> checked = new HashSet<Table>(tablesToIgnore);
@@ -323,12 +332,36 @@ public class Table extends ModelElement implements Comparable<Table> {
 		return closure;
 	}
 
+	/**
+	 * Gets the adjacency structure of the data model this table belongs to.
+	 *
+	 * @return the adjacency structure or <code>null</code> if this table is not part of it
+	 */
+	private AssociationGraph getAssociationGraph() {
+		if (associations.isEmpty()) {
+			return null;
+		}
+		DataModel dataModel = associations.get(0).getDataModel();
+		if (dataModel == null) {
+			return null;
+		}
+		AssociationGraph graph = dataModel.getAssociationGraph();
+		if (graph == null || !graph.contains(this)) {
+			return null;
+		}
+		return graph;
+	}
+
 	/**
 	 * Gets the closure of the table, ignoring restrictions.
 	 * 
 	 * @return closure of the table (all tables associated (in-)directly with table)
 	 */
 	public Set<Table> unrestrictedClosure() {
+		AssociationGraph graph = getAssociationGraph();
+		if (graph != null) {
+			return graph.toTables(graph.closure(this, new BitSet(), true, null), new HashSet<Table>());
+		}
 		Set<Table> closure = new HashSet<Table>();
 		List<Table> toCheck = new LinkedList<Table>();
 		Set<Table> checked = new HashSet<Table>();
@@ -29,6 +29,9 @@ import java.util.Map;
 
 import javax.sql.DataSource;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.JailerVersion;
 import net.sf.jailer.configuration.Configuration;
@@ -36,6 +39,7 @@ import net.sf.jailer.configuration.DBMS;
 import net.sf.jailer.database.SQLDialect;
 import net.sf.jailer.database.Session;
 import net.sf.jailer.database.TemporaryTableManager;
+import net.sf.jailer.database.WorkingTablePartitioning;
 import net.sf.jailer.database.WorkingTableScope;
 import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.DataModel;
@@ -43,6 +47,7 @@ import net.sf.jailer.datamodel.PrimaryKey;
 import net.sf.jailer.datamodel.PrimaryKeyFactory;
 import net.sf.jailer.datamodel.RowIdSupport;
 import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.entitygraph.EntityGraph;
 import net.sf.jailer.util.PrintUtil;
 import net.sf.jailer.util.Quoting;
 import net.sf.jailer.util.SqlScriptExecutor;
@@ -55,11 +60,21 @@ import net.sf.jailer.util.SqlUtil;
  */
 public class DDLCreator {
 
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(DDLCreator.class);
+
 	/**
 	 * The execution context.
 	 */
 	private final ExecutionContext executionContext;
 
+	/**
+	 * Partitioning of the working tables (see {@link ExecutionContext#getMultiTenant()}), or <code>null</code>.
+	 */
+	private WorkingTablePartitioning partitioning;
+
 	/**
 	 * Constructor.
 	 *
@@ -126,6 +141,27 @@ public class DDLCreator {
 	 * Creates the DDL for the working-tables.
 	 */
 	public boolean createDDL(DataModel datamodel, Session session, WorkingTableScope temporaryTableScope, RowIdSupport rowIdSupport, String workingTableSchema) throws FileNotFoundException, IOException, SQLException {
+		if (executionContext.getMultiTenant() && temporaryTableScope == WorkingTableScope.GLOBAL) {
+			partitioning = WorkingTablePartitioning.forDBMS(targetDBMS(session));
+			if (partitioning != null) {
+				try {
+					return createDDL(datamodel, session, temporaryTableScope, rowIdSupport, workingTableSchema, true);
+				} catch (SQLException e) {
+					_log.warn("unable to partition the working tables, creating non-partitioned tables (" + e.getMessage() + ")");
+					if (session != null) {
+						try {
+							// [bugs:#37] PostreSQL: transactional execution
+							session.getConnection().commit();
+						} catch (SQLException e1) {
+							// ignore
+						}
+						session.reconnect();
+					}
+				} finally {
+					partitioning = null;
+				}
+			}
+		}
 		try {
 			return createDDL(datamodel, session, temporaryTableScope, rowIdSupport, workingTableSchema, true);
 		} catch (SQLException e) {
@@ -194,25 +230,15 @@ public class DDLCreator {
 		Map<String, String> arguments = new HashMap<String, String>();
 		arguments.put("upk", universalPrimaryKey);
 		String tableProperties = targetDBMS(session).getTableProperties();
-		arguments.put("upk-hash", "" + ((universalPrimaryKey + tableProperties).hashCode()));
+		arguments.put("upk-hash", upkHash(universalPrimaryKey, session));
 		arguments.put("pre", upk.toSQL("PRE_", contraint, typeReplacement));
 		arguments.put("from", upk.toSQL("FROM_", contraint, typeReplacement));
 		arguments.put("to", upk.toSQL("TO_", contraint, typeReplacement));
 		arguments.put("version", "" + JailerVersion.WORKING_TABLE_VERSION);
 		arguments.put("constraint", contraint);
 
-		TemporaryTableManager tableManager = null;
-		if (temporaryTableScope == WorkingTableScope.SESSION_LOCAL) {
-			tableManager = targetDBMS(session).getSessionTemporaryTableManager();
-		}
-		if (temporaryTableScope == WorkingTableScope.TRANSACTION_LOCAL) {
-			tableManager = targetDBMS(session).getTransactionTemporaryTableManager();
-		}
 		String tableName = SQLDialect.CONFIG_TABLE_;
 		arguments.put("config-dml-reference", tableName);
-		String schema = workingTableSchema != null? (session == null? workingTableSchema : Quoting.getQuoting(session).requote(workingTableSchema)) + "." : "";
-		arguments.put("schema", schema);
-		arguments.put("index-schema", supportsSchemasInIndexDefinitions(session)? schema : "");
 
 		Map<String, List<String>> listArguments = new HashMap<String, List<String>>();
 		if (indexType == 0) {
@@ -252,6 +278,144 @@ public class DDLCreator {
 			listArguments.put("column-list-from", Collections.singletonList(""));
 			listArguments.put("column-list-to", Collections.singletonList(""));
 		}
+		putTableArguments(arguments, session, temporaryTableScope, workingTableSchema, uniqueIndex, withTableProperties);
+		if (partitioning != null) {
+			arguments.put("partitioned-table-suffix", partitioning.getCreateTableSuffix(arguments.get("create-table-suffix")));
+			arguments.put("entity-partition-ddl", partitioning.getAdditionalDDL(arguments.get("schema") + EntityGraph.ENTITY));
+			arguments.put("dependency-partition-ddl", partitioning.getAdditionalDDL(arguments.get("schema") + EntityGraph.DEPENDENCY));
+			arguments.put("partitioning-config", "INSERT INTO " + arguments.get("schema") + tableName + "(jversion, jkey, jvalue) values('" + JailerVersion.WORKING_TABLE_VERSION + "', '" + WorkingTablePartitioning.CONFIG_KEY + "', '" + partitioning.getName() + "');");
+		} else {
+			arguments.put("partitioned-table-suffix", arguments.get("create-table-suffix"));
+			arguments.put("entity-partition-ddl", "");
+			arguments.put("dependency-partition-ddl", "");
+			arguments.put("partitioning-config", "");
+		}
+
+		String ddl = new PrintUtil().applyTemplate(template, arguments, listArguments);
+		lastDDL = ddl;
+
+		if (session != null && temporaryTableScope == WorkingTableScope.GLOBAL) {
+			dropNarrowEntityTables(session, arguments.get("schema"));
+		}
+		executeDDL(ddl, session);
+
+		return true;
+	}
+
+	/**
+	 * Creates the narrow entity-table of a table. Such a table has exactly the columns of the universal
+	 * primary key that the primary key of the table is mapped to.
+	 *
+	 * @param session the session
+	 * @param temporaryTableScope the working table scope
+	 * @param workingTableSchema the schema of the working tables, or <code>null</code>
+	 * @param entityTable name of the entity-table
+	 * @param primaryKey the columns of the universal primary key the table's primary key is mapped to
+	 */
+	public void createNarrowEntityTable(Session session, WorkingTableScope temporaryTableScope, String workingTableSchema, String entityTable, PrimaryKey primaryKey) throws FileNotFoundException, IOException, SQLException {
+		try {
+			createNarrowEntityTable(session, temporaryTableScope, workingTableSchema, entityTable, primaryKey, true);
+			return;
+		} catch (SQLException e) {
+			try {
+				// [bugs:#37] PostreSQL: transactional execution
+				session.getConnection().commit();
+			} catch (SQLException e1) {
+				// ignore
+			}
+		}
+		// try without table property
+		createNarrowEntityTable(session, temporaryTableScope, workingTableSchema, entityTable, primaryKey, false);
+	}
+
+	/**
+	 * Creates the narrow entity-table of a table.
+	 */
+	private void createNarrowEntityTable(Session session, WorkingTableScope temporaryTableScope, String workingTableSchema, String entityTable, PrimaryKey primaryKey, boolean withTableProperties) throws FileNotFoundException, IOException, SQLException {
+		final int MAX_INDEX_SIZE = 12;
+		String template = "script" + File.separator + "ddl-narrow-entity-template.sql";
+		String contraint = pkColumnConstraint(session);
+		Map<String, String> typeReplacement = targetDBMS(session).getTypeReplacement();
+		PrimaryKey indexedPK = primaryKey;
+		if (indexedPK.getColumns().size() > MAX_INDEX_SIZE) {
+			indexedPK = new PrimaryKey(new ArrayList<Column>(primaryKey.getColumns().subList(0, MAX_INDEX_SIZE)), false);
+		}
+		Map<String, String> arguments = new HashMap<String, String>();
+		arguments.put("entity-table", entityTable);
+		arguments.put("entity-index", entityTable.replaceFirst("^JAILER_", "JLR_"));
+		arguments.put("pk", primaryKey.toSQL(null, contraint, typeReplacement));
+		arguments.put("column-list", indexedPK.columnList(null));
+		arguments.put("constraint", contraint);
+		putTableArguments(arguments, session, temporaryTableScope, workingTableSchema, false, withTableProperties);
+
+		executeDDL(new PrintUtil().applyTemplate(template, arguments, new HashMap<String, List<String>>()), session);
+		if (session != null && temporaryTableScope == WorkingTableScope.GLOBAL) {
+			session.executeUpdate(
+					"INSERT INTO " + arguments.get("schema") + SQLDialect.CONFIG_TABLE_ + "(jversion, jkey, jvalue) " +
+					"values('" + JailerVersion.WORKING_TABLE_VERSION + "', '" + NARROW_ENTITY_TABLE_CONFIG_KEY + "', '" + entityTable + "')");
+		}
+	}
+
+	/**
+	 * Key of the entries of the config table that register the narrow entity-tables,
+	 * so that they are dropped together with the other working tables.
+	 */
+	public static final String NARROW_ENTITY_TABLE_CONFIG_KEY = "narrow-entity-table";
+
+	/**
+	 * Drops the narrow entity-tables registered in the config table (see {@link #NARROW_ENTITY_TABLE_CONFIG_KEY}).
+	 *
+	 * @param session the session
+	 * @param schema schema of the working tables (with trailing '.'), or empty string
+	 */
+	private void dropNarrowEntityTables(Session session, String schema) {
+		final List<String> entityTables = new ArrayList<String>();
+		boolean wasSilent = session.getSilent();
+		try {
+			session.setSilent(true);
+			try {
+				session.executeQuery("Select jvalue from " + schema + SQLDialect.CONFIG_TABLE_ + " where jkey='" + NARROW_ENTITY_TABLE_CONFIG_KEY + "'", new Session.AbstractResultSetReader() {
+					@Override
+					public void readCurrentRow(ResultSet resultSet) throws SQLException {
+						entityTables.add(resultSet.getString(1));
+					}
+				});
+			} catch (SQLException e) {
+				// no config table
+			}
+			for (String entityTable: entityTables) {
+				try {
+					session.executeUpdate("DROP TABLE " + schema + entityTable);
+				} catch (SQLException e) {
+					_log.warn("unable to drop " + entityTable + ": " + e.getMessage());
+				}
+			}
+		} finally {
+			session.setSilent(wasSilent);
+		}
+		try {
+			// [bugs:#37] PostreSQL: transactional execution
+			session.getConnection().commit();
+		} catch (SQLException e) {
+			// ignore
+		}
+	}
+
+	/**
+	 * Puts the template arguments that depend on the working table scope.
+	 */
+	private void putTableArguments(Map<String, String> arguments, Session session, WorkingTableScope temporaryTableScope, String workingTableSchema, boolean uniqueIndex, boolean withTableProperties) throws SQLException {
+		TemporaryTableManager tableManager = null;
+		if (temporaryTableScope == WorkingTableScope.SESSION_LOCAL) {
+			tableManager = targetDBMS(session).getSessionTemporaryTableManager();
+		}
+		if (temporaryTableScope == WorkingTableScope.TRANSACTION_LOCAL) {
+			tableManager = targetDBMS(session).getTransactionTemporaryTableManager();
+		}
+		String schema = workingTableSchema != null? (session == null? workingTableSchema : Quoting.getQuoting(session).requote(workingTableSchema)) + "." : "";
+		arguments.put("schema", schema);
+		arguments.put("index-schema", supportsSchemasInIndexDefinitions(session)? schema : "");
+
 		if (tableManager != null) {
 			arguments.put("table-suffix", "_T");
 			arguments.put("drop-table", tableManager.getDropTablePrefix());
@@ -263,6 +427,7 @@ public class DDLCreator {
 			arguments.put("index-table-prefix", tableManager.getIndexTablePrefix());
 			arguments.put("schema", schema + tableManager.getDdlTableReferencePrefix());
 		} else {
+			String tableProperties = targetDBMS(session).getTableProperties();
 			String suffix = "";
 			String prefix = "";
 			if (withTableProperties) {
@@ -281,10 +446,12 @@ public class DDLCreator {
 			arguments.put("create-index-suffix", "");
 			arguments.put("index-table-prefix", "");
 		}
+	}
 
-		String ddl = new PrintUtil().applyTemplate(template, arguments, listArguments);
-		lastDDL = ddl;
-
+	/**
+	 * Executes DDL, or prints it if there is no session.
+	 */
+	private void executeDDL(String ddl, Session session) throws FileNotFoundException, IOException, SQLException {
 		if (session != null) {
 			File tmp = Configuration.getInstance().createTempFile();
 			PrintWriter pw = new PrintWriter(tmp);
@@ -295,8 +462,6 @@ public class DDLCreator {
 		} else {
 			System.out.println(ddl);
 		}
-
-		return true;
 	}
 
 	private boolean supportsSchemasInIndexDefinitions(Session session) {
@@ -314,6 +479,23 @@ public class DDLCreator {
 		return result;
 	}
 
+	/**
+	 * Gets the hash of the universal primary key with which the working tables of a data model are created.
+	 * The working tables are up-to-date if they have been created with the same hash (see {@link #isUptodate(Session, boolean, boolean, String)}).
+	 *
+	 * @param dataModel the data model
+	 * @param session the session
+	 * @return the hash
+	 */
+	public String getUpkHash(DataModel dataModel, Session session, boolean useRowId, boolean useRowIdsOnlyForTablesWithoutPK) {
+		RowIdSupport rowIdSupport = new RowIdSupport(dataModel, targetDBMS(session), useRowId, useRowIdsOnlyForTablesWithoutPK);
+		return upkHash(rowIdSupport.getUniversalPrimaryKey().toSQL(null, pkColumnConstraint(session), targetDBMS(session).getTypeReplacement()), session);
+	}
+
+	private String upkHash(String universalPrimaryKey, Session session) {
+		return "" + (universalPrimaryKey + targetDBMS(session).getTableProperties()).hashCode();
+	}
+
 	private String pkColumnConstraint(Session session) {
 		String nullableContraint = targetDBMS(session).getNullableContraint();
 		if (nullableContraint != null) {
@@ -379,8 +561,7 @@ public class DDLCreator {
 						String contraint = pkColumnConstraint(session);
 						String universalPrimaryKey = rowIdSupport.getUniversalPrimaryKey().toSQL(null, contraint, typeReplacement);
 						uPK = universalPrimaryKey;
-						String h = "" + (universalPrimaryKey + targetDBMS(session).getTableProperties()).hashCode();
-						uptodate[0] = resultSet.getString(1).equals(h);
+						uptodate[0] = resultSet.getString(1).equals(upkHash(universalPrimaryKey, session));
 					}
 
 					@Override
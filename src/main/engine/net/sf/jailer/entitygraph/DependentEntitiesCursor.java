@@ -0,0 +1,50 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.entitygraph;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Cursor over the entities that depend on the entities of an aggregation path.
+ *
+ * @see EntityGraph#openDependentEntitiesCursor(java.util.List, String, String, String)
+ * @author Ralf Wisser
+ */
+public interface DependentEntitiesCursor {
+
+	/**
+	 * Moves the cursor to the next entity.
+	 *
+	 * @return <code>false</code> if there are no more entities
+	 */
+	boolean next() throws SQLException;
+
+	/**
+	 * Gets the result set whose current row is the current entity.
+	 *
+	 * @return the result set
+	 */
+	ResultSet getResultSet();
+
+	/**
+	 * Closes the cursor.
+	 *
+	 * @param numberOfExportedEntities number of entities that have been exported
+	 */
+	void close(long numberOfExportedEntities) throws SQLException;
+
+}
@@ -38,6 +38,7 @@ import net.sf.jailer.datamodel.PrimaryKey;
 import net.sf.jailer.datamodel.Table;
 import net.sf.jailer.extractionmodel.SubjectLimitDefinition;
 import net.sf.jailer.importfilter.ImportFilterManager;
+import net.sf.jailer.subsetting.DeltaFilter;
 import net.sf.jailer.subsetting.TransformerFactory;
 import net.sf.jailer.util.JobManager;
 
@@ -354,6 +355,21 @@ public abstract class EntityGraph {
 	 */
 	public abstract void markDependentEntitiesAsTraversed(Association association, ResultSet resultSet, ResultSetMetaData resultSetMetaData, Map<String, Integer> typeCache) throws SQLException;
 
+	/**
+	 * Opens a cursor over all entities which depend on the entities of an aggregation path.
+	 * The entities are ordered by the primary keys of the entities on the path and then by their own primary keys.
+	 * The keys of the entities on the path are selected first, the columns are named by the given prefix followed by a consecutive number.
+	 *
+	 * @param path the associations from the root table to the table from which to read entities
+	 * @param selectionSchema the selection schema
+	 * @param originalPKAliasPrefix prefix of column aliases for selection of unfiltered PK values
+	 * @param keyAliasPrefix prefix of the column aliases of the keys of the entities on the path
+	 * @return the cursor, or <code>null</code> if the entity graph doesn't support it
+	 */
+	public DependentEntitiesCursor openDependentEntitiesCursor(List<Association> path, String selectionSchema, String originalPKAliasPrefix, String keyAliasPrefix) throws SQLException {
+		return null;
+	}
+
 	/**
 	 * Reads all non-traversed dependencies.
 	 *
@@ -469,6 +485,43 @@ public abstract class EntityGraph {
 		return transformerFactory;
 	}
 
+	/**
+	 * The {@link DeltaFilter}, or <code>null</code>.
+	 */
+	private DeltaFilter deltaFilter;
+
+	/**
+	 * Sets the {@link DeltaFilter} which restricts the rows passed to the transformers.
+	 *
+	 * @param deltaFilter the filter, or <code>null</code>
+	 */
+	public void setDeltaFilter(DeltaFilter deltaFilter) {
+		this.deltaFilter = deltaFilter;
+	}
+
+	/**
+	 * Gets the {@link DeltaFilter} which restricts the rows passed to the transformers.
+	 *
+	 * @return the filter, or <code>null</code>
+	 */
+	public DeltaFilter getDeltaFilter() {
+		return deltaFilter;
+	}
+
+	/**
+	 * Creates a transformer for the rows of a table using the {@link TransformerFactory}.
+	 *
+	 * @param table the table
+	 * @return the transformer
+	 */
+	protected ResultSetReader createTransformer(Table table) throws SQLException {
+		ResultSetReader reader = getTransformerFactory().create(table);
+		if (deltaFilter != null) {
+			return deltaFilter.filter(table, reader);
+		}
+		return reader;
+	}
+
 	/**
 	 * Sets the {@link ImportFilterManager}
 	 *
@@ -561,7 +614,7 @@ public abstract class EntityGraph {
 		if (isTruncated) {
 			return;
 		}
-		if (executionContext.isEmbedded()) {
+		if (executionContext.isEmbedded() || executionContext.getMultiTenant()) {
 			return;
 		}
 		if (checkExist) {
@@ -597,17 +650,26 @@ public abstract class EntityGraph {
 	 * Check if the graph still exists.
 	 */
 	public void checkExist(ExecutionContext executionContext) throws SQLException {
+		if (executionContext.getMultiTenant()) {
+			// graphs are never truncated, no need to synchronize with it
+			checkExistUnsynchronized(executionContext);
+			return;
+		}
 		synchronized (EntityGraph.class) {
-			final boolean found[] = new boolean[] { false };
-			getSession().executeQuery("Select * from " + SQLDialect.dmlTableReference(ENTITY_GRAPH, getSession(), executionContext) + " Where id=" + graphID, new Session.AbstractResultSetReader() {
-				@Override
-				public void readCurrentRow(ResultSet resultSet) throws SQLException {
-					found[0] = true;
-				}
-			});
-			if (!found[0]) {
-				throw new RuntimeException("EntityGraph has been deleted.");
+			checkExistUnsynchronized(executionContext);
+		}
+	}
+
+	private void checkExistUnsynchronized(ExecutionContext executionContext) throws SQLException {
+		final boolean found[] = new boolean[] { false };
+		getSession().executeQuery("Select * from " + SQLDialect.dmlTableReference(ENTITY_GRAPH, getSession(), executionContext) + " Where id=" + graphID, new Session.AbstractResultSetReader() {
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				found[0] = true;
 			}
+		});
+		if (!found[0]) {
+			throw new RuntimeException("EntityGraph has been deleted.");
 		}
 	}
 
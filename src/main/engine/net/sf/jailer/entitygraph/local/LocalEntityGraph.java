@@ -21,6 +21,7 @@ import java.io.OutputStreamWriter;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -28,6 +29,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.configuration.Configuration;
@@ -109,6 +111,39 @@ public class LocalEntityGraph extends EntityGraph {
 			return (String) value;
 		}
 
+		/**
+		 * Binds integer literals, all other values are rendered as literals.
+		 */
+		@Override
+		protected Object parameterValue(ResultSet resultSet, int i) throws SQLException {
+			if (!allUPK && !isUPKColumn(columnNames[i - 1])) {
+				return NOT_BINDABLE;
+			}
+			Object value = cellContentConverter.getObject(resultSet, i);
+			if (value == null) {
+				return null;
+			}
+			if (value instanceof String && INTEGER_LITERAL.matcher((String) value).matches()) {
+				return Long.valueOf((String) value);
+			}
+			return NOT_BINDABLE;
+		}
+
+		@Override
+		protected String parameterMarker() {
+			DBMS dbms = remoteSession.dbms;
+			if (DBMS.ORACLE.equals(dbms)) {
+				return "cast(? as number(19))";
+			}
+			if (DBMS.MySQL.equals(dbms)) {
+				return "cast(? as signed)";
+			}
+			if (DBMS.INFORMIX.equals(dbms)) {
+				return "cast(? as int8)";
+			}
+			return "cast(? as bigint)";
+		}
+
 		@Override
 		protected CellContentConverter createCellContentConverter() {
 			return new CellContentConverter(resultSetMetaData, localSession, localSession.dbms);
@@ -142,10 +177,7 @@ public class LocalEntityGraph extends EntityGraph {
 
 		@Override
 		protected String sqlValue(ResultSet resultSet, int i) throws SQLException {
-			String value = cellContentConverter.toSql(cellContentConverter.getObject(resultSet, i));
-			if (DBMS.POSTGRESQL.equals(remoteSession.dbms) && "null".equalsIgnoreCase(value)) {
-				value += "::" + resultSetMetaData.getColumnTypeName(i);
-			}
+			String value = sqlLiteral(cellContentConverter, resultSetMetaData, resultSet, i);
 			if (allUPK || isUPKColumn(columnNames[i - 1])) {
 				String ncharPrefix = localDBMSConfiguration.getNcharPrefix();
 				boolean[] mustBeParenthesized = new boolean[1];
@@ -161,6 +193,22 @@ public class LocalEntityGraph extends EntityGraph {
 			return value;
 		}
 
+		/**
+		 * Binds the literals of primary key columns as strings.
+		 */
+		@Override
+		protected Object parameterValue(ResultSet resultSet, int i) throws SQLException {
+			if (allUPK || isUPKColumn(columnNames[i - 1])) {
+				return sqlLiteral(cellContentConverter, resultSetMetaData, resultSet, i);
+			}
+			return NOT_BINDABLE;
+		}
+
+		@Override
+		protected String parameterMarker() {
+			return "cast(? as " + getConfiguration().getLocalPKType() + "(" + getConfiguration().getLocalPKLength() + "))";
+		}
+
 		@Override
 		protected CellContentConverter createCellContentConverter() {
 			return new CellContentConverter(resultSetMetaData, remoteSession, remoteSession.dbms);
@@ -168,6 +216,139 @@ public class LocalEntityGraph extends EntityGraph {
 
 	}
 
+	/**
+	 * Renders a value read from the remote database as SQL literal. That's how primary key values are stored locally.
+	 */
+	private String sqlLiteral(CellContentConverter cellContentConverter, ResultSetMetaData resultSetMetaData, ResultSet resultSet, int i) throws SQLException {
+		String value = cellContentConverter.toSql(cellContentConverter.getObject(resultSet, i));
+		if (DBMS.POSTGRESQL.equals(remoteSession.dbms) && "null".equalsIgnoreCase(value)) {
+			value += "::" + resultSetMetaData.getColumnTypeName(i);
+		}
+		return value;
+	}
+
+	/**
+	 * Streams primary keys read from the remote database into the staging table ({@link #ENTITY_SET_ELEMENT})
+	 * of the local database using JDBC batches. {@link #finish()} then moves them into the entity table
+	 * with a single set-based statement.
+	 */
+	private class LocalBulkLoader extends Session.AbstractResultSetReader {
+
+		private static final int BATCH_SIZE = 1000;
+
+		private final Table table;
+		private final int today;
+		private final boolean deduplicate;
+		private final int setId = getNextSetId();
+		private final String insert;
+		private List<Object[]> batch = new ArrayList<Object[]>(BATCH_SIZE);
+		private long rowCount = 0;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param table the table of the entities
+		 * @param today the birthday of the new entities
+		 * @param deduplicate if <code>true</code>, omit entities already in the graph
+		 */
+		public LocalBulkLoader(Table table, int today, boolean deduplicate) throws SQLException {
+			this.table = table;
+			this.today = today;
+			this.deduplicate = deduplicate;
+			String columnList = upkColumnList(table, null);
+			StringBuilder markers = new StringBuilder();
+			for (int i = columnList.split(", *").length; i > 0; --i) {
+				markers.append(", ?");
+			}
+			insert = "Insert into " + dmlTableReference(ENTITY_SET_ELEMENT, localSession) + "(set_id, type, " + columnList + ") " +
+					"values (" + setId + ", " + typeName(table) + markers + ")";
+		}
+
+		@Override
+		public void readCurrentRow(ResultSet resultSet) throws SQLException {
+			CellContentConverter cellContentConverter = getCellContentConverter(resultSet, remoteSession, remoteSession.dbms);
+			ResultSetMetaData resultSetMetaData = getMetaData(resultSet);
+			int columnCount = resultSetMetaData.getColumnCount();
+			Object[] row = new Object[columnCount];
+			for (int i = 1; i <= columnCount; ++i) {
+				row[i - 1] = sqlLiteral(cellContentConverter, resultSetMetaData, resultSet, i);
+			}
+			batch.add(row);
+			if (batch.size() >= BATCH_SIZE) {
+				flush();
+			}
+		}
+
+		private void flush() throws SQLException {
+			if (!batch.isEmpty()) {
+				localSession.executePreparedBatch(insert, batch);
+				rowCount += batch.size();
+				batch = new ArrayList<Object[]>(BATCH_SIZE);
+			}
+		}
+
+		/**
+		 * Flushes the current batch. The loader can read further result sets.
+		 */
+		@Override
+		public void close() throws SQLException {
+			flush();
+		}
+
+		/**
+		 * Moves the staged primary keys into the entity table.
+		 *
+		 * @return number of new entities
+		 */
+		public long finish() throws SQLException {
+			flush();
+			if (rowCount == 0) {
+				return 0;
+			}
+			String select = "Select " + (deduplicate? "distinct " : "") + graphID + ", " + upkColumnList(table, "S", null) + ", " + today + ", " + typeName(table) +
+					" From " + dmlTableReference(ENTITY_SET_ELEMENT, localSession) + " S";
+			if (deduplicate) {
+				select += " left join " + dmlTableReference(ENTITY, localSession) + " Duplicate on Duplicate.r_entitygraph=" + graphID + " and Duplicate.type=" + typeName(table) +
+						" and (" + upkEquals(table, "Duplicate", "S") + ")" +
+						" Where S.set_id=" + setId + " and Duplicate.type is null";
+			} else {
+				select += " Where S.set_id=" + setId;
+			}
+			long rc = localSession.executeUpdate("Insert into " + dmlTableReference(ENTITY, localSession) + " (r_entitygraph, " + upkColumnList(table, null) + ", birthday, type) " + select);
+			localSession.executeUpdate("Delete from " + dmlTableReference(ENTITY_SET_ELEMENT, localSession) + " where set_id=" + setId);
+			rowCount = 0;
+			return rc;
+		}
+	}
+
+	/**
+	 * Gets condition that compares the universal primary keys of two entities of a table.
+	 */
+	private String upkEquals(Table table, String alias, String otherAlias) {
+		Map<Column, Column> match = upkMatch(table);
+		StringBuilder sb = new StringBuilder();
+		for (Column column: universalPrimaryKey.getColumns()) {
+			if (sb.length() > 0) {
+				sb.append(" and ");
+			}
+			Column tableColumn = match.get(column);
+			if (tableColumn != null && tableColumn.isNullable) {
+				sb.append("(" + alias + "." + column.name + "=" + otherAlias + "." + column.name + " or ");
+				sb.append("(" + alias + "." + column.name + " is null and " + otherAlias + "." + column.name + " is null))");
+			} else if (tableColumn != null) {
+				sb.append(alias + "." + column.name + "=" + otherAlias + "." + column.name);
+			} else {
+				sb.append(alias + "." + column.name + " is null");
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Literals that can be bound as integer parameters.
+	 */
+	private static final Pattern INTEGER_LITERAL = Pattern.compile("-?[0-9]{1,18}");
+
 	private Set<String> upkColumnNames = null;
 	private Set<String> nupkColumnNames = null;
 
@@ -506,57 +687,33 @@ public class LocalEntityGraph extends EntityGraph {
 			  " From " + dmlTableReference(ENTITY, localSession) + " E" +
 			  " Where " + condition;
 
-			final long[] rc = new long[1];
+			final LocalBulkLoader destinationLoader = new LocalBulkLoader(destination, today, true);
+
+			final InlineViewBuilder.ParameterizedProcessor resolver = (inlineView, parameters) -> {
+				String resolveSelect =
+						"Select distinct " + pkList(destination, destAlias) +
+						" From " + inlineView + " join " + quoting.requote(source.getName()) + " " + sourceAlias + " on " + pkEqualsEntityID(source, sourceAlias, "E", "", false) +
+						" join " + quoting.requote(destination.getName()) + " " + destAlias + " on (" + jc + ")";
 
-			localSession.executeQuery(select, new RemoteInlineViewBuilder("E", upkColumnList(source, null)) {
+				if (parameters != null) {
+					remoteSession.executePreparedQuery(resolveSelect, parameters, destinationLoader, withExplicitCommit());
+				} else {
+					remoteSession.executeQuery(resolveSelect, destinationLoader, withExplicitCommit());
+				}
+			};
+			RemoteInlineViewBuilder sourceReader = new RemoteInlineViewBuilder("E", upkColumnList(source, null)) {
 				@Override
 				protected void process(String inlineView) throws SQLException {
-					String select =
-							"Select distinct " + pkList(destination, destAlias) +
-							" From " + inlineView + " join " + quoting.requote(source.getName()) + " " + sourceAlias + " on " + pkEqualsEntityID(source, sourceAlias, "E", "", false) +
-							" join " + quoting.requote(destination.getName()) + " " + destAlias + " on (" + jc + ")";
-
-					remoteSession.executeQuery(select, new LocalInlineViewBuilder(destAlias, upkColumnList(destination, null)) {
-						@Override
-						protected void process(String inlineView) throws SQLException {
-							Map<Column, Column> match = upkMatch(destination);
-							StringBuffer sb = new StringBuffer();
-							for (Column column: universalPrimaryKey.getColumns()) {
-								if (sb.length() > 0) {
-									sb.append(" and ");
-								}
-								Column tableColumn = match.get(column);
-								if (tableColumn != null && tableColumn.isNullable) {
-									sb.append("(Duplicate." + column.name);
-									sb.append("=" + destAlias + "." + column.name + " or ");
-									sb.append("(Duplicate." + column.name + " is null and ");
-									sb.append(destAlias + "." + column.name + " is null))");
-								} else {
-									sb.append("Duplicate." + column.name);
-									if (tableColumn != null) {
-										sb.append("=" + destAlias + "." + column.name);
-									} else {
-										sb.append(" is null");
-									}
-								}
-							}
-
-							String entityJoinCondition = sb.toString();
-							String select = "Select " + graphID + " as graph_id, " + upkColumnList(destination, destAlias, null) + ", " + today + " as birthday, " + typeName(destination) + " as type" +
-							" From " + inlineView +
-							" left join " + dmlTableReference(ENTITY, localSession) + " Duplicate on Duplicate.r_entitygraph=" + graphID + " and Duplicate.type=" + typeName(destination) + " and " +
-							entityJoinCondition +
-							" Where Duplicate.type is null";
-
-							String insert = "Insert into " + dmlTableReference(ENTITY, localSession) + " (r_entitygraph, " + upkColumnList(destination, null) + ", birthday, type) " + select;
-							rc[0] += localSession.executeUpdate(insert);
-							totalRowcount += rc[0];
-						}
-					}, withExplicitCommit());
-
+					resolver.process(inlineView, null);
 				}
-			});
-			return rc[0];
+			};
+			if (executionContext.isUseBindVariables()) {
+				sourceReader.useBindVariables(Types.BIGINT, resolver);
+			}
+			localSession.executeQuery(select, sourceReader);
+			long rc = destinationLoader.finish();
+			totalRowcount += rc;
+			return rc;
 		}
 		return -1;
 	}
@@ -677,51 +834,12 @@ public class LocalEntityGraph extends EntityGraph {
 			select += " order by " + limitDefinition.orderBy;
 		}
 
-		final long[] rc = new long[1];
-		ResultSetReader reader = new LocalInlineViewBuilder(alias, upkColumnList(table, null)) {
-			@Override
-			protected void process(String inlineView) throws SQLException {
-				String select = "Select " + graphID + " as graph_id, " + upkColumnList(table, alias, null) + ", " + today + " as birthday, " + typeName(table) + " as type" +
-				" From " + inlineView;
-
-				if (joinWithEntity) {
-					Map<Column, Column> match = upkMatch(table);
-					StringBuffer sb = new StringBuffer();
-					for (Column column: universalPrimaryKey.getColumns()) {
-						if (sb.length() > 0) {
-							sb.append(" and ");
-						}
-						Column tableColumn = match.get(column);
-						if (tableColumn != null && tableColumn.isNullable) {
-							sb.append("(Duplicate." + column.name);
-							sb.append("=" + alias + "." + column.name + " or ");
-							sb.append("(Duplicate." + column.name + " is null and ");
-							sb.append(alias + "." + column.name + " is null))");
-						} else {
-							sb.append("Duplicate." + column.name);
-							if (tableColumn != null) {
-								sb.append("=" + alias + "." + column.name);
-							} else {
-								sb.append(" is null");
-							}
-						}
-					}
-					select += " left join " + dmlTableReference(ENTITY, localSession) +
-							" Duplicate on Duplicate.r_entitygraph=" + graphID + " and Duplicate.type=" + typeName(table) +
-							" and (" + sb + ")" +
-							" Where Duplicate.type is null";
-				}
-
-				String insert = "Insert into " + dmlTableReference(ENTITY, localSession) + " (r_entitygraph, " + upkColumnList(table, null) + ", birthday, type) " + select;
-
-				rc[0] += localSession.executeUpdate(insert);
-				totalRowcount += rc[0];
-			}
-		};
-
-		remoteSession.executeQuery(select, reader, null, null, limitDefinition != null && limitDefinition.limit != null? limitDefinition.limit : 0, withExplicitCommit());
+		LocalBulkLoader loader = new LocalBulkLoader(table, today, joinWithEntity);
+		remoteSession.executeQuery(select, loader, null, null, limitDefinition != null && limitDefinition.limit != null? limitDefinition.limit : 0, withExplicitCommit());
 
-		return rc[0];
+		long rc = loader.finish();
+		totalRowcount += rc;
+		return rc;
 	}
 
 	/**
@@ -885,7 +1003,7 @@ public class LocalEntityGraph extends EntityGraph {
 	 */
 	@Override
 	public void readMarkedEntities(Table table, boolean orderByPK) throws SQLException {
-		Session.ResultSetReader reader = getTransformerFactory().create(table);
+		Session.ResultSetReader reader = createTransformer(table);
 		readMarkedEntities(table, reader, filteredSelectionClause(table), orderByPK);
 	}
 
@@ -996,7 +1114,7 @@ public class LocalEntityGraph extends EntityGraph {
 	 */
 	@Override
 	public void readEntities(Table table, boolean orderByPK) throws SQLException {
-		Session.ResultSetReader reader = getTransformerFactory().create(table);
+		Session.ResultSetReader reader = createTransformer(table);
 		readEntities(table, orderByPK, reader, true);
 	}
 
@@ -0,0 +1,1902 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.entitygraph.memory;
+
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Date;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+import net.sf.jailer.ExecutionContext;
+import net.sf.jailer.configuration.DBMS;
+import net.sf.jailer.database.InlineViewBuilder;
+import net.sf.jailer.database.InlineViewStyle;
+import net.sf.jailer.database.Session;
+import net.sf.jailer.database.Session.ResultSetReader;
+import net.sf.jailer.database.UpdateTransformer;
+import net.sf.jailer.database.WorkingTableScope;
+import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.Column;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.PrimaryKey;
+import net.sf.jailer.datamodel.RowIdSupport;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.entitygraph.EntityGraph;
+import net.sf.jailer.extractionmodel.SubjectLimitDefinition;
+import net.sf.jailer.modelbuilder.MemorizedResultSet;
+import net.sf.jailer.util.CellContentConverter;
+import net.sf.jailer.util.Quoting;
+import net.sf.jailer.util.SqlUtil;
+
+/**
+ * Graph of entities kept in primitive arrays in memory.
+ * Requires no working tables at all, so that read-only source databases can be used.
+ * Only tables whose primary key values are integers are supported.
+ * <br>
+ * Entities are read from the source database in bulk, the entities (and dependencies)
+ * are only sent back to the source database as inline-views in order to read the rows.
+ *
+ * @author Ralf Wisser
+ */
+public class MemoryEntityGraph extends EntityGraph {
+
+	/**
+	 * Birthday of deleted entities.
+	 */
+	private static final int DELETED = Integer.MIN_VALUE;
+
+	/**
+	 * Represents <code>null</code> in a primary key.
+	 */
+	private static final long NULL_VALUE = Long.MIN_VALUE;
+
+	/**
+	 * Number of rows per chunk of an inline-view.
+	 */
+	private static final int CHUNK_SIZE = 1000;
+
+	/**
+	 * Kinds of primary key values.
+	 */
+	private static final int KIND_INTEGER = 1;
+	private static final int KIND_DATE = 2;
+	private static final int KIND_TIMESTAMP = 3;
+	private static final int KIND_TIME = 4;
+	private static final int KIND_STRING = 5;
+
+	/**
+	 * Flags of dependencies.
+	 */
+	private static final byte TRAVERSED = 1;
+	private static final byte REMOVED = 2;
+
+	/**
+	 * For access to the source database.
+	 */
+	private final Session remoteSession;
+
+	/**
+	 * The universal primary key.
+	 */
+	private final PrimaryKey universalPrimaryKey;
+
+	private final RowIdSupport rowIdSupport;
+	private final Quoting quoting;
+	private final InlineViewStyle inlineViewStyle;
+
+	/**
+	 * Key columns per table (shared by all graphs of the same session).
+	 */
+	private final Map<Table, KeyColumns> keyColumns;
+
+	/**
+	 * Entities per table (indexed by type).
+	 */
+	private EntitySet[] entitySets = new EntitySet[0];
+
+	/**
+	 * All dependencies.
+	 */
+	private Dependencies dependencies = new Dependencies();
+
+	/**
+	 * Birthday of subject rows.
+	 */
+	private int birthdayOfSubject = 0;
+
+	/**
+	 * The age of the graph.
+	 */
+	private int age = 1;
+
+	/**
+	 * Entities of one table. Each entity has an ID (its index in the arrays).
+	 * The IDs of deleted entities are not reused. An entity which is added again gets its old ID back.
+	 */
+	private static class EntitySet {
+
+		/**
+		 * Number of primary key columns.
+		 */
+		final int width;
+
+		/**
+		 * Primary key values, <code>width</code> values per entity.
+		 */
+		long[] keys;
+
+		int[] birthday;
+
+		/**
+		 * First outgoing and incoming dependency of each entity, <code>-1</code> if there is none.
+		 */
+		int[] firstOut;
+		int[] firstIn;
+
+		/**
+		 * Hash index (open addressing), contains ID + 1 or 0 for empty slots.
+		 */
+		int[] index;
+
+		/**
+		 * Number of IDs in use.
+		 */
+		int size = 0;
+
+		EntitySet(int width) {
+			this.width = width;
+			keys = new long[16 * width];
+			birthday = new int[16];
+			firstOut = new int[16];
+			firstIn = new int[16];
+			index = new int[32];
+		}
+
+		/**
+		 * Copies the entities (but not the dependencies) of an entity set.
+		 */
+		EntitySet(EntitySet other) {
+			width = other.width;
+			size = other.size;
+			keys = other.keys.clone();
+			birthday = other.birthday.clone();
+			index = other.index.clone();
+			firstOut = new int[birthday.length];
+			firstIn = new int[birthday.length];
+			Arrays.fill(firstOut, -1);
+			Arrays.fill(firstIn, -1);
+		}
+
+		private int hash(long[] key, int offset) {
+			long h = 0;
+			for (int k = 0; k < width; ++k) {
+				h = (h + key[offset + k]) * 0x9E3779B97F4A7C15L;
+			}
+			return (int) (h ^ (h >>> 32));
+		}
+
+		private boolean keyEquals(int id, long[] key, int offset) {
+			int pos = id * width;
+			for (int k = 0; k < width; ++k) {
+				if (keys[pos + k] != key[offset + k]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Finds an entity.
+		 *
+		 * @return the ID of the entity or <code>-1</code> (the entity may be deleted)
+		 */
+		int find(long[] key, int offset) {
+			int mask = index.length - 1;
+			for (int slot = hash(key, offset) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+				int id = index[slot] - 1;
+				if (keyEquals(id, key, offset)) {
+					return id;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Checks whether the set contains a (non deleted) entity.
+		 */
+		boolean contains(long[] key, int offset) {
+			int id = find(key, offset);
+			return id >= 0 && birthday[id] != DELETED;
+		}
+
+		/**
+		 * Adds an entity if it is not already in the set.
+		 *
+		 * @return the ID of the entity or <code>-1</code> if the entity is already in the set
+		 */
+		int insert(long[] key, int offset, int today) {
+			int id = find(key, offset);
+			if (id >= 0) {
+				if (birthday[id] != DELETED) {
+					return -1;
+				}
+				birthday[id] = today;
+				return id;
+			}
+			if (size == birthday.length) {
+				int capacity = 2 * size;
+				keys = Arrays.copyOf(keys, capacity * width);
+				birthday = Arrays.copyOf(birthday, capacity);
+				firstOut = Arrays.copyOf(firstOut, capacity);
+				firstIn = Arrays.copyOf(firstIn, capacity);
+			}
+			id = size++;
+			System.arraycopy(key, offset, keys, id * width, width);
+			birthday[id] = today;
+			firstOut[id] = -1;
+			firstIn[id] = -1;
+			if (2 * size > index.length) {
+				rehash(2 * index.length);
+			} else {
+				addToIndex(id);
+			}
+			return id;
+		}
+
+		private void addToIndex(int id) {
+			int mask = index.length - 1;
+			int slot = hash(keys, id * width) & mask;
+			while (index[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			index[slot] = id + 1;
+		}
+
+		private void rehash(int capacity) {
+			index = new int[capacity];
+			for (int id = 0; id < size; ++id) {
+				addToIndex(id);
+			}
+		}
+
+		/**
+		 * Counts the entities with a birthday accepted by a filter.
+		 */
+		int count(IntPredicate birthdayFilter) {
+			int count = 0;
+			for (int id = 0; id < size; ++id) {
+				if (birthday[id] != DELETED && birthdayFilter.test(birthday[id])) {
+					++count;
+				}
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Dependencies between entities. Each dependency is element of two linked lists:
+	 * the outgoing dependencies of the from-entity and the incoming dependencies of the to-entity.
+	 */
+	private static class Dependencies {
+		int[] assoc = new int[16];
+		int[] dependId = new int[16];
+		int[] fromType = new int[16];
+		int[] fromId = new int[16];
+		int[] toType = new int[16];
+		int[] toId = new int[16];
+		int[] nextOut = new int[16];
+		int[] nextIn = new int[16];
+		byte[] flags = new byte[16];
+		int size = 0;
+
+		void add(int assoc, int dependId, int fromType, EntitySet fromSet, int fromId, int toType, EntitySet toSet, int toId) {
+			if (size == flags.length) {
+				int capacity = 2 * size;
+				this.assoc = Arrays.copyOf(this.assoc, capacity);
+				this.dependId = Arrays.copyOf(this.dependId, capacity);
+				this.fromType = Arrays.copyOf(this.fromType, capacity);
+				this.fromId = Arrays.copyOf(this.fromId, capacity);
+				this.toType = Arrays.copyOf(this.toType, capacity);
+				this.toId = Arrays.copyOf(this.toId, capacity);
+				this.nextOut = Arrays.copyOf(this.nextOut, capacity);
+				this.nextIn = Arrays.copyOf(this.nextIn, capacity);
+				this.flags = Arrays.copyOf(this.flags, capacity);
+			}
+			int d = size++;
+			this.assoc[d] = assoc;
+			this.dependId[d] = dependId;
+			this.fromType[d] = fromType;
+			this.fromId[d] = fromId;
+			this.toType[d] = toType;
+			this.toId[d] = toId;
+			this.flags[d] = 0;
+			this.nextOut[d] = fromSet.firstOut[fromId];
+			fromSet.firstOut[fromId] = d;
+			this.nextIn[d] = toSet.firstIn[toId];
+			toSet.firstIn[toId] = d;
+		}
+
+		boolean isRemoved(int d) {
+			return (flags[d] & REMOVED) != 0;
+		}
+	}
+
+	/**
+	 * The columns of the universal primary key that match the primary key of a table.
+	 */
+	private static class KeyColumns {
+		/**
+		 * Names of the universal primary key columns.
+		 */
+		final String[] names;
+
+		/**
+		 * Positions of the columns in the primary key of the table.
+		 */
+		final int[] pkIndex;
+
+		/**
+		 * Kind of the values of each column, 0 if not yet known.
+		 */
+		final int[] kinds;
+
+		/**
+		 * Dictionary of string values (value -> code and code -> value).
+		 */
+		private final Map<String, Long> stringCodes = new HashMap<String, Long>();
+		private final List<String> strings = new ArrayList<String>();
+
+		KeyColumns(String[] names, int[] pkIndex) {
+			this.names = names;
+			this.pkIndex = pkIndex;
+			this.kinds = new int[names.length];
+		}
+
+		/**
+		 * Encodes a primary key value.
+		 *
+		 * @param k the column
+		 * @throws RuntimeException if the value is neither an integer, a string nor a date/time value
+		 */
+		long encode(Object value, int k) {
+			if (value == null) {
+				return NULL_VALUE;
+			}
+			int kind = 0;
+			long l = NULL_VALUE;
+			try {
+				if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+					kind = KIND_INTEGER;
+					l = ((Number) value).longValue();
+				} else if (value instanceof BigInteger) {
+					kind = KIND_INTEGER;
+					if (((BigInteger) value).bitLength() < 64) {
+						l = ((BigInteger) value).longValue();
+					}
+				} else if (value instanceof BigDecimal) {
+					kind = KIND_INTEGER;
+					l = ((BigDecimal) value).longValueExact();
+				} else if (value instanceof Timestamp) {
+					kind = KIND_TIMESTAMP;
+					Timestamp timestamp = (Timestamp) value;
+					l = Math.addExact(Math.multiplyExact(Math.floorDiv(timestamp.getTime(), 1000L), 1000000000L), timestamp.getNanos());
+				} else if (value instanceof Date) {
+					kind = KIND_DATE;
+					l = ((Date) value).getTime();
+				} else if (value instanceof Time) {
+					kind = KIND_TIME;
+					l = ((Time) value).getTime();
+				} else if (value instanceof String) {
+					kind = KIND_STRING;
+					synchronized (kinds) {
+						Long code = stringCodes.get(value);
+						if (code == null) {
+							code = (long) strings.size();
+							strings.add((String) value);
+							stringCodes.put((String) value, code);
+						}
+						l = code;
+					}
+				}
+			} catch (ArithmeticException e) {
+				l = NULL_VALUE;
+			}
+			if (l != NULL_VALUE) {
+				synchronized (kinds) {
+					if (kinds[k] == 0) {
+						kinds[k] = kind;
+					}
+					if (kinds[k] == kind) {
+						return l;
+					}
+				}
+			}
+			throw new RuntimeException("Primary key value \"" + value + "\" (column " + names[k] + ") is neither an integer, a string nor a date/time value.\n" +
+					"The working table scope \"" + WorkingTableScope.MEMORY + "\" only supports primary keys of such types. " +
+					"Use scope \"" + WorkingTableScope.LOCAL_DATABASE + "\" instead.");
+		}
+
+		/**
+		 * Decodes a primary key value.
+		 *
+		 * @param k the column
+		 */
+		Object decode(long l, int k) {
+			if (l == NULL_VALUE) {
+				return null;
+			}
+			switch (kinds[k]) {
+			case KIND_TIMESTAMP:
+				Timestamp timestamp = new Timestamp(Math.floorDiv(l, 1000000000L) * 1000L);
+				timestamp.setNanos((int) Math.floorMod(l, 1000000000L));
+				return timestamp;
+			case KIND_DATE:
+				return new Date(l);
+			case KIND_TIME:
+				return new Time(l);
+			case KIND_STRING:
+				synchronized (kinds) {
+					return strings.get((int) l);
+				}
+			default:
+				return l;
+			}
+		}
+
+		/**
+		 * Compares two encoded values of a column.
+		 *
+		 * @param k the column
+		 */
+		int compare(long a, long b, int k) {
+			if (kinds[k] == KIND_STRING && a != NULL_VALUE && b != NULL_VALUE) {
+				return ((String) decode(a, k)).compareTo((String) decode(b, k));
+			}
+			return Long.compare(a, b);
+		}
+
+		/**
+		 * Gets the SQL type of the values of a column.
+		 */
+		int sqlType(int k) {
+			switch (kinds[k]) {
+			case KIND_TIMESTAMP: return Types.TIMESTAMP;
+			case KIND_DATE: return Types.DATE;
+			case KIND_TIME: return Types.TIME;
+			case KIND_STRING: return Types.VARCHAR;
+			default: return Types.BIGINT;
+			}
+		}
+	}
+
+	/**
+	 * Reads primary keys from the source database.
+	 */
+	private abstract class KeyReader extends Session.AbstractResultSetReader {
+
+		private final KeyColumns[] columns;
+		private final int[] columnIndex;
+		private final long[] row;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param tables the tables whose primary keys are read (one after another)
+		 */
+		KeyReader(Table... tables) {
+			int width = 0;
+			for (Table table: tables) {
+				width += keyColumns(table).names.length;
+			}
+			columns = new KeyColumns[width];
+			columnIndex = new int[width];
+			row = new long[width];
+			int i = 0;
+			for (Table table: tables) {
+				KeyColumns keyColumns = keyColumns(table);
+				for (int k = 0; k < keyColumns.names.length; ++k) {
+					columns[i] = keyColumns;
+					columnIndex[i++] = k;
+				}
+			}
+		}
+
+		@Override
+		public void readCurrentRow(ResultSet resultSet) throws SQLException {
+			CellContentConverter cellContentConverter = getCellContentConverter(resultSet, remoteSession, remoteSession.dbms);
+			for (int i = 0; i < row.length; ++i) {
+				row[i] = columns[i].encode(cellContentConverter.getObject(resultSet, i + 1), columnIndex[i]);
+			}
+			process(row);
+		}
+
+		/**
+		 * Processes the primary key values of a row.
+		 */
+		protected abstract void process(long[] row);
+	}
+
+	/**
+	 * Builds inline-views of primary keys in the source database.
+	 */
+	private abstract class MemoryInlineViewBuilder extends InlineViewBuilder {
+
+		public MemoryInlineViewBuilder(String name, String[] columnNames) {
+			super(inlineViewStyle, name, remoteSession, columnNames);
+		}
+
+		@Override
+		protected String sqlValue(ResultSet resultSet, int i) throws SQLException {
+			Object value = resultSet.getObject(i);
+			if (value == null) {
+				return "null";
+			}
+			if (value instanceof Long) {
+				return value.toString();
+			}
+			return cellContentConverter.toSql(value);
+		}
+
+		/**
+		 * Binds integers, all other values are rendered as literals.
+		 */
+		@Override
+		protected Object parameterValue(ResultSet resultSet, int i) throws SQLException {
+			Object value = resultSet.getObject(i);
+			if (value == null || value instanceof Long) {
+				return value;
+			}
+			return NOT_BINDABLE;
+		}
+
+		@Override
+		protected String parameterMarker() {
+			DBMS dbms = remoteSession.dbms;
+			if (DBMS.ORACLE.equals(dbms)) {
+				return "cast(? as number(19))";
+			}
+			if (DBMS.MySQL.equals(dbms)) {
+				return "cast(? as signed)";
+			}
+			if (DBMS.INFORMIX.equals(dbms)) {
+				return "cast(? as int8)";
+			}
+			return "cast(? as bigint)";
+		}
+
+		@Override
+		protected CellContentConverter createCellContentConverter() {
+			return new CellContentConverter(resultSetMetaData, remoteSession, remoteSession.dbms);
+		}
+
+		@Override
+		public void close() throws SQLException {
+			if (DBMS.POSTGRESQL.equals(remoteSession.dbms) && statementBuilder.size() == 1) {
+				process("(Select " + statementBuilder.getItems().get(0) + " Union Select " + statementBuilder.getItems().get(0) + ") " + name);
+			} else {
+				super.close();
+			}
+		}
+	}
+
+	/**
+	 * Constructor.
+	 */
+	private MemoryEntityGraph(int graphID, DataModel dataModel, Session remoteSession, PrimaryKey universalPrimaryKey,
+			RowIdSupport rowIdSupport, Quoting quoting, InlineViewStyle inlineViewStyle, Map<Table, KeyColumns> keyColumns, ExecutionContext executionContext) {
+		super(graphID, dataModel, executionContext);
+		this.remoteSession = remoteSession;
+		this.universalPrimaryKey = universalPrimaryKey;
+		this.rowIdSupport = rowIdSupport;
+		this.quoting = quoting;
+		this.inlineViewStyle = inlineViewStyle;
+		this.keyColumns = keyColumns;
+	}
+
+	/**
+	 * Creates a new entity-graph.
+	 *
+	 * @param graphID the unique ID of the graph
+	 * @param remoteSession for executing SQL-Statements
+	 *
+	 * @return the newly created entity-graph
+	 */
+	public static MemoryEntityGraph create(DataModel dataModel, int graphID, Session remoteSession, ExecutionContext executionContext) throws SQLException {
+		RowIdSupport rowIdSupport = new RowIdSupport(dataModel, remoteSession.dbms, executionContext);
+		return new MemoryEntityGraph(graphID, dataModel, remoteSession, rowIdSupport.getUniversalPrimaryKey(remoteSession), rowIdSupport,
+				new Quoting(remoteSession), InlineViewStyle.forSession(remoteSession), new ConcurrentHashMap<Table, KeyColumns>(), executionContext);
+	}
+
+	/**
+	 * Sets birthday of subject rows.
+	 *
+	 * @param birthdayOfSubject birthday of subject rows
+	 */
+	@Override
+	public void setBirthdayOfSubject(int birthdayOfSubject) {
+		this.birthdayOfSubject = birthdayOfSubject;
+	}
+
+	/**
+	 * Copies an entity-graph.
+	 *
+	 * @param newGraphID the unique ID of the new graph
+	 * @return the newly created entity-graph
+	 */
+	@Override
+	public synchronized EntityGraph copy(int newGraphID, Session _unused) throws SQLException {
+		MemoryEntityGraph entityGraph = new MemoryEntityGraph(newGraphID, dataModel, remoteSession, universalPrimaryKey, rowIdSupport, quoting, inlineViewStyle, keyColumns, executionContext);
+		entityGraph.setBirthdayOfSubject(birthdayOfSubject);
+		entityGraph.entitySets = new EntitySet[entitySets.length];
+		for (int type = 0; type < entitySets.length; ++type) {
+			if (entitySets[type] != null) {
+				entityGraph.entitySets[type] = new EntitySet(entitySets[type]);
+			}
+		}
+		entityGraph.setTransformerFactory(getTransformerFactory());
+		return entityGraph;
+	}
+
+	/**
+	 * Creates a new entity-graph of same type and session.
+	 */
+	@Override
+	public EntityGraph createNewGraph() throws SQLException {
+		MemoryEntityGraph entityGraph = new MemoryEntityGraph(createUniqueGraphID(), dataModel, remoteSession, universalPrimaryKey, rowIdSupport, quoting, inlineViewStyle, keyColumns, executionContext);
+		entityGraph.setBirthdayOfSubject(birthdayOfSubject);
+		return entityGraph;
+	}
+
+	/**
+	 * Copies some tables.
+	 *
+	 * @param tables tables to copy
+	 */
+	@Override
+	public EntityGraph copy(Set<Table> tables) throws SQLException {
+		MemoryEntityGraph entityGraph = (MemoryEntityGraph) createNewGraph();
+		synchronized (this) {
+			for (Table table: tables) {
+				long[] keys = collectKeys(table, birthday -> birthday >= 0);
+				int[] birthdays = collectBirthdays(table, birthday -> birthday >= 0);
+				int width = keyColumns(table).names.length;
+				synchronized (entityGraph) {
+					EntitySet entitySet = entityGraph.entitySet(table);
+					for (int i = 0; i < birthdays.length; ++i) {
+						entitySet.insert(keys, i * width, birthdays[i]);
+					}
+				}
+			}
+		}
+		return entityGraph;
+	}
+
+	/**
+	 * Gets the age of the graph.
+	 *
+	 * @return the age of the graph
+	 */
+	@Override
+	public synchronized int getAge() throws SQLException {
+		return age;
+	}
+
+	/**
+	 * Sets the age of the graph.
+	 *
+	 * @param age the age of the graph
+	 */
+	@Override
+	public synchronized void setAge(int age) throws SQLException {
+		this.age = age;
+	}
+
+	/**
+	 * Gets the number of entities in the graph.
+	 *
+	 * @return the number of entities in the graph
+	 */
+	@Override
+	public synchronized long getSize() throws SQLException {
+		long size = 0;
+		for (EntitySet entitySet: entitySets) {
+			if (entitySet != null) {
+				size += entitySet.count(birthday -> birthday >= 0);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Gets the number of entities from given tables in the graph.
+	 *
+	 * @return the number of entities in the graph
+	 */
+	@Override
+	public long getSize(Set<Table> tables) throws SQLException {
+		long size = 0;
+		for (Table table: tables) {
+			size += countEntities(table);
+		}
+		return size;
+	}
+
+	/**
+	 * Deletes the graph.
+	 */
+	@Override
+	public synchronized void delete(boolean forced) {
+		if (forced) {
+			entitySets = new EntitySet[0];
+			dependencies = new Dependencies();
+		}
+	}
+
+	/**
+	 * There are no working tables to be truncated.
+	 */
+	@Override
+	public void truncate(ExecutionContext executionContext, boolean checkExist) throws SQLException {
+	}
+
+	/**
+	 * The graph exists as long as it is referenced.
+	 */
+	@Override
+	public void checkExist(ExecutionContext executionContext) throws SQLException {
+	}
+
+	/**
+	 * Adds entities to the graph.
+	 *
+	 * @param table the table
+	 * @param condition the condition in SQL that the entities must fulfill
+	 * @param today the birthday of the new entities
+	 *
+	 * @return row-count
+	 */
+	@Override
+	public long addEntities(Table table, String condition, int today) throws SQLException {
+		return addEntities(table, "T", condition, today, null);
+	}
+
+	/**
+	 * Adds limited number of entities to the graph.
+	 *
+	 * @param table the table
+	 * @param condition the condition in SQL that the entities must fulfill
+	 * @param today the birthday of the new entities
+	 * @param limitDefinition limit
+	 *
+	 * @return row-count
+	 */
+	@Override
+	public long addEntities(Table table, String condition, int today, SubjectLimitDefinition limitDefinition, boolean joinWithEntity) throws SQLException {
+		return addEntities(table, "T", condition, today, limitDefinition);
+	}
+
+	/**
+	 * Adds entities to the graph.
+	 *
+	 * @param table the table
+	 * @param condition the condition in SQL that the entities must fulfill
+	 * @param today the birthday of the new entities
+	 *
+	 * @return row-count
+	 */
+	private long addEntities(final Table table, final String alias, String condition, final int today, SubjectLimitDefinition limitDefinition) throws SQLException {
+		String select =
+			"Select " + pkList(table, alias) +
+			" From " + quoting.requote(table.getName()) + " " + alias;
+		if (condition != null && !SqlUtil.SQL_TRUE.equals(condition)) {
+			select += " Where (" + condition + ")";
+		}
+		if (limitDefinition != null && limitDefinition.limit != null && limitDefinition.orderBy != null && limitDefinition.orderBy.length() > 0) {
+			select += " order by " + limitDefinition.orderBy;
+		}
+
+		final long[] rc = new long[1];
+		remoteSession.executeQuery(select, new KeyReader(table) {
+			@Override
+			protected void process(long[] row) {
+				synchronized (MemoryEntityGraph.this) {
+					if (entitySet(table).insert(row, 0, today) >= 0) {
+						++rc[0];
+						++totalRowcount;
+					}
+				}
+			}
+		}, null, null, limitDefinition != null && limitDefinition.limit != null? limitDefinition.limit : 0, withExplicitCommit());
+		return rc[0];
+	}
+
+	/**
+	 * The pseudo-columns $DISTANCE and $IS_SUBJECT are not supported
+	 * if the "working table scope" "memory" is used.
+	 */
+	private void checkPseudoColumns(Table table, String condition) {
+		if (condition != null) {
+			if (!condition.equals(SqlUtil.resolvePseudoColumns(condition, "A", "B", 0, 0, "birthday", null))) {
+				throw new IllegalArgumentException(
+						"Unsupported use of pseudo-columns in condition:\n\"" + condition + "\"\n(Table " + table.getName() + ")\n\n" +
+						"When generating delete-scripts, the pseudo-columns $DISTANCE and $IS_SUBJECT are not supported " +
+						"if the \"working table scope\" is \"memory\". It works with " +
+						"\"global tables\" or \"temporary tables\".");
+			}
+		}
+	}
+
+	/**
+	 * Resolves an association. Retrieves and adds all entities
+	 * associated with an entity born yesterday in the graph
+	 * and adds the dependencies.
+	 *
+	 * @param table the table
+	 * @param association the association to resolve
+	 * @param today the birthday of the new entities
+	 *
+	 * @return row-count or -1, if association is ignored
+	 */
+	@Override
+	public long resolveAssociation(final Table table, Association association, final int today) throws SQLException {
+		if (association.getJoinCondition() != null) {
+			final String jc = SqlUtil.resolvePseudoColumns(association.getJoinCondition(), today, birthdayOfSubject, association.reversed, inDeleteMode);
+
+			final String destAlias;
+			final String sourceAlias;
+			if (association.reversed) {
+				destAlias = "A";
+				sourceAlias = "B";
+			} else {
+				destAlias = "B";
+				sourceAlias = "A";
+			}
+
+			final Table destination = association.destination;
+			final Table source = association.source;
+
+			final long[] rc = new long[1];
+			final KeyReader destinationReader = new KeyReader(destination) {
+				@Override
+				protected void process(long[] row) {
+					synchronized (MemoryEntityGraph.this) {
+						if (entitySet(destination).insert(row, 0, today) >= 0) {
+							++rc[0];
+							++totalRowcount;
+						}
+					}
+				}
+			};
+
+			final InlineViewBuilder.ParameterizedProcessor resolver = (inlineView, parameters) -> {
+				String select =
+						"Select distinct " + pkList(destination, destAlias) +
+						" From " + inlineView + " join " + quoting.requote(source.getName()) + " " + sourceAlias + " on " + pkEqualsEntityID(source, sourceAlias, "E", "") +
+						" join " + quoting.requote(destination.getName()) + " " + destAlias + " on (" + jc + ")";
+
+				if (parameters != null) {
+					remoteSession.executePreparedQuery(select, parameters, destinationReader, withExplicitCommit());
+				} else {
+					remoteSession.executeQuery(select, destinationReader, withExplicitCommit());
+				}
+			};
+			MemoryInlineViewBuilder sourceReader = new MemoryInlineViewBuilder("E", keyColumns(source).names) {
+				@Override
+				protected void process(String inlineView) throws SQLException {
+					resolver.process(inlineView, null);
+				}
+			};
+			if (executionContext.isUseBindVariables()) {
+				sourceReader.useBindVariables(Types.BIGINT, resolver);
+			}
+			readKeys(table, collectKeys(table, birthday -> birthday == today - 1), sourceReader);
+			return rc[0];
+		}
+		return -1;
+	}
+
+	/**
+	 * Resolves an association. Retrieves and adds all entities
+	 * associated with an entity into a given entity-graph.
+	 * Restrictions are ignored.
+	 *
+	 * @param table the table
+	 * @param association the association to resolve
+	 *
+	 * @return row-count
+	 */
+	@Override
+	public long resolveAssociation(final Table table, Association association, EntityGraph otherGraph, EntityGraph universum, final boolean forDelete) throws SQLException {
+		final String jc = association.getUnrestrictedJoinCondition();
+
+		final String destAlias;
+		final String sourceAlias;
+		if (association.reversed) {
+			destAlias = "A";
+			sourceAlias = "B";
+		} else {
+			destAlias = "B";
+			sourceAlias = "A";
+		}
+
+		final Table destination = association.destination;
+		final Table source = association.source;
+		final MemoryEntityGraph other = (MemoryEntityGraph) otherGraph;
+		final MemoryEntityGraph univ = (MemoryEntityGraph) universum;
+
+		final long[] rc = new long[1];
+		final KeyReader sourceReader = new KeyReader(source) {
+			@Override
+			protected void process(long[] row) {
+				boolean inUniversum;
+				synchronized (univ) {
+					inUniversum = univ.entitySet(source).contains(row, 0);
+				}
+				if (inUniversum != forDelete) {
+					synchronized (other) {
+						if (other.entitySet(source).insert(row, 0, 1) >= 0) {
+							++rc[0];
+						}
+					}
+				}
+			}
+		};
+
+		readKeys(destination, collectKeys(destination, birthday -> birthday >= 0), new MemoryInlineViewBuilder("E", keyColumns(destination).names) {
+			@Override
+			protected void process(String inlineView) throws SQLException {
+				String select =
+						"Select distinct " + pkList(source, sourceAlias) +
+						" From " + inlineView + ", " + quoting.requote(source.getName()) + " " + sourceAlias + ", " +
+						quoting.requote(destination.getName()) + " " + destAlias + " Where (" + pkEqualsEntityID(destination, destAlias, "E", "") + ") and (" + jc + ")";
+				remoteSession.executeQuery(select, sourceReader, withExplicitCommit());
+			}
+		});
+		synchronized (this) {
+			totalRowcount += rc[0];
+		}
+		return rc[0];
+	}
+
+	/**
+	 * Adds dependencies.
+	 *
+	 * @param from source of dependency
+	 * @param fromAlias alias for from-table
+	 * @param to destination of dependency
+	 * @param toAlias alias for to-table
+	 * @param condition condition of dependency
+	 * @param aggregationId id of aggregation association (for XML export), 0 if not applicable
+	 * @param dependencyId id of dependency
+	 */
+	@Override
+	public void addDependencies(final Table from, final String fromAlias, final Table to, final String toAlias, final String condition, final int aggregationId, final int dependencyId, boolean isAssociationReversed) throws SQLException {
+		checkPseudoColumns(from, condition);
+		final int fromWidth = keyColumns(from).names.length;
+		final KeyReader dependencyReader = new KeyReader(from, to) {
+			@Override
+			protected void process(long[] row) {
+				synchronized (MemoryEntityGraph.this) {
+					EntitySet fromSet = entitySet(from);
+					EntitySet toSet = entitySet(to);
+					int fromId = fromSet.find(row, 0);
+					int toId = toSet.find(row, fromWidth);
+					if (fromId >= 0 && toId >= 0 && fromSet.birthday[fromId] != DELETED && toSet.birthday[toId] != DELETED) {
+						dependencies.add(aggregationId, dependencyId, typeName(from), fromSet, fromId, typeName(to), toSet, toId);
+						++totalRowcount;
+					}
+				}
+			}
+		};
+
+		readKeys(from, collectKeys(from, birthday -> true), new MemoryInlineViewBuilder("E1", keyColumns(from).names) {
+			@Override
+			protected void process(String inlineView) throws SQLException {
+				String select =
+						"Select " + upkColumnList(from, "E1") + ", " + pkList(to, toAlias, "R") +
+						" From " + inlineView + ", " +
+						 quoting.requote(from.getName()) + " " + fromAlias + ", " + quoting.requote(to.getName()) + " " + toAlias +
+						" Where (" + condition + ")" +
+						" and " + pkEqualsEntityID(from, fromAlias, "E1", "");
+				remoteSession.executeQuery(select, dependencyReader, withExplicitCommit());
+			}
+		});
+	}
+
+	/**
+	 * Gets distinct association-ids of all edged.
+	 */
+	@Override
+	public synchronized Set<Integer> getDistinctDependencyIDs() throws SQLException {
+		Set<Integer> ids = new HashSet<Integer>();
+		for (int d = 0; d < dependencies.size; ++d) {
+			if (!dependencies.isRemoved(d)) {
+				ids.add(dependencies.dependId[d]);
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Marks all entities of a given table which don't dependent on other entities,
+	 * s.t. they can be read and deleted.
+	 */
+	@Override
+	public synchronized void markIndependentEntities(Table table) throws SQLException {
+		EntitySet entitySet = entitySet(table);
+		for (int id = 0; id < entitySet.size; ++id) {
+			if (entitySet.birthday[id] > 0) {
+				boolean independent = true;
+				for (int d = entitySet.firstOut[id]; d >= 0; d = dependencies.nextOut[d]) {
+					if (dependencies.assoc[d] == 0 && !dependencies.isRemoved(d)) {
+						independent = false;
+						break;
+					}
+				}
+				if (independent) {
+					entitySet.birthday[id] = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks all rows which are not target of a dependency.
+	 */
+	@Override
+	public synchronized void markRoots(Table table) throws SQLException {
+		EntitySet entitySet = entitySet(table);
+		for (int id = 0; id < entitySet.size; ++id) {
+			if (entitySet.birthday[id] > 0) {
+				boolean root = true;
+				for (int d = entitySet.firstIn[id]; d >= 0; d = dependencies.nextIn[d]) {
+					if (!dependencies.isRemoved(d)) {
+						root = false;
+						break;
+					}
+				}
+				if (root) {
+					entitySet.birthday[id] = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads all entities of a given table which are marked as independent or as roots.
+	 *
+	 * @param table the table
+	 * @param orderByPK if <code>true</code>, result will be ordered by primary keys
+	 */
+	@Override
+	public void readMarkedEntities(Table table, boolean orderByPK) throws SQLException {
+		Session.ResultSetReader reader = createTransformer(table);
+		readMarkedEntities(table, reader, filteredSelectionClause(table), null, orderByPK);
+	}
+
+	/**
+	 * Reads all entities of a given table which are marked as independent or as roots.
+	 *
+	 * @param reader for reading the result-set
+	 * @param table the table
+	 * @param orderByPK if <code>true</code>, result will be ordered by primary keys
+	 */
+	@Override
+	public void readMarkedEntities(final Table table, final Session.ResultSetReader reader, final String selectionSchema, final String originalPKAliasPrefix, final boolean orderByPK) throws SQLException {
+		long[] keys = collectKeys(table, birthday -> birthday == 0);
+		if (orderByPK) {
+			keys = sort(keys, keyColumns(table));
+		}
+		readKeys(table, keys, new MemoryInlineViewBuilder("E", keyColumns(table).names) {
+			@Override
+			protected void process(String inlineView) throws SQLException {
+				String orderBy = "";
+				if (orderByPK) {
+					orderBy = " order by " + rowIdSupport.getPrimaryKey(table).columnList("T.", quoting);
+				}
+				String sqlQuery;
+				if (originalPKAliasPrefix != null) {
+					StringBuffer selectOPK = new StringBuffer();
+					List<Column> pkColumns = rowIdSupport.getPrimaryKey(table).getColumns();
+					for (int i = 0; i < pkColumns.size(); ++i) {
+						if (i > 0) {
+							selectOPK.append(", ");
+						}
+						selectOPK.append("T." + quoting.requote(pkColumns.get(i).name) + " as " + originalPKAliasPrefix + i);
+					}
+					sqlQuery = "Select " + selectionSchema + " From (" +
+							"Select " + selectOPK + ", " + filteredSelectionClause(table) + " From " + inlineView + " join " + quoting.requote(table.getName()) + " T on " +
+							pkEqualsEntityID(table, "T", "E", "") +
+							") T ";
+				} else {
+					sqlQuery = "Select " + selectionSchema + " From " + inlineView + " join " + quoting.requote(table.getName()) + " T on " +
+							pkEqualsEntityID(table, "T", "E", "");
+				}
+				long rc = remoteSession.executeQuery(sqlQuery + orderBy, reader);
+				executionContext.getProgressListenerRegistry().fireExported(table, rc);
+				addExportedCount(rc);
+			}
+		});
+	}
+
+	/**
+	 * Reads all entities of a given table.
+	 *
+	 * @param table the table
+	 * @param orderByPK if <code>true</code>, result will be ordered by primary keys
+	 */
+	@Override
+	public void readEntities(Table table, boolean orderByPK) throws SQLException {
+		Session.ResultSetReader reader = createTransformer(table);
+		readEntities(table, orderByPK, reader, true);
+	}
+
+	/**
+	 * Reads all entities of a given table.
+	 *
+	 * @param table the table
+	 * @param orderByPK if <code>true</code>, result will be ordered by primary keys
+	 */
+	private long readEntities(final Table table, final boolean orderByPK, final Session.ResultSetReader reader, final boolean fireProgressEvents) throws SQLException {
+		long[] keys = collectKeys(table, birthday -> birthday >= 0);
+		if (orderByPK) {
+			keys = sort(keys, keyColumns(table));
+		}
+		final long[] rc = new long[1];
+		readKeys(table, keys, new MemoryInlineViewBuilder("E", keyColumns(table).names) {
+			@Override
+			protected void process(String inlineView) throws SQLException {
+				String sqlQuery = "Select " + filteredSelectionClause(table) + " From " + inlineView + " join " + quoting.requote(table.getName()) + " T on " +
+						pkEqualsEntityID(table, "T", "E", "");
+				long lrc;
+				if (orderByPK) {
+					String sqlQueryWithOrderBy = sqlQuery +
+						" order by " + rowIdSupport.getPrimaryKey(table).columnList("T.", quoting);
+					lrc = remoteSession.executeQuery(sqlQueryWithOrderBy, reader, sqlQuery, null, 0, withExplicitCommit());
+				} else {
+					lrc = remoteSession.executeQuery(sqlQuery, reader, withExplicitCommit());
+				}
+				rc[0] += lrc;
+				if (fireProgressEvents) {
+					executionContext.getProgressListenerRegistry().fireExported(table, lrc);
+					addExportedCount(lrc);
+				}
+			}
+		});
+		return rc[0];
+	}
+
+	/**
+	 * Reads some columns of all entities of a given table without using filters.
+	 *
+	 * @param table the table
+	 * @param columns the columns
+	 * @param reader to read
+	 */
+	@Override
+	public long readUnfilteredEntityColumns(final Table table, final List<Column> columns, final Session.ResultSetReader reader) throws SQLException {
+		StringBuilder sb = new StringBuilder();
+		boolean first = true;
+
+		for (Column c: columns) {
+			if (!first) {
+				sb.append(", ");
+			}
+			sb.append("T." + quoting.requote(c.name));
+			sb.append(" as " + quoting.requote(c.name));
+			first = false;
+		}
+
+		final String columnList = sb.toString();
+		final long[] rc = new long[1];
+
+		readKeys(table, collectKeys(table, birthday -> birthday >= 0), new MemoryInlineViewBuilder("E", keyColumns(table).names) {
+			@Override
+			protected void process(String inlineView) throws SQLException {
+				String sqlQuery = "Select distinct " + columnList + " From " + inlineView + " join " + quoting.requote(table.getName()) + " T on " +
+						pkEqualsEntityID(table, "T", "E", "");
+				rc[0] += remoteSession.executeQuery(sqlQuery, reader, withExplicitCommit());
+			}
+		});
+		return rc[0];
+	}
+
+	/**
+	 * Updates columns of a table.
+	 *
+	 * @param table the table
+	 * @param columns the columns;
+	 * @param inSourceSchema if <code>true</code>, use source-schema-mapping, else use schema-mapping
+	 * @param reason to be written as comment
+	 */
+	@Override
+	public void updateEntities(Table table, Set<Column> columns, OutputStreamWriter scriptFileWriter, DBMS targetConfiguration, boolean inSourceSchema, String reason) throws SQLException {
+		Session.ResultSetReader reader = new UpdateTransformer(table, columns, scriptFileWriter, executionContext.getNumberOfEntities(), getTargetSession(), targetConfiguration, importFilterManager, inSourceSchema, reason, executionContext);
+		readEntities(table, false, reader, false);
+	}
+
+	/**
+	 * Gets select clause for reading rows of given type
+	 * with respect of the column filters.
+	 *
+	 * @param table the table to read rows from
+	 * @return select clause
+	 */
+	private String filteredSelectionClause(Table table) {
+		StringBuilder sb = new StringBuilder();
+		boolean first = true;
+
+		for (Column c: getSelectionClause(table)) {
+			if (!first) {
+				sb.append(", ");
+			}
+			String filterExpression = null;
+			if (c.getFilter() != null && c.getFilter().isApplyAtExport()) {
+				filterExpression = c.getFilterExpression();
+			}
+			if (filterExpression != null) {
+				if (filterExpression.trim().toLowerCase(Locale.ENGLISH).startsWith("select")) {
+					sb.append("(" + filterExpression + ")");
+				} else {
+					sb.append(filterExpression);
+				}
+			} else {
+				sb.append("T." + quoting.requote(c.name));
+			}
+			sb.append(" as " + quoting.requote(c.name));
+			first = false;
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Deletes all entities which are marked as independent.
+	 */
+	@Override
+	public synchronized void deleteIndependentEntities(Table table) throws SQLException {
+		EntitySet entitySet = entitySet(table);
+		for (int id = 0; id < entitySet.size; ++id) {
+			if (entitySet.birthday[id] == 0) {
+				for (int d = entitySet.firstOut[id]; d >= 0; d = dependencies.nextOut[d]) {
+					if (dependencies.assoc[d] == 0) {
+						dependencies.flags[d] |= REMOVED;
+					}
+				}
+				for (int d = entitySet.firstIn[id]; d >= 0; d = dependencies.nextIn[d]) {
+					if (dependencies.assoc[d] == 0) {
+						dependencies.flags[d] |= REMOVED;
+					}
+				}
+				entitySet.birthday[id] = DELETED;
+			}
+		}
+	}
+
+	/**
+	 * Deletes all entities from a given table.
+	 */
+	@Override
+	public synchronized long deleteEntities(Table table) throws SQLException {
+		EntitySet entitySet = entitySet(table);
+		long rc = 0;
+		for (int id = 0; id < entitySet.size; ++id) {
+			if (entitySet.birthday[id] != DELETED) {
+				entitySet.birthday[id] = DELETED;
+				++rc;
+			}
+		}
+		return rc;
+	}
+
+	/**
+	 * Counts the entities of a given table in this graph.
+	 *
+	 * @param table the table
+	 * @return the number of entities from table in this graph
+	 */
+	@Override
+	public synchronized long countEntities(Table table) throws SQLException {
+		return entitySet(table).count(birthday -> birthday >= 0);
+	}
+
+	/**
+	 * Removes all entities from this graph which are associated with an entity
+	 * outside the graph.
+	 *
+	 * @param association the association
+	 * @param deletedEntitiesAreMarked if true, consider entity as deleted if its birthday is negative
+	 * @param allTables set of tables from which there are entities in E
+	 * @return number of removed entities
+	 */
+	@Override
+	public long removeAssociatedDestinations(final Association association, final boolean deletedEntitiesAreMarked, Set<Table> allTables) throws SQLException {
+		String jc = association.getJoinCondition();
+		checkPseudoColumns(association.source, jc);
+		if (jc != null) {
+			final String finalJc = SqlUtil.resolvePseudoColumns(association.getJoinCondition(), 0, birthdayOfSubject, association.reversed, inDeleteMode);
+
+			final String destAlias;
+			final String sourceAlias;
+			if (association.reversed) {
+				destAlias = "A";
+				sourceAlias = "B";
+			} else {
+				destAlias = "B";
+				sourceAlias = "A";
+			}
+			final Table source = association.source;
+			final Table destination = association.destination;
+			final boolean checkDest = allTables.contains(source);
+			final int destWidth = keyColumns(destination).names.length;
+			final String sourcePKList = checkDest && keyColumns(source).names.length > 0? ", " + pkList(source, sourceAlias, "") : "";
+
+			final long[] rc = new long[1];
+			final KeyReader destinationReader = new KeyReader(sourcePKList.isEmpty()? new Table[] { destination } : new Table[] { destination, source }) {
+				@Override
+				protected void process(long[] row) {
+					synchronized (MemoryEntityGraph.this) {
+						++totalRowcount;
+						if (checkDest) {
+							EntitySet sourceSet = entitySet(source);
+							int sourceId = sourceSet.find(row, destWidth);
+							if (deletedEntitiesAreMarked) {
+								if (sourceId < 0 || sourceSet.birthday[sourceId] != -1) {
+									return;
+								}
+							} else if (sourceId >= 0 && sourceSet.birthday[sourceId] != DELETED) {
+								return;
+							}
+						}
+						EntitySet destinationSet = entitySet(destination);
+						int destinationId = destinationSet.find(row, 0);
+						if (destinationId >= 0 && destinationSet.birthday[destinationId] != DELETED && destinationSet.birthday[destinationId] != -1) {
+							destinationSet.birthday[destinationId] = -1;
+							++rc[0];
+						}
+					}
+				}
+			};
+
+			IntPredicate birthdayFilter = deletedEntitiesAreMarked? birthday -> birthday >= 0 : birthday -> true;
+			readKeys(destination, collectKeys(destination, birthdayFilter), new MemoryInlineViewBuilder("EB", keyColumns(destination).names) {
+				@Override
+				protected void process(String inlineView) throws SQLException {
+					String selectSource =
+							"Select distinct " + upkColumnList(destination, "EB") + sourcePKList + " from " + inlineView + " " +
+									"join " + quoting.requote(destination.getName()) + " " + destAlias + " on "+ pkEqualsEntityID(destination, destAlias, "EB", "") + " " +
+									"join " + quoting.requote(source.getName()) + " " + sourceAlias + " " + " on " + finalJc;
+					remoteSession.executeQuery(selectSource, destinationReader, withExplicitCommit());
+				}
+			});
+			return rc[0];
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Reads all entities which depends on given entity.
+	 *
+	 * @param table the table from which to read entities
+	 * @param association the dependency
+	 * @param resultSet current row is given entity
+	 * @param reader reads the entities
+	 * @param selectionSchema the selection schema
+	 */
+	@Override
+	public void readDependentEntities(final Table table, final Association association, final ResultSet resultSet, ResultSetMetaData resultSetMetaData, final ResultSetReader reader, final Map<String, Integer> theTypeCache, final String selectionSchema, final String originalPKAliasPrefix) throws SQLException {
+		long[] key = entityKey(association.source, resultSet, resultSetMetaData);
+		if (key == null) {
+			return;
+		}
+		long[] keys;
+		synchronized (this) {
+			EntitySet sourceSet = entitySet(association.source);
+			EntitySet entitySet = entitySet(table);
+			int width = entitySet.width;
+			int sourceId = sourceSet.find(key, 0);
+			int n = 0;
+			if (sourceId >= 0) {
+				for (int d = sourceSet.firstOut[sourceId]; d >= 0; d = dependencies.nextOut[d]) {
+					if (isDependent(d, association, table)) {
+						++n;
+					}
+				}
+			}
+			keys = new long[n * width];
+			if (n > 0) {
+				int i = 0;
+				for (int d = sourceSet.firstOut[sourceId]; d >= 0; d = dependencies.nextOut[d]) {
+					if (isDependent(d, association, table)) {
+						System.arraycopy(entitySet.keys, dependencies.toId[d] * width, keys, i, width);
+						i += width;
+					}
+				}
+			}
+		}
+
+		readKeys(table, keys, new MemoryInlineViewBuilder("D", keyColumns(table, "TO_")) {
+			@Override
+			protected void process(String inlineView) throws SQLException {
+				String select;
+				if (originalPKAliasPrefix != null) {
+					StringBuffer selectOPK = new StringBuffer();
+					List<Column> pkColumns = rowIdSupport.getPrimaryKey(table).getColumns();
+					for (int i = 0; i < pkColumns.size(); ++i) {
+						if (i > 0) {
+							selectOPK.append(", ");
+						}
+						selectOPK.append("T." + quoting.requote(pkColumns.get(i).name) + " as " + originalPKAliasPrefix + i);
+					}
+					select =
+						"Select " + selectionSchema + " from (" +
+						"Select " + selectOPK + ", " + filteredSelectionClause(table) + " from " + quoting.requote(table.getName()) + " T join " + inlineView + " on " +
+						 pkEqualsEntityID(table, "T", "D", "TO_") + ") T";
+				} else {
+					select = "Select " + selectionSchema + " from " + quoting.requote(table.getName()) + " T join " + inlineView + " on " +
+						 pkEqualsEntityID(table, "T", "D", "TO_") + "";
+				}
+				long rc = remoteSession.executeQuery(select, reader, withExplicitCommit());
+				executionContext.getProgressListenerRegistry().fireExported(table, rc);
+				addExportedCount(rc);
+			}
+		});
+	}
+
+	private boolean isDependent(int d, Association association, Table table) {
+		return dependencies.assoc[d] == association.getId() && dependencies.toType[d] == typeName(table) && !dependencies.isRemoved(d);
+	}
+
+	/**
+	 * Marks all entities which depends on given entity as traversed.
+	 *
+	 * @param association the dependency
+	 *
+	 * @param resultSet current row is given entity
+	 */
+	@Override
+	public void markDependentEntitiesAsTraversed(Association association, ResultSet resultSet, ResultSetMetaData resultSetMetaData, Map<String, Integer> typeCache) throws SQLException {
+		long[] key = entityKey(association.source, resultSet, resultSetMetaData);
+		if (key == null) {
+			return;
+		}
+		synchronized (this) {
+			EntitySet sourceSet = entitySet(association.source);
+			int sourceId = sourceSet.find(key, 0);
+			if (sourceId >= 0) {
+				for (int d = sourceSet.firstOut[sourceId]; d >= 0; d = dependencies.nextOut[d]) {
+					if (dependencies.assoc[d] == association.getId()) {
+						dependencies.flags[d] |= TRAVERSED;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads all non-traversed dependencies.
+	 *
+	 * @param table the source of dependencies to look for
+	 * @param reader reads the entities
+	 */
+	@Override
+	public void readNonTraversedDependencies(Table table, ResultSetReader reader) throws SQLException {
+		List<Object[]> rows = new ArrayList<Object[]>();
+		synchronized (this) {
+			int type = typeName(table);
+			for (int d = 0; d < dependencies.size; ++d) {
+				if (dependencies.fromType[d] == type && dependencies.flags[d] == 0) {
+					rows.add(new Object[] { graphID, dependencies.assoc[d], dependencies.dependId[d], null, dependencies.fromType[d], dependencies.toType[d] });
+				}
+			}
+		}
+		String[] names = new String[] { "R_ENTITYGRAPH", "ASSOC", "DEPEND_ID", "TRAVERSED", "FROM_TYPE", "TO_TYPE" };
+		int[] types = new int[names.length];
+		String[] typeNames = new String[names.length];
+		Arrays.fill(types, Types.INTEGER);
+		Arrays.fill(typeNames, "INTEGER");
+		MemorizedResultSet resultSet = new MemorizedResultSet(rows, names.length, names, types, typeNames);
+		while (resultSet.next()) {
+			reader.readCurrentRow(resultSet);
+		}
+		reader.close();
+	}
+
+	/**
+	 * Removes all reflexive dependencies of given table.
+	 *
+	 * @param table the table
+	 */
+	@Override
+	public synchronized void removeReflexiveDependencies(Table table) throws SQLException {
+		EntitySet entitySet = entitySet(table);
+		int type = typeName(table);
+		for (int id = 0; id < entitySet.size; ++id) {
+			for (int d = entitySet.firstOut[id]; d >= 0; d = dependencies.nextOut[d]) {
+				if (dependencies.toType[d] == type && dependencies.toId[d] == id) {
+					dependencies.flags[d] |= REMOVED;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes all dependencies for a given association.
+	 *
+	 * @param association the asociation
+	 */
+	@Override
+	public synchronized void removeDependencies(Association association) throws SQLException {
+		for (int d = 0; d < dependencies.size; ++d) {
+			if (dependencies.dependId[d] == association.getId()) {
+				dependencies.flags[d] |= REMOVED;
+			}
+		}
+	}
+
+	/**
+	 * Gets the entity set of a table. Caller must hold the monitor of the graph.
+	 */
+	private EntitySet entitySet(Table table) {
+		int type = typeName(table);
+		if (type >= entitySets.length) {
+			entitySets = Arrays.copyOf(entitySets, Math.max(type + 1, 2 * entitySets.length));
+		}
+		EntitySet entitySet = entitySets[type];
+		if (entitySet == null) {
+			entitySet = new EntitySet(keyColumns(table).names.length);
+			entitySets[type] = entitySet;
+		}
+		return entitySet;
+	}
+
+	/**
+	 * Collects the primary keys of the entities of a table.
+	 *
+	 * @param birthdayFilter accepts the birthdays of the entities to collect
+	 * @return the primary key values, one after another
+	 */
+	private synchronized long[] collectKeys(Table table, IntPredicate birthdayFilter) {
+		EntitySet entitySet = entitySet(table);
+		int width = entitySet.width;
+		long[] keys = new long[entitySet.count(birthdayFilter) * width];
+		int i = 0;
+		for (int id = 0; id < entitySet.size; ++id) {
+			if (entitySet.birthday[id] != DELETED && birthdayFilter.test(entitySet.birthday[id])) {
+				System.arraycopy(entitySet.keys, id * width, keys, i, width);
+				i += width;
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Collects the birthdays of the entities of a table (in the same order as {@link #collectKeys(Table, IntPredicate)}).
+	 */
+	private synchronized int[] collectBirthdays(Table table, IntPredicate birthdayFilter) {
+		EntitySet entitySet = entitySet(table);
+		int[] birthdays = new int[entitySet.count(birthdayFilter)];
+		int i = 0;
+		for (int id = 0; id < entitySet.size; ++id) {
+			if (entitySet.birthday[id] != DELETED && birthdayFilter.test(entitySet.birthday[id])) {
+				birthdays[i++] = entitySet.birthday[id];
+			}
+		}
+		return birthdays;
+	}
+
+	/**
+	 * Sorts primary keys.
+	 */
+	private static long[] sort(final long[] keys, final KeyColumns keyColumns) {
+		final int width = keyColumns.names.length;
+		if (width == 1 && keyColumns.kinds[0] != KIND_STRING) {
+			Arrays.sort(keys);
+			return keys;
+		}
+		if (width == 0) {
+			return keys;
+		}
+		Integer[] order = new Integer[keys.length / width];
+		for (int i = 0; i < order.length; ++i) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> {
+			for (int k = 0; k < width; ++k) {
+				int c = keyColumns.compare(keys[a * width + k], keys[b * width + k], k);
+				if (c != 0) {
+					return c;
+				}
+			}
+			return 0;
+		});
+		long[] sorted = new long[keys.length];
+		for (int i = 0; i < order.length; ++i) {
+			System.arraycopy(keys, order[i] * width, sorted, i * width, width);
+		}
+		return sorted;
+	}
+
+	/**
+	 * Feeds primary keys into an inline-view builder.
+	 *
+	 * @param table the table
+	 * @param keys the primary key values, one after another
+	 * @param inlineViewBuilder the builder, will be closed
+	 */
+	private void readKeys(Table table, long[] keys, InlineViewBuilder inlineViewBuilder) throws SQLException {
+		KeyColumns keyColumns = keyColumns(table);
+		String[] names = keyColumns.names;
+		int width = names.length;
+		if (width == 0) {
+			throw new RuntimeException("Table \"" + table.getName() + "\" has no primary key.");
+		}
+		int[] types = new int[width];
+		String[] typeNames = new String[width];
+		for (int k = 0; k < width; ++k) {
+			types[k] = keyColumns.sqlType(k);
+			typeNames[k] = JDBCType.valueOf(types[k]).getName();
+		}
+		List<Object[]> rows = new ArrayList<Object[]>(CHUNK_SIZE);
+		for (int i = 0; i < keys.length; i += width) {
+			Object[] row = new Object[width];
+			for (int k = 0; k < width; ++k) {
+				row[k] = keyColumns.decode(keys[i + k], k);
+			}
+			rows.add(row);
+			if (rows.size() >= CHUNK_SIZE || i + width >= keys.length) {
+				MemorizedResultSet resultSet = new MemorizedResultSet(rows, width, names, types, typeNames);
+				while (resultSet.next()) {
+					inlineViewBuilder.readCurrentRow(resultSet);
+				}
+				rows = new ArrayList<Object[]>(CHUNK_SIZE);
+			}
+		}
+		inlineViewBuilder.close();
+	}
+
+	/**
+	 * Gets the primary key of the entity in the current row of a result set (columns "PK0", "PK1", ...).
+	 *
+	 * @return the primary key or <code>null</code> if it contains <code>null</code>
+	 */
+	private long[] entityKey(Table table, ResultSet resultSet, ResultSetMetaData resultSetMetaData) throws SQLException {
+		CellContentConverter cellContentConverter = new CellContentConverter(resultSetMetaData, remoteSession, remoteSession.dbms);
+		KeyColumns keyColumns = keyColumns(table);
+		int[] pkIndex = keyColumns.pkIndex;
+		long[] key = new long[pkIndex.length];
+		for (int k = 0; k < pkIndex.length; ++k) {
+			key[k] = keyColumns.encode(cellContentConverter.getObject(resultSet, "PK" + pkIndex[k]), k);
+			if (key[k] == NULL_VALUE) {
+				return null;
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Gets the columns of the universal primary key that match the primary key of a table.
+	 */
+	private KeyColumns keyColumns(Table table) {
+		KeyColumns result = keyColumns.get(table);
+		if (result == null) {
+			Map<Column, Column> match = upkMatch(table);
+			List<Column> pkColumns = rowIdSupport.getPrimaryKey(table).getColumns();
+			List<String> names = new ArrayList<String>();
+			List<Integer> pkIndex = new ArrayList<Integer>();
+			for (Column column: universalPrimaryKey.getColumns()) {
+				Column tableColumn = match.get(column);
+				if (tableColumn != null) {
+					names.add(column.name);
+					int i = 0;
+					for (Column c: pkColumns) {
+						if (c.name.equals(tableColumn.name)) {
+							break;
+						}
+						++i;
+					}
+					pkIndex.add(i);
+				}
+			}
+			int[] pkIndexArray = new int[pkIndex.size()];
+			for (int i = 0; i < pkIndexArray.length; ++i) {
+				pkIndexArray[i] = pkIndex.get(i);
+			}
+			result = new KeyColumns(names.toArray(new String[0]), pkIndexArray);
+			keyColumns.put(table, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the names of the columns of the universal primary key that match the primary key of a table.
+	 *
+	 * @param prefix prefix for the column names
+	 */
+	private String[] keyColumns(Table table, String prefix) {
+		String[] names = keyColumns(table).names.clone();
+		for (int i = 0; i < names.length; ++i) {
+			names[i] = prefix + names[i];
+		}
+		return names;
+	}
+
+	private Map<Column, Column> upkMatch(Table table) {
+		return universalPrimaryKey.match(rowIdSupport.getPrimaryKey(table));
+	}
+
+	/**
+	 * Gets a SQL comparison expression for comparing rows with entities.
+	 *
+	 * @param table the table
+	 * @return a SQL comparison expression for comparing rows of <code>table</code> with entities
+	 */
+	private String pkEqualsEntityID(Table table, String tableAlias, String entityAlias, String columnPrefix) {
+		Map<Column, Column> match = upkMatch(table);
+		StringBuffer sb = new StringBuffer();
+		for (Column column: universalPrimaryKey.getColumns()) {
+			Column tableColumn = match.get(column);
+			if (tableColumn != null) {
+				if (sb.length() > 0) {
+					sb.append(" and ");
+				}
+				if (tableColumn.isNullable) {
+					sb.append("(");
+				}
+				sb.append(entityAlias + "." + columnPrefix + column.name);
+				sb.append("=" + tableAlias + "." + quoting.requote(tableColumn.name));
+				if (tableColumn.isNullable) {
+					sb.append(" or (");
+					sb.append(entityAlias + "." + columnPrefix + column.name + " is null and ");
+					sb.append(tableAlias + "." + quoting.requote(tableColumn.name) + " is null))");
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Gets PK-column list for a table.
+	 *
+	 * @param table the table
+	 * @param tableAlias the alias for table
+	 * @return PK-column list for table
+	 */
+	private String pkList(Table table, String tableAlias) {
+		return pkList(table, tableAlias, null);
+	}
+
+	/**
+	 * Gets PK-column list for a table. (for Select clause)
+	 *
+	 * @param table the table
+	 * @param tableAlias the alias for table
+	 * @param columnAliasPrefix optional prefix for column names
+	 */
+	private String pkList(Table table, String tableAlias, String columnAliasPrefix) {
+		Map<Column, Column> match = upkMatch(table);
+		StringBuffer sb = new StringBuffer();
+		for (Column column: universalPrimaryKey.getColumns()) {
+			Column tableColumn = match.get(column);
+			if (tableColumn != null) {
+				if (sb.length() > 0) {
+					sb.append(", ");
+				}
+				if (tableAlias != null) {
+					sb.append(tableAlias + ".");
+				}
+				sb.append(quoting.requote(tableColumn.name));
+				sb.append(" as " + (columnAliasPrefix == null? "" : columnAliasPrefix) + column.name);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Gets the list of the universal primary key columns of a table.
+	 *
+	 * @param table the table
+	 * @param tableAlias the alias for the entity
+	 */
+	private String upkColumnList(Table table, String tableAlias) {
+		StringBuffer sb = new StringBuffer();
+		for (String name: keyColumns(table).names) {
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			sb.append(tableAlias + "." + name);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Total row-count.
+	 */
+	private long totalRowcount = 0;
+
+	/**
+	 * Gets total row-count.
+	 *
+	 * @return total row-count
+	 */
+	@Override
+	public synchronized long getTotalRowcount() {
+		return totalRowcount;
+	}
+
+	/**
+	 * Gets the universal primary key.
+	 *
+	 * @return the universal primary key
+	 */
+	@Override
+	public PrimaryKey getUniversalPrimaryKey() {
+		return universalPrimaryKey;
+	}
+
+	/**
+	 * Shuts down statement-executor.
+	 */
+	@Override
+	public void shutDown() throws SQLException {
+		remoteSession.shutDown();
+	}
+
+	@Override
+	public Session getSession() {
+		return remoteSession;
+	}
+
+	@Override
+	public DataModel getDatamodel() {
+		return dataModel;
+	}
+
+	@Override
+	public Session getTargetSession() {
+		return remoteSession;
+	}
+
+	/**
+	 * Closes the graph. Releases the memory.
+	 */
+	@Override
+	public void close() throws SQLException {
+		delete(true);
+	}
+
+	private boolean withExplicitCommit() {
+		return DBMS.POSTGRESQL.equals(remoteSession.dbms);
+	}
+}
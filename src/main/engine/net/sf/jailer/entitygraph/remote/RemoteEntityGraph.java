@@ -15,13 +15,18 @@
  */
 package net.sf.jailer.entitygraph.remote;
 
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -35,12 +40,15 @@ import net.sf.jailer.database.Session;
 import net.sf.jailer.database.Session.ResultSetReader;
 import net.sf.jailer.database.SqlException;
 import net.sf.jailer.database.UpdateTransformer;
+import net.sf.jailer.database.WorkingTablePartitioning;
 import net.sf.jailer.datamodel.Association;
 import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.PrimaryKey;
 import net.sf.jailer.datamodel.RowIdSupport;
 import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.ddl.DDLCreator;
+import net.sf.jailer.entitygraph.DependentEntitiesCursor;
 import net.sf.jailer.entitygraph.EntityGraph;
 import net.sf.jailer.extractionmodel.SubjectLimitDefinition;
 import net.sf.jailer.util.CellContentConverter;
@@ -79,6 +87,29 @@ public class RemoteEntityGraph extends EntityGraph {
 	 */
 	private final Runnable updateStatistics;
 
+	/**
+	 * Prefix of the names of the narrow entity-tables.
+	 */
+	public static final String NARROW_ENTITY_PREFIX = "JAILER_E_";
+
+	/**
+	 * Names of the narrow entity-tables of the tables having entities in this graph,
+	 * or <code>null</code> if all entities are in the universal entity-table.
+	 *
+	 * @see ExecutionContext#getNarrowWorkingTables()
+	 */
+	private final Map<Table, String> narrowEntityTables;
+
+	/**
+	 * Whether the graph has been opened, so that entities might be in the narrow entity-table of any table.
+	 */
+	private boolean lookupNarrowEntityTables = false;
+
+	/**
+	 * Partitioning of the working tables by entity-graph (see {@link ExecutionContext#getMultiTenant()}), or <code>null</code>.
+	 */
+	private WorkingTablePartitioning partitioning;
+
 	/**
 	 * Constructor.
 	 *
@@ -87,12 +118,25 @@ public class RemoteEntityGraph extends EntityGraph {
 	 * @param universalPrimaryKey the universal primary key
 	 */
 	protected RemoteEntityGraph(DataModel dataModel, int graphID, Session session, PrimaryKey universalPrimaryKey, Runnable updateStatistics, ExecutionContext executionContext) throws SQLException {
+		this(dataModel, graphID, session, universalPrimaryKey, updateStatistics, false, executionContext);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param graphID the unique ID of the graph
+	 * @param session for executing SQL-Statements
+	 * @param universalPrimaryKey the universal primary key
+	 * @param narrow if <code>true</code>, the entities of each table are in a narrow entity-table of its own
+	 */
+	protected RemoteEntityGraph(DataModel dataModel, int graphID, Session session, PrimaryKey universalPrimaryKey, Runnable updateStatistics, boolean narrow, ExecutionContext executionContext) throws SQLException {
 		super(graphID, dataModel, executionContext);
 		this.session = session;
 		this.quoting = Quoting.getQuoting(session);
 		this.universalPrimaryKey = universalPrimaryKey;
 		this.updateStatistics = updateStatistics;
 		this.rowIdSupport = new RowIdSupport(dataModel, session.dbms, executionContext);
+		this.narrowEntityTables = narrow? new LinkedHashMap<Table, String>() : null;
 	}
 
 	private final Quoting quoting;
@@ -116,8 +160,33 @@ public class RemoteEntityGraph extends EntityGraph {
 	 * @return the newly created entity-graph
 	 */
 	public static RemoteEntityGraph create(DataModel dataModel, int graphID, Session session, PrimaryKey universalPrimaryKey, Runnable updateStatistics, ExecutionContext executionContext) throws SQLException {
-		RemoteEntityGraph entityGraph = new RemoteEntityGraph(dataModel, graphID, session, universalPrimaryKey, updateStatistics, executionContext);
+		RemoteEntityGraph entityGraph = new RemoteEntityGraph(dataModel, graphID, session, universalPrimaryKey, updateStatistics, executionContext.getNarrowWorkingTables(), executionContext);
 		init(graphID, session, executionContext);
+		if (executionContext.getMultiTenant()) {
+			entityGraph.partitioning = WorkingTablePartitioning.forSession(session, executionContext);
+			if (entityGraph.partitioning != null) {
+				for (String table: WorkingTablePartitioning.PARTITIONED_TABLES) {
+					entityGraph.partitioning.createPartition(entityGraph.dmlTableReference(table, session), graphID, session);
+				}
+			}
+		}
+		return entityGraph;
+	}
+
+	/**
+	 * Opens an existing entity-graph.
+	 *
+	 * @param graphID the unique ID of the graph
+	 * @param session for executing SQL-Statements
+	 * @param universalPrimaryKey the universal primary key
+	 * @return the entity-graph
+	 */
+	public static RemoteEntityGraph open(DataModel dataModel, int graphID, Session session, PrimaryKey universalPrimaryKey, Runnable updateStatistics, ExecutionContext executionContext) throws SQLException {
+		RemoteEntityGraph entityGraph = new RemoteEntityGraph(dataModel, graphID, session, universalPrimaryKey, updateStatistics, executionContext.getNarrowWorkingTables(), executionContext);
+		entityGraph.lookupNarrowEntityTables = true;
+		if (executionContext.getMultiTenant()) {
+			entityGraph.partitioning = WorkingTablePartitioning.forSession(session, executionContext);
+		}
 		return entityGraph;
 	}
 
@@ -128,14 +197,29 @@ public class RemoteEntityGraph extends EntityGraph {
 	 * @param session for executing SQL-Statements
 	 */
 	protected static void init(int graphID, Session session, ExecutionContext executionContext) {
+		if (executionContext.getMultiTenant()) {
+			// graphs are never truncated, no need to synchronize with it
+			insertGraph(graphID, session, executionContext);
+			return;
+		}
 		synchronized (EntityGraph.class) {
-			try {
-				session.executeUpdate("Insert into " + SQLDialect.dmlTableReference(ENTITY_GRAPH, session, executionContext) + "(id, age) values (" + graphID + ", 1)");
-			} catch (SQLException e) {
-				throw new RuntimeException("Can't find working tables! " +
-						"Run 'bin/jailer.sh create-ddl' " +
-						"and execute the DDL-script first!", e);
-			}
+			insertGraph(graphID, session, executionContext);
+		}
+	}
+
+	/**
+	 * Inserts a new entity-graph into the graph table.
+	 *
+	 * @param graphID the unique ID of the graph
+	 * @param session for executing SQL-Statements
+	 */
+	private static void insertGraph(int graphID, Session session, ExecutionContext executionContext) {
+		try {
+			session.executeUpdate("Insert into " + SQLDialect.dmlTableReference(ENTITY_GRAPH, session, executionContext) + "(id, age) values (" + graphID + ", 1)");
+		} catch (SQLException e) {
+			throw new RuntimeException("Can't find working tables! " +
+					"Run 'bin/jailer.sh create-ddl' " +
+					"and execute the DDL-script first!", e);
 		}
 	}
 
@@ -150,13 +234,42 @@ public class RemoteEntityGraph extends EntityGraph {
 	public EntityGraph copy(int newGraphID, Session session) throws SQLException {
 		RemoteEntityGraph entityGraph = create(dataModel, newGraphID, session, universalPrimaryKey, null, executionContext);
 		entityGraph.setBirthdayOfSubject(birthdayOfSubject);
-		session.executeUpdate(
-				"Insert into " + dmlTableReference(ENTITY, session) + "(r_entitygraph, " + universalPrimaryKey.columnList(null) + ", birthday, orig_birthday, type) " +
-					"Select " + newGraphID + ", " + universalPrimaryKey.columnList(null) + ", birthday, birthday, type From " + dmlTableReference(ENTITY, session) + " Where r_entitygraph=" + graphID + "");
+		if (narrowEntityTables != null) {
+			for (Table table: narrowEntityTablesInUse()) {
+				session.executeUpdate(
+						"Insert into " + entityGraph.entityTable(table) + "(r_entitygraph, " + upkColumnList(table, null) + ", birthday, orig_birthday, type) " +
+							"Select " + newGraphID + ", " + upkColumnList(table, null) + ", birthday, birthday, type From " + entityTable(table) + " Where r_entitygraph=" + graphID + "");
+			}
+		} else {
+			session.executeUpdate(
+					"Insert into " + dmlTableReference(ENTITY, session) + "(r_entitygraph, " + universalPrimaryKey.columnList(null) + ", birthday, orig_birthday, type) " +
+						"Select " + newGraphID + ", " + universalPrimaryKey.columnList(null) + ", birthday, birthday, type From " + dmlTableReference(ENTITY, session) + " Where r_entitygraph=" + graphID + "");
+		}
 		entityGraph.setTransformerFactory(getTransformerFactory());
 		return entityGraph;
 	}
 
+	/**
+	 * Copies some tables.
+	 *
+	 * @param tables tables to copy
+	 */
+	@Override
+	public EntityGraph copy(Set<Table> tables) throws SQLException {
+		if (narrowEntityTables == null) {
+			return super.copy(tables);
+		}
+		RemoteEntityGraph entityGraph = (RemoteEntityGraph) createNewGraph();
+		for (Table table: narrowEntityTablesInUse()) {
+			if (tables.contains(table)) {
+				session.executeUpdate(
+					"Insert into " + entityGraph.entityTable(table) + "(r_entitygraph, " + upkColumnList(table, null) + ", birthday, orig_birthday, type) " +
+						"Select " + entityGraph.graphID + ", " + upkColumnList(table, null) + ", birthday, birthday, type From " + entityTable(table) + " Where r_entitygraph=" + graphID + " and type=" + typeName(table) + " and birthday>=0");
+			}
+		}
+		return entityGraph;
+	}
+
 	/**
 	 * Creates a new entity-graph of same type and session.
 	 */
@@ -204,6 +317,13 @@ public class RemoteEntityGraph extends EntityGraph {
 	 */
 	@Override
 	public long getSize() throws SQLException {
+		if (narrowEntityTables != null) {
+			long size = 0;
+			for (Table table: narrowEntityTablesInUse()) {
+				size += countEntities(table);
+			}
+			return size;
+		}
 		final int[] size = new int[1];
 		size[0] = -1;
 		session.executeQuery("Select count(*) From " + dmlTableReference(ENTITY, session) + " Where r_entitygraph=" + graphID + " and birthday >= 0", new Session.ResultSetReader() {
@@ -228,7 +348,13 @@ public class RemoteEntityGraph extends EntityGraph {
 	public long getSize(final Set<Table> tables) throws SQLException {
 		final long[] total = new long[1];
 		total[0] = 0;
-		if (!tables.isEmpty()) {
+		if (narrowEntityTables != null) {
+			for (Table table: narrowEntityTablesInUse()) {
+				if (tables.contains(table)) {
+					total[0] += countEntities(table);
+				}
+			}
+		} else if (!tables.isEmpty()) {
 			session.executeQuery("Select type, count(*) From " + dmlTableReference(ENTITY, session) + " Where r_entitygraph=" + graphID + " and birthday>=0 group by type", new Session.AbstractResultSetReader() {
 				@Override
 				public void readCurrentRow(ResultSet resultSet) throws SQLException {
@@ -250,8 +376,14 @@ public class RemoteEntityGraph extends EntityGraph {
 	public void delete(boolean force) {
 		if (!isTruncated) {
 			try {
-				deleteRows(session, dmlTableReference(DEPENDENCY, session), "r_entitygraph=" + graphID + "");
-				deleteRows(session, dmlTableReference(ENTITY, session), "r_entitygraph=" + graphID + "");
+				deletePartition(DEPENDENCY);
+				if (narrowEntityTables != null) {
+					for (Table table: narrowEntityTablesInUse()) {
+						deleteRows(session, entityTable(table), "r_entitygraph=" + graphID + "");
+					}
+				} else {
+					deletePartition(ENTITY);
+				}
 				deleteRows(session, dmlTableReference(ENTITY_GRAPH, session), "id=" + graphID + "");
 			} catch (SQLException e) {
 				// ignore
@@ -259,6 +391,61 @@ public class RemoteEntityGraph extends EntityGraph {
 		}
 	}
 
+	/**
+	 * Deletes the rows of this graph from a working table. Drops the graph's partition
+	 * if the table is partitioned, deletes the rows otherwise.
+	 *
+	 * @param tableName the working table
+	 */
+	private void deletePartition(String tableName) throws SQLException {
+		if (partitioning != null) {
+			boolean wasSilent = session.getSilent();
+			try {
+				session.setSilent(true);
+				partitioning.dropPartition(dmlTableReference(tableName, session), graphID, session);
+				return;
+			} catch (SQLException e) {
+				// no partition, fall back to deletion
+				try {
+					// [bugs:#37] PostreSQL: transactional execution
+					session.getConnection().commit();
+				} catch (SQLException e1) {
+					// ignore
+				}
+			} finally {
+				session.setSilent(wasSilent);
+			}
+		}
+		deleteRows(session, dmlTableReference(tableName, session), "r_entitygraph=" + graphID + "");
+	}
+
+	/**
+	 * Removes all entities born after a given day.
+	 *
+	 * @param day the day
+	 */
+	public void removeEntitiesBornAfter(int day) throws SQLException {
+		if (narrowEntityTables != null) {
+			for (Table table: narrowEntityTablesInUse()) {
+				deleteRows(session, entityTable(table), "r_entitygraph=" + graphID + " and birthday>" + day);
+			}
+		} else {
+			deleteRows(session, dmlTableReference(ENTITY, session), "r_entitygraph=" + graphID + " and birthday>" + day);
+		}
+	}
+
+	/**
+	 * Truncation deletes the rows of the universal entity-table only,
+	 * so graphs with narrow entity-tables are deleted row by row.
+	 * Partitioned graphs drop their partitions instead.
+	 */
+	@Override
+	public void truncate(ExecutionContext executionContext, boolean checkExist) throws SQLException {
+		if (narrowEntityTables == null && partitioning == null) {
+			super.truncate(executionContext, checkExist);
+		}
+	}
+
 	/**
 	 * Adds entities to the graph.
 	 *
@@ -302,7 +489,7 @@ public class RemoteEntityGraph extends EntityGraph {
 		final int MAX_BATCH_SIZE = 200;
 
 		String insSQL =
-				"Insert into " + dmlTableReference(ENTITY, session) + " (r_entitygraph, birthday, type, " + upkColumnList(table, null) + ") " +
+				"Insert into " + entityTable(table) + " (r_entitygraph, birthday, type, " + upkColumnList(table, null) + ") " +
 				"values (" + graphID + ", " + today + ", " + typeName(table);
 		for (Column column: universalPrimaryKey.getColumns()) {
 			Column tableColumn = match.get(column);
@@ -316,10 +503,13 @@ public class RemoteEntityGraph extends EntityGraph {
 		if (joinWithEntity) {
 			StringBuffer sb = new StringBuffer();
 			for (Column column: universalPrimaryKey.getColumns()) {
+				Column tableColumn = match.get(column);
+				if (tableColumn == null && narrowEntityTables != null) {
+					continue;
+				}
 				if (sb.length() > 0) {
 					sb.append(" and ");
 				}
-				Column tableColumn = match.get(column);
 				if (tableColumn != null) {
 					if (tableColumn.isNullable) {
 						sb.append("(");
@@ -338,7 +528,7 @@ public class RemoteEntityGraph extends EntityGraph {
 				}
 			}
 			delSQL =
-				"Delete from " + dmlTableReference(ENTITY, session) +
+				"Delete from " + entityTable(table) +
 				" Where r_entitygraph=" + graphID + " and type=" + typeName(table) +
 				" and (" + sb + ")";
 		}
@@ -514,19 +704,19 @@ public class RemoteEntityGraph extends EntityGraph {
 			select =
 					"Select " + (table != null? "distinct " : "") + limitTransactionSize.afterSelectFragment(executionContext) + otherGraph.graphID + " as graph_id, " + pkList(source, sourceAlias) + ", " + 1 + " as birthday, " + typeName(source) + " as type" +
 							" From " + quoting.requote(table1.getName()) + " " + destAlias +
-							" left join " + dmlTableReference(ENTITY, session) + " Duplicate on Duplicate.r_entitygraph=" + otherGraph.graphID + " and Duplicate.type=" + typeName(table1) + " and " +
+							" left join " + entityTable(table1) + " Duplicate on Duplicate.r_entitygraph=" + otherGraph.graphID + " and Duplicate.type=" + typeName(table1) + " and " +
 							pkEqualsEntityID(table1, destAlias, "Duplicate") +
 							(table != null? ", " + quoting.requote(table.getName()) + " " + sourceAlias + " ": "") +
-							" left join " + dmlTableReference(ENTITY, session) + " DUnivers on DUnivers.r_entitygraph=" + universum.graphID + " and DUnivers.type=" + typeName(source) + " and " +
+							" left join " + entityTable(source) + " DUnivers on DUnivers.r_entitygraph=" + universum.graphID + " and DUnivers.type=" + typeName(source) + " and " +
 							pkEqualsEntityID(source, sourceAlias, "DUnivers") +
-							", " + dmlTableReference(ENTITY, session) + " E" +
+							", " + entityTable(table1) + " E" +
 							" Where (" + condition + ") and Duplicate.type is null and DUnivers.type " +
 							(forDelete? "is null" : "is not null") +
 							(table != null? " and (" + jc + ") " : " ") + limitTransactionSize.additionalWhereConditionFragment(executionContext) +
 							limitTransactionSize.statementSuffixFragment(executionContext);
 
 			long incrementSize = limitTransactionSize.getSize(executionContext);
-			String insert = "Insert into " + dmlTableReference(ENTITY, session) + " (r_entitygraph, " + upkColumnList(source, null) + ", birthday, type) " + select;
+			String insert = "Insert into " + entityTable(source) + " (r_entitygraph, " + upkColumnList(source, null) + ", birthday, type) " + select;
 			if (DBMS.SYBASE.equals(session.dbms)) session.execute("set forceplan on ");
 			long rc = 0;
 			for (;;) {
@@ -583,12 +773,12 @@ public class RemoteEntityGraph extends EntityGraph {
 					" From " + quoting.requote(table.getName()) + " " + alias
 						+
 					(joinedTable != null? ", " + quoting.requote(joinedTable.getName()) + " " + joinedTableAlias + " ": "") +
-					(joinWithEntity? ", " + dmlTableReference(ENTITY, session) + " E" : "") +
+					(joinWithEntity? ", " + entityTable(joinedTable) + " E" : "") +
 					" Where (" + condition + ") " +
 						// CW	"and Duplicate.type is null" +
 					(joinedTable != null? " and (" + joinCondition + ")" : "") +
 
-						" AND NOT EXISTS (select * from " + dmlTableReference(ENTITY, session)
+						" AND NOT EXISTS (select * from " + entityTable(table)
 						+ " DuplicateExists where r_entitygraph=" + graphID + " " + "AND DuplicateExists.type="
 						+ typeName(table)
 						+ " and " + pkEqualsEntityID(table, alias, "DuplicateExists") + ") " + limitTransactionSize.additionalWhereConditionFragment(executionContext) +
@@ -598,10 +788,10 @@ public class RemoteEntityGraph extends EntityGraph {
 				select =
 					"Select " + (joinedTable != null? "distinct " : "") + limitTransactionSize.afterSelectFragment(executionContext) + graphID + " as graph_id, " + pkList(table, alias) + ", " + today + " as birthday, " + typeName(table) + " as type" +
 					" From " + quoting.requote(table.getName()) + " " + alias +
-					" left join " + dmlTableReference(ENTITY, session) + " Duplicate on Duplicate.r_entitygraph=" + graphID + " and Duplicate.type=" + typeName(table) + " and " +
+					" left join " + entityTable(table) + " Duplicate on Duplicate.r_entitygraph=" + graphID + " and Duplicate.type=" + typeName(table) + " and " +
 					pkEqualsEntityID(table, alias, "Duplicate") +
 					(joinedTable != null? ", " + quoting.requote(joinedTable.getName()) + " " + joinedTableAlias + " ": "") +
-					(joinWithEntity? ", " + dmlTableReference(ENTITY, session) + " E" : "") +
+					(joinWithEntity? ", " + entityTable(joinedTable) + " E" : "") +
 					" Where (" + condition + ") and Duplicate.type is null" +
 					(joinedTable != null? " and (" + joinCondition + ") " : " ") + limitTransactionSize.additionalWhereConditionFragment(executionContext) +
 					limitTransactionSize.statementSuffixFragment(executionContext);
@@ -609,7 +799,7 @@ public class RemoteEntityGraph extends EntityGraph {
 		}
 
 		long incrementSize = limitTransactionSize.getSize(executionContext);
-		String insert = "Insert into " + dmlTableReference(ENTITY, session) + " (r_entitygraph, " + upkColumnList(table, null) + ", birthday, type) " + select;
+		String insert = "Insert into " + entityTable(table) + " (r_entitygraph, " + upkColumnList(table, null) + ", birthday, type) " + select;
 		if (DBMS.SYBASE.equals(session.dbms)) session.execute("set forceplan on ");
 		long rc = 0;
 		for (;;) {
@@ -643,7 +833,7 @@ public class RemoteEntityGraph extends EntityGraph {
 		condition = SqlUtil.resolvePseudoColumns(condition, isAssociationReversed? "E1" : "E2", isAssociationReversed? "E2" : "E1", 0, birthdayOfSubject, inDeleteMode);
 		String insert = "Insert into " + dmlTableReference(DEPENDENCY, session) + "(r_entitygraph, assoc, depend_id, from_type, to_type, " + upkColumnList(from, "FROM_") + ", " + upkColumnList(to, "TO_") + ") " +
 			"Select " + graphID + ", " + aggregationId  + ", " + dependencyId + ", " + typeName(from) + ", " + typeName(to) + ", " + pkList(from, fromAlias, "FROM") + ", " + pkList(to, toAlias, "TO") +
-			" From " + dmlTableReference(ENTITY, session) + " E1, " + dmlTableReference(ENTITY, session) + " E2, " + quoting.requote(from.getName()) + " " + fromAlias + " ," + quoting.requote(to.getName()) + " " + toAlias + " " +
+			" From " + entityTable(from) + " E1, " + entityTable(to) + " E2, " + quoting.requote(from.getName()) + " " + fromAlias + " ," + quoting.requote(to.getName()) + " " + toAlias + " " +
 			" Where E1.r_entitygraph=" + graphID + " and E2.r_entitygraph=" + graphID + "" +
 			" and (" + condition + ")" +
 			" and E1.type=" + typeName(from) + " and E2.type=" + typeName(to) + "" +
@@ -678,6 +868,7 @@ public class RemoteEntityGraph extends EntityGraph {
 	@Override
 	public void markIndependentEntities(Table table) throws SQLException {
 		StringBuffer fromEqualsPK = new StringBuffer();
+		String entityTable = entityTable(table);
 		Map<Column, Column> match = universalPrimaryKey.match(rowIdSupport.getPrimaryKey(table));
 		for (Column column: universalPrimaryKey.getColumns()) {
 			if (fromEqualsPK.length() > 0) {
@@ -685,21 +876,23 @@ public class RemoteEntityGraph extends EntityGraph {
 			}
 			if (match.get(column) != null) {
 				if (match.get(column).isNullable) {
-					fromEqualsPK.append("(D.FROM_" + column.name + "=" + dmlTableReference(ENTITY, session) + "." + column.name + " or (");
-					fromEqualsPK.append("D.FROM_" + column.name + " is null and " + dmlTableReference(ENTITY, session) + "." + column.name + " is null))");
+					fromEqualsPK.append("(D.FROM_" + column.name + "=" + entityTable + "." + column.name + " or (");
+					fromEqualsPK.append("D.FROM_" + column.name + " is null and " + entityTable + "." + column.name + " is null))");
 				} else {
-					fromEqualsPK.append("D.FROM_" + column.name + "=" + dmlTableReference(ENTITY, session) + "." + column.name);
+					fromEqualsPK.append("D.FROM_" + column.name + "=" + entityTable + "." + column.name);
 				}
+			} else if (narrowEntityTables != null) {
+				fromEqualsPK.append("D.FROM_" + column.name + " is null");
 			} else {
-				fromEqualsPK.append("D.FROM_" + column.name + " is null and " + dmlTableReference(ENTITY, session) + "." + column.name + " is null");
+				fromEqualsPK.append("D.FROM_" + column.name + " is null and " + entityTable + "." + column.name + " is null");
 			}
 		}
 		session.executeUpdate(
-				"Update " + dmlTableReference(ENTITY, session) + " set birthday=0 " +
+				"Update " + entityTable + " set birthday=0 " +
 				"Where r_entitygraph=" + graphID + " and birthday>0 and " +
 					   "type=" + typeName(table) + " and " +
 					   "not exists (Select * from " + dmlTableReference(DEPENDENCY, session) + " D " +
-						   "Where D.r_entitygraph=" + graphID + " and D.assoc=0 and D.from_type=" + dmlTableReference(ENTITY, session) + ".type and " +
+						   "Where D.r_entitygraph=" + graphID + " and D.assoc=0 and D.from_type=" + entityTable + ".type and " +
 								 fromEqualsPK + ")");
 	}
 
@@ -709,6 +902,7 @@ public class RemoteEntityGraph extends EntityGraph {
 	@Override
 	public void markRoots(Table table) throws SQLException {
 		StringBuffer toEqualsPK = new StringBuffer();
+		String entityTable = entityTable(table);
 		Map<Column, Column> match = universalPrimaryKey.match(rowIdSupport.getPrimaryKey(table));
 		for (Column column: universalPrimaryKey.getColumns()) {
 			if (toEqualsPK.length() > 0) {
@@ -716,20 +910,22 @@ public class RemoteEntityGraph extends EntityGraph {
 			}
 			if (match.get(column) != null) {
 				if (match.get(column).isNullable) {
-					toEqualsPK.append("(D.TO_" + column.name + "=" + dmlTableReference(ENTITY, session) + "." + column.name + " or (");
-					toEqualsPK.append("D.TO_" + column.name + " is null and " + dmlTableReference(ENTITY, session) + "." + column.name + " is null))");
+					toEqualsPK.append("(D.TO_" + column.name + "=" + entityTable + "." + column.name + " or (");
+					toEqualsPK.append("D.TO_" + column.name + " is null and " + entityTable + "." + column.name + " is null))");
 				} else {
-					toEqualsPK.append("D.TO_" + column.name + "=" + dmlTableReference(ENTITY, session) + "." + column.name);
+					toEqualsPK.append("D.TO_" + column.name + "=" + entityTable + "." + column.name);
 				}
+			} else if (narrowEntityTables != null) {
+				toEqualsPK.append("D.TO_" + column.name + " is null");
 			} else {
-				toEqualsPK.append("D.TO_" + column.name + " is null and " + dmlTableReference(ENTITY, session) + "." + column.name + " is null");
+				toEqualsPK.append("D.TO_" + column.name + " is null and " + entityTable + "." + column.name + " is null");
 			}
 		}
 		session.executeUpdate(
-				"Update " + dmlTableReference(ENTITY, session) + " set birthday=0 " +
+				"Update " + entityTable + " set birthday=0 " +
 				"Where r_entitygraph=" + graphID + " and birthday>0 and type=" + typeName(table) + " and " +
 					   "not exists (Select * from " + dmlTableReference(DEPENDENCY, session) + " D " +
-						   "Where D.r_entitygraph=" +graphID + " and D.to_type=" + dmlTableReference(ENTITY, session) + ".type and " +
+						   "Where D.r_entitygraph=" +graphID + " and D.to_type=" + entityTable + ".type and " +
 								 toEqualsPK + ")");
 	}
 
@@ -741,7 +937,7 @@ public class RemoteEntityGraph extends EntityGraph {
 	 */
 	@Override
 	public void readMarkedEntities(Table table, boolean orderByPK) throws SQLException {
-		Session.ResultSetReader reader = getTransformerFactory().create(table);
+		Session.ResultSetReader reader = createTransformer(table);
 		readMarkedEntities(table, reader, filteredSelectionClause(table, false), orderByPK);
 	}
 
@@ -758,7 +954,7 @@ public class RemoteEntityGraph extends EntityGraph {
 			orderBy = " order by " + rowIdSupport.getPrimaryKey(table).columnList("T.", quoting);
 		}
 		long rc = session.executeQuery(
-				"Select " + selectionSchema + " From " + dmlTableReference(ENTITY, session) + " E join " + quoting.requote(table.getName()) + " T on " +
+				"Select " + selectionSchema + " From " + entityTable(table) + " E join " + quoting.requote(table.getName()) + " T on " +
 				pkEqualsEntityID(table, "T", "E") +
 				" Where E.birthday=0 and E.r_entitygraph=" + graphID + " and E.type=" + typeName(table) + "" +
 				orderBy,
@@ -794,7 +990,7 @@ public class RemoteEntityGraph extends EntityGraph {
 		}
 		orderBy = "order by " + sb;
 		String sqlQuery = "Select " + selectionSchema + " From (" +
-						"Select " + selectOPK + ", " + filteredSelectionClause(table, false) + " From " + dmlTableReference(ENTITY, session) + " E join " + quoting.requote(table.getName()) + " T on " +
+						"Select " + selectOPK + ", " + filteredSelectionClause(table, false) + " From " + entityTable(table) + " E join " + quoting.requote(table.getName()) + " T on " +
 						pkEqualsEntityID(table, "T", "E") +
 						" Where E.birthday=0 and E.r_entitygraph=" + graphID + " and E.type=" + typeName(table) + "" +
 						") T ";
@@ -814,7 +1010,7 @@ public class RemoteEntityGraph extends EntityGraph {
 	 */
 	@Override
 	public void readEntities(Table table, boolean orderByPK) throws SQLException {
-		Session.ResultSetReader reader = getTransformerFactory().create(table);
+		Session.ResultSetReader reader = createTransformer(table);
 		long rc = readEntities(table, orderByPK, reader);
 		executionContext.getProgressListenerRegistry().fireExported(table, rc);
 		addExportedCount(rc);
@@ -842,12 +1038,39 @@ public class RemoteEntityGraph extends EntityGraph {
 		}
 		final String columnList = sb.toString();
 
-		String sqlQuery = "Select " + columnList + " From " + dmlTableReference(ENTITY, session) + " E join " + quoting.requote(table.getName()) + " T on " +
+		String sqlQuery = "Select " + columnList + " From " + entityTable(table) + " E join " + quoting.requote(table.getName()) + " T on " +
 				pkEqualsEntityID(table, "T", "E") +
 				" Where E.birthday>=0 and E.r_entitygraph=" + graphID + " and E.type=" + typeName(table) + "";
 		return session.executeQuery(sqlQuery, reader, withExplicitCommit());
 	}
 
+	/**
+	 * Reads the primary keys of the next chunk of entities of a given table, ordered by primary key
+	 * (keyset pagination).
+	 *
+	 * @param table the table
+	 * @param keysetCondition condition on the primary key columns (with 'T' as alias for the table)
+	 *            that selects the rows following the previous chunk, <code>null</code> for the first chunk
+	 * @param chunkSize maximum number of rows, 0 for unlimited
+	 * @param reader to read
+	 * @return number of rows read
+	 */
+	public long readChunkOfPrimaryKeys(Table table, String keysetCondition, int chunkSize, Session.ResultSetReader reader) throws SQLException {
+		StringBuilder columnList = new StringBuilder();
+		for (Column c: table.getNonVirtualPKColumns(session)) {
+			if (columnList.length() > 0) {
+				columnList.append(", ");
+			}
+			columnList.append("T." + quoting.requote(c.name));
+		}
+		String sqlQuery = "Select " + columnList + " From " + entityTable(table) + " E join " + quoting.requote(table.getName()) + " T on " +
+				pkEqualsEntityID(table, "T", "E") +
+				" Where E.birthday>=0 and E.r_entitygraph=" + graphID + " and E.type=" + typeName(table) +
+				(keysetCondition != null? " and (" + keysetCondition + ")" : "") +
+				" Order by " + columnList;
+		return session.executeQuery(sqlQuery, reader, null, null, chunkSize, withExplicitCommit());
+	}
+
 	/**
 	 * Reads all entities of a given table.
 	 *
@@ -855,7 +1078,7 @@ public class RemoteEntityGraph extends EntityGraph {
 	 * @param orderByPK if <code>true</code>, result will be ordered by primary keys
 	 */
 	protected long readEntities(Table table, boolean orderByPK, Session.ResultSetReader reader) throws SQLException {
-		String sqlQuery = "Select " + filteredSelectionClause(table, false) + " From " + dmlTableReference(ENTITY, session) + " E join " + quoting.requote(table.getName()) + " T on " +
+		String sqlQuery = "Select " + filteredSelectionClause(table, false) + " From " + entityTable(table) + " E join " + quoting.requote(table.getName()) + " T on " +
 			pkEqualsEntityID(table, "T", "E") +
 			" Where E.birthday>=0 and E.r_entitygraph=" + graphID + " and E.type=" + typeName(table) + "";
 		long rc;
@@ -967,6 +1190,8 @@ public class RemoteEntityGraph extends EntityGraph {
 				} else {
 					fromEqualsPK.append(dmlTableReference(DEPENDENCY, session) + ".FROM_" + column.name + "=" + column.name);
 				}
+			} else if (narrowEntityTables != null) {
+				fromEqualsPK.append(dmlTableReference(DEPENDENCY, session) + ".FROM_" + column.name + " is null");
 			} else {
 				fromEqualsPK.append(dmlTableReference(DEPENDENCY, session) + ".FROM_" + column.name + " is null and " + column.name + " is null");
 			}
@@ -980,6 +1205,8 @@ public class RemoteEntityGraph extends EntityGraph {
 				} else {
 					toEqualsPK.append(dmlTableReference(DEPENDENCY, session) + ".TO_" + column.name + "=" + column.name);
 				}
+			} else if (narrowEntityTables != null) {
+				toEqualsPK.append(dmlTableReference(DEPENDENCY, session) + ".TO_" + column.name + " is null");
 			} else {
 				toEqualsPK.append(dmlTableReference(DEPENDENCY, session) + ".TO_" + column.name + " is null and " + column.name + " is null");
 			}
@@ -987,19 +1214,19 @@ public class RemoteEntityGraph extends EntityGraph {
 		deleteRows(session,
 				dmlTableReference(DEPENDENCY, session),
 				dmlTableReference(DEPENDENCY, session) + ".r_entitygraph=" + graphID + " and assoc=0 and from_type=" + typeName(table) + " and " +
-					  "exists (Select * from " + dmlTableReference(ENTITY, session) + " E Where " +
+					  "exists (Select * from " + entityTable(table) + " E Where " +
 						  "E.r_entitygraph=" + graphID + " and " +
 						  fromEqualsPK + " and " + dmlTableReference(DEPENDENCY, session) + ".from_type=E.type and " +
 						  "E.birthday=0)");
 		deleteRows(session,
 				dmlTableReference(DEPENDENCY, session),
 				dmlTableReference(DEPENDENCY, session) + ".r_entitygraph=" + graphID + " and assoc=0 and to_type=" + typeName(table) + " and " +
-					  "exists (Select * from " + dmlTableReference(ENTITY, session) + " E Where " +
+					  "exists (Select * from " + entityTable(table) + " E Where " +
 						  "E.r_entitygraph=" + graphID + " and " +
 						  toEqualsPK + " and " + dmlTableReference(DEPENDENCY, session) + ".to_type=E.type and " +
 						  "E.birthday=0)");
 		deleteRows(session,
-				dmlTableReference(ENTITY, session),
+				entityTable(table),
 				"r_entitygraph=" + graphID + " and type=" + typeName(table) + " and " +
 					   "birthday=0");
 	}
@@ -1010,7 +1237,7 @@ public class RemoteEntityGraph extends EntityGraph {
 	@Override
 	public long deleteEntities(Table table) throws SQLException {
 		return deleteRows(session,
-				dmlTableReference(ENTITY, session),
+				entityTable(table),
 				"r_entitygraph=" + graphID + " and " +
 					   "type=" + typeName(table));
 	}
@@ -1025,7 +1252,7 @@ public class RemoteEntityGraph extends EntityGraph {
 	public long countEntities(Table table) throws SQLException {
 		final long[] count = new long[1];
 		session.executeQuery(
-				"Select count(*) from " + dmlTableReference(ENTITY, session) + " E " +
+				"Select count(*) from " + entityTable(table) + " E " +
 				"Where E.birthday>=0 and E.r_entitygraph=" + graphID + " and E.type=" + typeName(table) + "",
 				new Session.AbstractResultSetReader() {
 					@Override
@@ -1064,13 +1291,15 @@ public class RemoteEntityGraph extends EntityGraph {
 				jc = jc.replace("EA.orig_birthday", "(null)");
 			}
 
-			String remove = "Insert into " + dmlTableReference(ENTITY_SET_ELEMENT, session) + "(set_id, type, " + universalPrimaryKey.columnList(null) + ") " +
-				"Select distinct " + setId + ", EB.type, " + universalPrimaryKey.columnList("EB.") + " from " + dmlTableReference(ENTITY, session) + " EB " +
+			String destEntityTable = entityTable(association.destination);
+			String setColumnList = narrowEntityTables != null? upkColumnList(association.destination, null) : universalPrimaryKey.columnList(null);
+			String remove = "Insert into " + dmlTableReference(ENTITY_SET_ELEMENT, session) + "(set_id, type, " + setColumnList + ") " +
+				"Select distinct " + setId + ", EB.type, " + (narrowEntityTables != null? upkColumnList(association.destination, "EB.") : universalPrimaryKey.columnList("EB.")) + " from " + destEntityTable + " EB " +
 				"join " + quoting.requote(association.destination.getName()) + " " + destAlias + " on "+ pkEqualsEntityID(association.destination, destAlias, "EB") + " " +
 				"join " + quoting.requote(association.source.getName()) + " " + sourceAlias + " " +
 				"on (" + jc + ") " +
 				(checkDest?
-						(deletedEntitiesAreMarked? "join " : "left join ") + dmlTableReference(ENTITY, session) + " EA on EA.r_entitygraph=" + graphID + " and EA.type=" + typeName(association.source) + " and " + pkEqualsEntityID(association.source, sourceAlias, "EA") + " "
+						(deletedEntitiesAreMarked? "join " : "left join ") + entityTable(association.source) + " EA on EA.r_entitygraph=" + graphID + " and EA.type=" + typeName(association.source) + " and " + pkEqualsEntityID(association.source, sourceAlias, "EA") + " "
 						:
 						"") +
 				"Where EB.r_entitygraph=" + graphID + " and EB.type=" + typeName(association.destination);
@@ -1094,23 +1323,26 @@ public class RemoteEntityGraph extends EntityGraph {
 							sEqualsE.append("(S." + column.name + "=E." + column.name + " or (");
 							sEqualsE.append("S." + column.name + " is null and E." + column.name + " is null))");
 
-							sEqualsEWoAlias.append("(S." + column.name + "=" + dmlTableReference(ENTITY, session) + "." + column.name + " or (");
-							sEqualsEWoAlias.append("S." + column.name + " is null and " + dmlTableReference(ENTITY, session) + "." + column.name + " is null))");
+							sEqualsEWoAlias.append("(S." + column.name + "=" + destEntityTable + "." + column.name + " or (");
+							sEqualsEWoAlias.append("S." + column.name + " is null and " + destEntityTable + "." + column.name + " is null))");
 						} else {
 							sEqualsE.append("S." + column.name + "=E." + column.name);
-							sEqualsEWoAlias.append("S." + column.name + "=" + dmlTableReference(ENTITY, session) + "." + column.name);
+							sEqualsEWoAlias.append("S." + column.name + "=" + destEntityTable + "." + column.name);
 						}
+					} else if (narrowEntityTables != null) {
+						sEqualsE.append("S." + column.name + " is null");
+						sEqualsEWoAlias.append("S." + column.name + " is null");
 					} else {
 						sEqualsE.append("S." + column.name + " is null and E." + column.name + " is null");
-						sEqualsEWoAlias.append("S." + column.name + " is null and " + dmlTableReference(ENTITY, session) + "." + column.name + " is null");
+						sEqualsEWoAlias.append("S." + column.name + " is null and " + destEntityTable + "." + column.name + " is null");
 					}
 				}
-				remove = "Update " + dmlTableReference(ENTITY, session) + " E set E.birthday=-1 Where E.r_entitygraph=" + graphID + " and E.type=" + typeName(association.destination) + " " +
+				remove = "Update " + destEntityTable + " E set E.birthday=-1 Where E.r_entitygraph=" + graphID + " and E.type=" + typeName(association.destination) + " " +
 						  "and exists (Select * from " + dmlTableReference(ENTITY_SET_ELEMENT, session) + " S where S.set_id=" + setId + " and E.type=S.type and " + sEqualsE + ") " +
 						  "and E.birthday<>-1";
-				String removeWOAlias = "Update " + dmlTableReference(ENTITY, session) + " set birthday=-1 Where " + dmlTableReference(ENTITY, session) + ".r_entitygraph=" + graphID + " and " + dmlTableReference(ENTITY, session) + ".type=" + typeName(association.destination) + " " +
-						"and exists (Select * from " + dmlTableReference(ENTITY_SET_ELEMENT, session) + " S where S.set_id=" + setId + " and " + dmlTableReference(ENTITY, session) + ".type=S.type and " + sEqualsEWoAlias + ") " +
-						"and " + dmlTableReference(ENTITY, session) + ".birthday<>-1";
+				String removeWOAlias = "Update " + destEntityTable + " set birthday=-1 Where " + destEntityTable + ".r_entitygraph=" + graphID + " and " + destEntityTable + ".type=" + typeName(association.destination) + " " +
+						"and exists (Select * from " + dmlTableReference(ENTITY_SET_ELEMENT, session) + " S where S.set_id=" + setId + " and " + destEntityTable + ".type=S.type and " + sEqualsEWoAlias + ") " +
+						"and " + destEntityTable + ".birthday<>-1";
 				boolean tryWithAliasFirst = !DBMS.POSTGRESQL.equals(session.dbms);
 				boolean silent = session.getSilent();
 				try {
@@ -1196,6 +1428,149 @@ public class RemoteEntityGraph extends EntityGraph {
 		session.executeUpdate(update);
 	}
 
+	/**
+	 * Opens a cursor over all entities which depend on the entities of an aggregation path.
+	 * Joins the dependencies along the path.
+	 *
+	 * @param path the associations from the root table to the table from which to read entities
+	 * @param selectionSchema the selection schema
+	 * @param originalPKAliasPrefix prefix of column aliases for selection of unfiltered PK values
+	 * @param keyAliasPrefix prefix of the column aliases of the keys of the entities on the path
+	 * @return the cursor
+	 */
+	@Override
+	public DependentEntitiesCursor openDependentEntitiesCursor(List<Association> path, String selectionSchema, String originalPKAliasPrefix, String keyAliasPrefix) throws SQLException {
+		final Table table = path.get(path.size() - 1).destination;
+		StringBuffer keys = new StringBuffer();
+		StringBuffer keyColumns = new StringBuffer();
+		StringBuffer orderByKeys = new StringBuffer();
+		StringBuffer from = new StringBuffer();
+		StringBuffer where = new StringBuffer();
+		int nr = 0;
+		for (int i = 0; i < path.size(); ++i) {
+			Association association = path.get(i);
+			String alias = "D" + i;
+			Map<Column, Column> match = universalPrimaryKey.match(rowIdSupport.getPrimaryKey(association.source));
+			for (Column pk: rowIdSupport.getPrimaryKey(association.source).getColumns()) {
+				for (Column column: universalPrimaryKey.getColumns()) {
+					if (match.get(column) == pk) {
+						if (keys.length() > 0) {
+							keys.append(", ");
+							keyColumns.append(", ");
+							orderByKeys.append(", ");
+						}
+						keys.append(alias + ".FROM_" + column.name + " as " + keyAliasPrefix + nr);
+						keyColumns.append("T." + keyAliasPrefix + nr);
+						orderByKeys.append(alias + ".FROM_" + column.name);
+						++nr;
+					}
+				}
+			}
+			if (i == 0) {
+				from.append(dmlTableReference(DEPENDENCY, session) + " " + alias);
+			} else {
+				from.append(" join " + dmlTableReference(DEPENDENCY, session) + " " + alias + " on " + entityIDEquals(association.source, "D" + (i - 1), "TO_", alias, "FROM_"));
+				where.append(" and ");
+			}
+			where.append(alias + ".r_entitygraph=" + graphID + " and " + alias + ".assoc=" + association.getId() +
+					" and " + alias + ".from_type=" + typeName(association.source) + " and " + alias + ".to_type=" + typeName(association.destination));
+		}
+		from.append(" join " + quoting.requote(table.getName()) + " T on " + pkEqualsEntityID(table, "T", "D" + (path.size() - 1), "TO_"));
+
+		final String select;
+		if (originalPKAliasPrefix != null) {
+			StringBuffer selectOPK = new StringBuffer();
+			StringBuffer orderByOPK = new StringBuffer();
+			List<Column> pkColumns = rowIdSupport.getPrimaryKey(table).getColumns();
+			for (int i = 0; i < pkColumns.size(); ++i) {
+				if (i > 0) {
+					selectOPK.append(", ");
+					orderByOPK.append(", ");
+				}
+				selectOPK.append("T." + quoting.requote(pkColumns.get(i).name) + " as " + originalPKAliasPrefix + i);
+				orderByOPK.append("T." + originalPKAliasPrefix + i);
+			}
+			select =
+				"Select " + keyColumns + ", " + selectionSchema + " from (" +
+				"Select " + keys + ", " + selectOPK + ", " + filteredSelectionClause(table, false) + " from " + from +
+				" Where " + where + ") T" +
+				" order by " + keyColumns + ", " + orderByOPK;
+		} else {
+			select =
+				"Select " + keys + ", " + selectionSchema + " from " + from +
+				" Where " + where +
+				" order by " + orderByKeys + ", " + rowIdSupport.getPrimaryKey(table).columnList("T.", quoting);
+		}
+
+		if (session.getLogStatements()) {
+			Session._log.info(select);
+		}
+		final Statement statement = session.getConnection().createStatement();
+		final ResultSet resultSet;
+		try {
+			try {
+				statement.setFetchSize(session.dbms.getLimitedFetchSize(0));
+			} catch (Throwable t) {
+				// ignore
+			}
+			resultSet = statement.executeQuery(select);
+		} catch (SQLException e) {
+			statement.close();
+			throw new SqlException(e.getMessage(), select, e);
+		}
+		return new DependentEntitiesCursor() {
+			@Override
+			public boolean next() throws SQLException {
+				return resultSet.next();
+			}
+			@Override
+			public ResultSet getResultSet() {
+				return resultSet;
+			}
+			@Override
+			public void close(long numberOfExportedEntities) throws SQLException {
+				try {
+					resultSet.close();
+				} finally {
+					statement.close();
+				}
+				executionContext.getProgressListenerRegistry().fireExported(table, numberOfExportedEntities);
+				addExportedCount(numberOfExportedEntities);
+			}
+		};
+	}
+
+	/**
+	 * Gets condition for the equality of the IDs of an entity referenced by two dependencies.
+	 *
+	 * @param table the entity's table
+	 * @param alias1 alias of the first dependency
+	 * @param columnPrefix1 column prefix of the entity's ID in the first dependency
+	 * @param alias2 alias of the second dependency
+	 * @param columnPrefix2 column prefix of the entity's ID in the second dependency
+	 * @return the condition
+	 */
+	private String entityIDEquals(Table table, String alias1, String columnPrefix1, String alias2, String columnPrefix2) {
+		Map<Column, Column> match = universalPrimaryKey.match(rowIdSupport.getPrimaryKey(table));
+		StringBuffer sb = new StringBuffer();
+		for (Column column: universalPrimaryKey.getColumns()) {
+			Column tableColumn = match.get(column);
+			if (tableColumn != null) {
+				if (sb.length() > 0) {
+					sb.append(" and ");
+				}
+				String c1 = alias1 + "." + columnPrefix1 + column.name;
+				String c2 = alias2 + "." + columnPrefix2 + column.name;
+				if (tableColumn.isNullable) {
+					sb.append("(" + c1 + "=" + c2 + " or (" + c1 + " is null and " + c2 + " is null))");
+				} else {
+					sb.append(c1 + "=" + c2);
+				}
+			}
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Reads all non-traversed dependencies.
 	 *
@@ -1284,23 +1659,37 @@ public class RemoteEntityGraph extends EntityGraph {
 	 * @return a SQL comparition expression for comparing rows of <code>table</code> with entities
 	 */
 	protected String pkEqualsEntityID(Table table, String tableAlias, String entityAlias) {
-		return pkEqualsEntityID(table, tableAlias, entityAlias, "");
+		return pkEqualsEntityID(table, tableAlias, entityAlias, "", narrowEntityTables != null);
+	}
+
+	/**
+	 * Gets a SQL comparison expression for comparing rows with dependencies.
+	 *
+	 * @param table the table
+	 * @return a SQL comparison expression for comparing rows of <code>table</code> with dependencies
+	 */
+	private String pkEqualsEntityID(Table table, String tableAlias, String entityAlias, String columnPrefix) {
+		return pkEqualsEntityID(table, tableAlias, entityAlias, columnPrefix, false);
 	}
 
 	/**
 	 * Gets a SQL comparison expression for comparing rows with entities.
 	 *
 	 * @param table the table
+	 * @param narrow if <code>true</code>, the entity has only the columns the table's primary key is mapped to
 	 * @return a SQL comparison expression for comparing rows of <code>table</code> with entities
 	 */
-	private String pkEqualsEntityID(Table table, String tableAlias, String entityAlias, String columnPrefix) {
+	private String pkEqualsEntityID(Table table, String tableAlias, String entityAlias, String columnPrefix, boolean narrow) {
 		Map<Column, Column> match = universalPrimaryKey.match(rowIdSupport.getPrimaryKey(table));
 		StringBuffer sb = new StringBuffer();
 		for (Column column: universalPrimaryKey.getColumns()) {
+			Column tableColumn = match.get(column);
+			if (tableColumn == null && narrow) {
+				continue;
+			}
 			if (sb.length() > 0) {
 				sb.append(" and ");
 			}
-			Column tableColumn = match.get(column);
 			if (tableColumn != null) {
 				if (tableColumn.isNullable) {
 					sb.append("(");
@@ -1381,6 +1770,137 @@ public class RemoteEntityGraph extends EntityGraph {
 		return sb.toString();
 	}
 
+	/**
+	 * Gets the table reference of the entity-table holding the entities of a given table.
+	 *
+	 * @param table the table
+	 * @return the universal entity-table, or the narrow entity-table of the table
+	 */
+	protected String entityTable(Table table) throws SQLException {
+		if (narrowEntityTables == null) {
+			return dmlTableReference(ENTITY, session);
+		}
+		String name;
+		synchronized (narrowEntityTables) {
+			name = narrowEntityTables.get(table);
+			if (name == null) {
+				name = narrowEntityTableName(table);
+				if (!narrowEntityTableExists(name)) {
+					try {
+						new DDLCreator(executionContext).createNarrowEntityTable(session, executionContext.getScope(), executionContext.getWorkingTableSchema(), name, narrowPrimaryKey(table));
+					} catch (IOException e) {
+						throw new RuntimeException(e);
+					} catch (SQLException e) {
+						// the table might have been created concurrently by another export
+						if (!narrowEntityTableExists(name)) {
+							throw e;
+						}
+					}
+				}
+				narrowEntityTables.put(table, name);
+			}
+		}
+		return dmlTableReference(name, session);
+	}
+
+	/**
+	 * Gets the names of the narrow entity-tables used by this graph.
+	 *
+	 * @return the names, empty if all entities are in the universal entity-table
+	 */
+	public List<String> getNarrowEntityTables() {
+		if (narrowEntityTables == null) {
+			return Collections.emptyList();
+		}
+		synchronized (narrowEntityTables) {
+			return new ArrayList<String>(narrowEntityTables.values());
+		}
+	}
+
+	/**
+	 * Gets the tables whose narrow entity-tables might contain entities of this graph.
+	 *
+	 * @return the tables
+	 */
+	private List<Table> narrowEntityTablesInUse() throws SQLException {
+		synchronized (narrowEntityTables) {
+			if (lookupNarrowEntityTables) {
+				for (Table table: dataModel.getTables()) {
+					if (!narrowEntityTables.containsKey(table) && !rowIdSupport.getPrimaryKey(table).getColumns().isEmpty()) {
+						String name = narrowEntityTableName(table);
+						if (narrowEntityTableExists(name)) {
+							narrowEntityTables.put(table, name);
+						}
+					}
+				}
+				lookupNarrowEntityTables = false;
+			}
+			return new ArrayList<Table>(narrowEntityTables.keySet());
+		}
+	}
+
+	/**
+	 * Gets the columns of the universal primary key the primary key of a table is mapped to.
+	 *
+	 * @param table the table
+	 * @return the columns of the narrow entity-table's primary key
+	 */
+	private PrimaryKey narrowPrimaryKey(Table table) {
+		Map<Column, Column> match = universalPrimaryKey.match(rowIdSupport.getPrimaryKey(table));
+		List<Column> columns = new ArrayList<Column>();
+		for (Column column: universalPrimaryKey.getColumns()) {
+			if (match.get(column) != null) {
+				columns.add(column);
+			}
+		}
+		return new PrimaryKey(columns, false);
+	}
+
+	/**
+	 * Gets the name of the narrow entity-table of a table. The name is derived from the name of the table
+	 * and the definition of the primary key, so that a changed key leads to another entity-table.
+	 *
+	 * @param table the table
+	 * @return the name of the narrow entity-table
+	 */
+	private String narrowEntityTableName(Table table) {
+		String definition = table.getName() + "|" + narrowPrimaryKey(table).toSQL(null, "", session.dbms.getTypeReplacement()) + "|" + session.dbms.getTableProperties();
+		long hash = 1125899906842597L;
+		for (int i = 0; i < definition.length(); ++i) {
+			hash = 31 * hash + definition.charAt(i);
+		}
+		return NARROW_ENTITY_PREFIX + Long.toString(hash & Long.MAX_VALUE, 36).toUpperCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Checks whether a narrow entity-table exists.
+	 *
+	 * @param name the name of the entity-table
+	 * @return <code>true</code> if the table exists
+	 */
+	private boolean narrowEntityTableExists(String name) {
+		boolean wasSilent = session.getSilent();
+		try {
+			session.setSilent(true);
+			session.executeQuery("Select r_entitygraph From " + dmlTableReference(name, session) + " Where 1=0", new Session.AbstractResultSetReader() {
+				@Override
+				public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				}
+			});
+			return true;
+		} catch (SQLException e) {
+			try {
+				// [bugs:#37] PostreSQL: transactional execution
+				session.getConnection().commit();
+			} catch (SQLException e1) {
+				// ignore
+			}
+			return false;
+		} finally {
+			session.setSilent(wasSilent);
+		}
+	}
+
 	/**
 	 * Total row-count.
 	 */
@@ -23,12 +23,14 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -51,10 +53,12 @@ import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.PrimaryKey;
 import net.sf.jailer.datamodel.PrimaryKeyFactory;
 import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.util.CancellationException;
 import net.sf.jailer.util.CancellationHandler;
 import net.sf.jailer.util.CsvFile;
 import net.sf.jailer.util.CsvFile.Line;
 import net.sf.jailer.util.JSqlParserUtil;
+import net.sf.jailer.util.JobManager;
 import net.sf.jailer.util.LogUtil;
 import net.sf.jailer.util.Pair;
 import net.sf.jailer.util.Quoting;
@@ -162,34 +166,52 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	 * @return found associations
 	 */
 	@Override
-	public Collection<Association> findAssociations(DataModel dataModel, Map<Association, String[]> namingSuggestion, Session session, ExecutionContext executionContext) throws Exception {
+	public Collection<Association> findAssociations(final DataModel dataModel, Map<Association, String[]> namingSuggestion, final Session session, ExecutionContext executionContext) throws Exception {
 		Collection<Association> associations = new ArrayList<Association>();
-		Quoting quoting = Quoting.getQuoting(session);
+		final Quoting quoting = Quoting.getQuoting(session);
 		ResultSet resultSet;
-		String defaultSchema = getDefaultSchema(session, session.getSchema());
+		final String defaultSchema = getDefaultSchema(session, session.getSchema());
 		Set<Association> toRemove = new HashSet<Association>();
 
+		// views per name of underlying table
+		Map<String, Map<Table, UnderlyingTableInfo>> viewsPerUnderlyingTable = new HashMap<String, Map<Table, UnderlyingTableInfo>>();
+		for (Entry<String, UnderlyingTableInfo> e: underlyingTableInfos.entrySet()) {
+			Table view = dataModel.getTable(e.getKey());
+			if (view != null && e.getValue().underlyingTable != null) {
+				Map<Table, UnderlyingTableInfo> views = viewsPerUnderlyingTable.get(e.getValue().underlyingTable.getName());
+				if (views == null) {
+					views = new LinkedHashMap<Table, UnderlyingTableInfo>();
+					viewsPerUnderlyingTable.put(e.getValue().underlyingTable.getName(), views);
+				}
+				views.put(view, e.getValue());
+			}
+		}
+
+		List<String> tableNames = new ArrayList<String>();
+		for (Table viewOrTable: dataModel.getTables()) {
+			tableNames.add(viewOrTable.getName());
+		}
+		Map<String, ResultSet> prefetchedImportedKeys = readConcurrently(tableNames, new HashSet<Integer>(Arrays.asList(9, 10, 11, 14)), executionContext, new TableMetaDataReader() {
+			@Override
+			public ResultSet read(String tableName) throws SQLException {
+				return getImportedKeys(dataModel.getTable(tableName), session, quoting, defaultSchema);
+			}
+		});
+
 		for (Table viewOrTable: dataModel.getTables()) {
 			Table table;
-			Table underlyingTable = null;
 			UnderlyingTableInfo uti = null;
 			uti = underlyingTableInfos.get(viewOrTable.getName());
-			if (uti != null) {
-				underlyingTable = uti.underlyingTable;
-			}
 			table = viewOrTable;
 			_log.info("find associations with " + table.getName());
-			try {
-				Table child = underlyingTable != null? underlyingTable : table;
-				String ikSchema = quoting.unquote(child.getOriginalSchema(quoting.quote(defaultSchema)));
-				Session ikSession = session;
-				if (sessionWithPermissionToReadSchema.containsKey(Quoting.normalizeIdentifier(ikSchema))) {
-					ikSession = sessionWithPermissionToReadSchema.get(Quoting.normalizeIdentifier(ikSchema));
+			resultSet = prefetchedImportedKeys.remove(table.getName());
+			if (resultSet == null) {
+				try {
+					resultSet = getImportedKeys(table, session, quoting, defaultSchema);
+				} catch (Exception e) {
+					_log.info("failed. " + e.getMessage());
+					continue;
 				}
-				resultSet = getImportedKeys(ikSession, ikSchema, quoting.unquote(child.getUnqualifiedName()), true);
-			} catch (Exception e) {
-				_log.info("failed. " + e.getMessage());
-				continue;
 			}
 			Map<String, Association> fkMap = new HashMap<String, Association>();
 			Map<String, Integer> unknownFKCounter = new HashMap<String, Integer>();
@@ -217,11 +239,9 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 				if (defaultPkTable != null) {
 					infos.put(defaultPkTable, null);
 				}
-				for (Entry<String, UnderlyingTableInfo> e: underlyingTableInfos.entrySet()) {
-					Table view = dataModel.getTable(e.getKey());
-					if (view != null && qualifiedPKTableName.equals(e.getValue().underlyingTable.getName())) {
-						infos.put(view, e.getValue());
-					}
+				Map<Table, UnderlyingTableInfo> views = viewsPerUnderlyingTable.get(qualifiedPKTableName);
+				if (views != null) {
+					infos.putAll(views);
 				}
 
 				for (Entry<Table, UnderlyingTableInfo> e: infos.entrySet()) {
@@ -288,13 +308,90 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 		return associations;
 	}
 
+	/**
+	 * Gets the imported keys of a table or of the table underlying a view.
+	 */
+	private ResultSet getImportedKeys(Table viewOrTable, Session session, Quoting quoting, String defaultSchema) throws SQLException {
+		Table child = viewOrTable;
+		UnderlyingTableInfo uti = underlyingTableInfos.get(viewOrTable.getName());
+		if (uti != null) {
+			child = uti.underlyingTable;
+		}
+		String ikSchema = quoting.unquote(child.getOriginalSchema(quoting.quote(defaultSchema)));
+		Session ikSession = session;
+		if (sessionWithPermissionToReadSchema.containsKey(Quoting.normalizeIdentifier(ikSchema))) {
+			ikSession = sessionWithPermissionToReadSchema.get(Quoting.normalizeIdentifier(ikSchema));
+		}
+		return getImportedKeys(ikSession, ikSchema, quoting.unquote(child.getUnqualifiedName()), true);
+	}
+
+	/**
+	 * Reads meta data of a table.
+	 */
+	private interface TableMetaDataReader {
+		ResultSet read(String tableName) throws SQLException;
+	}
+
+	/**
+	 * Reads the meta data of tables concurrently if more than one thread is configured.
+	 * Each thread uses a database connection of its own.
+	 * The meta data of tables that cannot be read is left out, the caller reads it again.
+	 *
+	 * @param tableNames names of the tables
+	 * @param intIndex indexes of the meta data columns to be read as integers
+	 * @param reader reads the meta data of a table
+	 * @return the memorized meta data per table name
+	 */
+	private Map<String, ResultSet> readConcurrently(List<String> tableNames, final Set<Integer> intIndex, ExecutionContext executionContext, final TableMetaDataReader reader) throws SQLException {
+		final Map<String, ResultSet> result = Collections.synchronizedMap(new HashMap<String, ResultSet>());
+		Set<String> distinctTableNames = new LinkedHashSet<String>(tableNames);
+		int threads = Math.min(executionContext.getNumberOfThreads(), distinctTableNames.size());
+		if (threads <= 1) {
+			return result;
+		}
+		List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
+		for (final String tableName: distinctTableNames) {
+			jobs.add(new JobManager.Job() {
+				@Override
+				public void run() throws SQLException, CancellationException {
+					try {
+						ResultSet resultSet = reader.read(tableName);
+						if (!(resultSet instanceof MemorizedResultSet)) {
+							resultSet = MetaDataCache.memorize(resultSet, intIndex);
+						}
+						result.put(tableName, resultSet);
+					} catch (CancellationException e) {
+						throw e;
+					} catch (Exception e) {
+						// the caller reads it again
+					}
+					CancellationHandler.checkForCancellation(null);
+				}
+			});
+		}
+		JobManager jobManager = new JobManager(threads) {
+			@Override
+			protected void onException(Throwable t) {
+			}
+		};
+		try {
+			jobManager.executeJobs(jobs);
+		} finally {
+			jobManager.shutdown();
+		}
+		return result;
+	}
+
 	public static ResultSet getImportedKeys(Session session, String schema, String table, boolean withCaching) throws SQLException {
 		if (withCaching) {
 			final String NAME = "getImportedKeys " + schema;
-			MetaDataCache metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
-			if (metaDataCache == null) {
-				metaDataCache = MetaDataCache.readImportedKeys(session, schema);
-				session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+			MetaDataCache metaDataCache;
+			synchronized (session.MD_CACHE_LOCK) {
+				metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
+				if (metaDataCache == null) {
+					metaDataCache = MetaDataCache.readImportedKeys(session, schema);
+					session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+				}
 			}
 			ResultSet resultSet = metaDataCache.forTable(table);
 			if (resultSet != null) {
@@ -379,7 +476,7 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	 * @param introspectionSchema the schema
 	 * @param tableNamePattern table name pattern
 	 */
-	private Set<Table> findTables(Session session, ExecutionContext executionContext, String introspectionSchema,
+	private Set<Table> findTables(final Session session, ExecutionContext executionContext, final String introspectionSchema,
 			String tableNamePattern, int depth) throws SQLException {
 		final int MAX_DEPTH = 100;
 		if (depth > MAX_DEPTH) {
@@ -390,7 +487,7 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 		Set<String> partitions = findPartitions(session, introspectionSchema);
 
 		Set<Table> tables = new HashSet<Table>();
-		Quoting quoting = Quoting.getQuoting(session);
+		final Quoting quoting = Quoting.getQuoting(session);
 		List<String> types = getTypes(session, executionContext);
 		ResultSet resultSet;
 		List<String> tableNames = new ArrayList<String>();
@@ -455,13 +552,22 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 			}
 		}
 		
+		Map<String, ResultSet> prefetchedPrimaryKeys = readConcurrently(tableNames, new HashSet<Integer>(Arrays.asList(5)), executionContext, new TableMetaDataReader() {
+			@Override
+			public ResultSet read(String tableName) throws SQLException {
+				Table tmp = new Table(tableName, null, false, false);
+				return getPrimaryKeys(session, quoting.unquote(tmp.getOriginalSchema(quoting.quote(introspectionSchema))), quoting.unquote(tmp.getUnqualifiedName()), true);
+			}
+		});
 		for (String tableName: tableNames) {
 			Table tmp = new Table(tableName, null, false, false);
-			resultSet = null;
-			try {
-				resultSet = getPrimaryKeys(session, quoting.unquote(tmp.getOriginalSchema(quoting.quote(introspectionSchema))), quoting.unquote(tmp.getUnqualifiedName()), true);
-			} catch (Exception e) {
-				_log.warn("can't get PK for " + tableName, e);
+			resultSet = prefetchedPrimaryKeys.remove(tableName);
+			if (resultSet == null) {
+				try {
+					resultSet = getPrimaryKeys(session, quoting.unquote(tmp.getOriginalSchema(quoting.quote(introspectionSchema))), quoting.unquote(tmp.getUnqualifiedName()), true);
+				} catch (Exception e) {
+					_log.warn("can't get PK for " + tableName, e);
+				}
 			}
 			Map<Integer, Column> pk = pkColumns.get(tableName);
 			if (pk == null) {
@@ -885,10 +991,13 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	public static ResultSet getPrimaryKeys(Session session, String schema, String table, boolean withCaching) throws SQLException {
 		if (withCaching) {
 			final String NAME = "getPrimaryKeys " + schema;
-			MetaDataCache metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
-			if (metaDataCache == null) {
-				metaDataCache = MetaDataCache.readPrimaryKeys(session, schema);
-				session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+			MetaDataCache metaDataCache;
+			synchronized (session.MD_CACHE_LOCK) {
+				metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
+				if (metaDataCache == null) {
+					metaDataCache = MetaDataCache.readPrimaryKeys(session, schema);
+					session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+				}
 			}
 			ResultSet resultSet = metaDataCache.forTable(table);
 			if (resultSet != null) {
@@ -1010,10 +1119,13 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 
 	private ResultSet getIndexInfo(Session session, String schema, String table, boolean unique, boolean approximate) throws SQLException {
 		final String NAME = "getIndexInfo " + schema;
-		MetaDataCache metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
-		if (metaDataCache == null) {
-			metaDataCache = MetaDataCache.readIndexInfo(session, schema);
-			session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+		MetaDataCache metaDataCache;
+		synchronized (session.MD_CACHE_LOCK) {
+			metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
+			if (metaDataCache == null) {
+				metaDataCache = MetaDataCache.readIndexInfo(session, schema);
+				session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+			}
 		}
 		ResultSet resultSet = metaDataCache.forTable(table);
 		if (resultSet != null) {
@@ -253,8 +253,13 @@ public class MemorizedResultSet implements ResultSet {
 
 	@Override
 	public int findColumn(String columnLabel) throws SQLException {
-		throw new UnsupportedOperationException();
-
+		MemorizedResultSetMetaData metaData = getMetaData();
+		for (int i = 1; i <= metaData.getColumnCount(); ++i) {
+			if (columnLabel.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+				return i;
+			}
+		}
+		throw new SQLException("Column \"" + columnLabel + "\" not found");
 	}
 
 	@Override
@@ -469,8 +474,7 @@ public class MemorizedResultSet implements ResultSet {
 
 	@Override
 	public int getInt(String columnLabel) throws SQLException {
-		throw new UnsupportedOperationException();
-
+		return getInt(findColumn(columnLabel));
 	}
 
 	@Override
@@ -238,6 +238,42 @@ public class MetaDataCache {
 		return result;
 	}
 
+	/**
+	 * Reads all rows of a meta data result set into memory and closes it.
+	 *
+	 * @param resultSet
+	 *            the result set
+	 * @param intIndex
+	 *            indexes of the columns to be read as integers
+	 * @return the memorized result set
+	 */
+	public static MemorizedResultSet memorize(ResultSet resultSet, Set<Integer> intIndex) throws SQLException {
+		ResultSetMetaData rsMetaData = resultSet.getMetaData();
+		int numCol = rsMetaData.getColumnCount();
+		String[] names = new String[numCol];
+		String[] typeNames = new String[numCol];
+		int[] types = new int[numCol];
+		for (int i = 0; i < numCol; ++i) {
+			names[i] = rsMetaData.getColumnName(i + 1);
+			types[i] = rsMetaData.getColumnType(i + 1);
+			typeNames[i] = ""; // not needed
+		}
+		List<Object[]> rowList = new ArrayList<Object[]>();
+		while (resultSet.next()) {
+			Object[] row = new Object[numCol];
+			for (int i = 1; i <= numCol; ++i) {
+				if (intIndex.contains(i)) {
+					row[i - 1] = resultSet.getInt(i);
+				} else {
+					row[i - 1] = resultSet.getString(i);
+				}
+			}
+			rowList.add(row);
+		}
+		resultSet.close();
+		return new MemorizedResultSet(rowList, numCol, names, types, typeNames);
+	}
+
 	/**
 	 * Reads meta data.
 	 */
@@ -47,6 +47,7 @@ import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.PrimaryKeyFactory;
 import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.entitygraph.remote.RemoteEntityGraph;
 import net.sf.jailer.importfilter.ImportFilterManager;
 import net.sf.jailer.util.CsvFile;
 import net.sf.jailer.util.CsvFile.Line;
@@ -224,7 +225,7 @@ public class ModelBuilder {
 			}
 		}
 
-		String tableDefinitions = "";
+		StringBuilder tableDefinitions = new StringBuilder();
 		List<Table> sortedTables = new ArrayList<Table>(tables);
 		Collections.sort(sortedTables, new Comparator<Table>() {
 			@Override
@@ -299,18 +300,18 @@ public class ModelBuilder {
 					}
 					_log.warn(warning);
 				}
-				tableDefinitions += CsvFile.encodeCell(table.getName()) + "; N; ";
+				tableDefinitions.append(CsvFile.encodeCell(table.getName()) + "; N; ");
 				for (Column pk: table.primaryKey.getColumns()) {
-					tableDefinitions += CsvFile.encodeCell(pk.toString()) + (pk.isNullable? " null" : "") + ";";
+					tableDefinitions.append(CsvFile.encodeCell(pk.toString()) + (pk.isNullable? " null" : "") + ";");
 				}
-				tableDefinitions += "   ;" + CsvFile.encodeCell(table.getAuthor()) + ";" + PrintUtil.LINE_SEPARATOR;
+				tableDefinitions.append("   ;" + CsvFile.encodeCell(table.getAuthor()) + ";" + PrintUtil.LINE_SEPARATOR);
 			}
 		}
 		if (numWarnings > maxNumWarnings) {
 			warnings.append("(" + (numWarnings - maxNumWarnings) +" warnings more)" + PrintUtil.LINE_SEPARATOR);
 		}
 
-		resetTableFile(tableDefinitions, executionContext);
+		resetTableFile(tableDefinitions.toString(), executionContext);
 
 		// re-read data model with new tables
 		dataModel = new DataModel(getModelBuilderTablesFilename(executionContext), getModelBuilderAssociationsFilename(executionContext), new HashMap<String, String>(), assocFilter, new PrimaryKeyFactory(executionContext), executionContext, false, knownIdentifiers);
@@ -461,6 +462,7 @@ public class ModelBuilder {
 		associationB.reversalAssociation = associationA;
 		associationA.source.associations.add(associationA);
 		associationB.source.associations.add(associationB);
+		dataModel.invalidateAssociationGraph();
 	}
 
 	/**
@@ -474,6 +476,7 @@ public class ModelBuilder {
 		String tName = quoting.unquote(table.getUnqualifiedName()).toUpperCase(Locale.ENGLISH);
 		return SqlUtil.JAILER_TABLES.contains(tName)
 			|| tName.startsWith(ImportFilterManager.MAPPINGTABLE_NAME_PREFIX)
+			|| tName.startsWith(RemoteEntityGraph.NARROW_ENTITY_PREFIX)
 			|| (tName.endsWith("_T") && SqlUtil.JAILER_TABLES.contains(tName.substring(0, tName.length() - 2)));
 	}
 
@@ -487,6 +490,7 @@ public class ModelBuilder {
 		String tName = Quoting.normalizeIdentifier(table);
 		return SqlUtil.JAILER_TABLES.contains(tName)
 			|| tName.startsWith(ImportFilterManager.MAPPINGTABLE_NAME_PREFIX)
+			|| tName.startsWith(RemoteEntityGraph.NARROW_ENTITY_PREFIX)
 			|| (tName.endsWith("_T") && SqlUtil.JAILER_TABLES.contains(tName.substring(0, tName.length() - 2)));
 	}
 
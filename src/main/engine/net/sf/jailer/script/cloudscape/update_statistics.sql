@@ -1,4 +1,6 @@
 update statistics high for table ${JAILER_ENTITY};
 update statistics high for table ${JAILER_GRAPH};
 update statistics high for table ${JAILER_DEPENDENCY};
-update statistics high for table ${JAILER_SET};
\ No newline at end of file
+update statistics high for table ${JAILER_SET};
+${for-each:narrow-entity-tables}update statistics high for table $;
+${end}
\ No newline at end of file
@@ -2,3 +2,5 @@
 {CALL SYSPROC.ADMIN_CMD ('RUNSTATS ON TABLE ${JAILER_DEPENDENCY} AND DETAILED INDEXES ALL')};
 {CALL SYSPROC.ADMIN_CMD ('RUNSTATS ON TABLE ${JAILER_GRAPH} AND DETAILED INDEXES ALL')};
 {CALL SYSPROC.ADMIN_CMD ('RUNSTATS ON TABLE ${JAILER_SET} AND DETAILED INDEXES ALL')};
+${for-each:narrow-entity-tables}{CALL SYSPROC.ADMIN_CMD ('RUNSTATS ON TABLE $ AND DETAILED INDEXES ALL')};
+${end}
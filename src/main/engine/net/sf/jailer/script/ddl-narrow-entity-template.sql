@@ -0,0 +1,14 @@
+${create-table}${schema}${entity-table}${table-suffix}
+(
+   r_entitygraph   INTEGER NOT NULL,
+
+   ${pk},
+   birthday        INTEGER NOT NULL,
+   type            INTEGER NOT NULL,
+
+   orig_birthday   INTEGER${constraint},
+   association     INTEGER${constraint}
+) ${create-table-suffix};
+
+${create-index}${index-schema}${entity-index}_B${table-suffix} ON ${index-table-prefix}${schema}${entity-table}${table-suffix} (r_entitygraph, birthday) ${create-index-suffix};
+${create-index}${index-schema}${entity-index}_K${table-suffix} ON ${index-table-prefix}${schema}${entity-table}${table-suffix} (r_entitygraph, ${column-list}, birthday) ${create-index-suffix};
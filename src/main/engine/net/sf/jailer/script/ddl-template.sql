@@ -34,7 +34,8 @@ ${create-table}${schema}JAILER_ENTITY${table-suffix}
    association     INTEGER${constraint}
 
 -- ,  CONSTRAINT jlr_fk_graph_e FOREIGN KEY (r_entitygraph) REFERENCES ${schema}JAILER_GRAPH${table-suffix}(id)
-) ${create-table-suffix};
+) ${partitioned-table-suffix};
+${entity-partition-ddl}
 
 ${create-index}${index-schema}jlr_enty_brthdy${table-suffix} ON ${index-table-prefix}${schema}JAILER_ENTITY${table-suffix} (r_entitygraph, type, birthday) ${create-index-suffix};
 ${for-each:column-list}${create-unique-index}${index-schema}jlr_enty_upk${table-suffix}$i ON ${index-table-prefix}${schema}JAILER_ENTITY${table-suffix} (r_entitygraph $, type, birthday) ${create-index-suffix};
@@ -62,7 +63,8 @@ ${create-table}${schema}JAILER_DEPENDENCY${table-suffix}
    ${to}   
 
 -- ,  CONSTRAINT jlr_fk_graph_d FOREIGN KEY (r_entitygraph) REFERENCES ${schema}JAILER_GRAPH${table-suffix}(id)
-) ${create-table-suffix};
+) ${partitioned-table-suffix};
+${dependency-partition-ddl}
 
 ${for-each:column-list-from}${create-index}${index-schema}jlr_dep_from${table-suffix}$i ON ${index-table-prefix}${schema}JAILER_DEPENDENCY${table-suffix} (r_entitygraph, assoc $) ${create-index-suffix};
 ${end}
@@ -76,3 +78,4 @@ ${create-table}${schema}JAILER_TMP${table-suffix}
 ) ${create-table-suffix};
 
 INSERT INTO ${schema}${config-dml-reference}${table-suffix}(jversion, jkey, jvalue) values('${version}', 'upk', '${upk-hash}');
+${partitioning-config}
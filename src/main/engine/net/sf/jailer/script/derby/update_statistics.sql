@@ -3,3 +3,4 @@
 -- JAILER_GRAPH
 -- JAILER_DEPENDENCY
 -- JAILER_SET
+-- JAILER_E_... (narrow entity-tables)
@@ -2,3 +2,5 @@ EXECUTE BLOCK AS declare variable index_name VARCHAR(31); BEGIN for select RDB$I
 EXECUTE BLOCK AS declare variable index_name VARCHAR(31); BEGIN for select RDB$INDEX_NAME from RDB$INDICES where RDB$RELATION_NAME = '${TABLE_JAILER_ENTITY}' into :index_name do execute statement 'SET statistics INDEX ' || :index_name || ';'; END;
 EXECUTE BLOCK AS declare variable index_name VARCHAR(31); BEGIN for select RDB$INDEX_NAME from RDB$INDICES where RDB$RELATION_NAME = '${TABLE_JAILER_SET}' into :index_name do execute statement 'SET statistics INDEX ' || :index_name || ';'; END;
 EXECUTE BLOCK AS declare variable index_name VARCHAR(31); BEGIN for select RDB$INDEX_NAME from RDB$INDICES where RDB$RELATION_NAME = '${TABLE_JAILER_DEPENDENCY}' into :index_name do execute statement 'SET statistics INDEX ' || :index_name || ';'; END;
+${for-each:narrow-entity-table-names}EXECUTE BLOCK AS declare variable index_name VARCHAR(31); BEGIN for select RDB$INDEX_NAME from RDB$INDICES where RDB$RELATION_NAME = '$' into :index_name do execute statement 'SET statistics INDEX ' || :index_name || ';'; END;
+${end}
@@ -1,4 +1,6 @@
 UPDATE STATISTICS ${JAILER_ENTITY};
 UPDATE STATISTICS ${JAILER_DEPENDENCY};
 UPDATE STATISTICS ${JAILER_GRAPH};
-UPDATE STATISTICS ${JAILER_SET};
\ No newline at end of file
+UPDATE STATISTICS ${JAILER_SET};
+${for-each:narrow-entity-tables}UPDATE STATISTICS $;
+${end}
\ No newline at end of file
@@ -3,3 +3,5 @@ ANALYZE TABLE ${JAILER_ENTITY};
 ANALYZE TABLE ${JAILER_GRAPH};
 ANALYZE TABLE ${JAILER_DEPENDENCY};
 ANALYZE TABLE ${JAILER_SET};
+${for-each:narrow-entity-tables}ANALYZE TABLE $;
+${end}
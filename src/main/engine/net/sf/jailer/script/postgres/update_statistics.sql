@@ -2,3 +2,5 @@ analyse ${JAILER_ENTITY};
 analyse ${JAILER_GRAPH};
 analyse ${JAILER_DEPENDENCY};
 analyse ${JAILER_SET};
+${for-each:narrow-entity-tables}analyse $;
+${end}
@@ -2,3 +2,5 @@ update statistics ${JAILER_ENTITY};
 update statistics ${JAILER_GRAPH};
 update statistics ${JAILER_DEPENDENCY};
 update statistics ${JAILER_SET};
+${for-each:narrow-entity-tables}update statistics $;
+${end}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.subsetting;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.Table;
+
+/**
+ * Checkpoint of an export, used to resume an interrupted export.<br>
+ * The collected rows are kept in the (global) working tables. The checkpoint file contains
+ * the ID of the entity-graph, the current day, the progress and the number of collected rows per table.<br>
+ * A checkpoint is written after each day of the collection phase. After the collection is complete,
+ * a copy of the entity-graph is kept so that the rows can be written again if writing fails.
+ * The ID of the working copy from which the rows are written is recorded too, so that it can be deleted
+ * when the export is resumed or the checkpoint is discarded.
+ *
+ * @author Ralf Wisser
+ */
+class Checkpoint {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(Checkpoint.class);
+
+	/**
+	 * Version of the file format.
+	 */
+	private static final String FORMAT_VERSION = "1";
+
+	/**
+	 * Phase of the export.
+	 */
+	enum Phase {
+		/**
+		 * Collecting rows. The entity-graph contains all rows collected until the end of the day.
+		 */
+		COLLECTING,
+
+		/**
+		 * All rows are collected. The entity-graph is a copy of the collected rows.
+		 */
+		COLLECTED
+	}
+
+	/**
+	 * The checkpoint file.
+	 */
+	private final File file;
+
+	/**
+	 * Identifies the extraction model, the subject condition, the parameters and the data model.
+	 */
+	private final long fingerprint;
+
+	private final DataModel dataModel;
+
+	Phase phase;
+	int graphID = -1;
+	int workingGraphID = -1;
+	int day;
+	int birthdayOfSubject;
+	Map<Table, Collection<Association>> progress = new HashMap<Table, Collection<Association>>();
+	Set<Table> totalProgress = new HashSet<Table>();
+	Set<Table> completedTables = new HashSet<Table>();
+	Set<Table> subjects = new HashSet<Table>();
+	Map<Table, Long> collectedRows = new HashMap<Table, Long>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param file the checkpoint file
+	 * @param extractionModelURL URL of the extraction model
+	 * @param subjectCondition the subject condition
+	 * @param parameters the parameters
+	 * @param dataModel the data model
+	 */
+	Checkpoint(File file, URL extractionModelURL, String subjectCondition, Map<String, String> parameters, DataModel dataModel) throws IOException {
+		this.file = file;
+		this.dataModel = dataModel;
+		CRC32 crc = new CRC32();
+		try (InputStream in = extractionModelURL.openStream()) {
+			byte[] buffer = new byte[1024 * 8];
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				crc.update(buffer, 0, n);
+			}
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append(subjectCondition).append('\n');
+		sb.append(new TreeMap<String, String>(parameters)).append('\n');
+		for (Table table: dataModel.getSortedTables()) {
+			sb.append(table.getName()).append('\n');
+		}
+		crc.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+		this.fingerprint = crc.getValue();
+	}
+
+	/**
+	 * Reads the checkpoint file.
+	 * The ID of the entity-graph is also read if the checkpoint belongs to another export.
+	 *
+	 * @return <code>true</code> if there is a checkpoint of the same export
+	 */
+	boolean read() {
+		if (!file.exists()) {
+			return false;
+		}
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.startsWith("#") || line.isEmpty()) {
+					continue;
+				}
+				String[] cells = line.split("\t", -1);
+				switch (cells[0]) {
+				case "version":
+					if (!FORMAT_VERSION.equals(cells[1])) {
+						return false;
+					}
+					break;
+				case "fingerprint":
+					if (Long.parseLong(cells[1]) != fingerprint) {
+						_log.info("checkpoint " + file.getPath() + " belongs to another export");
+						return false;
+					}
+					break;
+				case "phase":
+					phase = Phase.valueOf(cells[1]);
+					break;
+				case "graph":
+					graphID = Integer.parseInt(cells[1]);
+					break;
+				case "working-graph":
+					workingGraphID = Integer.parseInt(cells[1]);
+					break;
+				case "day":
+					day = Integer.parseInt(cells[1]);
+					break;
+				case "subject-birthday":
+					birthdayOfSubject = Integer.parseInt(cells[1]);
+					break;
+				case "progress":
+					Collection<Association> associations = new ArrayList<Association>();
+					for (int i = 2; i < cells.length; ++i) {
+						associations.add(association(cells[i]));
+					}
+					progress.put(table(cells[1]), associations);
+					break;
+				case "total-progress":
+					tables(cells, totalProgress);
+					break;
+				case "completed":
+					tables(cells, completedTables);
+					break;
+				case "subjects":
+					tables(cells, subjects);
+					break;
+				case "rows":
+					collectedRows.put(table(cells[1]), Long.parseLong(cells[2]));
+					break;
+				default:
+					break;
+				}
+			}
+			return phase != null;
+		} catch (Exception e) {
+			_log.warn("can't read checkpoint " + file.getPath() + ": " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Writes a checkpoint at the end of a day of the collection phase.
+	 */
+	void writeCollecting(int graphID, int day, Map<Table, Collection<Association>> progress, Set<Table> totalProgress, Set<Table> completedTables, Map<Table, Long> collectedRows) throws IOException {
+		this.phase = Phase.COLLECTING;
+		this.graphID = graphID;
+		this.day = day;
+		this.progress = new HashMap<Table, Collection<Association>>(progress);
+		this.totalProgress = new HashSet<Table>(totalProgress);
+		this.completedTables = new HashSet<Table>(completedTables);
+		this.collectedRows = new HashMap<Table, Long>(collectedRows);
+		write();
+	}
+
+	/**
+	 * Writes a checkpoint at the end of the collection phase.
+	 *
+	 * @param graphID ID of the copy of the entity-graph
+	 * @param workingGraphID ID of the entity-graph from which the rows are written
+	 */
+	void writeCollected(int graphID, int workingGraphID, Set<Table> totalProgress, Set<Table> subjects, Map<Table, Long> collectedRows) throws IOException {
+		this.phase = Phase.COLLECTED;
+		this.graphID = graphID;
+		this.workingGraphID = workingGraphID;
+		this.progress = new HashMap<Table, Collection<Association>>();
+		this.totalProgress = new HashSet<Table>(totalProgress);
+		this.subjects = new HashSet<Table>(subjects);
+		this.collectedRows = new HashMap<Table, Long>(collectedRows);
+		write();
+	}
+
+	/**
+	 * Records a new working copy of the collected rows (after resuming).
+	 *
+	 * @param workingGraphID ID of the entity-graph from which the rows are written
+	 */
+	void writeWorkingGraph(int workingGraphID) throws IOException {
+		this.workingGraphID = workingGraphID;
+		write();
+	}
+
+	/**
+	 * Deletes the checkpoint file.
+	 */
+	void delete() {
+		if (file.exists() && !file.delete()) {
+			_log.warn("can't delete checkpoint " + file.getPath());
+		}
+	}
+
+	private void write() throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		File tmpFile = File.createTempFile("." + file.getName() + "-", ".tmp", parent);
+		try {
+			try (Writer out = new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8)) {
+				out.write("# Jailer export checkpoint\n");
+				out.write("version\t" + FORMAT_VERSION + "\n");
+				out.write("graph\t" + graphID + "\n");
+				if (workingGraphID >= 0) {
+					out.write("working-graph\t" + workingGraphID + "\n");
+				}
+				out.write("fingerprint\t" + fingerprint + "\n");
+				out.write("phase\t" + phase + "\n");
+				out.write("day\t" + day + "\n");
+				out.write("subject-birthday\t" + birthdayOfSubject + "\n");
+				for (Map.Entry<Table, Collection<Association>> e: progress.entrySet()) {
+					out.write("progress\t" + e.getKey().getName());
+					for (Association association: e.getValue()) {
+						out.write("\t" + association.getName());
+					}
+					out.write("\n");
+				}
+				writeTables(out, "total-progress", totalProgress);
+				writeTables(out, "completed", completedTables);
+				writeTables(out, "subjects", subjects);
+				for (Map.Entry<Table, Long> e: collectedRows.entrySet()) {
+					out.write("rows\t" + e.getKey().getName() + "\t" + e.getValue() + "\n");
+				}
+			}
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			tmpFile = null;
+		} finally {
+			if (tmpFile != null) {
+				tmpFile.delete();
+			}
+		}
+	}
+
+	private void writeTables(Writer out, String key, Set<Table> tables) throws IOException {
+		out.write(key);
+		for (Table table: new TreeSet<Table>(tables)) {
+			out.write("\t" + table.getName());
+		}
+		out.write("\n");
+	}
+
+	private void tables(String[] cells, Set<Table> tables) {
+		for (int i = 1; i < cells.length; ++i) {
+			tables.add(table(cells[i]));
+		}
+	}
+
+	private Table table(String name) {
+		Table table = dataModel.getTable(name);
+		if (table == null) {
+			throw new IllegalStateException("unknown table " + name);
+		}
+		return table;
+	}
+
+	private Association association(String name) {
+		Association association = dataModel.namedAssociations.get(name);
+		if (association == null) {
+			throw new IllegalStateException("unknown association " + name);
+		}
+		return association;
+	}
+
+}
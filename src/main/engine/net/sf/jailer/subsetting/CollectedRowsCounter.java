@@ -42,6 +42,7 @@ public class CollectedRowsCounter implements ProgressListener {
 	private boolean inDeleteStage = false;
 	private Map<Table, Long> collectedRowsCount = new HashMap<Table, Long>();
 	private Map<Table, Long> deletedRowsCount = new HashMap<Table, Long>();
+	private Map<Integer, Map<Table, Long>> collectedRowsCountPerDay = new HashMap<Integer, Map<Table, Long>>();
 
 	public Map<Table, Long> getCollectedRowsCount() {
 		return collectedRowsCount;
@@ -51,6 +52,18 @@ public class CollectedRowsCounter implements ProgressListener {
 		return deletedRowsCount;
 	}
 
+	/**
+	 * Gets the number of rows of a table collected on a given day.
+	 *
+	 * @param day the day (birthday of the rows)
+	 * @param table the table
+	 * @return number of rows, or <code>null</code> if the number is unknown (no rows collected on that day or collected before the export has been resumed)
+	 */
+	public synchronized Long getCollectedRowsCount(int day, Table table) {
+		Map<Table, Long> rows = collectedRowsCountPerDay.get(day);
+		return rows == null? null : rows.get(table);
+	}
+
 	/**
 	 * Creates the statistic.
 	 *
@@ -110,20 +123,31 @@ public class CollectedRowsCounter implements ProgressListener {
 	}
 
 	@Override
-	public void collected(int day, ModelElement modelElement, long rc) {
+	public synchronized void collected(int day, ModelElement modelElement, long rc) {
 		if (rc > 0) {
-			Map<Table, Long> rows = inDeleteStage? deletedRowsCount : collectedRowsCount;
 			Table table = getDestination(modelElement);
-			Long forTable = rows.get(table);
-			if (forTable == null) {
-				forTable = rc;
-			} else {
-				forTable += rc;
+			add(inDeleteStage? deletedRowsCount : collectedRowsCount, table, rc);
+			if (!inDeleteStage) {
+				Map<Table, Long> rowsOfDay = collectedRowsCountPerDay.get(day);
+				if (rowsOfDay == null) {
+					rowsOfDay = new HashMap<Table, Long>();
+					collectedRowsCountPerDay.put(day, rowsOfDay);
+				}
+				add(rowsOfDay, table, rc);
 			}
-			rows.put(table, forTable);
 		}
 	}
 
+	private void add(Map<Table, Long> rows, Table table, long rc) {
+		Long forTable = rows.get(table);
+		if (forTable == null) {
+			forTable = rc;
+		} else {
+			forTable += rc;
+		}
+		rows.put(table, forTable);
+	}
+
 	@Override
 	public void newStage(String stage, boolean isErrorStage, boolean isFinalStage) {
 		if ("delete".equals(stage)) {
@@ -0,0 +1,491 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.subsetting;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.database.Session.AbstractResultSetReader;
+import net.sf.jailer.database.Session.ResultSetReader;
+import net.sf.jailer.datamodel.Column;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.util.Quoting;
+
+/**
+ * Restricts an export to the rows that are new or have changed since a previous export.<br>
+ * The hashes of the primary keys and of the primary keys and fingerprints of all exported rows are kept in a snapshot file.
+ * A row is skipped if the snapshot of the previous export contains the hash of its primary key and fingerprint.
+ * The fingerprint is the value of the version column, if the table has one, or else a hash of the row's content (without LOBs).
+ * <br>
+ * The hashes are 64-bit values held in sorted primitive arrays, so that the memory usage per row is small.
+ * The hashes of the current export are spooled into a temporary file and sorted only when the new snapshot is written.
+ * <br>
+ * If there is a snapshot, the rows are written as upserts ("upsert only"), since the changed rows already exist in the target database.
+ * Rows of the previous export that are no longer part of the subset are counted, but not deleted from the target database.
+ *
+ * @author Ralf Wisser
+ */
+public class DeltaFilter {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(DeltaFilter.class);
+
+	/**
+	 * Identifies the file format.
+	 */
+	private static final int MAGIC = 0x4A4C4453;
+
+	/**
+	 * Version of the file format.
+	 */
+	private static final int FORMAT_VERSION = 2;
+
+	/**
+	 * The snapshot file.
+	 */
+	private final File file;
+
+	/**
+	 * Name of the version column, or <code>null</code>.
+	 */
+	private final String versionColumn;
+
+	/**
+	 * Snapshot of the rows of a table.
+	 */
+	private static class TableSnapshot {
+
+		/**
+		 * Sorted hashes of the primary keys.
+		 */
+		final long[] keyHashes;
+
+		/**
+		 * Sorted hashes of the primary keys and fingerprints.
+		 */
+		final long[] rowHashes;
+
+		/**
+		 * Positions (in {@link #keyHashes}) of the keys that are exported again.
+		 */
+		final BitSet exported = new BitSet();
+
+		TableSnapshot(long[] keyHashes, long[] rowHashes) {
+			this.keyHashes = keyHashes;
+			this.rowHashes = rowHashes;
+		}
+	}
+
+	/**
+	 * Snapshots of the tables of the previous export.
+	 */
+	private final Map<String, TableSnapshot> previousRows;
+
+	/**
+	 * Whether there is a snapshot of a previous export.
+	 */
+	private final boolean hasSnapshot;
+
+	/**
+	 * Tables of the current export.
+	 */
+	private static class CurrentTable {
+		final int index;
+		int size;
+
+		CurrentTable(int index) {
+			this.index = index;
+		}
+	}
+
+	/**
+	 * Tables of the current export per name.
+	 */
+	private final Map<String, CurrentTable> currentTables = new LinkedHashMap<String, CurrentTable>();
+
+	/**
+	 * Temporary file into which the hashes of the rows of the current export are spooled
+	 * (table index, key hash, row hash), <code>null</code> if there are none.
+	 */
+	private File currentRowsFile;
+
+	/**
+	 * Writes into {@link #currentRowsFile}.
+	 */
+	private DataOutputStream currentRows;
+
+	private final AtomicLong numNew = new AtomicLong();
+	private final AtomicLong numChanged = new AtomicLong();
+	private final AtomicLong numUnchanged = new AtomicLong();
+
+	/**
+	 * Constructor. Reads the snapshot of the previous export, if any.
+	 *
+	 * @param file the snapshot file
+	 * @param versionColumn name of the version column, or <code>null</code>
+	 */
+	public DeltaFilter(File file, String versionColumn) {
+		this.file = file;
+		this.versionColumn = versionColumn == null || versionColumn.trim().isEmpty()? null : Quoting.staticUnquote(versionColumn.trim());
+		Map<String, TableSnapshot> rows = null;
+		if (file.exists()) {
+			try {
+				rows = readSnapshot();
+			} catch (IOException e) {
+				_log.warn("can't read snapshot " + file.getPath() + ": " + e.getMessage());
+			}
+		}
+		if (rows == null) {
+			_log.info("no usable snapshot in " + file.getPath() + ", exporting all rows");
+			rows = new HashMap<String, TableSnapshot>();
+		}
+		previousRows = rows;
+		hasSnapshot = !rows.isEmpty();
+	}
+
+	/**
+	 * Whether there is a snapshot of a previous export. If not, all rows are new.
+	 */
+	public boolean hasSnapshot() {
+		return hasSnapshot;
+	}
+
+	/**
+	 * Wraps a transformer so that it only gets the new and changed rows of a table.
+	 *
+	 * @param table the table
+	 * @param reader the transformer
+	 * @return the filtering transformer
+	 */
+	public ResultSetReader filter(final Table table, final ResultSetReader reader) {
+		if (table.primaryKey == null || table.primaryKey.getColumns().isEmpty()) {
+			return reader;
+		}
+		final TableSnapshot previousOfTable = previousRows.get(table.getName());
+		final CurrentTable currentOfTable = currentTable(table.getName());
+		final List<Column> pkColumns = table.primaryKey.getColumns();
+		return new AbstractResultSetReader() {
+			private int[] pkIndex;
+			private int versionIndex;
+			private boolean[] isHashed;
+
+			@Override
+			public void init(ResultSet resultSet) throws SQLException {
+				if (reader instanceof AbstractResultSetReader) {
+					((AbstractResultSetReader) reader).init(resultSet);
+				}
+			}
+
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				ResultSetMetaData metaData = getMetaData(resultSet);
+				if (pkIndex == null) {
+					initIndexes(metaData);
+				}
+				if (pkIndex.length == 0) {
+					reader.readCurrentRow(resultSet);
+					return;
+				}
+				long keyHash = FNV_OFFSET_BASIS;
+				for (int i = 0; i < pkIndex.length; ++i) {
+					keyHash = hash(keyHash, resultSet.getString(pkIndex[i]));
+				}
+				keyHash = mix(keyHash);
+				long fingerprint = FNV_OFFSET_BASIS;
+				if (versionIndex > 0) {
+					fingerprint = hash(fingerprint, resultSet.getString(versionIndex));
+				} else {
+					for (int i = 1; i < isHashed.length; ++i) {
+						if (isHashed[i]) {
+							fingerprint = hash(fingerprint, resultSet.getString(i));
+						}
+					}
+				}
+				long rowHash = mix(keyHash + 0x9e3779b97f4a7c15L * mix(fingerprint));
+				addCurrentRow(currentOfTable, keyHash, rowHash);
+				int position = previousOfTable == null? -1 : Arrays.binarySearch(previousOfTable.keyHashes, keyHash);
+				if (position < 0) {
+					numNew.getAndIncrement();
+				} else {
+					synchronized (previousOfTable.exported) {
+						previousOfTable.exported.set(position);
+					}
+					if (Arrays.binarySearch(previousOfTable.rowHashes, rowHash) < 0) {
+						numChanged.getAndIncrement();
+					} else {
+						numUnchanged.getAndIncrement();
+						return;
+					}
+				}
+				reader.readCurrentRow(resultSet);
+			}
+
+			private void initIndexes(ResultSetMetaData metaData) throws SQLException {
+				int columnCount = metaData.getColumnCount();
+				Map<String, Integer> indexOfLabel = new HashMap<String, Integer>();
+				isHashed = new boolean[columnCount + 1];
+				for (int i = 1; i <= columnCount; ++i) {
+					indexOfLabel.put(Quoting.staticUnquote(metaData.getColumnLabel(i)).toUpperCase(Locale.ENGLISH), i);
+					int type = metaData.getColumnType(i);
+					isHashed[i] = type != Types.BLOB && type != Types.CLOB && type != Types.NCLOB && type != Types.SQLXML
+							&& type != Types.LONGVARBINARY && type != Types.LONGVARCHAR && type != Types.LONGNVARCHAR;
+				}
+				int[] index = new int[pkColumns.size()];
+				for (int i = 0; i < index.length; ++i) {
+					Integer columnIndex = indexOfLabel.get(Quoting.staticUnquote(pkColumns.get(i).name).toUpperCase(Locale.ENGLISH));
+					if (columnIndex == null) {
+						_log.warn("primary key column " + pkColumns.get(i).name + " of table " + table.getName() + " not selected, exporting all rows");
+						index = new int[0];
+						break;
+					}
+					index[i] = columnIndex;
+				}
+				Integer vIndex = versionColumn == null? null : indexOfLabel.get(versionColumn.toUpperCase(Locale.ENGLISH));
+				versionIndex = vIndex == null? 0 : vIndex;
+				pkIndex = index;
+			}
+
+			@Override
+			public void close() throws SQLException {
+				reader.close();
+			}
+		};
+	}
+
+	/**
+	 * Gets the table of the current export with a given name.
+	 */
+	private synchronized CurrentTable currentTable(String tableName) {
+		CurrentTable currentTable = currentTables.get(tableName);
+		if (currentTable == null) {
+			currentTable = new CurrentTable(currentTables.size());
+			currentTables.put(tableName, currentTable);
+		}
+		return currentTable;
+	}
+
+	/**
+	 * Spools the hashes of a row of the current export.
+	 */
+	private synchronized void addCurrentRow(CurrentTable table, long keyHash, long rowHash) throws SQLException {
+		try {
+			if (currentRows == null) {
+				currentRowsFile = createTempFile();
+				currentRowsFile.deleteOnExit();
+				currentRows = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(currentRowsFile), 1024 * 64));
+			}
+			currentRows.writeInt(table.index);
+			currentRows.writeLong(keyHash);
+			currentRows.writeLong(rowHash);
+			++table.size;
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * Adds a value to a FNV-1a hash.
+	 */
+	private static long hash(long hash, String value) {
+		if (value == null) {
+			hash ^= 1;
+			hash *= FNV_PRIME;
+		} else {
+			for (int i = 0; i < value.length(); ++i) {
+				hash ^= value.charAt(i);
+				hash *= FNV_PRIME;
+			}
+		}
+		hash ^= 0xff;
+		hash *= FNV_PRIME;
+		return hash;
+	}
+
+	/**
+	 * Spreads the bits of a hash (finalizer of MurmurHash3).
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * Writes the snapshot of the current export into the snapshot file
+	 * and logs the number of new, changed, unchanged and removed rows.
+	 */
+	public synchronized void writeSnapshot() throws IOException {
+		long numRemoved = 0;
+		for (TableSnapshot previous: previousRows.values()) {
+			numRemoved += previous.keyHashes.length - previous.exported.cardinality();
+		}
+		// the snapshot of the previous export is no longer needed
+		previousRows.clear();
+
+		_log.info("delta: " + numNew.get() + " new rows, " + numChanged.get() + " changed rows, " + numUnchanged.get() + " unchanged rows (skipped), "
+				+ numRemoved + " rows no longer part of the subset");
+		if (numRemoved > 0) {
+			_log.warn(numRemoved + " rows of the previous export are no longer part of the subset. They are not deleted from the target database.");
+		}
+
+		List<long[]> keyHashes = new ArrayList<long[]>();
+		List<long[]> rowHashes = new ArrayList<long[]>();
+		long numRows = 0;
+		for (CurrentTable table: currentTables.values()) {
+			keyHashes.add(new long[table.size]);
+			rowHashes.add(new long[table.size]);
+			numRows += table.size;
+		}
+		if (currentRows != null) {
+			currentRows.close();
+			currentRows = null;
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(currentRowsFile), 1024 * 64))) {
+				int[] size = new int[currentTables.size()];
+				for (long r = 0; r < numRows; ++r) {
+					int index = in.readInt();
+					keyHashes.get(index)[size[index]] = in.readLong();
+					rowHashes.get(index)[size[index]] = in.readLong();
+					++size[index];
+				}
+			} finally {
+				currentRowsFile.delete();
+				currentRowsFile = null;
+			}
+		}
+
+		File tmpFile = createTempFile();
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmpFile), 1024 * 64)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				writeString(out, versionColumn == null? "" : versionColumn);
+				out.writeInt(currentTables.size());
+				for (Map.Entry<String, CurrentTable> e: currentTables.entrySet()) {
+					int index = e.getValue().index;
+					writeString(out, e.getKey());
+					out.writeInt(e.getValue().size);
+					for (long[] hashes: new long[][] { keyHashes.get(index), rowHashes.get(index) }) {
+						Arrays.sort(hashes);
+						for (long hash: hashes) {
+							out.writeLong(hash);
+						}
+					}
+					keyHashes.set(index, null);
+					rowHashes.set(index, null);
+				}
+			}
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			tmpFile = null;
+		} finally {
+			if (tmpFile != null) {
+				tmpFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Creates a temporary file next to the snapshot file.
+	 */
+	private File createTempFile() throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		return File.createTempFile("." + file.getName() + "-", ".tmp", parent);
+	}
+
+	/**
+	 * Reads the snapshot file.
+	 *
+	 * @return snapshot per table or <code>null</code> if the snapshot is not usable
+	 */
+	private Map<String, TableSnapshot> readSnapshot() throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 1024 * 64)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+			String snapshotVersionColumn = readString(in);
+			if (!snapshotVersionColumn.equals(versionColumn == null? "" : versionColumn)) {
+				_log.info("snapshot " + file.getPath() + " has been created with another version column");
+				return null;
+			}
+			int numTables = in.readInt();
+			Map<String, TableSnapshot> rows = new HashMap<String, TableSnapshot>(Math.max(16, numTables * 2));
+			for (int t = 0; t < numTables; ++t) {
+				String tableName = readString(in);
+				int numRows = in.readInt();
+				long[] keyHashes = new long[numRows];
+				for (int r = 0; r < numRows; ++r) {
+					keyHashes[r] = in.readLong();
+				}
+				long[] rowHashes = new long[numRows];
+				for (int r = 0; r < numRows; ++r) {
+					rowHashes[r] = in.readLong();
+				}
+				rows.put(tableName, new TableSnapshot(keyHashes, rowHashes));
+			}
+			return rows;
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.subsetting;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.ExecutionContext;
+import net.sf.jailer.configuration.DBMS;
+import net.sf.jailer.database.SQLDialect;
+import net.sf.jailer.database.Session;
+import net.sf.jailer.database.StatementBuilder;
+import net.sf.jailer.datamodel.Column;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.entitygraph.remote.RemoteEntityGraph;
+import net.sf.jailer.util.CancellationHandler;
+import net.sf.jailer.util.CellContentConverter;
+import net.sf.jailer.util.JobManager;
+import net.sf.jailer.util.Quoting;
+
+/**
+ * Deletes the collected rows directly in the database (see {@link ExecutionContext#isDirectDelete()}).
+ * <br>
+ * The tables are processed in dependency order, tables that don't depend on each other concurrently.
+ * The rows of a table are deleted in chunks of rows with consecutive primary keys (keyset pagination),
+ * each chunk in a transaction of its own. Optionally, the number of rows deleted per second is limited.
+ *
+ * @author Ralf Wisser
+ */
+public class DirectDeleter {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(DirectDeleter.class);
+
+	private final RemoteEntityGraph entityGraph;
+	private final Session session;
+	private final DataModel datamodel;
+	private final JobManager jobManager;
+	private final ExecutionContext executionContext;
+	private final Quoting quoting;
+
+	/**
+	 * Maximum number of rows per chunk.
+	 */
+	private final int commitInterval;
+
+	/**
+	 * Maximum number of rows per delete-statement.
+	 */
+	private final int statementSize;
+
+	/**
+	 * Maximum number of rows deleted per second, 0 for unlimited.
+	 */
+	private final int rowsPerSecond;
+
+	/**
+	 * Earliest time (in ms) at which the next chunk may be deleted.
+	 */
+	private long nextChunkTime = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param entityGraph the graph containing the rows to delete
+	 * @param datamodel the (transposed) data model
+	 * @param jobManager for deleting rows of independent tables concurrently
+	 * @param executionContext the execution context
+	 */
+	public DirectDeleter(RemoteEntityGraph entityGraph, DataModel datamodel, JobManager jobManager, ExecutionContext executionContext) throws SQLException {
+		this.entityGraph = entityGraph;
+		this.session = entityGraph.getSession();
+		this.datamodel = datamodel;
+		this.jobManager = jobManager;
+		this.executionContext = executionContext;
+		this.quoting = Quoting.getQuoting(session);
+		this.commitInterval = Math.max(1, executionContext.getDeleteCommitInterval());
+		this.statementSize = Math.max(1, executionContext.getNumberOfEntities());
+		this.rowsPerSecond = Math.max(0, executionContext.getDeleteRowsPerSecond());
+	}
+
+	/**
+	 * Deletes the rows of tables in dependency order. Tables having cyclic dependencies
+	 * (and the tables they depend on) are left out.
+	 *
+	 * @param tables the tables
+	 * @return the tables whose rows have not been deleted
+	 */
+	public Set<Table> delete(Set<Table> tables) throws SQLException {
+		Set<Table> remaining = new TreeSet<Table>(tables);
+		Set<Table> independentTables = datamodel.getIndependentTables(remaining);
+		while (!independentTables.isEmpty()) {
+			List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
+			for (final Table table: independentTables) {
+				jobs.add(new JobManager.Job() {
+					@Override
+					public void run() throws SQLException {
+						deleteRows(table);
+					}
+				});
+			}
+			jobManager.executeJobs(jobs);
+			remaining.removeAll(independentTables);
+			independentTables = datamodel.getIndependentTables(remaining);
+		}
+		return remaining;
+	}
+
+	/**
+	 * Deletes the rows of a table chunk by chunk.
+	 *
+	 * @param table the table
+	 */
+	private void deleteRows(Table table) throws SQLException {
+		final List<Column> pkColumns = table.getNonVirtualPKColumns(session);
+		boolean hasNullablePKColumn = false;
+		for (Column pkColumn: pkColumns) {
+			if (pkColumn.isNullable) {
+				hasNullablePKColumn = true;
+				break;
+			}
+		}
+		_log.info("deleting rows of " + datamodel.getDisplayName(table));
+		long rc = 0;
+		String keysetCondition = null;
+		for (;;) {
+			CancellationHandler.checkForCancellation(null);
+			final List<String[]> keys = new ArrayList<String[]>();
+			entityGraph.readChunkOfPrimaryKeys(table, keysetCondition, commitInterval, new Session.AbstractResultSetReader() {
+				@Override
+				public void readCurrentRow(ResultSet resultSet) throws SQLException {
+					CellContentConverter cellContentConverter = getCellContentConverter(resultSet, session, session.dbms);
+					String[] key = new String[pkColumns.size()];
+					for (int i = 0; i < key.length; ++i) {
+						Object value = cellContentConverter.getObject(resultSet, i + 1);
+						key[i] = value == null? null : cellContentConverter.toSql(value);
+					}
+					keys.add(key);
+				}
+			});
+			if (keys.isEmpty()) {
+				break;
+			}
+			throttle(keys.size());
+			long chunkRc = deleteChunk(table, pkColumns, keys, hasNullablePKColumn);
+			rc += chunkRc;
+			_log.info(chunkRc + " rows deleted from " + datamodel.getDisplayName(table));
+			if (keys.size() < commitInterval) {
+				break;
+			}
+			if (hasNullablePKColumn) {
+				// no keyset pagination, the deleted rows are no longer found
+				if (chunkRc == 0) {
+					_log.warn("no rows of " + datamodel.getDisplayName(table) + " deleted, remaining rows are skipped");
+					break;
+				}
+			} else {
+				keysetCondition = keysetCondition(pkColumns, keys.get(keys.size() - 1));
+			}
+		}
+		_log.info(rc + " rows deleted from " + datamodel.getDisplayName(table) + " (total)");
+		executionContext.getProgressListenerRegistry().fireExported(table, rc);
+	}
+
+	/**
+	 * Deletes a chunk of rows in a transaction.
+	 *
+	 * @return number of deleted rows
+	 */
+	private long deleteChunk(Table table, List<Column> pkColumns, List<String[]> keys, boolean hasNullablePKColumn) throws SQLException {
+		List<String> statements = new ArrayList<String>();
+		StatementBuilder deleteStatementBuilder = new StatementBuilder(statementSize);
+		SQLDialect currentDialect = session.dbms.getSqlDialect();
+		boolean useInClause = !hasNullablePKColumn && !DBMS.SYBASE.equals(session.dbms) && (currentDialect == null || currentDialect.isSupportsInClauseForDeletes());
+		for (String[] key: keys) {
+			String deleteHead;
+			String item;
+			String separator;
+			if (!useInClause) {
+				deleteHead = "Delete from " + qualifiedTableName(table) + " Where (";
+				item = "";
+				for (int i = 0; i < key.length; ++i) {
+					item += (i > 0? " and " : "") + quoting.requote(pkColumns.get(i).name) + (key[i] != null? "=" + key[i] : " is null");
+				}
+				separator = ") or (";
+			} else if (key.length == 1) {
+				deleteHead = "Delete from " + qualifiedTableName(table) + " Where " + quoting.requote(pkColumns.get(0).name) + " in (";
+				item = key[0];
+				separator = ", ";
+			} else {
+				deleteHead = "Delete from " + qualifiedTableName(table) + " Where (";
+				item = "(";
+				for (int i = 0; i < key.length; ++i) {
+					deleteHead += (i > 0? ", " : "") + quoting.requote(pkColumns.get(i).name);
+					item += (i > 0? ", " : "") + key[i];
+				}
+				item += ")";
+				deleteHead += ") in (";
+				if (currentDialect != null && currentDialect.isNeedsValuesKeywordForDeletes()) {
+					deleteHead += "values ";
+				}
+				separator = ", ";
+			}
+			if (!deleteStatementBuilder.isAppendable(deleteHead)) {
+				statements.add(deleteStatementBuilder.build());
+			}
+			deleteStatementBuilder.append(deleteHead, item, separator, ")");
+		}
+		if (!deleteStatementBuilder.isEmpty()) {
+			statements.add(deleteStatementBuilder.build());
+		}
+
+		Connection connection = session.getConnection();
+		boolean autoCommit = connection.getAutoCommit();
+		long rc = 0;
+		try {
+			if (autoCommit) {
+				connection.setAutoCommit(false);
+			}
+			for (String statement: statements) {
+				rc += session.executeUpdate(statement);
+			}
+			connection.commit();
+		} catch (SQLException e) {
+			try {
+				connection.rollback();
+			} catch (SQLException e1) {
+				// ignore
+			}
+			throw e;
+		} finally {
+			if (autoCommit) {
+				connection.setAutoCommit(true);
+			}
+		}
+		return rc;
+	}
+
+	/**
+	 * Creates the condition that selects the rows following a given primary key.
+	 *
+	 * @param pkColumns the primary key columns
+	 * @param key the primary key
+	 */
+	private String keysetCondition(List<Column> pkColumns, String[] key) {
+		StringBuilder condition = new StringBuilder();
+		for (int i = 0; i < key.length; ++i) {
+			if (i > 0) {
+				condition.append(" or ");
+			}
+			condition.append("(");
+			for (int j = 0; j < i; ++j) {
+				condition.append("T." + quoting.requote(pkColumns.get(j).name) + "=" + key[j] + " and ");
+			}
+			condition.append("T." + quoting.requote(pkColumns.get(i).name) + ">" + key[i] + ")");
+		}
+		return condition.toString();
+	}
+
+	/**
+	 * Waits until a chunk of rows may be deleted without exceeding the maximum number of rows per second.
+	 *
+	 * @param rows number of rows in the chunk
+	 */
+	private void throttle(int rows) {
+		if (rowsPerSecond <= 0) {
+			return;
+		}
+		long startTime;
+		synchronized (this) {
+			startTime = Math.max(System.currentTimeMillis(), nextChunkTime);
+			nextChunkTime = startTime + rows * 1000L / rowsPerSecond;
+		}
+		long delay = startTime - System.currentTimeMillis();
+		if (delay > 0) {
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Gets qualified table name.
+	 *
+	 * @param t the table
+	 * @return qualified name of t
+	 */
+	private String qualifiedTableName(Table t) {
+		String schema = t.getOriginalSchema("");
+		String mappedSchema = executionContext.getDeletionSchemaMapping().get(schema);
+		if (mappedSchema != null) {
+			schema = mappedSchema;
+		}
+		if (schema.length() == 0) {
+			return quoting.requote(t.getUnqualifiedName());
+		}
+		return quoting.requote(schema) + "." + quoting.requote(t.getUnqualifiedName());
+	}
+
+}
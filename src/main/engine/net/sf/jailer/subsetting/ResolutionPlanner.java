@@ -0,0 +1,154 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.subsetting;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.ExecutionContext;
+import net.sf.jailer.database.EstimatedRowCounts;
+import net.sf.jailer.database.Session;
+import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.modelbuilder.JDBCMetaDataBasedModelElementFinder;
+import net.sf.jailer.util.Quoting;
+
+/**
+ * Plans the resolution of associations on the basis of estimated costs
+ * (see {@link ExecutionContext#isCostBasedResolutionOrder()}).
+ * <br>
+ * The cost of a resolution is estimated as the number of source rows collected the day before
+ * plus the estimated number of rows of the destination table (according to the catalog statistics).
+ * The most expensive resolutions of a day are started first, so that the longest jobs don't delay the end of the day.
+ * <br>
+ * Associations into empty tables are not resolved at all. Because the catalog statistics might be outdated,
+ * a table is only considered to be empty if its estimated row count is 0 and a query for any row of it finds nothing.
+ * This query is executed once per table in {@link #init()}.
+ *
+ * @author Ralf Wisser
+ */
+public class ResolutionPlanner {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(ResolutionPlanner.class);
+
+	/**
+	 * Session for reading the source tables.
+	 */
+	private final Session session;
+
+	/**
+	 * All tables.
+	 */
+	private final Collection<Table> tables;
+
+	/**
+	 * Counts the collected rows per day.
+	 */
+	private final CollectedRowsCounter collectedRowsCounter;
+
+	/**
+	 * Estimated row count per table (missing if unknown).
+	 */
+	private Map<Table, Long> estimatedRowCounts = new HashMap<Table, Long>();
+
+	/**
+	 * Tables verified to be empty.
+	 */
+	private final Set<Table> emptyTables = new HashSet<Table>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param session session for reading the source tables
+	 * @param tables all tables
+	 * @param collectedRowsCounter counts the collected rows
+	 */
+	public ResolutionPlanner(Session session, Collection<Table> tables, CollectedRowsCounter collectedRowsCounter) {
+		this.session = session;
+		this.tables = tables;
+		this.collectedRowsCounter = collectedRowsCounter;
+	}
+
+	/**
+	 * Reads the estimated row counts and verifies the emptiness of the tables estimated to be empty.
+	 */
+	public synchronized void init() throws SQLException {
+		String defaultSchema = JDBCMetaDataBasedModelElementFinder.getDefaultSchema(session, session.getSchema());
+		estimatedRowCounts = EstimatedRowCounts.read(session, tables, defaultSchema);
+		emptyTables.clear();
+		Quoting quoting = Quoting.getQuoting(session);
+		for (Table table: tables) {
+			Long rowCount = estimatedRowCounts.get(table);
+			if (rowCount != null && rowCount == 0) {
+				final boolean[] hasRows = new boolean[] { false };
+				try {
+					session.executeQuery("Select 1 From " + quoting.requote(table.getName()), new Session.AbstractResultSetReader() {
+						@Override
+						public void readCurrentRow(ResultSet resultSet) throws SQLException {
+							hasRows[0] = true;
+						}
+					}, null, null, 1);
+				} catch (SQLException e) {
+					_log.warn("can't check whether table " + table.getName() + " is empty: " + e.getMessage());
+					continue;
+				}
+				if (!hasRows[0]) {
+					emptyTables.add(table);
+				}
+			}
+		}
+		_log.info("estimated row counts: " + estimatedRowCounts.size() + " tables, " + emptyTables.size() + " empty");
+	}
+
+	/**
+	 * Checks whether a table is known to be empty.
+	 *
+	 * @param table the table
+	 * @return <code>true</code> if the table is empty
+	 */
+	public synchronized boolean isEmpty(Table table) {
+		return emptyTables.contains(table);
+	}
+
+	/**
+	 * Estimates the cost of resolving an association.
+	 *
+	 * @param table the source table
+	 * @param association the association
+	 * @param today birthday of the entities to be created
+	 * @return the estimated cost
+	 */
+	public synchronized long cost(Table table, Association association, int today) {
+		Long sourceRows = collectedRowsCounter.getCollectedRowsCount(today - 1, table);
+		if (sourceRows == null) {
+			sourceRows = estimatedRowCounts.get(table);
+		}
+		Long destinationRows = estimatedRowCounts.get(association.destination);
+		return Math.max(0, sourceRows == null? 0 : sourceRows) + Math.max(0, destinationRows == null? 0 : destinationRows);
+	}
+
+}
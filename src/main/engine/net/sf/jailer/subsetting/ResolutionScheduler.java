@@ -0,0 +1,417 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.subsetting;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.util.CancellationException;
+import net.sf.jailer.util.JobManager;
+
+/**
+ * Dependency-aware scheduler for the resolution of associations.
+ * <br>
+ * Treats each resolution of an association for a given day as a task in a dataflow graph.
+ * The rows of a table having a given birthday are final as soon as
+ * all potential predecessors (tables with an association to the table)
+ * are final for the day before and all resolutions of that day having
+ * the table as destination are done. Resolutions of the next day
+ * starting at the table are then started without waiting for unrelated tables.
+ * <br>
+ * Keeps the birthday semantics of the entity graph:
+ * a resolution of day <code>d</code> only starts when the source rows of day <code>d - 1</code>
+ * as well as the destination rows of all days before <code>d</code> are final,
+ * and at most one resolution per destination is executed at a time.
+ *
+ * @author Ralf Wisser
+ */
+public class ResolutionScheduler {
+
+	/**
+	 * Resolves an association.
+	 */
+	public interface Resolver {
+
+		/**
+		 * Decides whether an association has to be resolved.
+		 *
+		 * @param table the source table
+		 * @param association the association
+		 * @param progressOfYesterday associations that lead to the source rows of yesterday
+		 * @return <code>true</code> if the association has to be resolved
+		 */
+		boolean isResolutionRequired(Table table, Association association, Collection<Association> progressOfYesterday);
+
+		/**
+		 * Notification that a resolution task has been created.
+		 *
+		 * @param today the day
+		 * @param association the association
+		 */
+		void enqueued(int today, Association association);
+
+		/**
+		 * Estimates the cost of a resolution. Ready resolutions with higher costs are started first.
+		 *
+		 * @param table the source table
+		 * @param association the association
+		 * @param today birthday of the entities to be created
+		 * @return the estimated cost
+		 */
+		long cost(Table table, Association association, int today);
+
+		/**
+		 * Resolves an association.
+		 *
+		 * @param table the source table
+		 * @param association the association
+		 * @param today birthday of newly created entities
+		 * @return number of newly created entities
+		 */
+		long resolve(Table table, Association association, int today) throws SQLException;
+	}
+
+	/**
+	 * A pending resolution.
+	 */
+	private class Task implements JobManager.Job {
+		final Table table;
+		final Association association;
+		final int today;
+		final long cost;
+
+		Task(Table table, Association association, int today) {
+			this.table = table;
+			this.association = association;
+			this.today = today;
+			this.cost = resolver.cost(table, association, today);
+		}
+
+		@Override
+		public void run() throws SQLException, CancellationException {
+			long rc = resolver.resolve(table, association, today);
+			done(this, rc);
+		}
+	}
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(ResolutionScheduler.class);
+
+	private final JobManager jobManager;
+	private final Resolver resolver;
+
+	/**
+	 * All tables.
+	 */
+	private final Collection<Table> tables;
+
+	/**
+	 * Tables having an association into a given table.
+	 */
+	private final Map<Table, Set<Table>> predecessors = new HashMap<Table, Set<Table>>();
+
+	/**
+	 * Per table, the last day for which all rows with this birthday (or less) are final.
+	 */
+	private final Map<Table, Integer> finalDay = new HashMap<Table, Integer>();
+
+	/**
+	 * Per table and day, the associations that lead to rows with this birthday.
+	 */
+	private final Map<Table, Map<Integer, Collection<Association>>> arrivals = new HashMap<Table, Map<Integer, Collection<Association>>>();
+
+	/**
+	 * Per table and day, the number of unfinished resolutions having the table as destination.
+	 */
+	private final Map<Table, Map<Integer, Integer>> pendingResolutions = new HashMap<Table, Map<Integer, Integer>>();
+
+	/**
+	 * Per destination, resolutions waiting for execution.
+	 */
+	private final Map<Table, List<Task>> waiting = new HashMap<Table, List<Task>>();
+
+	/**
+	 * Destinations into which rows are currently inserted.
+	 */
+	private final Set<Table> busy = new HashSet<Table>();
+
+	/**
+	 * Last day on which rows have been collected.
+	 */
+	private int maxActiveDay;
+
+	/**
+	 * Tables that might become final.
+	 */
+	private final LinkedHashSet<Table> worklist = new LinkedHashSet<Table>();
+
+	/**
+	 * Tasks ready for execution.
+	 */
+	private final List<Task> readyTasks = new LinkedList<Task>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param tables all tables
+	 * @param jobManager for executing the resolutions
+	 * @param resolver resolves associations
+	 */
+	public ResolutionScheduler(Collection<Table> tables, JobManager jobManager, Resolver resolver) {
+		this.tables = tables;
+		this.jobManager = jobManager;
+		this.resolver = resolver;
+		for (Table table: tables) {
+			predecessors.put(table, new HashSet<Table>());
+		}
+		for (Table table: tables) {
+			for (Association association: table.associations) {
+				Set<Table> pred = predecessors.get(association.destination);
+				if (pred != null) {
+					pred.add(table);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resolves all associations until no more rows are collected.
+	 *
+	 * @param today birthday of the rows collected so far
+	 * @param progressOfYesterday tables from which rows have been collected (birthday is <code>today</code>)
+	 * @return set of tables from which entities are added (including the tables of <code>progressOfYesterday</code>)
+	 */
+	public Set<Table> resolve(int today, Map<Table, Collection<Association>> progressOfYesterday) throws CancellationException, SQLException {
+		List<JobManager.Job> initialJobs;
+		synchronized (this) {
+			maxActiveDay = progressOfYesterday.isEmpty()? today - 1 : today;
+			for (Table table: tables) {
+				finalDay.put(table, today);
+			}
+			for (Map.Entry<Table, Collection<Association>> e: progressOfYesterday.entrySet()) {
+				if (finalDay.containsKey(e.getKey())) {
+					arrivalsOf(e.getKey()).put(today, new ArrayList<Association>(e.getValue()));
+				}
+			}
+			for (Table table: progressOfYesterday.keySet()) {
+				if (finalDay.containsKey(table)) {
+					createTasks(table, today + 1);
+				}
+			}
+			worklist.addAll(tables);
+			propagate();
+			initialJobs = new ArrayList<JobManager.Job>(takeReadyTasks());
+		}
+		jobManager.executeJobs(initialJobs);
+
+		synchronized (this) {
+			_log.info("no more rows collected on day " + getLastDay());
+			Set<Table> totalProgress = new HashSet<Table>();
+			for (Map.Entry<Table, Map<Integer, Collection<Association>>> e: arrivals.entrySet()) {
+				if (!e.getValue().isEmpty()) {
+					totalProgress.add(e.getKey());
+				}
+			}
+			return totalProgress;
+		}
+	}
+
+	/**
+	 * Gets the day after the last day on which rows have been collected.
+	 */
+	public synchronized int getLastDay() {
+		return maxActiveDay + 1;
+	}
+
+	/**
+	 * Called after a task has been executed.
+	 */
+	private void done(Task task, long rc) {
+		List<Task> toStart;
+		synchronized (this) {
+			Table destination = task.association.destination;
+			Map<Integer, Integer> pending = pendingResolutions.get(destination);
+			pending.put(task.today, pending.get(task.today) - 1);
+			if (rc > 0) {
+				Collection<Association> as = arrivalsOf(destination).get(task.today);
+				if (as == null) {
+					as = new ArrayList<Association>();
+					arrivalsOf(destination).put(task.today, as);
+				}
+				as.add(task.association);
+				if (task.today > maxActiveDay) {
+					maxActiveDay = task.today;
+					worklist.addAll(tables);
+				}
+			}
+			busy.remove(destination);
+			worklist.add(destination);
+			propagate();
+			dispatch(destination);
+			toStart = takeReadyTasks();
+		}
+		for (Task t: toStart) {
+			jobManager.enqueueJob(t);
+		}
+	}
+
+	/**
+	 * Removes the ready tasks, the most expensive ones first.
+	 */
+	private List<Task> takeReadyTasks() {
+		List<Task> tasks = new ArrayList<Task>(readyTasks);
+		readyTasks.clear();
+		Collections.sort(tasks, new Comparator<Task>() {
+			@Override
+			public int compare(Task o1, Task o2) {
+				return Long.compare(o2.cost, o1.cost);
+			}
+		});
+		return tasks;
+	}
+
+	/**
+	 * Advances the final days of the tables in the worklist as far as possible.
+	 */
+	private void propagate() {
+		while (!worklist.isEmpty()) {
+			Table table = worklist.iterator().next();
+			worklist.remove(table);
+			while (advance(table)) {
+				for (Association association: table.associations) {
+					if (finalDay.containsKey(association.destination)) {
+						worklist.add(association.destination);
+					}
+				}
+				dispatch(table);
+			}
+		}
+	}
+
+	/**
+	 * Tries to make the rows of the next day of a table final.
+	 *
+	 * @return <code>true</code> if the table has been advanced
+	 */
+	private boolean advance(Table table) {
+		int day = finalDay.get(table) + 1;
+		if (day > maxActiveDay + 1) {
+			return false;
+		}
+		for (Table pred: predecessors.get(table)) {
+			if (finalDay.get(pred) < day - 1) {
+				return false;
+			}
+		}
+		Map<Integer, Integer> pending = pendingResolutions.get(table);
+		if (pending != null) {
+			Integer p = pending.get(day);
+			if (p != null && p > 0) {
+				return false;
+			}
+		}
+		finalDay.put(table, day);
+		Map<Integer, Collection<Association>> arr = arrivals.get(table);
+		if (arr != null && arr.containsKey(day)) {
+			_log.debug("day " + day + ", progress: " + table.getName());
+			createTasks(table, day + 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Creates the resolution tasks for the rows of a table born yesterday.
+	 */
+	private void createTasks(Table table, int today) {
+		Collection<Association> progressOfYesterday = arrivals.get(table).get(today - 1);
+		for (Association association: table.associations) {
+			if (!finalDay.containsKey(association.destination)) {
+				continue;
+			}
+			if (!resolver.isResolutionRequired(table, association, progressOfYesterday)) {
+				continue;
+			}
+			resolver.enqueued(today, association);
+			Map<Integer, Integer> pending = pendingResolutions.get(association.destination);
+			if (pending == null) {
+				pending = new HashMap<Integer, Integer>();
+				pendingResolutions.put(association.destination, pending);
+			}
+			Integer p = pending.get(today);
+			pending.put(today, p == null? 1 : p + 1);
+			List<Task> w = waiting.get(association.destination);
+			if (w == null) {
+				w = new ArrayList<Task>();
+				waiting.put(association.destination, w);
+			}
+			w.add(new Task(table, association, today));
+			dispatch(association.destination);
+		}
+	}
+
+	/**
+	 * Makes the earliest executable task into a given destination ready,
+	 * unless there is already a task running for that destination.
+	 */
+	private void dispatch(Table destination) {
+		if (busy.contains(destination)) {
+			return;
+		}
+		List<Task> w = waiting.get(destination);
+		if (w == null || w.isEmpty()) {
+			return;
+		}
+		int destFinalDay = finalDay.get(destination);
+		Task next = null;
+		for (Task task: w) {
+			if (task.today - 1 <= destFinalDay && (next == null || task.today < next.today)) {
+				next = task;
+			}
+		}
+		if (next != null) {
+			w.remove(next);
+			busy.add(destination);
+			readyTasks.add(next);
+		}
+	}
+
+	private Map<Integer, Collection<Association>> arrivalsOf(Table table) {
+		Map<Integer, Collection<Association>> arr = arrivals.get(table);
+		if (arr == null) {
+			arr = new HashMap<Integer, Collection<Association>>();
+			arrivals.put(table, arr);
+		}
+		return arr;
+	}
+
+}
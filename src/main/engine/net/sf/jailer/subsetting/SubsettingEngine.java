@@ -15,11 +15,13 @@
  */
 package net.sf.jailer.subsetting;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.InetAddress;
 import java.net.URL;
 import java.net.UnknownHostException;
@@ -42,15 +44,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
-import java.util.zip.GZIPOutputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import javax.sql.DataSource;
 import javax.xml.transform.TransformerConfigurationException;
@@ -66,12 +66,15 @@ import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.JailerVersion;
 import net.sf.jailer.configuration.Configuration;
 import net.sf.jailer.configuration.DBMS;
+import net.sf.jailer.database.BasicDataSource;
+import net.sf.jailer.database.BatchInsertTransformer;
 import net.sf.jailer.database.DMLTransformer;
 import net.sf.jailer.database.DeletionTransformer;
 import net.sf.jailer.database.LocalDatabase;
 import net.sf.jailer.database.Session;
 import net.sf.jailer.database.SqlException;
 import net.sf.jailer.database.StatisticRenovator;
+import net.sf.jailer.database.WorkingTablePartitioning;
 import net.sf.jailer.database.WorkingTableScope;
 import net.sf.jailer.datamodel.AggregationSchema;
 import net.sf.jailer.datamodel.Association;
@@ -88,6 +91,7 @@ import net.sf.jailer.enhancer.ScriptEnhancer;
 import net.sf.jailer.entitygraph.EntityGraph;
 import net.sf.jailer.entitygraph.intradatabase.IntraDatabaseEntityGraph;
 import net.sf.jailer.entitygraph.local.LocalEntityGraph;
+import net.sf.jailer.entitygraph.memory.MemoryEntityGraph;
 import net.sf.jailer.entitygraph.remote.RemoteEntityGraph;
 import net.sf.jailer.extractionmodel.ExtractionModel;
 import net.sf.jailer.extractionmodel.ExtractionModel.AdditionalSubject;
@@ -99,9 +103,14 @@ import net.sf.jailer.util.CancellationHandler;
 import net.sf.jailer.util.CycleFinder;
 import net.sf.jailer.util.JobManager;
 import net.sf.jailer.util.JobManager.Job;
+import net.sf.jailer.util.ParallelGZIPOutputStream;
+import net.sf.jailer.util.ParallelZipOutputStream;
 import net.sf.jailer.util.PrintUtil;
 import net.sf.jailer.util.Quoting;
+import net.sf.jailer.util.SegmentedOutputStream;
+import net.sf.jailer.util.SqlScriptExecutor;
 import net.sf.jailer.util.SqlUtil;
+import net.sf.jailer.util.WorkStealingJobManager;
 import net.sf.jailer.xml.XmlExportTransformer;
 import net.sf.jailer.xml.XmlUtil;
 
@@ -121,22 +130,38 @@ public class SubsettingEngine {
 		this.executionContext = executionContext;
 		this.collectedRowsCounter = new CollectedRowsCounter();
 		this.executionContext.getProgressListenerRegistry().addProgressListener(collectedRowsCounter);
-		jobManager = new JobManager(executionContext.getNumberOfThreads()) {
-			@Override
-			protected void onException(Throwable t) {
-				EntityGraph eg = getEntityGraph();
-				if (eg != null) {
-					Session session = eg.getSession();
-					Session targetSession = eg.getTargetSession();
-					if (session != null) {
-						session.killRunningStatements();
-					}
-					if (targetSession != null && targetSession != session) {
-						targetSession.killRunningStatements();
-					}
+		if (executionContext.isWorkStealing()) {
+			jobManager = new WorkStealingJobManager(executionContext.getNumberOfThreads()) {
+				@Override
+				protected void onException(Throwable t) {
+					killRunningStatements();
 				}
+			};
+		} else {
+			jobManager = new JobManager(executionContext.getNumberOfThreads()) {
+				@Override
+				protected void onException(Throwable t) {
+					killRunningStatements();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Kills all running statements of the entity-graph's sessions.
+	 */
+	private void killRunningStatements() {
+		EntityGraph eg = getEntityGraph();
+		if (eg != null) {
+			Session session = eg.getSession();
+			Session targetSession = eg.getTargetSession();
+			if (session != null) {
+				session.killRunningStatements();
 			}
-		};
+			if (targetSession != null && targetSession != session) {
+				targetSession.killRunningStatements();
+			}
+		}
 	}
 
 	/**
@@ -156,6 +181,16 @@ public class SubsettingEngine {
 
 	private final CollectedRowsCounter collectedRowsCounter;
 
+	/**
+	 * Plans the resolution of associations (<code>null</code> if the resolution order is not cost-based).
+	 */
+	private ResolutionPlanner resolutionPlanner;
+
+	/**
+	 * Checkpoint of the current export (<code>null</code> if the export can't be resumed).
+	 */
+	private Checkpoint checkpoint;
+
 	/**
 	 * The job-manager to be used for concurrent execution of jobs.
 	 */
@@ -176,6 +211,22 @@ public class SubsettingEngine {
 	 */
 	private OutputStreamWriter result;
 
+	/**
+	 * The script, if output is segmented (see {@link ExecutionContext#isSegmentedOutput()}).
+	 */
+	private SegmentedOutputStream segmentedOutputStream;
+
+	/**
+	 * Charset of the script.
+	 */
+	private Charset resultCharset;
+
+	/**
+	 * Session of the database into which the exported rows are inserted directly (see {@link ExecutionContext#getImportUrl()}),
+	 * or <code>null</code>.
+	 */
+	private Session importSession;
+
 	/**
 	 * Export statistic.
 	 */
@@ -235,30 +286,66 @@ public class SubsettingEngine {
 	 * @param progressOfYesterday
 	 *            set of tables to account for resolvation
 	 * @param completedTables
+	 * @param resume
+	 *            <code>true</code> to resume the collection at the day of the checkpoint
 	 *
 	 * @return set of tables from which entities are added
 	 */
-	private Set<Table> export(Table table, String condition, Collection<Table> progressOfYesterday, Set<Table> completedTables, boolean withRestDep) throws SQLException {
+	private Set<Table> export(Table table, String condition, Collection<Table> progressOfYesterday, Set<Table> completedTables, boolean withRestDep, boolean resume) throws SQLException, IOException {
 		_log.info("exporting " + datamodel.getDisplayName(table) + " Where " + condition.replace('\n', ' ').replace('\r', ' '));
-		int today = entityGraph.getAge();
-		entityGraph.setAge(today + 1);
+		int today;
 		Map<Table, Collection<Association>> progress = new HashMap<Table, Collection<Association>>();
-		if (progressOfYesterday != null) {
-			for (Table t: progressOfYesterday) {
-				progress.put(t, new ArrayList<Association>());
+		Set<Table> totalProgress = new HashSet<Table>();
+		if (resume) {
+			today = checkpoint.day;
+			progress.putAll(checkpoint.progress);
+			totalProgress.addAll(checkpoint.totalProgress);
+			_log.info("resuming collection at day " + today);
+		} else {
+			today = entityGraph.getAge();
+			if (progressOfYesterday != null) {
+				for (Table t: progressOfYesterday) {
+					progress.put(t, new ArrayList<Association>());
+				}
 			}
 		}
-		Set<Table> totalProgress = new HashSet<Table>();
+		entityGraph.setAge(today + 1);
 
-		while (!progress.isEmpty()) {
-			totalProgress.addAll(progress.keySet());
+		if (executionContext.isPipelinedCollection()) {
 			_log.info("day " + today + ", progress: " + asString(progress.keySet()));
-			++today;
-			entityGraph.setAge(today + 1);
-			progress = resolveAssociations(today, progress, completedTables);
+			totalProgress.addAll(progress.keySet());
+			totalProgress.addAll(resolveAssociationsPipelined(today, progress, completedTables));
+		} else {
+			if (checkpoint != null && !resume) {
+				checkpoint.writeCollecting(entityGraph.graphID, today, progress, totalProgress, completedTables, collectedRowsCounter.getCollectedRowsCount());
+			}
+			while (!progress.isEmpty()) {
+				totalProgress.addAll(progress.keySet());
+				_log.info("day " + today + ", progress: " + asString(progress.keySet()));
+				++today;
+				entityGraph.setAge(today + 1);
+				progress = resolveAssociations(today, progress, completedTables);
+				if (checkpoint != null) {
+					checkpoint.writeCollecting(entityGraph.graphID, today, progress, totalProgress, completedTables, collectedRowsCounter.getCollectedRowsCount());
+				}
+			}
 		}
 
 		_log.info("exported " + datamodel.getDisplayName(table) + " Where " + condition.replace('\n', ' ').replace('\r', ' '));
+		appendStatistic(table, totalProgress, withRestDep);
+
+		return totalProgress;
+	}
+
+	/**
+	 * Logs the export statistic and appends it and the used filters to the comment header.
+	 *
+	 * @param table
+	 *            the subject table
+	 * @param totalProgress
+	 *            set of tables from which entities are added
+	 */
+	private void appendStatistic(Table table, Set<Table> totalProgress, boolean withRestDep) {
 		_log.info("total progress: " + asString(totalProgress));
 		_log.info("export statistic:");
 
@@ -302,8 +389,6 @@ public class SubsettingEngine {
 				}
 			}
 		}
-
-		return totalProgress;
 	}
 
 	/**
@@ -443,19 +528,11 @@ public class SubsettingEngine {
 
 		// resolve associations with same dest-type sequentially
 		Map<Table, List<JobManager.Job>> jobsPerDestination = new HashMap<Table, List<JobManager.Job>>();
+		final Map<Table, Long> costPerDestination = new HashMap<Table, Long>();
 
 		for (final Table table : progressOfYesterday.keySet()) {
 			for (final Association association : table.associations) {
-				Collection<Association> as = progressOfYesterday.get(table);
-				if (as != null && as.size() == 1 && as.iterator().next() == association.reversalAssociation) {
-					if (association.getCardinality() == Cardinality.MANY_TO_ONE || association.getCardinality() == Cardinality.ONE_TO_ONE) {
-						_log.info("skip reversal association " + datamodel.getDisplayName(table) + " -> " + datamodel.getDisplayName(association.destination));
-						continue;
-					}
-				}
-
-				if (completedTables.contains(association.destination)) {
-					_log.info("skip association " + datamodel.getDisplayName(table) + " -> " + datamodel.getDisplayName(association.destination) + ". All rows exported.");
+				if (!isResolutionRequired(table, association, progressOfYesterday.get(table), completedTables)) {
 					continue;
 				}
 
@@ -466,17 +543,7 @@ public class SubsettingEngine {
 				JobManager.Job job = new JobManager.Job() {
 					@Override
 					public void run() throws SQLException {
-						runstats();
-						if (association.getJoinCondition() != null) {
-							_log.info("resolving " + datamodel.getDisplayName(table) + " -> " + association.toString(0, true) + "...");
-						}
-						executionContext.getProgressListenerRegistry().fireCollectionJobStarted(today, association);
-						long rc = entityGraph.resolveAssociation(table, association, today);
-						executionContext.getProgressListenerRegistry().fireCollected(today, association, rc);
-						if (rc >= 0) {
-							_log.info(rc + " entities found resolving " + datamodel.getDisplayName(table) + " -> " + association.toString(0, true));
-						}
-						checkRowLimit(rc);
+						long rc = resolveAssociation(table, association, today);
 						synchronized (progress) {
 							if (rc > 0) {
 								Collection<Association> as = progress.get(association.destination);
@@ -495,10 +562,24 @@ public class SubsettingEngine {
 					jobsPerDestination.put(association.destination, jobList);
 				}
 				jobList.add(job);
+				if (resolutionPlanner != null) {
+					Long cost = costPerDestination.get(association.destination);
+					costPerDestination.put(association.destination, (cost == null? 0 : cost) + resolutionPlanner.cost(table, association, today));
+				}
 			}
 		}
+		List<Map.Entry<Table, List<JobManager.Job>>> jobsPerDestinationList = new ArrayList<Map.Entry<Table, List<JobManager.Job>>>(jobsPerDestination.entrySet());
+		if (resolutionPlanner != null) {
+			// most expensive first
+			Collections.sort(jobsPerDestinationList, new Comparator<Map.Entry<Table, List<JobManager.Job>>>() {
+				@Override
+				public int compare(Entry<Table, List<Job>> o1, Entry<Table, List<Job>> o2) {
+					return Long.compare(costPerDestination.get(o2.getKey()), costPerDestination.get(o1.getKey()));
+				}
+			});
+		}
 		List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
-		for (Map.Entry<Table, List<JobManager.Job>> entry : jobsPerDestination.entrySet()) {
+		for (Map.Entry<Table, List<JobManager.Job>> entry : jobsPerDestinationList) {
 			final List<Job> jobList = new ArrayList<Job>(entry.getValue());
 			jobs.add(new JobManager.Job() {
 				@Override
@@ -514,6 +595,106 @@ public class SubsettingEngine {
 		return progress;
 	}
 
+	/**
+	 * Resolves all associations using a {@link ResolutionScheduler}.
+	 * Resolution of associations starting at a table begins as soon as
+	 * the rows of the table are final, without waiting for the other tables.
+	 *
+	 * @param today
+	 *            birthday of the entities collected so far
+	 * @param progressOfYesterday
+	 *            set of tables to account for resolvation
+	 * @param completedTables
+	 *
+	 * @return set of tables from which entities are added
+	 */
+	private Set<Table> resolveAssociationsPipelined(int today, Map<Table, Collection<Association>> progressOfYesterday, final Set<Table> completedTables) throws CancellationException, SQLException {
+		ResolutionScheduler scheduler = new ResolutionScheduler(datamodel.getTables(), jobManager, new ResolutionScheduler.Resolver() {
+			@Override
+			public boolean isResolutionRequired(Table table, Association association, Collection<Association> progressOfYesterday) {
+				return SubsettingEngine.this.isResolutionRequired(table, association, progressOfYesterday, completedTables);
+			}
+
+			@Override
+			public void enqueued(int today, Association association) {
+				if (association.getJoinCondition() != null) {
+					executionContext.getProgressListenerRegistry().fireCollectionJobEnqueued(today, association);
+				}
+			}
+
+			@Override
+			public long cost(Table table, Association association, int today) {
+				return resolutionPlanner == null? 0 : resolutionPlanner.cost(table, association, today);
+			}
+
+			@Override
+			public long resolve(Table table, Association association, int today) throws SQLException {
+				return resolveAssociation(table, association, today);
+			}
+		});
+		Set<Table> progress = scheduler.resolve(today, progressOfYesterday);
+		entityGraph.setAge(scheduler.getLastDay() + 1);
+		return progress;
+	}
+
+	/**
+	 * Decides whether an association has to be resolved.
+	 *
+	 * @param table
+	 *            the source table
+	 * @param association
+	 *            the association
+	 * @param progressOfYesterday
+	 *            associations which lead to the entities of yesterday
+	 * @param completedTables
+	 *            tables from which all rows are exported
+	 */
+	private boolean isResolutionRequired(Table table, Association association, Collection<Association> progressOfYesterday, Set<Table> completedTables) {
+		if (progressOfYesterday != null && progressOfYesterday.size() == 1 && progressOfYesterday.iterator().next() == association.reversalAssociation) {
+			if (association.getCardinality() == Cardinality.MANY_TO_ONE || association.getCardinality() == Cardinality.ONE_TO_ONE) {
+				_log.info("skip reversal association " + datamodel.getDisplayName(table) + " -> " + datamodel.getDisplayName(association.destination));
+				return false;
+			}
+		}
+
+		if (completedTables.contains(association.destination)) {
+			_log.info("skip association " + datamodel.getDisplayName(table) + " -> " + datamodel.getDisplayName(association.destination) + ". All rows exported.");
+			return false;
+		}
+		if (resolutionPlanner != null && resolutionPlanner.isEmpty(association.destination)) {
+			_log.info("skip association " + datamodel.getDisplayName(table) + " -> " + datamodel.getDisplayName(association.destination) + ". Destination table is empty.");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Resolves an association.
+	 *
+	 * @param table
+	 *            the source table
+	 * @param association
+	 *            the association
+	 * @param today
+	 *            birthday of newly created entities
+	 *
+	 * @return number of newly created entities
+	 */
+	private long resolveAssociation(Table table, Association association, int today) throws SQLException {
+		runstats();
+		if (association.getJoinCondition() != null) {
+			_log.info("resolving " + datamodel.getDisplayName(table) + " -> " + association.toString(0, true) + "...");
+		}
+		executionContext.getProgressListenerRegistry().fireCollectionJobStarted(today, association);
+		long rc = entityGraph.resolveAssociation(table, association, today);
+		executionContext.getProgressListenerRegistry().fireCollected(today, association, rc);
+		if (rc >= 0) {
+			_log.info(rc + " entities found resolving " + datamodel.getDisplayName(table) + " -> " + association.toString(0, true));
+		}
+		checkRowLimit(rc);
+		return rc;
+	}
+
 	/**
 	 * Adds all dependencies.
 	 *
@@ -637,13 +818,43 @@ public class SubsettingEngine {
 						targetSession,
 						executionContext);
 			} else {
-				return new DMLTransformer.Factory(outputWriter, executionContext.getUpsertOnly(), executionContext.getNumberOfEntities(), targetSession, targetDBMSConfiguration(targetSession), executionContext);
+				// changed rows of a delta export already exist in the target database
+				boolean upsertOnly = executionContext.getUpsertOnly() || (entityGraph.getDeltaFilter() != null && entityGraph.getDeltaFilter().hasSnapshot());
+				DMLTransformer.Factory factory = new DMLTransformer.Factory(outputWriter, upsertOnly, executionContext.getNumberOfEntities(), targetSession, targetDBMSConfiguration(targetSession), executionContext);
+				if (importSession != null) {
+					return new BatchInsertTransformer.Factory(targetSession, importSession, factory, executionContext);
+				}
+				return factory;
 			}
 		} else {
 			return new DeletionTransformer.Factory(outputWriter, executionContext.getNumberOfEntities(), targetSession, targetDBMSConfiguration(targetSession), executionContext);
 		}
 	}
 
+	/**
+	 * Compresses the output if the file is a ".gz" or ".zip" file.
+	 * Compression is done with multiple threads (see {@link ExecutionContext#getCompressionThreads()}).
+	 *
+	 * @param outputStream stream into the file
+	 * @param file the file
+	 * @return stream to write the content into
+	 */
+	private OutputStream createCompressingOutputStream(OutputStream outputStream, File file) {
+		String fileName = file.getName();
+		int numberOfThreads = executionContext.getCompressionThreads();
+		if (numberOfThreads <= 0) {
+			numberOfThreads = Runtime.getRuntime().availableProcessors();
+		}
+		int blockSize = executionContext.getCompressionBlockSize() * 1024;
+		if (fileName.toLowerCase(Locale.ENGLISH).endsWith(".zip")) {
+			return new ParallelZipOutputStream(outputStream, fileName.substring(0, fileName.length() - 4), numberOfThreads, blockSize); // lgtm [java/output-resource-leak]
+		}
+		if (fileName.toLowerCase(Locale.ENGLISH).endsWith(".gz")) {
+			return new ParallelGZIPOutputStream(outputStream, numberOfThreads, blockSize); // lgtm [java/output-resource-leak]
+		}
+		return outputStream;
+	}
+
 	private interface WriteAction {
 		void run() throws SQLException;
 	}
@@ -668,14 +879,17 @@ public class SubsettingEngine {
 			parentFile.mkdirs();
 		}
 		OutputStream outputStream = new FileOutputStream(file);
-		if (sqlScriptFile.toLowerCase(Locale.ENGLISH).endsWith(".zip")) {
-			outputStream = new ZipOutputStream(outputStream); // lgtm [java/output-resource-leak]
-			String zipFileName = file.getName();
-			((ZipOutputStream)outputStream).putNextEntry(new ZipEntry(zipFileName.substring(0, zipFileName.length() - 4)));
-		} else {
+		segmentedOutputStream = null;
+		if (executionContext.isSegmentedOutput() && scriptType == ScriptType.INSERT && ScriptFormat.SQL.equals(executionContext.getScriptFormat()) && executionContext.getImportUrl() == null) {
 			if (sqlScriptFile.toLowerCase(Locale.ENGLISH).endsWith(".gz")) {
-				outputStream = new GZIPOutputStream(outputStream); // lgtm [java/output-resource-leak]
+				// segments are compressed by the threads writing them
+				segmentedOutputStream = new SegmentedOutputStream(outputStream, true); // lgtm [java/output-resource-leak]
+			} else {
+				segmentedOutputStream = new SegmentedOutputStream(createCompressingOutputStream(outputStream, file), false); // lgtm [java/output-resource-leak]
 			}
+			outputStream = segmentedOutputStream;
+		} else {
+			outputStream = createCompressingOutputStream(outputStream, file);
 		}
 		TransformerHandler transformerHandler = null;
 		ImportFilterManager importFilterManager = null;
@@ -707,11 +921,15 @@ public class SubsettingEngine {
 
 			transformerHandler.startElement("", "", "changeSet", attrchangeset);
 		} else {
-			if (executionContext.getUTF8()) {
+			if (scriptType == ScriptType.INSERT && executionContext.getImportUrl() != null && ScriptFormat.SQL.equals(executionContext.getScriptFormat())) {
+				importSession = createImportSession(session);
+				result = new PendingStatementsWriter(outputStream, executionContext.getUTF8()? charset : Charset.defaultCharset());
+			} else if (executionContext.getUTF8()) {
 				result = new OutputStreamWriter(outputStream, charset);
 			} else {
 				result = new OutputStreamWriter(outputStream);
 			}
+			resultCharset = executionContext.getUTF8()? charset : Charset.defaultCharset();
 			result.append(commentHeader);
 			for (ScriptEnhancer enhancer: Configuration.getScriptEnhancer()) {
 				enhancer.addComments(result, scriptType, session, targetDBMSConfiguration(session), entityGraph, progress, executionContext);
@@ -744,6 +962,9 @@ public class SubsettingEngine {
 		if (importFilterManager != null && entityGraph.getTransformerFactory() instanceof DMLTransformer.Factory) {
 			((DMLTransformer.Factory) entityGraph.getTransformerFactory()).setImportFilterTransformer(importFilterManager);
 		}
+		if (importFilterManager != null && entityGraph.getTransformerFactory() instanceof BatchInsertTransformer.Factory) {
+			((BatchInsertTransformer.Factory) entityGraph.getTransformerFactory()).setImportFilterTransformer(importFilterManager);
+		}
 
 		Session targetSession = entityGraph.getTargetSession();
 		entityGraph.fillAndWriteMappingTables(jobManager, result, executionContext.getNumberOfEntities(), targetSession, targetDBMSConfiguration(targetSession), session.dbms);
@@ -911,8 +1132,18 @@ public class SubsettingEngine {
 				result.append("--   Total:      " + PrintUtil.formatVitalTime(now - startTimestamp));
 				result.append(PrintUtil.LINE_SEPARATOR);
 			}
+			executePendingStatements(result);
 			result.close();
 		}
+		segmentedOutputStream = null;
+
+		if (importSession != null) {
+			if (entityGraph.getTransformerFactory() instanceof BatchInsertTransformer.Factory) {
+				((BatchInsertTransformer.Factory) entityGraph.getTransformerFactory()).shutDown();
+			}
+			importSession.shutDown();
+			importSession = null;
+		}
 
 		if (transformerHandler != null) {
 			String content = "\n";
@@ -1040,7 +1271,9 @@ public class SubsettingEngine {
 			for (final Table table : dependentTables) {
 				theEntityGraph.markIndependentEntities(table);
 			}
+			executePendingStatements(result);
 			List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
+			List<Table> jobTables = new ArrayList<Table>();
 			for (final Table table : dependentTables) {
 				if (executionContext.getOrderByPK()) {
 					theEntityGraph.readMarkedEntities(table, true);
@@ -1051,12 +1284,13 @@ public class SubsettingEngine {
 							theEntityGraph.readMarkedEntities(table, false);
 						}
 					});
+					jobTables.add(table);
 				}
 			}
 			if (result != null && !jobs.isEmpty()) {
 				appendSync(result);
 			}
-			jobManager.executeJobs(jobs);
+			executeWriteJobs(jobs, jobTables, result);
 			for (final Table table : dependentTables) {
 				theEntityGraph.deleteIndependentEntities(table);
 			}
@@ -1144,16 +1378,7 @@ public class SubsettingEngine {
 	private void writeEntitiesAsXml(String xmlFile, final Set<Table> progress, final Set<Table> subjects, Session session, ScriptFormat scriptFormat) throws IOException, CancellationException, SQLException, SAXException {
 		_log.info("writing file '" + xmlFile + "'...");
 
-		OutputStream outputStream = new FileOutputStream(new File(xmlFile));
-		if (xmlFile.toLowerCase(Locale.ENGLISH).endsWith(".zip")) {
-			outputStream = new ZipOutputStream(outputStream);
-			String zipFileName = new File(xmlFile).getName();
-			((ZipOutputStream)outputStream).putNextEntry(new ZipEntry(zipFileName.substring(0, zipFileName.length() - 4)));
-		} else {
-			if (xmlFile.toLowerCase(Locale.ENGLISH).endsWith(".gz")) {
-				outputStream = new GZIPOutputStream(outputStream);
-			}
-		}
+		OutputStream outputStream = createCompressingOutputStream(new FileOutputStream(new File(xmlFile)), new File(xmlFile));
 
 		// then write entities of tables having cyclic-dependencies
 		_log.info("create hierarchy for: " + asString(progress));
@@ -1333,6 +1558,7 @@ public class SubsettingEngine {
 		while (!independentTables.isEmpty()) {
 			_log.info("independent tables: " + asString(independentTables));
 			List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
+			List<Table> jobTables = new ArrayList<Table>();
 			for (final Table independentTable : independentTables) {
 				if (executionContext.getOrderByPK()
 						|| ScriptFormat.DBUNIT_FLAT_XML.equals(executionContext.getScriptFormat())
@@ -1347,13 +1573,14 @@ public class SubsettingEngine {
 							writeEntities(independentTable, false);
 						}
 					});
+					jobTables.add(independentTable);
 				}
 			}
 			if (!jobs.isEmpty()) {
 				if (result != null) {
-					appendSync(result);
+					appendSync(result, independentTables);
 				}
-				jobManager.executeJobs(jobs);
+				executeWriteJobs(jobs, jobTables, result);
 			}
 			tables.removeAll(independentTables);
 			independentTables = datamodel.getIndependentTables(tables);
@@ -1362,17 +1589,244 @@ public class SubsettingEngine {
 		return tables;
 	}
 
+	/**
+	 * Executes jobs writing the rows of some tables into the script.
+	 * If output is segmented (see {@link ExecutionContext#isSegmentedOutput()}),
+	 * the rows of each table are written into a segment of their own. The segments
+	 * are appended to the script after all jobs are done.
+	 *
+	 * @param jobs the jobs
+	 * @param tables the tables whose rows the jobs write
+	 * @param result writer into the script
+	 */
+	private void executeWriteJobs(List<JobManager.Job> jobs, List<Table> tables, OutputStreamWriter result) throws SQLException, IOException {
+		if (segmentedOutputStream == null || result == null || tables.size() < 2 || entityGraph.getTransformerFactory() == null || entityGraph.getTransformerFactory().getClass() != DMLTransformer.Factory.class) {
+			jobManager.executeJobs(jobs);
+			return;
+		}
+		DMLTransformer.Factory factory = (DMLTransformer.Factory) entityGraph.getTransformerFactory();
+		List<SegmentedOutputStream.Segment> segments = new ArrayList<SegmentedOutputStream.Segment>();
+		List<OutputStreamWriter> segmentWriters = new ArrayList<OutputStreamWriter>();
+		try {
+			for (Table table: tables) {
+				SegmentedOutputStream.Segment segment = segmentedOutputStream.createSegment();
+				OutputStreamWriter segmentWriter = new OutputStreamWriter(segment.getOutputStream(), resultCharset);
+				segments.add(segment);
+				segmentWriters.add(segmentWriter);
+				factory.setSegmentWriter(table, segmentWriter);
+			}
+			jobManager.executeJobs(jobs);
+			result.flush();
+			for (int i = 0; i < segments.size(); ++i) {
+				segmentWriters.get(i).flush();
+				segmentedOutputStream.append(segments.get(i));
+			}
+		} finally {
+			for (Table table: tables) {
+				factory.setSegmentWriter(table, null);
+			}
+			for (SegmentedOutputStream.Segment segment: segments) {
+				segment.delete();
+			}
+		}
+	}
+
 	private AtomicBoolean syncWritten = new AtomicBoolean(false);
 
 	private void appendSync(OutputStreamWriter result) throws IOException {
+		appendSync(result, null);
+	}
+
+	/**
+	 * Number of sections written into the script.
+	 */
+	private int numberOfSections = 0;
+
+	/**
+	 * IDs of the sections written since the last section depending on all preceding ones, by the tables whose rows they contain.
+	 */
+	private final Map<Table, Set<Integer>> sectionsOfTable = new HashMap<Table, Set<Integer>>();
+
+	/**
+	 * Starts a new section of the script, the statements of which can be executed in parallel.
+	 *
+	 * @param tables the tables whose rows are written into the section, <code>null</code> if the section depends on all preceding ones
+	 * @see SqlScriptExecutor#SECTION_COMMENT
+	 */
+	private void appendSync(OutputStreamWriter result, Set<Table> tables) throws IOException {
 		if (executionContext.getScriptFormat() != ScriptFormat.INTRA_DATABASE) {
-			result.append("-- sync" + PrintUtil.LINE_SEPARATOR);
+			StringBuilder sync = new StringBuilder("-- sync" + PrintUtil.LINE_SEPARATOR);
+			synchronized (sectionsOfTable) {
+				int id = ++numberOfSections;
+				if (tables == null) {
+					sectionsOfTable.clear();
+				} else {
+					Set<Integer> dependencies = new TreeSet<Integer>();
+					for (Table table: tables) {
+						addSections(table, dependencies);
+						for (Association association: table.associations) {
+							if (association.isInsertDestinationBeforeSource()) {
+								addSections(association.destination, dependencies);
+							}
+						}
+					}
+					sync.append(SqlScriptExecutor.SECTION_COMMENT + id + " after");
+					for (Integer dependency: dependencies) {
+						sync.append(" " + dependency);
+					}
+					sync.append(PrintUtil.LINE_SEPARATOR);
+					for (Table table: tables) {
+						Set<Integer> sections = sectionsOfTable.get(table);
+						if (sections == null) {
+							sections = new HashSet<Integer>();
+							sectionsOfTable.put(table, sections);
+						}
+						sections.add(id);
+					}
+				}
+			}
+			result.append(sync);
 			if (!syncWritten.getAndSet(true)) {
 				result.append(PrintUtil.LINE_SEPARATOR);
 			}
 		}
 	}
 
+	private void addSections(Table table, Set<Integer> sections) {
+		Set<Integer> sectionsOfTable = this.sectionsOfTable.get(table);
+		if (sectionsOfTable != null) {
+			sections.addAll(sectionsOfTable);
+		}
+	}
+
+	/**
+	 * Writer into the export-script that also records the statements
+	 * to be executed on the database into which the rows are inserted directly
+	 * (see {@link ExecutionContext#getImportUrl()}).
+	 * <br>
+	 * The statements are spooled into a temporary script file, so that the memory usage
+	 * doesn't depend on the size of the script.
+	 */
+	private static class PendingStatementsWriter extends OutputStreamWriter {
+
+		/**
+		 * Script file containing the pending statements, <code>null</code> if there are none.
+		 */
+		private File pendingStatementsFile;
+
+		/**
+		 * Writes into {@link #pendingStatementsFile}.
+		 */
+		private Writer pendingStatements;
+
+		/**
+		 * Whether the pending statements contain only white spaces.
+		 */
+		private boolean isBlank;
+
+		PendingStatementsWriter(OutputStream out, Charset charset) {
+			super(out, charset);
+		}
+
+		@Override
+		public synchronized void write(int c) throws IOException {
+			super.write(c);
+			pendingStatements().write(c);
+			isBlank = isBlank && Character.isWhitespace(c);
+		}
+
+		@Override
+		public synchronized void write(char[] cbuf, int off, int len) throws IOException {
+			super.write(cbuf, off, len);
+			pendingStatements().write(cbuf, off, len);
+			for (int i = off; isBlank && i < off + len; ++i) {
+				isBlank = Character.isWhitespace(cbuf[i]);
+			}
+		}
+
+		@Override
+		public synchronized void write(String str, int off, int len) throws IOException {
+			super.write(str, off, len);
+			pendingStatements().write(str, off, len);
+			for (int i = off; isBlank && i < off + len; ++i) {
+				isBlank = Character.isWhitespace(str.charAt(i));
+			}
+		}
+
+		private Writer pendingStatements() throws IOException {
+			if (pendingStatements == null) {
+				pendingStatementsFile = Configuration.getInstance().createTempFile();
+				pendingStatements = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(pendingStatementsFile), "UTF8"));
+				pendingStatements.write("-- encoding UTF-8" + PrintUtil.LINE_SEPARATOR);
+				isBlank = true;
+			}
+			return pendingStatements;
+		}
+
+		/**
+		 * Removes the pending statements.
+		 *
+		 * @return script file containing the pending statements (to be deleted by the caller), or <code>null</code> if there are none
+		 */
+		synchronized File removePendingStatements() throws IOException {
+			if (pendingStatements == null) {
+				return null;
+			}
+			File file = pendingStatementsFile;
+			boolean wasBlank = isBlank;
+			pendingStatements.close();
+			pendingStatements = null;
+			pendingStatementsFile = null;
+			if (wasBlank) {
+				file.delete();
+				return null;
+			}
+			return file;
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				File file = removePendingStatements();
+				if (file != null) {
+					file.delete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Executes the statements written into the export-script since the last call
+	 * on the database into which the rows are inserted directly (prolog, rows that can't be inserted
+	 * directly, updates of deferred foreign keys etc.).
+	 */
+	private void executePendingStatements(OutputStreamWriter result) throws SQLException, IOException {
+		if (result instanceof PendingStatementsWriter && entityGraph.getTransformerFactory() instanceof BatchInsertTransformer.Factory) {
+			File file = ((PendingStatementsWriter) result).removePendingStatements();
+			if (file != null) {
+				try {
+					((BatchInsertTransformer.Factory) entityGraph.getTransformerFactory()).executeScript(file);
+				} finally {
+					file.delete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the session of the database into which the exported rows are inserted directly.
+	 *
+	 * @param session the session (source)
+	 */
+	private Session createImportSession(Session session) throws SQLException {
+		String driverClassName = executionContext.getImportDriver() != null? executionContext.getImportDriver() : session.driverClassName;
+		BasicDataSource dataSource = new BasicDataSource(driverClassName, executionContext.getImportUrl(), executionContext.getImportUser(), executionContext.getImportPassword(), 0);
+		_log.info("inserting rows into " + executionContext.getImportUrl());
+		return new Session(dataSource, dataSource.dbms, executionContext.getIsolationLevel());
+	}
+
 	/**
 	 * Prevents multiple shutdowns.
 	 */
@@ -1416,7 +1870,7 @@ public class SubsettingEngine {
 	 * Runs script for updating the DB-statistics.
 	 */
 	private synchronized void runstats() {
-		if (entityGraph != null) {
+		if (entityGraph != null && !(entityGraph instanceof MemoryEntityGraph)) {
 			Session session = entityGraph.getSession();
 			if (lastRunstats == 0 || (lastRunstats * 2 <= entityGraph.getTotalRowcount() && entityGraph.getTotalRowcount() > 1000)) {
 				lastRunstats = entityGraph.getTotalRowcount();
@@ -1425,7 +1879,8 @@ public class SubsettingEngine {
 				if (statisticRenovator != null) {
 					_log.info("gather statistics after " + lastRunstats + " inserted rows...");
 					try {
-						statisticRenovator.renew(session, executionContext);
+						List<String> narrowEntityTables = entityGraph instanceof RemoteEntityGraph? ((RemoteEntityGraph) entityGraph).getNarrowEntityTables() : Collections.<String>emptyList();
+						statisticRenovator.renew(session, executionContext, narrowEntityTables);
 					} catch (Throwable t) {
 						_log.warn("unable to update table statistics: " + t.getMessage());
 					}
@@ -1439,6 +1894,12 @@ public class SubsettingEngine {
 	private static ReadWriteLock workingTablesLockGlobal;
 	private static ReadWriteLock workingTablesLockTemp;
 
+	/**
+	 * UPK hashes (see {@link DDLCreator#getUpkHash(DataModel, Session, boolean, boolean)}) of the up-to-date global working tables
+	 * per database (see {@link WorkingTablePartitioning#cacheKey(Session, ExecutionContext)}), multi-tenant mode only.
+	 */
+	private static final Map<String, String> upToDateWorkingTables = new ConcurrentHashMap<String, String>();
+
 	private synchronized static ReadWriteLock getWorkingTablesLock(WorkingTableScope workingTableScope) {
 		if (workingTableScope == WorkingTableScope.GLOBAL) {
 			if (workingTablesLockGlobal == null) {
@@ -1518,6 +1979,35 @@ public class SubsettingEngine {
 				} else {
 					ddlCreator.createDDL(extractionModel.dataModel, session, executionContext.getScope(), executionContext.getWorkingTableSchema());
 				}
+			} else if (executionContext.getScope() == WorkingTableScope.GLOBAL && executionContext.getMultiTenant()) {
+				// the working tables are only checked once per database and data model. The exports share the read lock,
+				// so that the working tables are not re-created (under the write lock) while other exports are running
+				String workingTablesKey = WorkingTablePartitioning.cacheKey(session, executionContext);
+				String upkHash = ddlCreator.getUpkHash(extractionModel.dataModel, session, executionContext.getUseRowid(), executionContext.getUseRowIdsOnlyForTablesWithoutPK());
+				ReadWriteLock workingTablesLock = getWorkingTablesLock(executionContext.getScope());
+				readLock = workingTablesLock.readLock();
+				readLock.lock();
+				if (workingTablesKey == null || !upkHash.equals(upToDateWorkingTables.get(workingTablesKey))) {
+					readLock.unlock();
+					readLock = null;
+					writeLock = workingTablesLock.writeLock();
+					writeLock.lock();
+					if (!ddlCreator.isUptodate(session, executionContext.getUseRowid(), executionContext.getUseRowIdsOnlyForTablesWithoutPK(), executionContext.getWorkingTableSchema())) {
+						ddlCreator.createDDL(extractionModel.dataModel, session, executionContext.getScope(), executionContext.getWorkingTableSchema());
+						WorkingTablePartitioning.invalidate(session, executionContext);
+					}
+					if (workingTablesKey != null) {
+						upToDateWorkingTables.put(workingTablesKey, upkHash);
+					}
+					// Lock downgrading
+					readLock = workingTablesLock.readLock();
+					readLock.lock();
+					writeLock.unlock();
+					writeLock = null;
+				}
+				if (WorkingTablePartitioning.forDBMS(session.dbms) != null && WorkingTablePartitioning.forSession(session, executionContext) == null) {
+					_log.warn("the working tables are not partitioned, run \"create-ddl -multi-tenant\" to partition them");
+				}
 			} else if (executionContext.getScope() == WorkingTableScope.GLOBAL) {
 				ReadWriteLock workingTablesLock = getWorkingTablesLock(executionContext.getScope());
 				if (!ddlCreator.isUptodate(session, executionContext.getUseRowid(), executionContext.getUseRowIdsOnlyForTablesWithoutPK(), executionContext.getWorkingTableSchema())) {
@@ -1544,15 +2034,68 @@ public class SubsettingEngine {
 				}
 			};
 
+			checkpoint = null;
+			boolean resume = false;
+			if (executionContext.getCheckpointFile() != null) {
+				if (executionContext.getScope() != WorkingTableScope.GLOBAL || scriptFile == null || scriptFormat.isObjectNotation() || ScriptFormat.INTRA_DATABASE.equals(scriptFormat)) {
+					_log.warn("checkpoints require global working tables and the SQL, DbUnit or Liquibase format, export can't be resumed");
+				} else {
+					File checkpointFile = new File(executionContext.getCheckpointFile());
+					String checkpointCondition = whereClause != null? whereClause : extractionModel.getCondition();
+					checkpoint = new Checkpoint(checkpointFile, extractionModelURL, checkpointCondition, executionContext.getParameters(), extractionModel.dataModel);
+					resume = checkpoint.read() && executionContext.isResume();
+					if (!resume) {
+						if (executionContext.isResume()) {
+							_log.info("no checkpoint to resume from, starting a new export");
+						}
+						if (checkpoint.graphID >= 0) {
+							// rows kept for an interrupted export
+							_log.info("discarding checkpoint " + checkpointFile.getPath());
+							RowIdSupport rowIdSupport = new RowIdSupport(extractionModel.dataModel, session.dbms, executionContext);
+							RemoteEntityGraph.open(extractionModel.dataModel, checkpoint.graphID, session, rowIdSupport.getUniversalPrimaryKey(session), null, executionContext).delete();
+							if (checkpoint.workingGraphID >= 0) {
+								RemoteEntityGraph.open(extractionModel.dataModel, checkpoint.workingGraphID, session, rowIdSupport.getUniversalPrimaryKey(session), null, executionContext).delete();
+							}
+						}
+						checkpoint.delete();
+						checkpoint = new Checkpoint(checkpointFile, extractionModelURL, checkpointCondition, executionContext.getParameters(), extractionModel.dataModel);
+					}
+				}
+			}
+
 			EntityGraph entityGraph;
+			EntityGraph collectedEntities = null;
+			if (executionContext.getNarrowWorkingTables() && (scriptFormat == ScriptFormat.INTRA_DATABASE || executionContext.getScope() == WorkingTableScope.LOCAL_DATABASE || executionContext.getScope() == WorkingTableScope.MEMORY)) {
+				_log.warn("narrow working tables are not supported for this export, using the universal entity-table");
+			}
 			if (scriptFormat == ScriptFormat.INTRA_DATABASE) {
 				RowIdSupport rowIdSupport = new RowIdSupport(extractionModel.dataModel, session.dbms, executionContext);
 				entityGraph = IntraDatabaseEntityGraph.create(extractionModel.dataModel, EntityGraph.createUniqueGraphID(), session, rowIdSupport.getUniversalPrimaryKey(session), updateStatistics, executionContext);
 			} else if (executionContext.getScope() == WorkingTableScope.LOCAL_DATABASE) {
 				entityGraph = LocalEntityGraph.create(extractionModel.dataModel, EntityGraph.createUniqueGraphID(), session, executionContext);
+			} else if (executionContext.getScope() == WorkingTableScope.MEMORY) {
+				entityGraph = MemoryEntityGraph.create(extractionModel.dataModel, EntityGraph.createUniqueGraphID(), session, executionContext);
 			} else {
 				RowIdSupport rowIdSupport = new RowIdSupport(extractionModel.dataModel, session.dbms, executionContext);
-				entityGraph = RemoteEntityGraph.create(extractionModel.dataModel, EntityGraph.createUniqueGraphID(), session, rowIdSupport.getUniversalPrimaryKey(session), updateStatistics, executionContext);
+				if (resume) {
+					_log.info("resuming export from checkpoint " + executionContext.getCheckpointFile());
+					EntityGraph checkpointGraph = RemoteEntityGraph.open(extractionModel.dataModel, checkpoint.graphID, session, rowIdSupport.getUniversalPrimaryKey(session), updateStatistics, executionContext);
+					if (checkpoint.phase == Checkpoint.Phase.COLLECTED) {
+						if (checkpoint.workingGraphID >= 0) {
+							// working copy of the interrupted export
+							RemoteEntityGraph.open(extractionModel.dataModel, checkpoint.workingGraphID, session, rowIdSupport.getUniversalPrimaryKey(session), null, executionContext).delete();
+						}
+						collectedEntities = checkpointGraph;
+						collectedEntities.setBirthdayOfSubject(checkpoint.birthdayOfSubject);
+						entityGraph = collectedEntities.copy(EntityGraph.createUniqueGraphID(), session);
+						checkpoint.writeWorkingGraph(entityGraph.graphID);
+						entityGraph.getSession().commitAll();
+					} else {
+						entityGraph = checkpointGraph;
+					}
+				} else {
+					entityGraph = RemoteEntityGraph.create(extractionModel.dataModel, EntityGraph.createUniqueGraphID(), session, rowIdSupport.getUniversalPrimaryKey(session), updateStatistics, executionContext);
+				}
 			}
 
 			Charset charset = Charset.defaultCharset();
@@ -1627,14 +2170,45 @@ public class SubsettingEngine {
 				runstats();
 				entityGraph.checkExist(executionContext);
 				initRowLimit(executionContext.getLimit());
+				if (executionContext.isCostBasedResolutionOrder()) {
+					resolutionPlanner = new ResolutionPlanner(entityGraph.getTargetSession(), datamodel.getTables(), collectedRowsCounter);
+					resolutionPlanner.init();
+				}
 				executionContext.getProgressListenerRegistry().fireNewStage("collecting rows", false, false);
 				Set<Table> completedTables = new HashSet<Table>();
-				Set<Table> progress = exportSubjects(extractionModel, completedTables);
-				entityGraph.setBirthdayOfSubject(entityGraph.getAge());
-				progress.addAll(export(extractionModel.subject, subjectCondition, progress, completedTables,
-						ScriptFormat.SQL.equals(scriptFormat) || ScriptFormat.INTRA_DATABASE.equals(scriptFormat)));
-				totalProgress.addAll(progress);
-				subjects.add(extractionModel.subject);
+				boolean withRestDep = ScriptFormat.SQL.equals(scriptFormat) || ScriptFormat.INTRA_DATABASE.equals(scriptFormat);
+				if (collectedEntities != null) {
+					_log.info("all rows have already been collected");
+					collectedRowsCounter.getCollectedRowsCount().putAll(checkpoint.collectedRows);
+					entityGraph.setBirthdayOfSubject(checkpoint.birthdayOfSubject);
+					totalProgress.addAll(checkpoint.totalProgress);
+					subjects.addAll(checkpoint.subjects);
+					appendStatistic(extractionModel.subject, totalProgress, withRestDep);
+				} else {
+					Set<Table> progress;
+					if (resume) {
+						((RemoteEntityGraph) entityGraph).removeEntitiesBornAfter(checkpoint.day);
+						collectedRowsCounter.getCollectedRowsCount().putAll(checkpoint.collectedRows);
+						completedTables.addAll(checkpoint.completedTables);
+						entityGraph.setBirthdayOfSubject(checkpoint.birthdayOfSubject);
+						progress = new HashSet<Table>();
+					} else {
+						progress = exportSubjects(extractionModel, completedTables);
+						int birthdayOfSubject = entityGraph.getAge();
+						entityGraph.setBirthdayOfSubject(birthdayOfSubject);
+						if (checkpoint != null) {
+							checkpoint.birthdayOfSubject = birthdayOfSubject;
+						}
+					}
+					progress.addAll(export(extractionModel.subject, subjectCondition, progress, completedTables, withRestDep, resume));
+					totalProgress.addAll(progress);
+					subjects.add(extractionModel.subject);
+					if (checkpoint != null) {
+						collectedEntities = entityGraph.copy(EntityGraph.createUniqueGraphID(), session);
+						checkpoint.writeCollected(collectedEntities.graphID, entityGraph.graphID, totalProgress, subjects, collectedRowsCounter.getCollectedRowsCount());
+						entityGraph.getSession().commitAll();
+					}
+				}
 				entityGraph.checkExist(executionContext);
 
 				afterCollectionTimestamp = System.currentTimeMillis();
@@ -1646,10 +2220,20 @@ public class SubsettingEngine {
 					exportedEntities = entityGraph.copy(EntityGraph.createUniqueGraphID(), session);
 				}
 
+				DeltaFilter deltaFilter = null;
+				if (scriptFile != null && executionContext.getDeltaFile() != null) {
+					if (!ScriptFormat.SQL.equals(scriptFormat)) {
+						_log.warn("delta export is only supported for format " + ScriptFormat.SQL + ", exporting all rows");
+					} else {
+						deltaFilter = new DeltaFilter(new File(executionContext.getDeltaFile()), executionContext.getDeltaVersionColumn());
+					}
+				}
+
 				if (scriptFile != null) {
 					executionContext.getProgressListenerRegistry().firePrepareExport();
 
 					setEntityGraph(entityGraph);
+					entityGraph.setDeltaFilter(deltaFilter);
 					EntityGraph restrictedDependenciesEntityGraph;
 					Map<Table, List<Association>> restrictedDependenciesForExport;
 					EntityGraph toFinallyDelete = null;
@@ -1677,6 +2261,7 @@ public class SubsettingEngine {
 							});
 						}
 					} finally {
+						entityGraph.setDeltaFilter(null);
 						if (toFinallyDelete != null) {
 							toFinallyDelete.delete();
 						}
@@ -1697,7 +2282,24 @@ public class SubsettingEngine {
 						deleteEntities(subjects, totalProgress, session);
 
 						datamodel.transpose();
-						writeEntities(deleteScriptFileName, ScriptType.DELETE, totalProgress, session, "writing delete-script", null, null,
+						Set<Table> toDeleteByScript = totalProgress;
+						if (executionContext.isDirectDelete()) {
+							if (getEntityGraph() instanceof RemoteEntityGraph && executionContext.getScope() == WorkingTableScope.GLOBAL
+									&& !executionContext.getTransactional() && (restrictedDependenciesForDelete == null || restrictedDependenciesForDelete.isEmpty())) {
+								executionContext.getProgressListenerRegistry().fireNewStage("deleting rows", false, false);
+								toDeleteByScript = new DirectDeleter((RemoteEntityGraph) getEntityGraph(), datamodel, jobManager, executionContext).delete(totalProgress);
+								Set<Table> deleted = new TreeSet<Table>(totalProgress);
+								deleted.removeAll(toDeleteByScript);
+								StringBuilder deletedTables = new StringBuilder();
+								for (Table table: deleted) {
+									deletedTables.append((deletedTables.length() > 0? ", " : "") + table.getUnqualifiedName());
+								}
+								appendCommentHeader("Rows deleted directly from: " + deletedTables);
+							} else {
+								_log.warn("direct deletion requires the working table scope GLOBAL, a non-transactional session and no restricted dependencies. Rows will be deleted by the delete-script.");
+							}
+						}
+						writeEntities(deleteScriptFileName, ScriptType.DELETE, toDeleteByScript, session, "writing delete-script", null, null,
 								() -> {
 									if (restrictedDependenciesForDelete != null) {
 										for (Table table: restrictedDependenciesForDelete.keySet()) {
@@ -1730,7 +2332,15 @@ public class SubsettingEngine {
 					}
 				}
 
+				if (deltaFilter != null) {
+					deltaFilter.writeSnapshot();
+				}
+
 				datamodel.deriveFilters();
+				if (collectedEntities != null) {
+					collectedEntities.delete();
+					checkpoint.delete();
+				}
 				entityGraph.truncate(executionContext, true);
 				entityGraph.delete();
 				entityGraph.getSession().commitAll();
@@ -1740,8 +2350,12 @@ public class SubsettingEngine {
 					_log.info("cleaning up after cancellation...");
 					CancellationHandler.reset(null);
 					entityGraph.getSession().rollbackAll();
-					entityGraph.truncate(executionContext, false);
-					entityGraph.delete();
+					if (isResumable(collectedEntities)) {
+						_log.info("keeping the collected rows, the export can be resumed");
+					} else {
+						entityGraph.truncate(executionContext, false);
+						entityGraph.delete();
+					}
 					if (exportedEntities != null) {
 						if (entityGraph.getSession().scope == WorkingTableScope.GLOBAL) {
 							exportedEntities.delete();
@@ -1767,8 +2381,12 @@ public class SubsettingEngine {
 							// ignore
 						}
 					};
-					tryAndIgnore.accept(() -> entityGraph.truncate(executionContext, false));
-					tryAndIgnore.accept(() -> entityGraph.delete());
+					if (isResumable(collectedEntities)) {
+						_log.info("keeping the collected rows, the export can be resumed");
+					} else {
+						tryAndIgnore.accept(() -> entityGraph.truncate(executionContext, false));
+						tryAndIgnore.accept(() -> entityGraph.delete());
+					}
 					if (exportedEntities != null) {
 						if (entityGraph.getSession().scope == WorkingTableScope.GLOBAL) {
 							EntityGraph finalExportedEntities = exportedEntities;
@@ -1820,6 +2438,15 @@ public class SubsettingEngine {
 		}
 	}
 
+	/**
+	 * Whether the rows of the current entity-graph must be kept so that the export can be resumed.
+	 *
+	 * @param collectedEntities copy of the collected rows, if the collection is complete
+	 */
+	private boolean isResumable(EntityGraph collectedEntities) {
+		return checkpoint != null && collectedEntities == null && checkpoint.phase == Checkpoint.Phase.COLLECTING;
+	}
+
 	@FunctionalInterface
 	private interface RunnableThrowsException {
 		void run() throws Exception;
@@ -19,6 +19,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.NClob;
@@ -48,9 +50,7 @@ import net.sf.jailer.database.Session;
 public class CellContentConverter {
 
 	private final ResultSetMetaData resultSetMetaData;
-	private final Map<Integer, Integer> typeCache = new HashMap<Integer, Integer>();
-	private final Map<Integer, String> typenameCache = new HashMap<Integer, String>();
-	private final Map<Integer, String> typenameWithLengthCache = new HashMap<Integer, String>();
+	private ColumnReader[] columnReaders = new ColumnReader[0];
 	private final Map<String, Integer> columnIndex = new HashMap<String, Integer>();
 	private final Map<Class<?>, Boolean> isPGObjectClass = new HashMap<Class<?>, Boolean>();
 	private final Session session;
@@ -86,6 +86,20 @@ public class CellContentConverter {
 			return "null";
 		}
 
+		// most frequent cases first
+		if (content instanceof String) {
+			boolean[] mustBeParenthesized = new boolean[1];
+			String literal = targetConfiguration.postProcessStringLiteral("'" + targetConfiguration.convertToStringLiteral((String) content, mustBeParenthesized) + "'", (String) content, null);
+			if (mustBeParenthesized[0]) {
+				return "(" + literal + ")";
+			} else {
+				return literal;
+			}
+		}
+		if (content instanceof Integer || content instanceof Long || content instanceof BigDecimal || content instanceof Short || content instanceof BigInteger) {
+			return content.toString();
+		}
+
 		if (content instanceof Double || content instanceof Float) {
 			double d = ((Number) content).doubleValue();
 			if (Double.isNaN(d)) {
@@ -144,15 +158,6 @@ public class CellContentConverter {
 			}
 			return literal;
 		}
-		if (content instanceof String) {
-			boolean[] mustBeParenthesized = new boolean[1];
-			String literal = targetConfiguration.postProcessStringLiteral("'" + targetConfiguration.convertToStringLiteral((String) content, mustBeParenthesized) + "'", (String) content, null);
-			if (mustBeParenthesized[0]) {
-				return "(" + literal + ")";
-			} else {
-				return literal;
-			}
-		}
 		if (content instanceof PObjectWrapper) {
 			if (((PObjectWrapper) content).getValue() == null) {
 				return "null";
@@ -432,201 +437,317 @@ public class CellContentConverter {
 	 * @return object
 	 */
 	public Object getObject(ResultSet resultSet, int i) throws SQLException {
-		Integer type = typeCache.get(i);
-		String columnTypeName = typenameCache.get(i);
-		String columnTypeNameWithLength = typenameWithLengthCache.get(i);
-		if (type == null) {
+		return columnReader(i).read(resultSet, i);
+	}
+
+	/**
+	 * Gets the reader for a column. Readers are compiled on first access.
+	 *
+	 * @param i column index
+	 * @return the reader
+	 */
+	private ColumnReader columnReader(int i) {
+		if (i >= columnReaders.length) {
+			int columnCount = 0;
 			try {
-				type = resultSetMetaData.getColumnType(i);
-				columnTypeName = resultSetMetaData.getColumnTypeName(i);
-				int columnDisplaySize = resultSetMetaData.getColumnDisplaySize(i);
-				columnTypeNameWithLength = resultSetMetaData.getColumnTypeName(i) + "(" + (columnDisplaySize == Integer.MAX_VALUE? "max" : Integer.toString(columnDisplaySize)) + ")";
-				if (configuration.getTimestampWithNanoTypeName() != null && configuration.getTimestampWithNanoTypeName().equalsIgnoreCase(columnTypeName)) {
-					type = TIMESTAMP_WITH_NANO;
-				}
-				if (DBMS.ORACLE.equals(configuration)) {
-					if (type == Types.DATE || type == -102 || type == -101 /* TIMESTAMPTZ */) {
-						type = Types.TIMESTAMP;
-					}
-				 }
-				if (DBMS.POSTGRESQL.equals(configuration)) {
-					String typeName = columnTypeName;
-					if (isPostgresObjectType(typeName) || type == Types.ARRAY) {
-						type = TYPE_POBJECT;
-					}
-				 }
-				 // workaround for JDTS bug
-				 if (type == Types.VARCHAR) {
-					 if ("nvarchar".equalsIgnoreCase(columnTypeName)) {
-						 type = Types.NVARCHAR;
-					 }
+				if (resultSetMetaData != null) {
+					columnCount = resultSetMetaData.getColumnCount();
+				}
+			} catch (Exception e) {
+				// ignore
+			}
+			columnReaders = Arrays.copyOf(columnReaders, Math.max(i, columnCount) + 1);
+		}
+		ColumnReader columnReader = columnReaders[i];
+		if (columnReader == null) {
+			columnReader = compileColumnReader(i);
+			columnReaders[i] = columnReader;
+		}
+		return columnReader;
+	}
+
+	/**
+	 * Analyzes the meta data of a column once and creates a reader for it.
+	 *
+	 * @param i column index
+	 * @return the reader
+	 */
+	private ColumnReader compileColumnReader(int i) {
+		int type;
+		String columnTypeName = null;
+		String columnTypeNameWithLength = null;
+		try {
+			type = resultSetMetaData.getColumnType(i);
+			columnTypeName = resultSetMetaData.getColumnTypeName(i);
+			int columnDisplaySize = resultSetMetaData.getColumnDisplaySize(i);
+			columnTypeNameWithLength = resultSetMetaData.getColumnTypeName(i) + "(" + (columnDisplaySize == Integer.MAX_VALUE? "max" : Integer.toString(columnDisplaySize)) + ")";
+			if (configuration.getTimestampWithNanoTypeName() != null && configuration.getTimestampWithNanoTypeName().equalsIgnoreCase(columnTypeName)) {
+				type = TIMESTAMP_WITH_NANO;
+			}
+			if (DBMS.ORACLE.equals(configuration)) {
+				if (type == Types.DATE || type == -102 || type == -101 /* TIMESTAMPTZ */) {
+					type = Types.TIMESTAMP;
+				}
+			 }
+			if (DBMS.POSTGRESQL.equals(configuration)) {
+				String typeName = columnTypeName;
+				if (isPostgresObjectType(typeName) || type == Types.ARRAY) {
+					type = TYPE_POBJECT;
+				}
+			 }
+			 // workaround for JDTS bug
+			 if (type == Types.VARCHAR) {
+				 if ("nvarchar".equalsIgnoreCase(columnTypeName)) {
+					 type = Types.NVARCHAR;
 				 }
-				 // workaround for JDTS bug
-				 if (DBMS.MSSQL.equals(configuration)) {
-					 if ("datetimeoffset".equalsIgnoreCase(columnTypeName)) {
-						 type = Types.TIMESTAMP;
-					 }
+			 }
+			 // workaround for JDTS bug
+			 if (DBMS.MSSQL.equals(configuration)) {
+				 if ("datetimeoffset".equalsIgnoreCase(columnTypeName)) {
+					 type = Types.TIMESTAMP;
 				 }
-				 if (type == Types.CHAR) {
-					 if ("nchar".equalsIgnoreCase(columnTypeName)) {
-						 type = Types.NCHAR;
-					 }
+			 }
+			 if (type == Types.CHAR) {
+				 if ("nchar".equalsIgnoreCase(columnTypeName)) {
+					 type = Types.NCHAR;
 				 }
-				 if (type == Types.OTHER) {
-					 if ("rowid".equalsIgnoreCase(columnTypeName)) {
-						 type = Types.ROWID;
-					 }
+			 }
+			 if (type == Types.OTHER) {
+				 if ("rowid".equalsIgnoreCase(columnTypeName)) {
+					 type = Types.ROWID;
 				 }
-			} catch (Exception e) {
-				type = Types.OTHER;
-			}
-			typeCache.put(i, type);
-			typenameCache.put(i, columnTypeName);
-			typenameWithLengthCache.put(i, columnTypeNameWithLength);
+			 }
+		} catch (Exception e) {
+			type = Types.OTHER;
 		}
+
+		int lobType = Types.NULL;
 		try {
-			if (type == Types.ROWID) {
-				return resultSet.getString(i);
-			}
-			if (type == Types.ARRAY) {
-				return resultSet.getString(i);
+			if (configuration.isClobType(columnTypeNameWithLength)) {
+				lobType = Types.CLOB;
+			} else if (configuration.isNClobType(columnTypeNameWithLength)) {
+				lobType = Types.NCLOB;
+			} else if (configuration.isBlobType(columnTypeNameWithLength)) {
+				lobType = Types.BLOB;
 			}
-			if (type == Types.TIMESTAMP || type == 2014 /* Types.TIMESTAMP_WITH_TIMEZONE */) {
-				Timestamp ts = resultSet.getTimestamp(i);
-				if (ts == null) {
-					return ts;
+		} catch (Exception e) {
+			lobType = Types.NULL;
+		}
+
+		String expressionRule = null;
+		String expressionTypeName = columnTypeName;
+		boolean useDefaultExpressionRule = false;
+		boolean isUnboundedVarchar = false;
+		boolean hasExpressionRule = configuration != null && configuration.equals(targetConfiguration)
+				&& !configuration.getSqlExpressionRule().isEmpty() && columnTypeName != null;
+		if (hasExpressionRule) {
+			expressionRule = configuration.getSqlExpressionRule().get(columnTypeName.toLowerCase());
+			if (expressionRule == null && DBMS.POSTGRESQL.equals(configuration) && DBMS.POSTGRESQL.equals(targetConfiguration)) {
+				useDefaultExpressionRule = true;
+				if (!columnTypeName.startsWith("\"") && !columnTypeName.endsWith("\"")) {
+					expressionTypeName = "\"" + columnTypeName + "\"";
 				}
-				long time = ts.getTime();
-				if (time != SqlUtil.PG_NEGATIVE_INFINITY && time != SqlUtil.PG_NEGATIVE_SMALLER_INFINITY && time != SqlUtil.PG_POSITIVE_INFINITY && time != SqlUtil.PG_POSITIVE_SMALLER_INFINITY) {
-					return ts;
+				if (type == Types.VARCHAR && !"text".equals(expressionTypeName)) {
+					try {
+						isUnboundedVarchar = resultSetMetaData.getColumnDisplaySize(i) == Integer.MAX_VALUE;
+					} catch (SQLException e) {
+						isUnboundedVarchar = false;
+					}
 				}
 			}
-			if (type == Types.DATE) {
-				if (DBMS.MySQL.equals(configuration)) {
-					// YEAR
-					String typeName = resultSetMetaData.getColumnTypeName(i);
-					if (typeName != null && typeName.toUpperCase(Locale.ENGLISH).equals("YEAR")) {
+		}
+
+		ColumnReader columnReader = new ColumnReader(type, columnTypeName, columnTypeNameWithLength, lobType, hasExpressionRule, expressionRule, expressionTypeName, useDefaultExpressionRule, isUnboundedVarchar);
+		if (lobType == Types.NULL && !columnReader.isMoney && !hasExpressionRule && SIMPLE_TYPES.contains(type)) {
+			columnReader = new SimpleColumnReader(columnReader);
+		}
+		return columnReader;
+	}
+
+	/**
+	 * Types of columns that are read by a {@link SimpleColumnReader}.
+	 */
+	private static final Set<Integer> SIMPLE_TYPES = new HashSet<Integer>(Arrays.asList(
+			Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.DECIMAL, Types.NUMERIC,
+			Types.REAL, Types.FLOAT, Types.DOUBLE, Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR));
+
+	/**
+	 * Reads the content of a column. Everything that depends only on the column's meta data is analyzed in advance.
+	 */
+	private class ColumnReader {
+		final int type;
+		final String columnTypeName;
+		final String columnTypeNameWithLength;
+		final int lobType;
+		final boolean isYear;
+		final boolean isMoney;
+		final boolean isBit;
+		final boolean hasExpressionRule;
+		final String expressionRule;
+		final String expressionTypeName;
+		final boolean useDefaultExpressionRule;
+		final boolean isUnboundedVarchar;
+
+		ColumnReader(int type, String columnTypeName, String columnTypeNameWithLength, int lobType, boolean hasExpressionRule,
+				String expressionRule, String expressionTypeName, boolean useDefaultExpressionRule, boolean isUnboundedVarchar) {
+			this.type = type;
+			this.columnTypeName = columnTypeName;
+			this.columnTypeNameWithLength = columnTypeNameWithLength;
+			this.lobType = lobType;
+			this.isYear = DBMS.MySQL.equals(configuration) && columnTypeName != null && columnTypeName.toUpperCase(Locale.ENGLISH).equals("YEAR");
+			this.isMoney = DBMS.POSTGRESQL.equals(configuration) && "money".equals(columnTypeName);
+			this.isBit = DBMS.POSTGRESQL.equals(configuration) && columnTypeName != null && columnTypeName.toLowerCase(Locale.ENGLISH).equals("bit");
+			this.hasExpressionRule = hasExpressionRule;
+			this.expressionRule = expressionRule;
+			this.expressionTypeName = expressionTypeName;
+			this.useDefaultExpressionRule = useDefaultExpressionRule;
+			this.isUnboundedVarchar = isUnboundedVarchar;
+		}
+
+		ColumnReader(ColumnReader other) {
+			this(other.type, other.columnTypeName, other.columnTypeNameWithLength, other.lobType, other.hasExpressionRule,
+					other.expressionRule, other.expressionTypeName, other.useDefaultExpressionRule, other.isUnboundedVarchar);
+		}
+
+		Object read(ResultSet resultSet, int i) throws SQLException {
+			try {
+				if (type == Types.ROWID) {
+					return resultSet.getString(i);
+				}
+				if (type == Types.ARRAY) {
+					return resultSet.getString(i);
+				}
+				if (type == Types.TIMESTAMP || type == 2014 /* Types.TIMESTAMP_WITH_TIMEZONE */) {
+					Timestamp ts = resultSet.getTimestamp(i);
+					if (ts == null) {
+						return ts;
+					}
+					long time = ts.getTime();
+					if (time != SqlUtil.PG_NEGATIVE_INFINITY && time != SqlUtil.PG_NEGATIVE_SMALLER_INFINITY && time != SqlUtil.PG_POSITIVE_INFINITY && time != SqlUtil.PG_POSITIVE_SMALLER_INFINITY) {
+						return ts;
+					}
+				}
+				if (type == Types.DATE) {
+					if (isYear) {
 						int result = resultSet.getInt(i);
 						if (resultSet.wasNull()) {
 							return null;
 						}
 						return result;
 					}
+					Date date = resultSet.getDate(i);
+					if (date == null) {
+						return date;
+					}
+					long time = date.getTime();
+					if (time != SqlUtil.PG_NEGATIVE_INFINITY && time != SqlUtil.PG_NEGATIVE_SMALLER_INFINITY && time != SqlUtil.PG_POSITIVE_INFINITY && time != SqlUtil.PG_POSITIVE_SMALLER_INFINITY) {
+						return date;
+					}
 				}
-				Date date = resultSet.getDate(i);
-				if (date == null) {
-					return date;
-				}
-				long time = date.getTime();
-				if (time != SqlUtil.PG_NEGATIVE_INFINITY && time != SqlUtil.PG_NEGATIVE_SMALLER_INFINITY && time != SqlUtil.PG_POSITIVE_INFINITY && time != SqlUtil.PG_POSITIVE_SMALLER_INFINITY) {
-					return date;
-				}
+			} catch (SQLException e) {
+				return resultSet.getString(i);
 			}
-		} catch (SQLException e) {
-			return resultSet.getString(i);
-		}
 
-		Object object = null;
-		try {
-			if (configuration.isClobType(columnTypeNameWithLength)) {
-				object = resultSet.getClob(i);
-			} else if (configuration.isNClobType(columnTypeNameWithLength)) {
-				object = resultSet.getNClob(i);
-			} else if (configuration.isBlobType(columnTypeNameWithLength)) {
-				object = resultSet.getBlob(i);
+			Object object = null;
+			if (lobType != Types.NULL) {
+				try {
+					if (lobType == Types.CLOB) {
+						object = resultSet.getClob(i);
+					} else if (lobType == Types.NCLOB) {
+						object = resultSet.getNClob(i);
+					} else {
+						object = resultSet.getBlob(i);
+					}
+				} catch (Exception e) {
+					object = null;
+				}
 			}
-		} catch (Exception e) {
-			object = null;
-		}
 
-		if (object == null) {
-			if (DBMS.POSTGRESQL.equals(configuration) && "money".equals(columnTypeName)) {
-				// workaround for https://github.com/pgjdbc/pgjdbc/issues/100
-				object = resultSet.getString(i);
-			} else {
-				object = resultSet.getObject(i);
+			if (object == null) {
+				if (isMoney) {
+					// workaround for https://github.com/pgjdbc/pgjdbc/issues/100
+					object = resultSet.getString(i);
+				} else {
+					object = resultSet.getObject(i);
+				}
 			}
+			return convert(resultSet, i, object);
 		}
 
-		if (object instanceof Double || object instanceof Float) {
-			double d = ((Number) object).doubleValue();
-			if (Double.isNaN(d)) {
-				object = new PObjectWrapper("NaN", resultSetMetaData.getColumnTypeName(i));
-			} else if (Double.isInfinite(d)) {
-				if (d < 0) {
-					object = new PObjectWrapper("-Infinity", resultSetMetaData.getColumnTypeName(i));
-				} else {
-					object = new PObjectWrapper("Infinity", resultSetMetaData.getColumnTypeName(i));
+		/**
+		 * Converts an object read from the result-set.
+		 */
+		Object convert(ResultSet resultSet, int i, Object object) throws SQLException {
+			if (object instanceof Double || object instanceof Float) {
+				double d = ((Number) object).doubleValue();
+				if (Double.isNaN(d)) {
+					object = new PObjectWrapper("NaN", columnTypeName);
+				} else if (Double.isInfinite(d)) {
+					if (d < 0) {
+						object = new PObjectWrapper("-Infinity", columnTypeName);
+					} else {
+						object = new PObjectWrapper("Infinity", columnTypeName);
+					}
+				}
+				if (!DBMS.POSTGRESQL.equals(targetConfiguration) && object instanceof PObjectWrapper) {
+					object = ((PObjectWrapper) object).getValue();
 				}
+				return object;
 			}
-			if (!DBMS.POSTGRESQL.equals(targetConfiguration) && object instanceof PObjectWrapper) {
-				object = ((PObjectWrapper) object).getValue();
+
+			if (DBMS.POSTGRESQL.equals(targetConfiguration) && (object instanceof Timestamp || object instanceof Date)) {
+				final long time = object instanceof Date? ((Date) object).getTime() : ((Timestamp) object).getTime();
+		        if (time == SqlUtil.PG_NEGATIVE_INFINITY || time == SqlUtil.PG_NEGATIVE_SMALLER_INFINITY) {
+					return new PObjectWrapper("-Infinity", columnTypeName);
+		        }
+		        if (time == SqlUtil.PG_POSITIVE_INFINITY || time == SqlUtil.PG_POSITIVE_SMALLER_INFINITY) {
+					return new PObjectWrapper("Infinity", columnTypeName);
+		        }
 			}
-			return object;
-		}
-		
-		if (DBMS.POSTGRESQL.equals(targetConfiguration) && (object instanceof Timestamp || object instanceof Date)) {
-			final long time = object instanceof Date? ((Date) object).getTime() : ((Timestamp) object).getTime();
-	        if (time == SqlUtil.PG_NEGATIVE_INFINITY || time == SqlUtil.PG_NEGATIVE_SMALLER_INFINITY) {
-				return new PObjectWrapper("-Infinity", resultSetMetaData.getColumnTypeName(i));
-	        }
-	        if (time == SqlUtil.PG_POSITIVE_INFINITY || time == SqlUtil.PG_POSITIVE_SMALLER_INFINITY) {
-				return new PObjectWrapper("Infinity", resultSetMetaData.getColumnTypeName(i));
-	        }
-		}
 
-		if (type == TIMESTAMP_WITH_NANO && object instanceof Timestamp) {
-			long t = ((Timestamp) object).getTime();
-			int nano = ((Timestamp) object).getNanos();
-			Timestamp ts = new TimestampWithNano(t);
-			ts.setNanos(nano);
-			object = ts;
-		}
+			if (type == TIMESTAMP_WITH_NANO && object instanceof Timestamp) {
+				long t = ((Timestamp) object).getTime();
+				int nano = ((Timestamp) object).getNanos();
+				Timestamp ts = new TimestampWithNano(t);
+				ts.setNanos(nano);
+				object = ts;
+			}
 
-		if (type == Types.NCHAR || type == Types.NVARCHAR || type == Types.LONGNVARCHAR) {
-			if (object instanceof String) {
-				object = new NCharWrapper((String) object);
+			if (type == Types.NCHAR || type == Types.NVARCHAR || type == Types.LONGNVARCHAR) {
+				if (object instanceof String) {
+					object = new NCharWrapper((String) object);
+				}
 			}
-		}
-		if (DBMS.POSTGRESQL.equals(configuration)) {
-			if (type == TYPE_POBJECT) {
-				return new PObjectWrapper(resultSet.getString(i), resultSetMetaData.getColumnTypeName(i));
-			} else if (object instanceof Boolean) {
-				String typeName = resultSetMetaData.getColumnTypeName(i);
-				if (typeName != null && typeName.toLowerCase(Locale.ENGLISH).equals("bit")) {
-					final String value = Boolean.TRUE.equals(object)? "B'1'" : "B'0'";
-					return new Object() {
-						@Override
-						public String toString() {
-							return value;
-						}
-					};
+			if (DBMS.POSTGRESQL.equals(configuration)) {
+				if (type == TYPE_POBJECT) {
+					return new PObjectWrapper(resultSet.getString(i), columnTypeName);
+				} else if (object instanceof Boolean) {
+					if (isBit) {
+						final String value = Boolean.TRUE.equals(object)? "B'1'" : "B'0'";
+						return new Object() {
+							@Override
+							public String toString() {
+								return value;
+							}
+						};
+					}
 				}
 			}
-		}
 
-		if (configuration != null && configuration.equals(targetConfiguration)) {
-			if (!configuration.getSqlExpressionRule().isEmpty() && columnTypeName != null && object != null) {
-				String expr = configuration.getSqlExpressionRule().get(columnTypeName.toLowerCase());
-				if (expr != null) {
-					return new SQLExpressionWrapper(object, columnTypeName, expr);
+			if (hasExpressionRule && object != null) {
+				if (expressionRule != null) {
+					return new SQLExpressionWrapper(object, columnTypeName, expressionRule);
 				}
-				if (DBMS.POSTGRESQL.equals(configuration) && DBMS.POSTGRESQL.equals(targetConfiguration)) {
-					expr = "'$1'::$2";
-					if (!columnTypeName.startsWith("\"") && !columnTypeName.endsWith("\"")) {
-						columnTypeName = "\"" + columnTypeName + "\"";
-					}
+				if (useDefaultExpressionRule) {
+					String expr = "'$1'::$2";
 					if ((type == TYPE_POBJECT || type == Types.ARRAY || object instanceof String)) {
 						if (type == Types.VARCHAR) {
-							if (!"text".equals(columnTypeName)) {
-								int columnDisplaySize = resultSetMetaData.getColumnDisplaySize(i);
-								if (columnDisplaySize == Integer.MAX_VALUE) {
-									return new SQLExpressionWrapper(object, columnTypeName, expr);
-								}
+							if (isUnboundedVarchar) {
+								return new SQLExpressionWrapper(object, expressionTypeName, expr);
 							}
 						} else {
-							return new SQLExpressionWrapper(object, columnTypeName, expr);
-						} 
+							return new SQLExpressionWrapper(object, expressionTypeName, expr);
+						}
 					} else {
 						Boolean isPGObject = isPGObjectClass.get(object.getClass());
 						if (isPGObject == null) {
@@ -634,14 +755,33 @@ public class CellContentConverter {
 							isPGObjectClass.put(object.getClass(), isPGObject);
 						}
 						if (isPGObject) {
-							return new SQLExpressionWrapper(object, columnTypeName, expr);
+							return new SQLExpressionWrapper(object, expressionTypeName, expr);
 						}
 					}
 				}
 			}
+
+			return object;
+		}
+	}
+
+	/**
+	 * Reads numbers and strings. Returns them without any conversion.
+	 */
+	private class SimpleColumnReader extends ColumnReader {
+
+		SimpleColumnReader(ColumnReader columnReader) {
+			super(columnReader);
+		}
+
+		@Override
+		Object read(ResultSet resultSet, int i) throws SQLException {
+			Object object = resultSet.getObject(i);
+			if (object == null || object instanceof String || (object instanceof Number && !(object instanceof Double || object instanceof Float))) {
+				return object;
+			}
+			return convert(resultSet, i, object);
 		}
-		
-		return object;
 	}
 
 	public static boolean isPostgresObjectType(String columnTypeName) {
@@ -690,16 +830,7 @@ public class CellContentConverter {
 	 */
 	public String getSmallLob(ResultSet resultSet, int i) {
 		try {
-			String columnTypeNameWithLength = typenameWithLengthCache.get(i);
-			if (columnTypeNameWithLength == null) {
-				try {
-					int columnDisplaySize = resultSetMetaData.getColumnDisplaySize(i);
-					columnTypeNameWithLength = resultSetMetaData.getColumnTypeName(i) + "(" + (columnDisplaySize == Integer.MAX_VALUE? "max" : Integer.toString(columnDisplaySize)) + ")";
-				} catch (Exception e) {
-					// ignore
-				}
-				typenameWithLengthCache.put(i, columnTypeNameWithLength);
-			}
+			String columnTypeNameWithLength = columnReader(i).columnTypeNameWithLength;
 			Object object = null;
 			try {
 				if (configuration.isClobType(columnTypeNameWithLength)) {
@@ -27,6 +27,7 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 
 import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.AssociationGraph;
 import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.Table;
 
@@ -287,6 +288,10 @@ public class CycleFinder {
 	 * @return subset of <code>tables</code> involved in a cycle
 	 */
 	private static Set<Table> getCycle(Collection<Table> tables, Set<Pair<Table, Table>> tabu) {
+		AssociationGraph graph = getAssociationGraph(tables);
+		if (graph != null) {
+			return graph.toTables(graph.cycle(graph.toBitSet(tables, false), tabu), new TreeSet<Table>());
+		}
 		Set<Table> cycle = new TreeSet<Table>(tables);
 		for (;;) {
 			Set<Table> notInCycle = new TreeSet<Table>();
@@ -320,6 +325,31 @@ public class CycleFinder {
 		return cycle;
 	}
 
+	/**
+	 * Gets the adjacency structure of the data model the tables belong to.
+	 *
+	 * @param tables the tables
+	 * @return the adjacency structure or <code>null</code> if not all tables are part of it
+	 */
+	private static AssociationGraph getAssociationGraph(Collection<Table> tables) {
+		AssociationGraph graph = null;
+		for (Table table: tables) {
+			if (!table.associations.isEmpty()) {
+				DataModel dataModel = table.associations.get(0).getDataModel();
+				graph = dataModel == null? null : dataModel.getAssociationGraph();
+				break;
+			}
+		}
+		if (graph != null) {
+			for (Table table: tables) {
+				if (!graph.contains(table)) {
+					return null;
+				}
+			}
+		}
+		return graph;
+	}
+
 	@SuppressWarnings("serial")
 	public static class CycleFoundException extends RuntimeException {
 
@@ -120,7 +120,7 @@ public abstract class JobManager {
 		runnersList = new ArrayList<JobRunner>(threads);
 	}
 	
-	private void ensureThreadCapacity(int capacity) {
+	private synchronized void ensureThreadCapacity(int capacity) {
 		if (threads > 1) {
 			while (runnersList.size() < Math.min(capacity, threads)) {
 				JobRunner jobRunner = new JobRunner();
@@ -144,12 +144,18 @@ public abstract class JobManager {
 		ensureThreadCapacity(jobCount);
 		_log.info("starting " + jobCount + " jobs");
 		if (runnersList.isEmpty()) {
-			for (Job job: jobs) {
-				job.run();
+			setJobs(new LinkedList<Job>(jobs));
+			try {
+				for (Job job = nextJob(); job != null; job = nextJob()) {
+					job.run();
+				}
+				jobCount = getJobCount();
+			} finally {
+				setJobs(null);
 			}
 		} else {
 			setJobs(new LinkedList<Job>(jobs));
-			while (getJobsDoneCounter() < jobCount || getJobsInExecutionCounter() > 0) {
+			while (getJobsDoneCounter() < getJobCount() || getJobsInExecutionCounter() > 0) {
 				try {
 					Thread.sleep(100);
 				} catch (InterruptedException e1) {
@@ -177,9 +183,32 @@ public abstract class JobManager {
 					throw new RuntimeException(e);
 				}
 			}
+			jobCount = getJobCount();
 		}
 		_log.info("executed " + jobCount + " jobs");
 	}
+
+	/**
+	 * Enqueues a follow-up job while {@link #executeJobs(Collection)} is running.
+	 * {@link #executeJobs(Collection)} doesn't return before the follow-up job is executed.
+	 * Must only be called by a job of the current job-list.
+	 *
+	 * @param job the job
+	 * @return <code>false</code> if the job-list has been discarded due to an error
+	 */
+	public boolean enqueueJob(Job job) {
+		int capacity;
+		synchronized (this) {
+			if (jobs == null) {
+				return false;
+			}
+			jobs.add(job);
+			++jobCount;
+			capacity = jobs.size() + jobsInExecutionCounter;
+		}
+		ensureThreadCapacity(capacity);
+		return true;
+	}
 	
 	/**
 	 * Shuts the manager down.
@@ -197,6 +226,11 @@ public abstract class JobManager {
 	 */
 	private int jobsDoneCounter;
 	
+	/**
+	 * Number of jobs to be executed, including follow-up jobs.
+	 */
+	private int jobCount;
+
 	/**
 	 * Number of jobs waiting for primary cause.
 	 */
@@ -222,6 +256,7 @@ public abstract class JobManager {
 	 * Resets the job-counter to 0.
 	 */
 	private synchronized void setJobs(List<Job> jobs) {
+		jobCount = jobs == null? 0 : jobs.size();
 		jobsDoneCounter = 0;
 		jobsWaitingForPrimaryCauseCounter = 0;
 		jobsInExecutionCounter = 0;
@@ -236,6 +271,13 @@ public abstract class JobManager {
 		return jobsDoneCounter;
 	}
 
+	/**
+	 * Gets the Number of jobs to be executed.
+	 */
+	private synchronized int getJobCount() {
+		return jobCount;
+	}
+
 	/**
 	 * Gets the Number of jobs waiting for primary cause.
 	 */
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses data with multiple threads into a single deflate-stream (the way "pigz" does).
+ * <br>
+ * The data is split into blocks that are compressed independently. Each block is compressed
+ * with the last 32K of the preceding block as dictionary and is terminated by a sync-flush,
+ * so that the compressed blocks can simply be concatenated.
+ * Subclasses write the header and trailer of the container format.
+ *
+ * @author Ralf Wisser
+ */
+public abstract class ParallelDeflaterOutputStream extends OutputStream {
+
+	/**
+	 * Default size of the blocks.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+	/**
+	 * Size of the deflate window.
+	 */
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+
+	/**
+	 * An empty final block of fixed Huffman codes.
+	 */
+	private static final byte[] FINAL_BLOCK = new byte[] { 3, 0 };
+
+	protected final OutputStream out;
+	private final int blockSize;
+	private final int maxPendingBlocks;
+	private final ExecutorService executorService;
+	private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<Future<byte[]>>();
+	private final CRC32 crc = new CRC32();
+
+	private byte[] block;
+	private int blockLength = 0;
+	private byte[] previousBlock = null;
+	private int previousBlockLength = 0;
+	private boolean headerWritten = false;
+	private boolean closed = false;
+
+	/**
+	 * Number of uncompressed bytes.
+	 */
+	private long totalIn = 0;
+
+	/**
+	 * Number of compressed bytes.
+	 */
+	private long totalOut = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param out the underlying stream
+	 * @param numberOfThreads number of compressing threads
+	 * @param blockSize size of the blocks
+	 */
+	protected ParallelDeflaterOutputStream(OutputStream out, int numberOfThreads, int blockSize) {
+		this.out = out;
+		this.blockSize = Math.max(blockSize, 1024);
+		this.block = new byte[this.blockSize];
+		numberOfThreads = Math.max(numberOfThreads, 1);
+		this.maxPendingBlocks = 2 * numberOfThreads;
+		this.executorService = Executors.newFixedThreadPool(numberOfThreads, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "compressor");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Writes the header of the container format.
+	 */
+	protected abstract void writeHeader() throws IOException;
+
+	/**
+	 * Writes the trailer of the container format.
+	 *
+	 * @param crc CRC-32 of the uncompressed data
+	 * @param totalIn number of uncompressed bytes
+	 * @param totalOut number of compressed bytes
+	 */
+	protected abstract void writeTrailer(long crc, long totalIn, long totalOut) throws IOException;
+
+	@Override
+	public void write(int b) throws IOException {
+		if (blockLength == blockSize) {
+			submitBlock();
+		}
+		block[blockLength++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (blockLength == blockSize) {
+				submitBlock();
+			}
+			int n = Math.min(len, blockSize - blockLength);
+			System.arraycopy(b, off, block, blockLength, n);
+			blockLength += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Passes the current block to the compressing threads.
+	 */
+	private void submitBlock() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		if (blockLength == 0) {
+			return;
+		}
+		crc.update(block, 0, blockLength);
+		totalIn += blockLength;
+		final byte[] data = block;
+		final int length = blockLength;
+		final byte[] dictionary = previousBlock;
+		final int dictionaryLength = previousBlockLength;
+		pendingBlocks.add(executorService.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				return deflate(data, length, dictionary, dictionaryLength);
+			}
+		}));
+		previousBlock = data;
+		previousBlockLength = length;
+		block = new byte[blockSize];
+		blockLength = 0;
+		while (pendingBlocks.size() >= maxPendingBlocks) {
+			writeNextBlock();
+		}
+	}
+
+	/**
+	 * Waits for the oldest pending block and writes it.
+	 */
+	private void writeNextBlock() throws IOException {
+		if (!headerWritten) {
+			headerWritten = true;
+			writeHeader();
+		}
+		byte[] compressed;
+		try {
+			compressed = pendingBlocks.removeFirst().get();
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause);
+		}
+		out.write(compressed);
+		totalOut += compressed.length;
+	}
+
+	/**
+	 * Compresses a block.
+	 */
+	private static byte[] deflate(byte[] data, int length, byte[] dictionary, int dictionaryLength) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			if (dictionary != null) {
+				int n = Math.min(dictionaryLength, DICTIONARY_SIZE);
+				deflater.setDictionary(dictionary, dictionaryLength - n, n);
+			}
+			deflater.setInput(data, 0, length);
+			byte[] buffer = new byte[length / 2 + 1024];
+			int size = 0;
+			for (;;) {
+				int n = deflater.deflate(buffer, size, buffer.length - size, Deflater.SYNC_FLUSH);
+				size += n;
+				if (size < buffer.length) {
+					break;
+				}
+				buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+			}
+			return Arrays.copyOf(buffer, size);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Writes all pending blocks and the trailer and closes the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			submitBlock();
+			closed = true;
+			while (!pendingBlocks.isEmpty()) {
+				writeNextBlock();
+			}
+			if (!headerWritten) {
+				headerWritten = true;
+				writeHeader();
+			}
+			out.write(FINAL_BLOCK);
+			totalOut += FINAL_BLOCK.length;
+			writeTrailer(crc.getValue(), totalIn, totalOut);
+		} finally {
+			closed = true;
+			executorService.shutdownNow();
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes a little-endian 16-bit value.
+	 */
+	protected void writeShort(int v) throws IOException {
+		out.write(v & 0xff);
+		out.write((v >>> 8) & 0xff);
+	}
+
+	/**
+	 * Writes a little-endian 32-bit value.
+	 */
+	protected void writeInt(long v) throws IOException {
+		writeShort((int) (v & 0xffff));
+		writeShort((int) ((v >>> 16) & 0xffff));
+	}
+
+	/**
+	 * Writes a little-endian 64-bit value.
+	 */
+	protected void writeLong(long v) throws IOException {
+		writeInt(v & 0xffffffffL);
+		writeInt(v >>> 32);
+	}
+
+}
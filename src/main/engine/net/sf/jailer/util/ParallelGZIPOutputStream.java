@@ -0,0 +1,56 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a gzip-file, compressing with multiple threads.
+ *
+ * @see ParallelDeflaterOutputStream
+ * @author Ralf Wisser
+ */
+public class ParallelGZIPOutputStream extends ParallelDeflaterOutputStream {
+
+	/**
+	 * Header without modification time and file name (the same one as that of {@link java.util.zip.GZIPOutputStream}).
+	 */
+	private static final byte[] HEADER = new byte[] { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0 };
+
+	/**
+	 * Constructor.
+	 *
+	 * @param out the underlying stream
+	 * @param numberOfThreads number of compressing threads
+	 * @param blockSize size of the blocks
+	 */
+	public ParallelGZIPOutputStream(OutputStream out, int numberOfThreads, int blockSize) {
+		super(out, numberOfThreads, blockSize);
+	}
+
+	@Override
+	protected void writeHeader() throws IOException {
+		out.write(HEADER);
+	}
+
+	@Override
+	protected void writeTrailer(long crc, long totalIn, long totalOut) throws IOException {
+		writeInt(crc);
+		writeInt(totalIn & 0xffffffffL);
+	}
+
+}
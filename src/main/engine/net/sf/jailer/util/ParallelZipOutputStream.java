@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Calendar;
+
+/**
+ * Writes a zip-file with a single entry, compressing with multiple threads.
+ * Sizes and offsets beyond 4 GB are written in Zip64 format (the same way {@link java.util.zip.ZipOutputStream} does).
+ *
+ * @see ParallelDeflaterOutputStream
+ * @author Ralf Wisser
+ */
+public class ParallelZipOutputStream extends ParallelDeflaterOutputStream {
+
+	private static final long ZIP64_MAGICVAL = 0xFFFFFFFFL;
+	private static final int FLAGS = 0x0808; // data descriptor, UTF-8 name
+	private static final int DEFLATED = 8;
+
+	private final byte[] entryName;
+	private final int dosTime;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param out the underlying stream
+	 * @param entryName name of the entry
+	 * @param numberOfThreads number of compressing threads
+	 * @param blockSize size of the blocks
+	 */
+	public ParallelZipOutputStream(OutputStream out, String entryName, int numberOfThreads, int blockSize) {
+		super(out, numberOfThreads, blockSize);
+		this.entryName = entryName.getBytes(Charset.forName("UTF-8"));
+		this.dosTime = dosTime(Calendar.getInstance());
+	}
+
+	@Override
+	protected void writeHeader() throws IOException {
+		writeInt(0x04034b50L);
+		writeShort(20);
+		writeShort(FLAGS);
+		writeShort(DEFLATED);
+		writeInt(dosTime);
+		writeInt(0);
+		writeInt(0);
+		writeInt(0);
+		writeShort(entryName.length);
+		writeShort(0);
+		out.write(entryName);
+	}
+
+	@Override
+	protected void writeTrailer(long crc, long totalIn, long totalOut) throws IOException {
+		boolean zip64 = totalIn >= ZIP64_MAGICVAL || totalOut >= ZIP64_MAGICVAL;
+
+		// data descriptor
+		writeInt(0x08074b50L);
+		writeInt(crc);
+		if (zip64) {
+			writeLong(totalOut);
+			writeLong(totalIn);
+		} else {
+			writeInt(totalOut);
+			writeInt(totalIn);
+		}
+		long centralDirectoryOffset = 30 + entryName.length + totalOut + (zip64? 24 : 16);
+
+		// central directory
+		writeInt(0x02014b50L);
+		writeShort(zip64? 45 : 20);
+		writeShort(zip64? 45 : 20);
+		writeShort(FLAGS);
+		writeShort(DEFLATED);
+		writeInt(dosTime);
+		writeInt(crc);
+		writeInt(zip64? ZIP64_MAGICVAL : totalOut);
+		writeInt(zip64? ZIP64_MAGICVAL : totalIn);
+		writeShort(entryName.length);
+		writeShort(zip64? 20 : 0);
+		writeShort(0);
+		writeShort(0);
+		writeShort(0);
+		writeInt(0);
+		writeInt(0);
+		out.write(entryName);
+		if (zip64) {
+			writeShort(0x0001);
+			writeShort(16);
+			writeLong(totalIn);
+			writeLong(totalOut);
+		}
+		long centralDirectorySize = 46 + entryName.length + (zip64? 20 : 0);
+
+		// end of central directory
+		if (centralDirectoryOffset >= ZIP64_MAGICVAL) {
+			long zip64EndOffset = centralDirectoryOffset + centralDirectorySize;
+			writeInt(0x06064b50L);
+			writeLong(44);
+			writeShort(45);
+			writeShort(45);
+			writeInt(0);
+			writeInt(0);
+			writeLong(1);
+			writeLong(1);
+			writeLong(centralDirectorySize);
+			writeLong(centralDirectoryOffset);
+			writeInt(0x07064b50L);
+			writeInt(0);
+			writeLong(zip64EndOffset);
+			writeInt(1);
+		}
+		writeInt(0x06054b50L);
+		writeShort(0);
+		writeShort(0);
+		writeShort(1);
+		writeShort(1);
+		writeInt(centralDirectorySize);
+		writeInt(Math.min(centralDirectoryOffset, ZIP64_MAGICVAL));
+		writeShort(0);
+	}
+
+	/**
+	 * Converts a time into MS-DOS format.
+	 */
+	private static int dosTime(Calendar time) {
+		int year = time.get(Calendar.YEAR);
+		if (year < 1980) {
+			return (1 << 21) | (1 << 16);
+		}
+		return (year - 1980) << 25 | (time.get(Calendar.MONTH) + 1) << 21 | time.get(Calendar.DAY_OF_MONTH) << 16
+				| time.get(Calendar.HOUR_OF_DAY) << 11 | time.get(Calendar.MINUTE) << 5 | time.get(Calendar.SECOND) >> 1;
+	}
+
+}
@@ -177,7 +177,8 @@ public class PrintUtil {
 				int index = 1;
 				if (listArguments != null) {
 					for (String var : listArguments.get(woPre.substring(0, i))) {
-						cContent += content.replaceAll("\\$i", "" + (index++)).replaceAll("\\$",
+						// '$' followed by a letter is part of an identifier (such as "RDB$INDICES")
+						cContent += content.replaceAll("\\$i", "" + (index++)).replaceAll("\\$(?![A-Za-z_])",
 								Matcher.quoteReplacement(var));
 					}
 				}
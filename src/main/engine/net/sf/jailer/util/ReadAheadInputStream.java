@@ -0,0 +1,171 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads an input stream ahead in a thread of its own.
+ * Used to decompress a script while it is being executed.
+ *
+ * @author Ralf Wisser
+ */
+public class ReadAheadInputStream extends InputStream {
+
+	/**
+	 * Size of the chunks read ahead.
+	 */
+	private static final int CHUNK_SIZE = 1024 * 1024;
+
+	/**
+	 * Marks the end of the stream.
+	 */
+	private static final byte[] EOF = new byte[0];
+
+	private final InputStream in;
+	private final BlockingQueue<byte[]> chunks;
+	private final Thread reader;
+	private volatile IOException exception;
+	private volatile boolean closed = false;
+
+	private byte[] chunk;
+	private int chunkLength;
+	private int pos;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param in the stream to read ahead
+	 * @param maxChunks maximum number of chunks read ahead
+	 */
+	public ReadAheadInputStream(final InputStream in, int maxChunks) {
+		this.in = in;
+		this.chunks = new ArrayBlockingQueue<byte[]>(Math.max(maxChunks, 1) + 1);
+		this.reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					for (;;) {
+						byte[] buffer = new byte[CHUNK_SIZE];
+						int length = 0;
+						int n;
+						while (length < buffer.length && (n = in.read(buffer, length, buffer.length - length)) >= 0) {
+							length += n;
+						}
+						if (length > 0) {
+							if (length < buffer.length) {
+								byte[] shortBuffer = new byte[length];
+								System.arraycopy(buffer, 0, shortBuffer, 0, length);
+								buffer = shortBuffer;
+							}
+							if (!put(buffer)) {
+								return;
+							}
+						}
+						if (length < CHUNK_SIZE) {
+							break;
+						}
+					}
+				} catch (IOException e) {
+					exception = e;
+				} catch (InterruptedException e) {
+					return;
+				}
+				try {
+					put(EOF);
+				} catch (InterruptedException e) {
+					// ignore
+				}
+			}
+		}, "read-ahead");
+		this.reader.setDaemon(true);
+		this.reader.start();
+	}
+
+	private boolean put(byte[] buffer) throws InterruptedException {
+		while (!closed) {
+			if (chunks.offer(buffer, 100, TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Makes the next chunk current.
+	 *
+	 * @return <code>false</code> if end of stream is reached
+	 */
+	private boolean nextChunk() throws IOException {
+		if (chunk == EOF) {
+			return false;
+		}
+		try {
+			chunk = chunks.take();
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException();
+		}
+		if (chunk == EOF) {
+			if (exception != null) {
+				throw exception;
+			}
+			return false;
+		}
+		chunkLength = chunk.length;
+		pos = 0;
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (chunk == null || pos >= chunkLength) {
+			if (!nextChunk()) {
+				return -1;
+			}
+		}
+		return chunk[pos++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (chunk == null || pos >= chunkLength) {
+			if (!nextChunk()) {
+				return -1;
+			}
+		}
+		int n = Math.min(len, chunkLength - pos);
+		System.arraycopy(chunk, pos, b, off, n);
+		pos += n;
+		return n;
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		reader.interrupt();
+		chunks.clear();
+		in.close();
+	}
+
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Locale;
+
+/**
+ * Reads the lines of a SQL-script into a {@link ByteBuffer} and scans them
+ * on the raw bytes. Only what is actually needed as a string (statements and comments) is decoded.
+ * <br>
+ * Lines are separated and trimmed the same way as by {@link java.io.BufferedReader#readLine()} and {@link String#trim()}.
+ * After the last line, a single line ";" is read (which terminates an unfinished statement).
+ * Scripts in an encoding that is not ASCII-compatible are transcoded to UTF-8 on the fly.
+ *
+ * @author Ralf Wisser
+ */
+public class ScriptLineReader implements Closeable {
+
+	/**
+	 * Default size of the buffer.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * Maximum size of the buffer. Limits the length of a line.
+	 */
+	public static final int MAX_BUFFER_SIZE = 512 * 1024 * 1024;
+
+	/**
+	 * Maximum number of bytes read at once.
+	 */
+	private static final int READ_CHUNK_SIZE = 64 * 1024;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final ReadableByteChannel channel;
+	private final Charset encoding;
+	private ByteBuffer buffer;
+
+	/**
+	 * Number of valid bytes in buffer.
+	 */
+	private int limit = 0;
+
+	/**
+	 * Start of the next line in buffer.
+	 */
+	private int pos = 0;
+
+	/**
+	 * Number of bytes discarded from buffer.
+	 */
+	private long discarded = 0;
+
+	private boolean eof = false;
+	private boolean eofLineRead = false;
+	private boolean skipLF = false;
+
+	/**
+	 * The current line.
+	 */
+	private ByteBuffer lineBuffer;
+	private int rawStart, rawEnd;
+	private int start, end;
+
+	/**
+	 * The statement assembled so far.
+	 */
+	private byte[] statement = new byte[1024];
+	private int statementLength = 0;
+
+	private byte[] decodeBuffer = new byte[1024];
+
+	/**
+	 * Constructor.
+	 *
+	 * @param in the script
+	 * @param encoding the script's encoding
+	 */
+	public ScriptLineReader(InputStream in, Charset encoding) {
+		this(Channels.newChannel(in), encoding, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param channel the script
+	 * @param encoding the script's encoding
+	 * @param bufferSize initial size of the buffer
+	 */
+	public ScriptLineReader(ReadableByteChannel channel, Charset encoding, int bufferSize) {
+		if (isASCIICompatible(encoding)) {
+			this.channel = channel;
+			this.encoding = encoding;
+		} else {
+			this.channel = new TranscodingChannel(Channels.newReader(channel, encoding.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE), -1));
+			this.encoding = UTF8;
+		}
+		this.buffer = ByteBuffer.allocate(bufferSize);
+	}
+
+	/**
+	 * Checks if line-breaks, white-spaces, '-' and ';' can be detected on the raw bytes of a given encoding.
+	 */
+	private static boolean isASCIICompatible(Charset encoding) {
+		String name = encoding.name().toUpperCase(Locale.ENGLISH);
+		return name.equals("UTF-8") || name.equals("US-ASCII") || name.startsWith("ISO-8859-") || name.startsWith("WINDOWS-125");
+	}
+
+	/**
+	 * Reads the next line. The previous line (and the result of {@link #getLine()}) becomes invalid.
+	 *
+	 * @return <code>false</code> if there is no more line
+	 */
+	public boolean nextLine() throws IOException {
+		if (skipLF) {
+			if (pos < limit || fill()) {
+				if (buffer.get(pos) == '\n') {
+					++pos;
+				}
+			}
+			skipLF = false;
+		}
+		int i = pos;
+		for (;;) {
+			while (i < limit) {
+				byte b = buffer.get(i);
+				if (b == '\n' || b == '\r') {
+					setLine(buffer, pos, i);
+					pos = i + 1;
+					skipLF = b == '\r';
+					return true;
+				}
+				++i;
+			}
+			int scanned = i - pos;
+			if (!fill()) {
+				break;
+			}
+			i = pos + scanned;
+		}
+		if (pos < limit) {
+			setLine(buffer, pos, limit);
+			pos = limit;
+			return true;
+		}
+		if (!eofLineRead) {
+			eofLineRead = true;
+			setLine(ByteBuffer.wrap(new byte[] { ';' }), 0, 1);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the next line.
+	 *
+	 * @return the untrimmed line or <code>null</code> if there is no more line
+	 */
+	public String readLine() throws IOException {
+		if (nextLine()) {
+			return decode(rawStart, rawEnd);
+		}
+		return null;
+	}
+
+	private void setLine(ByteBuffer lineBuffer, int from, int to) {
+		this.lineBuffer = lineBuffer;
+		rawStart = from;
+		rawEnd = to;
+		while (from < to && (lineBuffer.get(from) & 0xff) <= ' ') {
+			++from;
+		}
+		while (from < to && (lineBuffer.get(to - 1) & 0xff) <= ' ') {
+			--to;
+		}
+		start = from;
+		end = to;
+	}
+
+	/**
+	 * Moves the rest of the buffer to the front and reads in the next bytes.
+	 *
+	 * @return <code>true</code> if some bytes have been read
+	 */
+	private boolean fill() throws IOException {
+		if (eof) {
+			return false;
+		}
+		if (pos > 0) {
+			buffer.limit(limit);
+			buffer.position(pos);
+			buffer.compact();
+			discarded += pos;
+			limit -= pos;
+			pos = 0;
+		} else if (limit == buffer.capacity()) {
+			if (buffer.capacity() >= MAX_BUFFER_SIZE) {
+				throw new IOException("line is longer than " + MAX_BUFFER_SIZE + " bytes");
+			}
+			ByteBuffer newBuffer = ByteBuffer.allocate((int) Math.min(MAX_BUFFER_SIZE, 2L * buffer.capacity()));
+			buffer.clear();
+			newBuffer.put(buffer);
+			buffer = newBuffer;
+		} else {
+			buffer.limit(buffer.capacity());
+			buffer.position(limit);
+		}
+		int read = 0;
+		int capacity = buffer.capacity();
+		while (buffer.position() < capacity) {
+			// read in chunks, channels copy into a temporary direct buffer of the requested size
+			buffer.limit(Math.min(capacity, buffer.position() + READ_CHUNK_SIZE));
+			int n = channel.read(buffer);
+			if (n < 0) {
+				eof = true;
+				break;
+			}
+			read += n;
+		}
+		limit = buffer.position();
+		return read > 0;
+	}
+
+	/**
+	 * Gets the number of bytes read in so far (transcoded bytes, if the encoding is not ASCII-compatible).
+	 */
+	public long getPosition() {
+		return discarded + pos;
+	}
+
+	/**
+	 * Is the trimmed current line empty?
+	 */
+	public boolean isEmpty() {
+		return start == end;
+	}
+
+	/**
+	 * Checks if the trimmed current line starts with a given (ASCII) prefix.
+	 */
+	public boolean startsWith(String prefix) {
+		int l = prefix.length();
+		if (end - start < l) {
+			return false;
+		}
+		for (int i = 0; i < l; ++i) {
+			if (lineBuffer.get(start + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the trimmed current line ends with a given (ASCII) character.
+	 */
+	public boolean endsWith(char c) {
+		return end > start && lineBuffer.get(end - 1) == c;
+	}
+
+	/**
+	 * Removes the first characters of the current line and trims it again.
+	 *
+	 * @param n number of (ASCII) characters to remove
+	 */
+	public void skip(int n) {
+		start = Math.min(start + n, end);
+		while (start < end && (lineBuffer.get(start) & 0xff) <= ' ') {
+			++start;
+		}
+	}
+
+	/**
+	 * Gets the trimmed current line.
+	 */
+	public String getLine() {
+		return decode(start, end);
+	}
+
+	/**
+	 * Appends the trimmed current line to the statement.
+	 *
+	 * @param last if <code>true</code>, the last character of the line will be omitted, else a line-break will be appended
+	 */
+	public void appendToStatement(boolean last) {
+		int l = end - start;
+		ensureStatementCapacity(statementLength + l + 1);
+		lineBuffer.position(start);
+		lineBuffer.get(statement, statementLength, l);
+		if (last) {
+			statementLength += l - 1;
+		} else {
+			statementLength += l;
+			statement[statementLength++] = '\n';
+		}
+	}
+
+	/**
+	 * Gets the length (in bytes) of the statement assembled so far.
+	 */
+	public int getStatementLength() {
+		return statementLength;
+	}
+
+	/**
+	 * Decodes the statement assembled so far and starts a new one.
+	 */
+	public String takeStatement() {
+		String result = new String(statement, 0, statementLength, encoding);
+		statementLength = 0;
+		return result;
+	}
+
+	private void ensureStatementCapacity(int capacity) {
+		if (statement.length < capacity) {
+			byte[] newStatement = new byte[Math.max(capacity, 2 * statement.length)];
+			System.arraycopy(statement, 0, newStatement, 0, statementLength);
+			statement = newStatement;
+		}
+	}
+
+	private String decode(int from, int to) {
+		int l = to - from;
+		if (decodeBuffer.length < l) {
+			decodeBuffer = new byte[Math.max(l, 2 * decodeBuffer.length)];
+		}
+		lineBuffer.position(from);
+		lineBuffer.get(decodeBuffer, 0, l);
+		return new String(decodeBuffer, 0, l, encoding);
+	}
+
+	/**
+	 * Closes the script.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Encodes the characters of a reader in UTF-8.
+	 */
+	private static class TranscodingChannel implements ReadableByteChannel {
+		private final Reader reader;
+		private final CharsetEncoder encoder = UTF8.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		private final CharBuffer chars = CharBuffer.allocate(64 * 1024);
+		private final ByteBuffer bytes = ByteBuffer.allocate(3 * 64 * 1024);
+		private boolean eof = false;
+		private boolean flushed = false;
+		private boolean open = true;
+
+		TranscodingChannel(Reader reader) {
+			this.reader = reader;
+			bytes.flip();
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			while (!bytes.hasRemaining()) {
+				if (flushed) {
+					return -1;
+				}
+				bytes.clear();
+				if (reader.read(chars) < 0) {
+					eof = true;
+				}
+				chars.flip();
+				encoder.encode(chars, bytes, eof);
+				chars.compact();
+				if (eof) {
+					encoder.flush(bytes);
+					flushed = true;
+				}
+				bytes.flip();
+			}
+			int n = Math.min(dst.remaining(), bytes.remaining());
+			ByteBuffer slice = bytes.duplicate();
+			slice.limit(slice.position() + n);
+			dst.put(slice);
+			bytes.position(bytes.position() + n);
+			return n;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return open;
+		}
+
+		@Override
+		public void close() throws IOException {
+			open = false;
+			reader.close();
+		}
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import net.sf.jailer.configuration.Configuration;
+
+/**
+ * Output stream into which segments can be written concurrently.
+ * Each segment is written into a temporary file and is appended as a whole
+ * (see {@link #append(Segment)}).
+ * <br>
+ * If the stream is gzip-compressed, the segments are compressed by the threads writing them,
+ * each into a gzip member of its own. A sequence of gzip members is a valid gzip file
+ * containing the concatenation of the members' contents.
+ *
+ * @author Ralf Wisser
+ */
+public class SegmentedOutputStream extends OutputStream {
+
+	private final OutputStream out;
+	private final boolean gzip;
+
+	/**
+	 * Stream into which is written, either {@link #out} or a gzip member.
+	 */
+	private OutputStream current;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param out the underlying stream
+	 * @param gzip if <code>true</code>, everything is gzip-compressed
+	 */
+	public SegmentedOutputStream(OutputStream out, boolean gzip) throws IOException {
+		this.out = out;
+		this.gzip = gzip;
+		this.current = gzip? new GZIPOutputStream(out) : out;
+	}
+
+	/**
+	 * A segment.
+	 */
+	public class Segment {
+		private final File file;
+		private final OutputStream outputStream;
+		private boolean closed = false;
+
+		private Segment() throws IOException {
+			file = Configuration.getInstance().createTempFile();
+			OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(file), 64 * 1024);
+			outputStream = gzip? new GZIPOutputStream(fileOut, 64 * 1024) : fileOut;
+		}
+
+		/**
+		 * Gets the stream to write the segment's content into.
+		 * It is closed by {@link SegmentedOutputStream#append(Segment)}.
+		 */
+		public OutputStream getOutputStream() {
+			return outputStream;
+		}
+
+		/**
+		 * Deletes the temporary file.
+		 */
+		public void delete() {
+			try {
+				close();
+			} catch (IOException e) {
+				// ignore
+			}
+			file.delete();
+		}
+
+		private void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				outputStream.close();
+			}
+		}
+	}
+
+	/**
+	 * Creates a new segment.
+	 *
+	 * @return the segment
+	 */
+	public Segment createSegment() throws IOException {
+		return new Segment();
+	}
+
+	/**
+	 * Closes a segment and appends it to the stream. The segment is deleted afterwards.
+	 *
+	 * @param segment the segment
+	 */
+	public synchronized void append(Segment segment) throws IOException {
+		try {
+			segment.close();
+			if (gzip) {
+				((GZIPOutputStream) current).finish();
+			}
+			current.flush();
+			byte[] buffer = new byte[64 * 1024];
+			InputStream in = new FileInputStream(segment.file);
+			try {
+				int n;
+				while ((n = in.read(buffer)) > 0) {
+					out.write(buffer, 0, n);
+				}
+			} finally {
+				in.close();
+			}
+			if (gzip) {
+				current = new GZIPOutputStream(out);
+			}
+		} finally {
+			segment.delete();
+		}
+	}
+
+	@Override
+	public synchronized void write(int b) throws IOException {
+		current.write(b);
+	}
+
+	@Override
+	public synchronized void write(byte[] b, int off, int len) throws IOException {
+		current.write(b, off, len);
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		current.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		current.close();
+	}
+
+}
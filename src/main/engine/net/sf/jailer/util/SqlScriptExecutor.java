@@ -15,20 +15,22 @@
  */
 package net.sf.jailer.util;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
@@ -37,6 +39,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
@@ -64,6 +67,35 @@ public class SqlScriptExecutor {
 	 * Comment prefix for last line of a multi-line comment.
 	 */
 	public static final String FINISHED_MULTILINE_COMMENT = "--.";
+
+	/**
+	 * Comment prefix for the line following a "sync" comment that identifies the section of statements following it
+	 * and the sections it depends on: <code>-- section &lt;id&gt; after &lt;id&gt; ...</code>
+	 * <br>
+	 * Statements of such a section may be executed as soon as the sections it depends on are executed.
+	 * A "sync" comment not followed by a section comment starts a section that depends on all preceding ones.
+	 */
+	public static final String SECTION_COMMENT = "-- section ";
+
+	/**
+	 * Maximum number of statements executed as one JDBC batch.
+	 */
+	private static final int MAX_BATCH_SIZE = 32;
+
+	/**
+	 * Maximum total length of the statements executed as one JDBC batch.
+	 */
+	private static final int MAX_BATCH_LENGTH = 4 * 1024 * 1024;
+
+	/**
+	 * Maximum number of chunks of a compressed script decompressed ahead.
+	 */
+	private static final int READ_AHEAD_CHUNKS = 8;
+
+	/**
+	 * Head of statements that can be executed as JDBC batch. Group 2 is the table name.
+	 */
+	private static final Pattern BATCHABLE_STATEMENT = Pattern.compile("^\\s*(insert\\s+into|merge\\s+into|update|delete\\s+from)\\s+([^\\s\\(]+)", Pattern.CASE_INSENSITIVE);
 	
 	/**
 	 * The logger.
@@ -190,6 +222,161 @@ public class SqlScriptExecutor {
 	
 	private long submittedTasks;
 	private AtomicLong executedTasks;
+
+	/**
+	 * Section of the script, statements of which are executed in parallel.
+	 */
+	private static class Section {
+		private final List<Section> dependencies;
+		private int pendingTasks = 0;
+		private boolean closed = false;
+
+		Section(List<Section> dependencies) {
+			this.dependencies = dependencies;
+		}
+
+		synchronized void taskSubmitted() {
+			++pendingTasks;
+		}
+
+		synchronized void taskFinished() {
+			--pendingTasks;
+			notifyAll();
+		}
+
+		synchronized void close() {
+			closed = true;
+			notifyAll();
+		}
+
+		synchronized void awaitCompletion() throws InterruptedException {
+			while (!closed || pendingTasks > 0) {
+				wait();
+			}
+		}
+
+		void awaitDependencies() {
+			try {
+				for (Section dependency: dependencies) {
+					dependency.awaitCompletion();
+				}
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	/**
+	 * The current section.
+	 */
+	private Section section;
+
+	/**
+	 * The last section that depends on all preceding ones.
+	 */
+	private Section barrierSection;
+
+	/**
+	 * Sections started after the barrier section, by ID.
+	 */
+	private final Map<Integer, Section> sections = new HashMap<Integer, Section>();
+
+	/**
+	 * Starts a new section.
+	 *
+	 * @param id the ID of the section, <code>null</code> if unknown
+	 * @param dependencies IDs of the sections the new section depends on, <code>null</code> if it depends on all preceding sections
+	 */
+	private void startSection(Integer id, List<Integer> dependencies) {
+		closeSection();
+		List<Section> sectionDependencies = new ArrayList<Section>();
+		if (dependencies == null) {
+			sync();
+			sections.clear();
+		} else {
+			if (barrierSection != null) {
+				sectionDependencies.add(barrierSection);
+			}
+			for (Integer dependency: dependencies) {
+				Section dependencySection = sections.get(dependency);
+				if (dependencySection != null) {
+					sectionDependencies.add(dependencySection);
+				}
+			}
+		}
+		section = new Section(sectionDependencies);
+		if (dependencies == null) {
+			barrierSection = section;
+		}
+		if (id != null) {
+			sections.put(id, section);
+		}
+	}
+
+	/**
+	 * Starts a new section.
+	 *
+	 * @param sectionComment the section comment (without prefix)
+	 */
+	private void startSection(String sectionComment) {
+		String[] ids = sectionComment.trim().split("\\s+");
+		try {
+			Integer id = Integer.valueOf(ids[0]);
+			List<Integer> dependencies = new ArrayList<Integer>();
+			for (int i = 2; i < ids.length; ++i) {
+				dependencies.add(Integer.valueOf(ids[i]));
+			}
+			startSection(id, dependencies);
+		} catch (NumberFormatException e) {
+			startSection(null, null);
+		}
+	}
+
+	private void closeSection() {
+		if (section != null) {
+			section.close();
+			section = null;
+		}
+	}
+
+	/**
+	 * Consecutive statements of a section into the same table that are executed as one JDBC batch.
+	 */
+	private abstract class StatementBatch {
+		private final List<String> statements = new ArrayList<String>();
+		private final List<Integer> lineNumbers = new ArrayList<Integer>();
+		private String key;
+		private int length;
+
+		void add(String statement, String key, int lineNumber) {
+			if (!key.equals(this.key) || statements.size() >= MAX_BATCH_SIZE || length >= MAX_BATCH_LENGTH) {
+				flush();
+			}
+			this.key = key;
+			statements.add(statement);
+			lineNumbers.add(lineNumber);
+			length += statement.length();
+		}
+
+		void flush() {
+			if (!statements.isEmpty()) {
+				final List<String> batchStatements = new ArrayList<String>(statements);
+				final List<Integer> batchLineNumbers = new ArrayList<Integer>(lineNumbers);
+				statements.clear();
+				lineNumbers.clear();
+				key = null;
+				length = 0;
+				SqlScriptExecutor.this.execute(new Runnable() {
+					@Override
+					public void run() {
+						execute(batchStatements, batchLineNumbers);
+					}
+				}, true);
+			}
+		}
+
+		protected abstract void execute(List<String> statements, List<Integer> lineNumbers);
+	}
 	
 	/**
 	 * Reads in and executes a SQL-script.
@@ -200,45 +387,47 @@ public class SqlScriptExecutor {
 	 */
 	public Pair<Integer, Long> executeScript(String scriptFileName) throws IOException, SQLException {
 		_log.info("reading file '" + scriptFileName + "'");
-		BufferedReader bufferedReader;
 		long fileSize = 0;
 		final long[] bytesRead = new long[1];
 		Charset encoding = SqlUtil.retrieveEncoding(scriptFileName);
 		
 		File file = new File(scriptFileName);
-		InputStream inputStream = new FileInputStream(file);
-		inputStream = new FilterInputStream(inputStream) { // lgtm [java/input-resource-leak]
-			@Override
-			public int read() throws IOException {
-				int result = in.read();
-				if (result != -1) {
-					bytesRead[0]++;
+		bytesRead[0] = 0;
+		fileSize = file.length();
+		final ScriptLineReader lineReader;
+		final boolean compressed = scriptFileName.toLowerCase(Locale.ENGLISH).endsWith(".gz") || scriptFileName.toLowerCase(Locale.ENGLISH).endsWith(".zip");
+		if (compressed) {
+			InputStream inputStream = new FileInputStream(file);
+			inputStream = new FilterInputStream(inputStream) { // lgtm [java/input-resource-leak]
+				@Override
+				public int read() throws IOException {
+					int result = in.read();
+					if (result != -1) {
+						bytesRead[0]++;
+					}
+					return result;
 				}
-				return result;
-			}
-			@Override
-			public int read(byte[] b, int off, int len) throws IOException {
-				int result = in.read(b, off, len);
-				if (result != -1) {
-					bytesRead[0] += result;
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException {
+					int result = in.read(b, off, len);
+					if (result != -1) {
+						bytesRead[0] += result;
+					}
+					return result;
 				}
-				return result;
+			};
+			// decompress in a thread of its own
+			if (scriptFileName.toLowerCase(Locale.ENGLISH).endsWith(".gz")) {
+				lineReader = new ScriptLineReader(new ReadAheadInputStream(new GZIPInputStream(inputStream, 64 * 1024), READ_AHEAD_CHUNKS), encoding);
+			} else {
+				ZipInputStream zis = new ZipInputStream(inputStream); // lgtm [java/input-resource-leak]
+				zis.getNextEntry();
+				lineReader = new ScriptLineReader(new ReadAheadInputStream(zis, READ_AHEAD_CHUNKS), encoding);
 			}
-		};
-		bytesRead[0] = 0;
-		fileSize = file.length();
-		if (scriptFileName.toLowerCase(Locale.ENGLISH).endsWith(".gz")) {
-			bufferedReader = new BufferedReader(new InputStreamReader(new GZIPInputStream(inputStream), encoding));
-		} else if (scriptFileName.toLowerCase(Locale.ENGLISH).endsWith(".zip")){
-			ZipInputStream zis = new ZipInputStream(inputStream); // lgtm [java/input-resource-leak]
-			zis.getNextEntry();
-			bufferedReader = new BufferedReader(new InputStreamReader(zis, encoding));
 		} else {
-			bufferedReader = new BufferedReader(new InputStreamReader(inputStream, encoding));
+			lineReader = new ScriptLineReader(new FileInputStream(file).getChannel(), encoding, ScriptLineReader.DEFAULT_BUFFER_SIZE); // lgtm [java/input-resource-leak]
 		}
 		
-		String line = null;
-		StringBuffer currentStatement = new StringBuffer();
 		final AtomicLong linesRead = new AtomicLong(0);
 		final AtomicLong totalRowCount = new AtomicLong(0);
 		final AtomicLong t = new AtomicLong(System.currentTimeMillis());
@@ -246,7 +435,7 @@ public class SqlScriptExecutor {
 		submittedTasks = 0;
 		executedTasks = new AtomicLong(0);
 		final long finalFileSize = fileSize;
-		LineReader lineReader = new LineReader(bufferedReader);
+		final long startTime = System.currentTimeMillis();
 		boolean inSync = false;
 		synchronized (this) {
 			exception = null;
@@ -260,43 +449,89 @@ public class SqlScriptExecutor {
 					t.set(System.currentTimeMillis());
 					long p = -1;
 					if (finalFileSize > 0) {
-						p = (1000 * bytesRead[0]) / finalFileSize;
+						p = (1000 * (compressed? bytesRead[0] : lineReader.getPosition())) / finalFileSize;
 						if (p > 999) {
 							p = 999;
 						}
 					}
-					_log.info(linesRead + " statements" + (p >= 0? " (" + String.format(Locale.ENGLISH, "%1.1f", p / 10.0) + "%)" : ""));
+					_log.info(linesRead + " statements" + (p >= 0? " (" + String.format(Locale.ENGLISH, "%1.1f", p / 10.0) + "%)" : "") + ", " + throughput(lineReader.getPosition(), startTime));
+				}
+			}
+		};
+
+		final StatementBatch batch = new StatementBatch() {
+			@Override
+			protected void execute(List<String> statements, List<Integer> lineNumbers) {
+				boolean silent = session.getSilent();
+				session.setSilent(false);
+				boolean oldLogStatements = session.getLogStatements();
+				session.setLogStatements(logStatements);
+				try {
+					totalRowCount.addAndGet(session.executeBatch(statements));
+					linesRead.getAndAdd(statements.size());
+					count.getAndAdd(statements.size());
+				} catch (SQLException e) {
+					try {
+						// [bugs:#37] PostreSQL: transactional execution
+						session.getConnection().rollback();
+					} catch (SQLException e1) {
+						// ignore
+					}
+					int lineNumber = lineNumbers.get(0);
+					if (e instanceof SqlException) {
+						int i = statements.indexOf(((SqlException) e).sqlStatement);
+						if (i >= 0) {
+							lineNumber = lineNumbers.get(i);
+						}
+						Session._log.warn(((SqlException) e).sqlStatement, e);
+						String message = (scriptFileName.matches("(tmp|temp).*")? "" : "Error in file: \"" + scriptFileName + "\" line: " + lineNumber + "\n") + ((SqlException) e).getMessage();
+						e = new SqlException(message, ((SqlException) e).sqlStatement, e);
+					}
+					throw new RuntimeException("Error in file: \"" + scriptFileName + "\" line: " + lineNumber, e);
+				} finally {
+					session.setSilent(silent);
+					session.setLogStatements(oldLogStatements);
 				}
 			}
 		};
 
 		executor = threads > 1? new BoundedExecutor(
 				new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MINUTES, new LinkedBlockingQueue<Runnable>()), threads + 3) : null; 
+		section = null;
+		barrierSection = null;
+		sections.clear();
+		boolean syncPending = false;
 		try {
 			final Pattern IDENTITY_INSERT = Pattern.compile(".*SET\\s+IDENTITY_INSERT.*", Pattern.CASE_INSENSITIVE);
 			boolean tryMode = false;
 			int lineNumber = 0;
 			int currentStatementlineNumber = 1;
-			while ((line = lineReader.readLine()) != null) {
+			while (lineReader.nextLine()) {
 				++lineNumber;
-				line = line.trim();
-				if (line.length() == 0) {
-					if (currentStatement.length() == 0) {
+				if (lineReader.isEmpty()) {
+					if (lineReader.getStatementLength() == 0) {
 						++currentStatementlineNumber;
 					}
 					continue;
 				}
-				if (line.startsWith("--")) {
-					if (currentStatement.length() == 0) {
+				if (syncPending && !lineReader.startsWith(SECTION_COMMENT)) {
+					syncPending = false;
+					startSection(null, null);
+				}
+				if (lineReader.startsWith("--")) {
+					if (lineReader.getStatementLength() == 0) {
 						++currentStatementlineNumber;
 					}
 					final String TRY = "try:";
+					String line = lineReader.getLine();
 					String uncommentedLine = line.substring(2).trim();
 					if (uncommentedLine.startsWith(TRY)) {
-						line = uncommentedLine.substring(TRY.length()).trim();
+						lineReader.skip(2);
+						lineReader.skip(TRY.length());
 						tryMode = true;
 					} else {
 						if (line.startsWith(UNFINISHED_MULTILINE_COMMENT)) {
+							batch.flush();
 							String cmd = line.substring(UNFINISHED_MULTILINE_COMMENT.length());
 							if (cmd.startsWith("XML")) {
 								importSQLXML(cmd.substring(3).trim(), lineReader);
@@ -309,90 +544,102 @@ public class SqlScriptExecutor {
 							}
 						} else if (uncommentedLine.equals("sync")) {
 							inSync = true;
-							sync();
+							batch.flush();
+							syncPending = true;
+						} else if (syncPending && line.startsWith(SECTION_COMMENT)) {
+							syncPending = false;
+							startSection(line.substring(SECTION_COMMENT.length()));
 						} else if (uncommentedLine.equals("epilog")) {
 							inSync = false;
+							batch.flush();
+							closeSection();
 							sync();
 						}
 						continue;
 					}
 				}
-				if (line.endsWith(";")) {
-					currentStatement.append(line.substring(0, line.length() - 1));
-					if (IDENTITY_INSERT.matcher(currentStatement).matches()) {
+				if (lineReader.endsWith(';')) {
+					lineReader.appendToStatement(true);
+					final String stmt = lineReader.takeStatement();
+					if (IDENTITY_INSERT.matcher(stmt).matches()) {
+						batch.flush();
 						sync();
 						if (executor != null) {
 							executor.shutdown();
 							executor = null;
 						}
 					}
-					final String stmt = currentStatement.toString();
 					final boolean finalTryMode = tryMode;
 					final int finalCurrentStatementlineNumber = currentStatementlineNumber;
-					execute(new Runnable() {
-						@Override
-						public void run() {
-							boolean startsWithDrop = stmt.trim().toLowerCase(Locale.ENGLISH).startsWith("drop");
-							boolean silent = session.getSilent();
-							session.setSilent(silent || finalTryMode || startsWithDrop);
-							boolean oldLogStatements = session.getLogStatements();
-							session.setLogStatements(logStatements);
-							try {
-								if (stmt.trim().length() > 0) {
-									boolean done = false;
-									long rc = 0;
-									if (startsWithDrop) {
-										// [bugs:#37] PostreSQL: transactional execution
-										String withExists = stmt.replaceFirst("(?is)(DROP\\s+TABLE\\s+)", "$1IF EXISTS ");
-										if (!withExists.equals(stmt)) {
-											try {
-												rc = session.execute(withExists);
-											} catch (SQLException e) {
-												rc = session.execute(stmt);
+					Matcher matcher;
+					if (inSync && executor != null && !tryMode && (matcher = BATCHABLE_STATEMENT.matcher(stmt)).find()) {
+						batch.add(stmt, matcher.group(1).toLowerCase(Locale.ENGLISH) + " " + matcher.group(2), currentStatementlineNumber);
+					} else {
+						batch.flush();
+						execute(new Runnable() {
+							@Override
+							public void run() {
+								boolean startsWithDrop = stmt.trim().toLowerCase(Locale.ENGLISH).startsWith("drop");
+								boolean silent = session.getSilent();
+								session.setSilent(silent || finalTryMode || startsWithDrop);
+								boolean oldLogStatements = session.getLogStatements();
+								session.setLogStatements(logStatements);
+								try {
+									if (stmt.trim().length() > 0) {
+										boolean done = false;
+										long rc = 0;
+										if (startsWithDrop) {
+											// [bugs:#37] PostreSQL: transactional execution
+											String withExists = stmt.replaceFirst("(?is)(DROP\\s+TABLE\\s+)", "$1IF EXISTS ");
+											if (!withExists.equals(stmt)) {
+												try {
+													rc = session.execute(withExists);
+												} catch (SQLException e) {
+													rc = session.execute(stmt);
+												}
+												done = true;
 											}
-											done = true;
+										}
+										if (!done) {
+											rc = session.execute(stmt, null, true);
+										}
+										totalRowCount.addAndGet(rc);
+										linesRead.getAndIncrement();
+										if (!startsWithDrop) {
+											count.getAndIncrement();
 										}
 									}
-									if (!done) {
-										rc = session.execute(stmt, null, true);
-									}
-									totalRowCount.addAndGet(rc);
-									linesRead.getAndIncrement();
-									if (!startsWithDrop) {
-										count.getAndIncrement();
+								} catch (SQLException e) {
+									try {
+										// [bugs:#37] PostreSQL: transactional execution
+										session.getConnection().rollback();
+									} catch (SQLException e1) {
+										// ignore
 									}
-								}
-							} catch (SQLException e) {
-								try {
-									// [bugs:#37] PostreSQL: transactional execution
-									session.getConnection().rollback();
-								} catch (SQLException e1) {
-									// ignore
-								}
-								// drop may fail
-								if (!finalTryMode && !startsWithDrop) {
-									// fix for bug [2946477]
-									if (!stmt.trim().toUpperCase(Locale.ENGLISH).contains("DROP TABLE JAILER_DUAL")) {
-										Session._log.warn(stmt, e);
-										if (e instanceof SqlException) {
-											String message = (scriptFileName.matches("(tmp|temp).*")? "" : "Error in file: \"" + scriptFileName + "\" line: " + finalCurrentStatementlineNumber + "\n") + ((SqlException) e).getMessage();
-											e = new SqlException(message, ((SqlException) e).sqlStatement, e);
+									// drop may fail
+									if (!finalTryMode && !startsWithDrop) {
+										// fix for bug [2946477]
+										if (!stmt.trim().toUpperCase(Locale.ENGLISH).contains("DROP TABLE JAILER_DUAL")) {
+											Session._log.warn(stmt, e);
+											if (e instanceof SqlException) {
+												String message = (scriptFileName.matches("(tmp|temp).*")? "" : "Error in file: \"" + scriptFileName + "\" line: " + finalCurrentStatementlineNumber + "\n") + ((SqlException) e).getMessage();
+												e = new SqlException(message, ((SqlException) e).sqlStatement, e);
+											}
+											throw new RuntimeException("Error in file: \"" + scriptFileName + "\" line: " + finalCurrentStatementlineNumber, e);
 										}
-										throw new RuntimeException("Error in file: \"" + scriptFileName + "\" line: " + finalCurrentStatementlineNumber, e);
 									}
+								} finally {
+									session.setSilent(silent);
+									session.setLogStatements(oldLogStatements);
 								}
-							} finally {
-								session.setSilent(silent);
-								session.setLogStatements(oldLogStatements);
 							}
-						}
-					}, inSync);
-					currentStatement.setLength(0);
+						}, inSync);
+					}
 					currentStatementlineNumber = lineNumber + 1;
 					logProgress.run();
 					tryMode = false;
 				} else {
-					currentStatement.append(line + "\n");
+					lineReader.appendToStatement(false);
 				}
 				CancellationHandler.checkForCancellation(null);
 				synchronized (this) {
@@ -404,9 +651,11 @@ public class SqlScriptExecutor {
 					}
 				}
 			}
-			bufferedReader.close();
+			lineReader.close();
+			batch.flush();
+			closeSection();
 			sync();
-			_log.info(linesRead + " statements (100%)");
+			_log.info(linesRead + " statements (100%), " + throughput(lineReader.getPosition(), startTime));
 			_log.info("successfully read file '" + scriptFileName + "'");
 			Pair<Integer, Long> r = new Pair<Integer, Long>(count.get(), totalRowCount.get());
 			synchronized (SqlScriptExecutor.class) {
@@ -422,6 +671,11 @@ public class SqlScriptExecutor {
 			}
 			throw new RuntimeException(e);
 		} finally {
+			lineReader.close();
+			closeSection();
+			for (Section section: sections.values()) {
+				section.close();
+			}
 			if (executor != null) {
 				executor.shutdown();
 			}
@@ -441,10 +695,17 @@ public class SqlScriptExecutor {
 			task.run();
 		} else {
 			++submittedTasks;
+			final Section taskSection = section;
+			if (taskSection != null) {
+				taskSection.taskSubmitted();
+			}
 			executor.submitTask(new Runnable() {
 				@Override
 				public void run() {
 					try {
+						if (taskSection != null) {
+							taskSection.awaitDependencies();
+						}
 						task.run();
 					} catch (RuntimeException e) {
 						storeException(e);
@@ -452,6 +713,9 @@ public class SqlScriptExecutor {
 						storeException(new RuntimeException(e));
 					} finally {
 						executedTasks.incrementAndGet();
+						if (taskSection != null) {
+							taskSection.taskFinished();
+						}
 					}
 				}
 
@@ -479,32 +743,24 @@ public class SqlScriptExecutor {
 		}
 	}
 
-	private static class LineReader {
-
-		private final BufferedReader reader;
-		private boolean eofRead = false;
-		
-		public LineReader(BufferedReader reader) {
-			this.reader = reader;
-		}
-
-		public String readLine() throws IOException {
-			String line = reader.readLine();
-			if (line == null && !eofRead) {
-				eofRead = true;
-				return ";";
-			}
-			return line;
-		}
+	/**
+	 * Formats the throughput.
+	 * 
+	 * @param bytes number of bytes read
+	 * @param startTime time at which reading started
+	 */
+	private static String throughput(long bytes, long startTime) {
+		double seconds = Math.max(System.currentTimeMillis() - startTime, 1) / 1000.0;
+		return String.format(Locale.ENGLISH, "%1.1f MB/s", bytes / (1024.0 * 1024.0) / seconds);
 	}
-	
+
 	/**
 	 * Imports clob from sql-script.
 	 * 
 	 * @param clobLocator locates the clob
 	 * @param lineReader for reading content
 	 */
-	private void importCLob(final String clobLocator, final LineReader lineReader) throws IOException, SQLException {
+	private void importCLob(final String clobLocator, final ScriptLineReader lineReader) throws IOException, SQLException {
 		int c1 = clobLocator.indexOf(',');
 		int c2 = clobLocator.indexOf(',', c1 + 1);
 		final String table = clobLocator.substring(0, c1).trim();
@@ -558,7 +814,7 @@ public class SqlScriptExecutor {
 	 * @param xmlLocator locates the XML column
 	 * @param lineReader for reading content
 	 */
-	private void importSQLXML(final String xmlLocator, final LineReader lineReader) throws IOException, SQLException {
+	private void importSQLXML(final String xmlLocator, final ScriptLineReader lineReader) throws IOException, SQLException {
 		int c1 = xmlLocator.indexOf(',');
 		int c2 = xmlLocator.indexOf(',', c1 + 1);
 		final String table = xmlLocator.substring(0, c1).trim();
@@ -613,7 +869,7 @@ public class SqlScriptExecutor {
 	 * @param clobLocator locates the clob
 	 * @param lineReader for reading content
 	 */
-	private void importBLob(final String clobLocator, final LineReader lineReader) throws IOException, SQLException {
+	private void importBLob(final String clobLocator, final ScriptLineReader lineReader) throws IOException, SQLException {
 		int c1 = clobLocator.indexOf(',');
 		int c2 = clobLocator.indexOf(',', c1 + 1);
 		final String table = clobLocator.substring(0, c1).trim();
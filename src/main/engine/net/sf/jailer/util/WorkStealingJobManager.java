@@ -0,0 +1,317 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link JobManager} based on a work-stealing {@link ForkJoinPool}.
+ * <br>
+ * Each worker has its own deque, follow-up jobs (see {@link #enqueueJob(Job)}) are pushed onto the deque of the enqueuing worker.
+ * All counters are atomic, there is no monitor shared by the workers.
+ * With a single thread, jobs are executed by the calling thread (like {@link JobManager}).
+ *
+ * @author Ralf Wisser
+ */
+public abstract class WorkStealingJobManager extends JobManager {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(WorkStealingJobManager.class);
+
+	/**
+	 * Maximum number of threads.
+	 */
+	private final int threads;
+
+	/**
+	 * The pool.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * The job-list currently executed.
+	 */
+	private volatile Batch currentBatch;
+
+	/**
+	 * State of a job-list execution.
+	 */
+	private static class Batch {
+
+		/**
+		 * Number of jobs to be executed, including follow-up jobs.
+		 */
+		final AtomicInteger jobCount = new AtomicInteger();
+
+		/**
+		 * Number of jobs not yet finished or discarded.
+		 */
+		final AtomicInteger pendingJobsCounter = new AtomicInteger();
+
+		/**
+		 * Number of jobs currently executed.
+		 */
+		final AtomicInteger jobsInExecutionCounter = new AtomicInteger();
+
+		/**
+		 * Number of jobs waiting for primary cause.
+		 */
+		final AtomicInteger jobsWaitingForPrimaryCauseCounter = new AtomicInteger();
+
+		/**
+		 * Exception during job-execution.
+		 */
+		final AtomicReference<Exception> exception = new AtomicReference<Exception>();
+
+		/**
+		 * If <code>true</code>, jobs not yet started will be discarded.
+		 */
+		volatile boolean discarded = false;
+
+		/**
+		 * The thread waiting for the completion of the job-list.
+		 */
+		final Thread waiter;
+
+		Batch(Thread waiter) {
+			this.waiter = waiter;
+		}
+	}
+
+	/**
+	 * Executes a job.
+	 */
+	private class JobTask extends RecursiveAction {
+		private static final long serialVersionUID = -3017525962355474573L;
+
+		private final Batch batch;
+		private final Job job;
+
+		JobTask(Batch batch, Job job) {
+			this.batch = batch;
+			this.job = job;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				if (!batch.discarded) {
+					batch.jobsInExecutionCounter.incrementAndGet();
+					try {
+						job.run();
+					} catch (Throwable e) {
+						setException(batch, e);
+					} finally {
+						batch.jobsInExecutionCounter.decrementAndGet();
+					}
+				}
+			} finally {
+				if (batch.pendingJobsCounter.decrementAndGet() == 0) {
+					LockSupport.unpark(batch.waiter);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param threads number of threads
+	 */
+	public WorkStealingJobManager(int threads) {
+		super(threads);
+		this.threads = threads;
+	}
+
+	private synchronized ForkJoinPool getPool() {
+		if (pool == null) {
+			final AtomicInteger threadNumber = new AtomicInteger();
+			pool = new ForkJoinPool(threads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+				@Override
+				public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+					ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+					String threadName = "job- " + threadNumber.incrementAndGet();
+					_log.debug("starting " + threadName);
+					thread.setName(threadName);
+					thread.setDaemon(true);
+					return thread;
+				}
+			}, null, true);
+		}
+		return pool;
+	}
+
+	/**
+	 * Executes a list of jobs.
+	 *
+	 * @param jobs the job-list
+	 */
+	@Override
+	public void executeJobs(Collection<Job> jobs) throws CancellationException, SQLException {
+		if (threads <= 1) {
+			super.executeJobs(jobs);
+			return;
+		}
+		ForkJoinPool pool = getPool();
+		Batch batch = new Batch(Thread.currentThread());
+		batch.jobCount.set(jobs.size());
+		batch.pendingJobsCounter.set(jobs.size());
+		_log.info("starting " + jobs.size() + " jobs");
+		currentBatch = batch;
+		try {
+			for (Job job: jobs) {
+				pool.execute(new JobTask(batch, job));
+			}
+			while (batch.pendingJobsCounter.get() > 0) {
+				LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+				checkForException(batch);
+			}
+			// the last job may have failed after the previous check
+			checkForException(batch);
+		} finally {
+			currentBatch = null;
+		}
+		_log.info("executed " + batch.jobCount.get() + " jobs");
+	}
+
+	/**
+	 * Throws the exception of a failed job of a batch, if any, after the other jobs have stopped.
+	 */
+	private void checkForException(Batch batch) throws CancellationException, SQLException {
+		Exception e = batch.exception.get();
+		if (e != null) {
+			if (!(e instanceof CancellationException)) {
+				_log.error("Job-error", e);
+			}
+			// wait for other jobs
+			while (batch.jobsInExecutionCounter.get() > 0) {
+				LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(50));
+			}
+			if (e instanceof CancellationException) {
+				throw (CancellationException) e;
+			}
+			if (e instanceof SQLException) {
+				throw (SQLException) e;
+			}
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Enqueues a follow-up job while {@link #executeJobs(Collection)} is running.
+	 * If called by a worker, the job is pushed onto the worker's own deque.
+	 *
+	 * @param job the job
+	 * @return <code>false</code> if the job-list has been discarded due to an error
+	 */
+	@Override
+	public boolean enqueueJob(Job job) {
+		if (threads <= 1) {
+			return super.enqueueJob(job);
+		}
+		Batch batch = currentBatch;
+		if (batch == null || batch.discarded) {
+			return false;
+		}
+		batch.jobCount.incrementAndGet();
+		batch.pendingJobsCounter.incrementAndGet();
+		JobTask task = new JobTask(batch, job);
+		Thread thread = Thread.currentThread();
+		if (thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool) {
+			task.fork();
+		} else {
+			getPool().execute(task);
+		}
+		return true;
+	}
+
+	/**
+	 * Shuts the manager down.
+	 */
+	@Override
+	public void shutdown() {
+		synchronized (this) {
+			if (pool != null) {
+				_log.debug("shutting down pool");
+				pool.shutdown();
+			}
+		}
+		super.shutdown();
+	}
+
+	/**
+	 * Sets an exception.
+	 */
+	private void setException(Batch batch, Throwable e) {
+		if (isPotentiallyConsequentialError(batch, e)) {
+			batch.discarded = true;
+			// wait for primary error
+			// wait for other jobs
+			batch.jobsWaitingForPrimaryCauseCounter.incrementAndGet();
+			int i = 0;
+			while (batch.jobsInExecutionCounter.get() - batch.jobsWaitingForPrimaryCauseCounter.get() > 0) {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e1) {
+					throw new RuntimeException(e1);
+				}
+				++i;
+				if (batch.exception.get() != null) {
+					break;
+				}
+				if (i > (1000 * 20) / 50 /* 20 sec */) {
+					LogUtil.warn(new RuntimeException("No prim. cause. " + batch.jobsInExecutionCounter.get() + " " + batch.jobsWaitingForPrimaryCauseCounter.get()));
+					break;
+				}
+			}
+			batch.jobsWaitingForPrimaryCauseCounter.decrementAndGet();
+		}
+		Exception exception = (e instanceof CancellationException || e instanceof SQLException)? (Exception) e
+				: new RuntimeException(Thread.currentThread().getName() + " failed", e);
+		if (batch.exception.compareAndSet(null, exception)) {
+			if (!(e instanceof CancellationException)) {
+				onException(e);
+			}
+		}
+		batch.discarded = true;
+		LockSupport.unpark(batch.waiter);
+	}
+
+	private boolean isPotentiallyConsequentialError(Batch batch, Throwable e) {
+		if (batch.exception.get() == null) {
+			if (e instanceof SQLException) {
+				if ("25P02".equals(((SQLException)e).getSQLState())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
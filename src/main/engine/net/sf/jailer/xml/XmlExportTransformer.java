@@ -17,10 +17,15 @@ package net.sf.jailer.xml;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +49,7 @@ import net.sf.jailer.datamodel.Association;
 import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.RowIdSupport;
 import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.entitygraph.DependentEntitiesCursor;
 import net.sf.jailer.entitygraph.EntityGraph;
 import net.sf.jailer.subsetting.ObjectNotationOutputException;
 import net.sf.jailer.subsetting.ScriptFormat;
@@ -128,6 +134,13 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 	
 	private ScriptFormat scriptFormat;
 	
+	/**
+	 * Cursors over the entities of the aggregation paths (if hierarchy is streamed).
+	 * 
+	 * @see ExecutionContext#isStreamedHierarchy()
+	 */
+	private final Map<List<Association>, PathCursor> pathCursors = new HashMap<List<Association>, PathCursor>();
+
 	/**
 	 * Constructor.
 	 *
@@ -171,7 +184,13 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 					throw new ObjectNotationOutputException("Multiple root objects are not allowed. (\"" + table.getName() + "\")\n(" + scriptFormat + ")");
 				}
 			}
-			writeEntity(table, null, resultSet, new ArrayList<String>(), getCellContentConverter(resultSet, session, session.dbms));
+			List<Association> path = null;
+			List<Object> key = null;
+			if (executionContext.isStreamedHierarchy()) {
+				path = Collections.emptyList();
+				key = Collections.emptyList();
+			}
+			writeEntity(table, null, resultSet, new ArrayList<String>(), getCellContentConverter(resultSet, session, session.dbms), path, key);
 		} catch (SAXException e) {
 			throw new RuntimeException(e);
 		} catch (ParserConfigurationException e) {
@@ -188,9 +207,12 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 	 * @param association association to parent, <code>null</code> for top-level entities
 	 * @param resultSet current row contains entity to write out
 	 * @param ancestors ancestors of entity to write out
+	 * @param path the aggregation path to the entity, <code>null</code> if dependent entities are read separately for the entity
+	 * @param key the primary keys of the entities on the path
 	 */
-	private void writeEntity(final Table table, Association association, final ResultSet resultSet, final List<String> ancestors, final CellContentConverter cellContentConverter)
+	private void writeEntity(final Table table, Association association, final ResultSet resultSet, final List<String> ancestors, final CellContentConverter cellContentConverter, final List<Association> path, List<Object> key)
 			throws SQLException, SAXException, ParserConfigurationException, IOException {
+		final List<Object> entityKey = path == null? null : new ArrayList<Object>(key);
 		StringBuilder sb = new StringBuilder(table.getName() + "(");
 		boolean f = true;
 		int i = 0;
@@ -199,7 +221,11 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 				sb.append(", ");
 			}
 			f = false;
-			sb.append(cellContentConverter.toSql(cellContentConverter.getObject(resultSet, "PK" + i++)));
+			Object value = cellContentConverter.getObject(resultSet, "PK" + i++);
+			if (entityKey != null) {
+				entityKey.add(value);
+			}
+			sb.append(cellContentConverter.toSql(value));
 		}
 		sb.append(")");
 		String primaryKey = sb.toString();
@@ -234,7 +260,7 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 								@Override
 								public void readCurrentRow(ResultSet resultSet) throws SQLException {
 									try {
-										writeEntity(sa.destination, sa, resultSet, ancestors, getCellContentConverter(resultSet, session, session.dbms));
+										writeEntity(sa.destination, sa, resultSet, ancestors, getCellContentConverter(resultSet, session, session.dbms), null, null);
 									} catch (SAXException e) {
 										throw new RuntimeException(e);
 									} catch (ParserConfigurationException e) {
@@ -249,7 +275,9 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 							};
 							try {
 								xmlRowWriter.startList(sa, name);
-								entityGraph.readDependentEntities(sa.destination, sa, resultSet, getMetaData(resultSet), reader, getTypeCache(sa.destination), getTableMapping(sa.destination).selectionSchema, getTableMapping(sa.destination).originalPKAliasPrefix);
+								if (path == null || path.contains(sa) || !writeDependentEntities(path, sa, entityKey, ancestors)) {
+									entityGraph.readDependentEntities(sa.destination, sa, resultSet, getMetaData(resultSet), reader, getTypeCache(sa.destination), getTableMapping(sa.destination).selectionSchema, getTableMapping(sa.destination).originalPKAliasPrefix);
+								}
 								if (cyclicAggregatedTables.contains(sa.destination)) {
 									entityGraph.markDependentEntitiesAsTraversed(sa, resultSet, getMetaData(resultSet), getTypeCache(sa.destination));
 								}
@@ -266,6 +294,211 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 		ancestors.remove(ancestors.size() - 1);
 	}
 
+	/**
+	 * Writes out the entities which depend on an entity, reading them from the cursor of the aggregation path.
+	 *
+	 * @param parentPath the aggregation path to the entity
+	 * @param association the aggregation
+	 * @param parentKey the primary keys of the entities on the path
+	 * @param ancestors ancestors of the dependent entities
+	 * @return <code>false</code> if the dependent entities must be read separately
+	 */
+	private boolean writeDependentEntities(List<Association> parentPath, Association association, List<Object> parentKey, List<String> ancestors)
+			throws SQLException, SAXException, ParserConfigurationException, IOException {
+		if (compareKeys(parentKey, parentKey) == INCOMPARABLE) {
+			return false;
+		}
+		List<Association> path = new ArrayList<Association>(parentPath);
+		path.add(association);
+		PathCursor pathCursor = pathCursors.get(path);
+		if (pathCursor == null) {
+			TableMapping tableMapping = getTableMapping(association.destination);
+			pathCursor = new PathCursor(path, parentKey.size(), tableMapping.keyAliasPrefix, entityGraph.openDependentEntitiesCursor(path, tableMapping.selectionSchema, tableMapping.originalPKAliasPrefix, tableMapping.keyAliasPrefix));
+			pathCursors.put(path, pathCursor);
+		}
+		return pathCursor.write(parentKey, ancestors);
+	}
+
+	/**
+	 * Merges the entities read by a {@link DependentEntitiesCursor} into the hierarchy.
+	 * The entities are ordered by the keys of their parents, so the cursor is read only once
+	 * as long as the parents are written out in the same order.
+	 */
+	private class PathCursor {
+
+		/**
+		 * The aggregation path.
+		 */
+		private final List<Association> path;
+
+		/**
+		 * Number of key columns of the parents.
+		 */
+		private final int keyLength;
+
+		/**
+		 * Prefix of the aliases of the key columns.
+		 */
+		private final String keyAliasPrefix;
+
+		/**
+		 * The cursor, <code>null</code> if the entity graph doesn't support it.
+		 */
+		private final DependentEntitiesCursor cursor;
+
+		/**
+		 * Converts the key columns.
+		 */
+		private CellContentConverter cellContentConverter;
+
+		/**
+		 * Key of the parent of the current entity, <code>null</code> if there is no current entity.
+		 */
+		private List<Object> currentKey;
+
+		/**
+		 * Key of the last parent.
+		 */
+		private List<Object> lastParentKey;
+
+		/**
+		 * <code>true</code> if all entities have been read.
+		 */
+		private boolean done;
+
+		/**
+		 * <code>true</code> if the keys can't be merged.
+		 */
+		private boolean disabled;
+
+		/**
+		 * Number of exported entities.
+		 */
+		private long numberOfExportedEntities;
+
+		PathCursor(List<Association> path, int keyLength, String keyAliasPrefix, DependentEntitiesCursor cursor) {
+			this.path = path;
+			this.keyLength = keyLength;
+			this.keyAliasPrefix = keyAliasPrefix;
+			this.cursor = cursor;
+			this.disabled = cursor == null;
+		}
+
+		/**
+		 * Writes out the entities of a parent.
+		 *
+		 * @param parentKey the parent's key
+		 * @param ancestors ancestors of the entities
+		 * @return <code>false</code> if the entities must be read separately
+		 */
+		boolean write(List<Object> parentKey, List<String> ancestors) throws SQLException, SAXException, ParserConfigurationException, IOException {
+			if (disabled || (lastParentKey != null && compareKeys(parentKey, lastParentKey) <= 0)) {
+				return false;
+			}
+			lastParentKey = parentKey;
+			boolean written = false;
+			while (!done) {
+				if (currentKey == null) {
+					if (!cursor.next()) {
+						done = true;
+						break;
+					}
+					ResultSet resultSet = cursor.getResultSet();
+					if (cellContentConverter == null) {
+						cellContentConverter = new CellContentConverter(resultSet.getMetaData(), session, session.dbms);
+					}
+					currentKey = new ArrayList<Object>(keyLength);
+					for (int i = 0; i < keyLength; ++i) {
+						currentKey.add(cellContentConverter.getObject(resultSet, keyAliasPrefix + i));
+					}
+				}
+				int c = compareKeys(currentKey, parentKey);
+				if (c == INCOMPARABLE) {
+					disabled = true;
+					return written;
+				}
+				if (c > 0) {
+					break;
+				}
+				if (c == 0) {
+					Association association = path.get(path.size() - 1);
+					ResultSet resultSet = cursor.getResultSet();
+					writeEntity(association.destination, association, resultSet, ancestors, getCellContentConverter(resultSet, session, session.dbms), path, parentKey);
+					++numberOfExportedEntities;
+					written = true;
+				}
+				currentKey = null;
+			}
+			return true;
+		}
+
+		/**
+		 * Closes the cursor.
+		 */
+		void close() throws SQLException {
+			if (cursor != null) {
+				cursor.close(numberOfExportedEntities);
+			}
+		}
+	}
+
+	/**
+	 * Result of {@link #compareKeys(List, List)} if keys are not comparable.
+	 */
+	private static final int INCOMPARABLE = Integer.MIN_VALUE;
+
+	/**
+	 * Compares keys in the same way as the database orders them.
+	 * Only numbers and date/time values are comparable.
+	 *
+	 * @return a negative integer, zero, or a positive integer as the first key is less than, equal to, or greater than the second,
+	 *         or {@link #INCOMPARABLE}
+	 */
+	private static int compareKeys(List<Object> a, List<Object> b) {
+		for (int i = 0; i < a.size(); ++i) {
+			int c = compareValues(a.get(i), b.get(i));
+			if (c != 0) {
+				return c;
+			}
+		}
+		return 0;
+	}
+
+	private static int compareValues(Object a, Object b) {
+		if (a instanceof Number && b instanceof Number) {
+			if (isIntegral(a) && isIntegral(b)) {
+				return Long.compare(((Number) a).longValue(), ((Number) b).longValue());
+			}
+			try {
+				return toBigDecimal((Number) a).compareTo(toBigDecimal((Number) b));
+			} catch (NumberFormatException e) {
+				return INCOMPARABLE;
+			}
+		}
+		if (a instanceof Date && b instanceof Date) {
+			int c = Long.compare(((Date) a).getTime(), ((Date) b).getTime());
+			if (c == 0 && a instanceof Timestamp && b instanceof Timestamp) {
+				c = Integer.compare(((Timestamp) a).getNanos(), ((Timestamp) b).getNanos());
+			}
+			return c;
+		}
+		return INCOMPARABLE;
+	}
+
+	private static boolean isIntegral(Object value) {
+		return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+	}
+
+	private static BigDecimal toBigDecimal(Number value) {
+		if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		if (value instanceof BigInteger) {
+			return new BigDecimal((BigInteger) value);
+		}
+		return new BigDecimal(value.toString());
+	}
+
 	/**
 	 * Gets type cache for given table.
 	 *
@@ -298,7 +531,8 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 	/**
 	 * Closes the XML document.
 	 */
-	public void endDocument() throws SAXException {
+	public void endDocument() throws SAXException, SQLException {
+		closePathCursors();
 		xmlRowWriter.close();
 	}
 
@@ -306,7 +540,21 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 	 * Flushes the export-reader.
 	 */
 	@Override
-	public void close() {
+	public void close() throws SQLException {
+		closePathCursors();
+	}
+
+	/**
+	 * Closes the cursors over the entities of the aggregation paths.
+	 */
+	private void closePathCursors() throws SQLException {
+		try {
+			for (PathCursor pathCursor: pathCursors.values()) {
+				pathCursor.close();
+			}
+		} finally {
+			pathCursors.clear();
+		}
 	}
 
 	/**
@@ -328,6 +576,11 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 		 * Prefix of column aliases for selection of unfiltered PK values.
 		 */
 		public String originalPKAliasPrefix;
+
+		/**
+		 * Prefix of column aliases for selection of the keys of the parents.
+		 */
+		public String keyAliasPrefix;
 	}
 
 	/**
@@ -376,6 +629,20 @@ public class XmlExportTransformer extends AbstractResultSetReader {
 			}
 		}
 
+		for (int i = 0; ; ++i) {
+			tableMapping.keyAliasPrefix = "K" + i;
+			boolean found = false;
+			for (Column c: table.getColumns()) {
+				if (c.name.startsWith(tableMapping.keyAliasPrefix)) {
+					found = true;
+					break;
+				}
+			}
+			if (!found) {
+				break;
+			}
+		}
+
 		try {
 			tableMapping.template = table.getXmlTemplateAsDocument(quoting);
 		} catch (Exception e) {
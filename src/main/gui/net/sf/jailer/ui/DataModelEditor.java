@@ -1329,7 +1329,7 @@ public class DataModelEditor extends javax.swing.JDialog {
 				}
 	    		if (dbConnectionDialog.isConnected || dbConnectionDialog.connect("Check Primary Keys")) {
 	    			BasicDataSource dataSource = UIUtil.createBasicDataSource(this, dbConnectionDialog.currentConnection.driverClass, dbConnectionDialog.currentConnection.url, dbConnectionDialog.currentConnection.user, dbConnectionDialog.getPassword(), 0, dbConnectionDialog.currentJarURLs());
-	    			UIUtil.validatePrimaryKeys(DataModelEditor.this, dataSource, Collections.singleton(table));
+	    			UIUtil.validatePrimaryKeys(DataModelEditor.this, dataSource, Collections.singleton(table), executionContext);
 	    		}
 			} catch (Exception e) {
 				// ignore
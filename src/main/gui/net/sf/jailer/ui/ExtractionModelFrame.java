@@ -1602,7 +1602,7 @@ public class ExtractionModelFrame extends javax.swing.JFrame implements Connecti
 											@Override
 											protected void validatePrimaryKeys() {
 												try {
-													UIUtil.validatePrimaryKeys(SwingUtilities.getWindowAncestor(progressPanel), UIUtil.createBasicDataSource(ExtractionModelFrame.this, ddlArgs.get(1), ddlArgs.get(2), ddlArgs.get(3), ddlArgs.get(4), 0, dbConnectionDialog.currentJarURLs()), new TreeSet<Table>(extractionModelEditor.dataModel.getTables()));
+													UIUtil.validatePrimaryKeys(SwingUtilities.getWindowAncestor(progressPanel), UIUtil.createBasicDataSource(ExtractionModelFrame.this, ddlArgs.get(1), ddlArgs.get(2), ddlArgs.get(3), ddlArgs.get(4), 0, dbConnectionDialog.currentJarURLs()), new TreeSet<Table>(extractionModelEditor.dataModel.getTables()), executionContext);
 												} catch (Exception e) {
 													UIUtil.showException(ExtractionModelFrame.this, "Error", e);
 												}
@@ -2225,7 +2225,7 @@ public class ExtractionModelFrame extends javax.swing.JFrame implements Connecti
     		if (dbConnectionDialog.isConnected || dbConnectionDialog.connect("Check Primary Keys")) {
     			updateMenuItems();
     			BasicDataSource dataSource = UIUtil.createBasicDataSource(this, dbConnectionDialog.currentConnection.driverClass, dbConnectionDialog.currentConnection.url, dbConnectionDialog.currentConnection.user, dbConnectionDialog.getPassword(), 0, dbConnectionDialog.currentJarURLs());
-    			UIUtil.validatePrimaryKeys(this, dataSource, new TreeSet<Table>(extractionModelEditor.dataModel.getTables()));
+    			UIUtil.validatePrimaryKeys(this, dataSource, new TreeSet<Table>(extractionModelEditor.dataModel.getTables()), executionContext);
     		}
 		} catch (Exception e) {
 			// ignore
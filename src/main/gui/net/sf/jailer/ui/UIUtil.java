@@ -1573,7 +1573,7 @@ public class UIUtil {
 	 * Calls the {@link PrimaryKeyValidator}.
 	 */
 	@SuppressWarnings("serial")
-	public static void validatePrimaryKeys(final Window windowAncestor, final BasicDataSource basicDataSource, final Set<Table> tables) {
+	public static void validatePrimaryKeys(final Window windowAncestor, final BasicDataSource basicDataSource, final Set<Table> tables, final ExecutionContext executionContext) {
 		final Object cancellationContext = new Object();
 
 		final String infoPrefix = "<html>"
@@ -1605,8 +1605,9 @@ public class UIUtil {
 							}
 						}
 					};
+					final PrimaryKeyValidator primaryKeyValidator;
 					try {
-						new PrimaryKeyValidator(cancellationContext) {
+						primaryKeyValidator = new PrimaryKeyValidator(cancellationContext, executionContext) {
 							boolean initialized = false;
 							@Override
 							protected void updateProgressBar() {
@@ -1631,7 +1632,8 @@ public class UIUtil {
 									}
 								});
 							}
-						}.validatePrimaryKey(session, tables, jobManager);
+						};
+						primaryKeyValidator.validatePrimaryKey(session, tables, jobManager);
 					} catch (final Throwable t) {
 						invokeLater(new Runnable() {
 							@Override
@@ -1652,6 +1654,15 @@ public class UIUtil {
 						public void run() {
 							if (concurrentTaskControl.master.isShowing()) {
 								Object message = tables.size() == 1? "The primary key definition is valid." : "All primary key definitions are valid.";
+								Set<Table> uncheckedTables = primaryKeyValidator.getUncheckedTables();
+								if (!uncheckedTables.isEmpty()) {
+									StringBuilder names = new StringBuilder();
+									for (Table table: uncheckedTables) {
+										names.append("\n  " + table.getName());
+									}
+									message = (tables.size() == 1? "The primary key definition has not been checked" : "No errors found, but the primary key definitions of these tables have not been checked")
+											+ " (timeout of " + executionContext.getPkCheckTimeout() + " sec exceeded):" + names;
+								}
 								JOptionPane.showMessageDialog(windowAncestor, message);
 								concurrentTaskControl.closeWindow();
 								if (validatePrimaryKeysPending) {
@@ -134,6 +134,7 @@ import javax.swing.tree.TreePath;
 import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.configuration.Configuration;
 import net.sf.jailer.database.BasicDataSource;
+import net.sf.jailer.database.BlockSizeController;
 import net.sf.jailer.database.Session;
 import net.sf.jailer.datamodel.Association;
 import net.sf.jailer.datamodel.Column;
@@ -5979,6 +5980,9 @@ public class DataBrowser extends javax.swing.JFrame implements ConnectionTypeCha
 
 		ConnectionInfo connection = dbConnectionDialog != null ? dbConnectionDialog.currentConnection : null;
 		String alias = connection != null ? " " + connection.alias : " ";
+		if (connection != null && connection.alias != null) {
+			BlockSizeController.setConnectionAlias(newSession, connection.alias);
+		}
 
 		UIUtil.setWaitCursor(this);
 		CancellationHandler.reset(null);
@@ -6706,7 +6710,7 @@ public class DataBrowser extends javax.swing.JFrame implements ConnectionTypeCha
 						dbConnectionDialog.currentConnection.driverClass, dbConnectionDialog.currentConnection.url,
 						dbConnectionDialog.currentConnection.user, dbConnectionDialog.getPassword(), 0,
 						dbConnectionDialog.currentJarURLs());
-				UIUtil.validatePrimaryKeys(this, dataSource, new TreeSet<Table>(datamodel.get().getTables()));
+				UIUtil.validatePrimaryKeys(this, dataSource, new TreeSet<Table>(datamodel.get().getTables()), executionContext);
 			}
 		} catch (Exception e) {
 			// ignore
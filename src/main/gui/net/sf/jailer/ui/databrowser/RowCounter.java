@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import net.sf.jailer.database.BlockSizeController;
 import net.sf.jailer.database.InlineViewStyle;
 import net.sf.jailer.database.Session;
 import net.sf.jailer.datamodel.Association;
@@ -88,41 +89,17 @@ public class RowCounter {
 			}
 		} else {
 			if (BrowserContentPane.useInlineViewForResolvingAssociation(session)) {
-				try {
-					InlineViewStyle inlineViewStyle = session.getInlineViewStyle();
-					if (inlineViewStyle != null) {
-						return loadRowBlocks(andCond, context, limit, selectDistinct, pRows, rowSet, 258, maxTime, inlineViewStyle);
-					}
-				} catch (Throwable e) { // embedded DBMS may throw non-SQLException
-					if (System.currentTimeMillis() >= maxTime) {
-						return new RowCount(-1, true);
+				InlineViewStyle inlineViewStyle = session.getInlineViewStyle();
+				if (inlineViewStyle != null) {
+					RowCount rowCount = loadRowBlocksAdaptively(andCond, context, limit, selectDistinct, pRows, rowSet, maxTime, inlineViewStyle, 1);
+					if (rowCount != null) {
+						return rowCount;
 					}
-					Session._log.warn("failed, try another blocking-size (" +  e.getMessage() + ")");
 				}
 			}
-			try {
-				return loadRowBlocks(andCond, context, limit, selectDistinct, pRows, rowSet, 258, maxTime, null);
-			} catch (Throwable e) { // embedded DBMS may throw non-SQLException
-				if (System.currentTimeMillis() >= maxTime) {
-					return new RowCount(-1, true);
-				}
-				Session._log.warn("failed, try another blocking-size (" +  e.getMessage() + ")");
-			}
-			try {
-				return loadRowBlocks(andCond, context, limit, selectDistinct, pRows, rowSet, 100, maxTime, null);
-			} catch (Throwable e) { // embedded DBMS may throw non-SQLException
-				if (System.currentTimeMillis() >= maxTime) {
-					return new RowCount(-1, true);
-				}
-				Session._log.warn("failed, try another blocking-size (" +  e.getMessage() + ")");
-			}
-			try {
-				return loadRowBlocks(andCond, context, limit, selectDistinct, pRows, rowSet, 40, maxTime, null);
-			} catch (Throwable e) { // embedded DBMS may throw non-SQLException
-				if (System.currentTimeMillis() >= maxTime) {
-					return new RowCount(-1, true);
-				}
-				Session._log.warn("failed, try another blocking-size (" +  e.getMessage() + ")");
+			RowCount rowCount = loadRowBlocksAdaptively(andCond, context, limit, selectDistinct, pRows, rowSet, maxTime, null, MAX_ATTEMPTS);
+			if (rowCount != null) {
+				return rowCount;
 			}
 		}
 
@@ -136,8 +113,58 @@ public class RowCounter {
 		}
 	}
 
+	/**
+	 * Initial number of rows per count-statement.
+	 */
+	private static final int INITIAL_BLOCK_SIZE = 258;
+
+	/**
+	 * Maximum number of rows per count-statement.
+	 */
+	private static final int MAX_BLOCK_SIZE = 1024;
+
+	/**
+	 * Maximum number of attempts with decreasing block sizes before falling back to single rows.
+	 */
+	private static final int MAX_ATTEMPTS = 3;
+
+	/**
+	 * Loads row blocks with a block size that adapts to the measured latency (see {@link BlockSizeController}).
+	 * The block size is decreased after each failure.
+	 *
+	 * @return the row count, or <code>null</code> if all attempts failed
+	 */
+	private RowCount loadRowBlocksAdaptively(String andCond, Object context, int limit, boolean selectDistinct, List<Row> pRows,
+			Map<String, Row> rowSet, long maxTime, InlineViewStyle inlineViewStyle, int maxAttempts) {
+		BlockSizeController blockSizeController = BlockSizeController.forSession(session, inlineViewStyle != null? "row-counter-inline-views" : "row-counter", INITIAL_BLOCK_SIZE, MAX_BLOCK_SIZE);
+		for (int attempt = 0; attempt < maxAttempts; ++attempt) {
+			int blockSize = blockSizeController.getBlockSize();
+			if (blockSize <= 1) {
+				break;
+			}
+			try {
+				return loadRowBlocks(andCond, context, limit, selectDistinct, pRows, rowSet, blockSize, maxTime, inlineViewStyle, blockSizeController);
+			} catch (Throwable e) { // embedded DBMS may throw non-SQLException
+				if (System.currentTimeMillis() >= maxTime) {
+					return new RowCount(-1, true);
+				}
+				Session._log.warn("failed, try another blocking-size (" +  e.getMessage() + ")");
+				if (pRows.size() <= blockSize / 2) {
+					break;
+				}
+				blockSizeController.failed(Math.min(blockSize, pRows.size()));
+			}
+		}
+		return null;
+	}
+
 	private RowCount loadRowBlocks(String andCond, Object context, int limit, boolean selectDistinct, List<Row> pRows,
 			Map<String, Row> rowSet, int NUM_PARENTS, long maxTime, InlineViewStyle inlineViewStyle) throws SQLException {
+		return loadRowBlocks(andCond, context, limit, selectDistinct, pRows, rowSet, NUM_PARENTS, maxTime, inlineViewStyle, null);
+	}
+
+	private RowCount loadRowBlocks(String andCond, Object context, int limit, boolean selectDistinct, List<Row> pRows,
+			Map<String, Row> rowSet, int NUM_PARENTS, long maxTime, InlineViewStyle inlineViewStyle, BlockSizeController blockSizeController) throws SQLException {
 		List<List<Row>> parentBlocks = new ArrayList<List<Row>>();
 		List<Row> currentBlock = new ArrayList<Row>();
 		parentBlocks.add(currentBlock);
@@ -167,6 +194,7 @@ public class RowCounter {
 			}
 
 			long brc = 0;
+			long startTime = System.nanoTime();
 			if (session.dbms.getSqlLimitSuffix() != null) {
 				try {
 					session.setSilent(true);
@@ -203,6 +231,9 @@ public class RowCounter {
 					}
 				}
 			}
+			if (blockSizeController != null && pRowBlock != null) {
+				blockSizeController.measured(NUM_PARENTS, pRowBlock.size(), lastStatementLength, System.nanoTime() - startTime);
+			}
 			if (rc > 0 && brc > 0) {
 				isExact = false;
 				break;
@@ -217,6 +248,11 @@ public class RowCounter {
 		return new RowCount(rc, isExact);
 	}
 
+	/**
+	 * Length of the last count-statement.
+	 */
+	private int lastStatementLength;
+
 	/**
 	 * Alias for row number column.
 	 */
@@ -337,6 +373,7 @@ public class RowCounter {
 		final long[] rc = new long[1];
 		if (sql.length() > 0) {
 			sql = "Select count(*) From (" + sql + ") JLASRCNT";
+			lastStatementLength = sql.length();
 			int timeout = (int) Math.max(1, (maxTime - System.currentTimeMillis()) / 1000);
 
 			session.executeQuery(sql, new Session.ResultSetReader() {
@@ -0,0 +1,94 @@
+Update DML_TEST set NAME=null, AMOUNT=-1.00, CREATED='2017-07-14 02:40:00.0', REMARK=null, CATEGORY=0 Where ID=0;
+Update DML_TEST set NAME='Name 1', AMOUNT=-0.63, CREATED='2017-07-14 02:40:01.001', REMARK='Remark ''no. 1''', CATEGORY=1 Where ID=1;
+Update DML_TEST set NAME='Name 2', AMOUNT=-0.26, CREATED='2017-07-14 02:40:02.002', REMARK='Remark ''no. 2''', CATEGORY=2 Where ID=2;
+Update DML_TEST set NAME='Name 3', AMOUNT=0.11, CREATED='2017-07-14 02:40:03.003', REMARK=null, CATEGORY=3 Where ID=3;
+Update DML_TEST set NAME='Name 4', AMOUNT=0.48, CREATED='2017-07-14 02:40:04.004', REMARK='Remark ''no. 4''', CATEGORY=4 Where ID=4;
+Update DML_TEST set NAME=null, AMOUNT=0.85, CREATED='2017-07-14 02:40:05.005', REMARK='Remark ''no. 5''', CATEGORY=5 Where ID=5;
+Update DML_TEST set NAME='Name 6', AMOUNT=1.22, CREATED='2017-07-14 02:40:06.006', REMARK=null, CATEGORY=6 Where ID=6;
+Update DML_TEST set NAME='Name 7', AMOUNT=1.59, CREATED='2017-07-14 02:40:07.007', REMARK='Remark ''no. 7''', CATEGORY=0 Where ID=7;
+Update DML_TEST set NAME='Name 8', AMOUNT=1.96, CREATED='2017-07-14 02:40:08.008', REMARK='Remark ''no. 8''', CATEGORY=1 Where ID=8;
+Update DML_TEST set NAME='Name 9', AMOUNT=2.33, CREATED='2017-07-14 02:40:09.009', REMARK=null, CATEGORY=2 Where ID=9;
+Update DML_TEST set NAME=null, AMOUNT=2.70, CREATED='2017-07-14 02:40:10.01', REMARK='Remark ''no. 10''', CATEGORY=3 Where ID=10;
+Update DML_TEST set NAME='Name 11', AMOUNT=3.07, CREATED='2017-07-14 02:40:11.011', REMARK='Remark ''no. 11''', CATEGORY=4 Where ID=11;
+Update DML_TEST set NAME='Name 12', AMOUNT=3.44, CREATED='2017-07-14 02:40:12.012', REMARK=null, CATEGORY=5 Where ID=12;
+Update DML_TEST set NAME='Name 13', AMOUNT=3.81, CREATED='2017-07-14 02:40:13.013', REMARK='Remark ''no. 13''', CATEGORY=6 Where ID=13;
+Update DML_TEST set NAME='Name 14', AMOUNT=4.18, CREATED='2017-07-14 02:40:14.014', REMARK='Remark ''no. 14''', CATEGORY=0 Where ID=14;
+Update DML_TEST set NAME=null, AMOUNT=4.55, CREATED='2017-07-14 02:40:15.015', REMARK=null, CATEGORY=1 Where ID=15;
+Update DML_TEST set NAME='Name 16', AMOUNT=4.92, CREATED='2017-07-14 02:40:16.016', REMARK='Remark ''no. 16''', CATEGORY=2 Where ID=16;
+Update DML_TEST set NAME='Name 17', AMOUNT=5.29, CREATED='2017-07-14 02:40:17.017', REMARK='Remark ''no. 17''', CATEGORY=3 Where ID=17;
+Update DML_TEST set NAME='Name 18', AMOUNT=5.66, CREATED='2017-07-14 02:40:18.018', REMARK=null, CATEGORY=4 Where ID=18;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (
+ Select 1 ID, 'Name 1' NAME, -0.63 AMOUNT, '2017-07-14 02:40:01.001' CREATED, 'Remark ''no. 1''' REMARK, 1 CATEGORY union all 
+ Select 2, 'Name 2', -0.26, '2017-07-14 02:40:02.002', 'Remark ''no. 2''', 2 union all 
+ Select 4, 'Name 4', 0.48, '2017-07-14 02:40:04.004', 'Remark ''no. 4''', 4 union all 
+ Select 7, 'Name 7', 1.59, '2017-07-14 02:40:07.007', 'Remark ''no. 7''', 0 union all 
+ Select 8, 'Name 8', 1.96, '2017-07-14 02:40:08.008', 'Remark ''no. 8''', 1 union all 
+ Select 11, 'Name 11', 3.07, '2017-07-14 02:40:11.011', 'Remark ''no. 11''', 4 union all 
+ Select 13, 'Name 13', 3.81, '2017-07-14 02:40:13.013', 'Remark ''no. 13''', 6 union all 
+ Select 14, 'Name 14', 4.18, '2017-07-14 02:40:14.014', 'Remark ''no. 14''', 0 union all 
+ Select 16, 'Name 16', 4.92, '2017-07-14 02:40:16.016', 'Remark ''no. 16''', 2 union all 
+ Select 17, 'Name 17', 5.29, '2017-07-14 02:40:17.017', 'Remark ''no. 17''', 3) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update DML_TEST set NAME='Name 19', AMOUNT=6.03, CREATED='2017-07-14 02:40:19.019', REMARK='Remark ''no. 19''', CATEGORY=5 Where ID=19;
+Update DML_TEST set NAME=null, AMOUNT=6.40, CREATED='2017-07-14 02:40:20.02', REMARK='Remark ''no. 20''', CATEGORY=6 Where ID=20;
+Update DML_TEST set NAME='Name 21', AMOUNT=6.77, CREATED='2017-07-14 02:40:21.021', REMARK=null, CATEGORY=0 Where ID=21;
+Update DML_TEST set NAME='Name 22', AMOUNT=7.14, CREATED='2017-07-14 02:40:22.022', REMARK='Remark ''no. 22''', CATEGORY=1 Where ID=22;
+Update DML_TEST set NAME='Name 23', AMOUNT=7.51, CREATED='2017-07-14 02:40:23.023', REMARK='Remark ''no. 23''', CATEGORY=2 Where ID=23;
+Update DML_TEST set NAME='Name 24', AMOUNT=7.88, CREATED='2017-07-14 02:40:24.024', REMARK=null, CATEGORY=3 Where ID=24;
+Update DML_TEST set NAME=null, AMOUNT=8.25, CREATED='2017-07-14 02:40:25.025', REMARK='Remark ''no. 25''', CATEGORY=4 Where ID=25;
+Update DML_TEST set NAME='Name 26', AMOUNT=8.62, CREATED='2017-07-14 02:40:26.026', REMARK='Remark ''no. 26''', CATEGORY=5 Where ID=26;
+Update DML_TEST set NAME='Name 27', AMOUNT=8.99, CREATED='2017-07-14 02:40:27.027', REMARK=null, CATEGORY=6 Where ID=27;
+Update DML_TEST set NAME='Name 28', AMOUNT=9.36, CREATED='2017-07-14 02:40:28.028', REMARK='Remark ''no. 28''', CATEGORY=0 Where ID=28;
+Update DML_TEST set NAME='Name 29', AMOUNT=9.73, CREATED='2017-07-14 02:40:29.029', REMARK='Remark ''no. 29''', CATEGORY=1 Where ID=29;
+Update DML_TEST set NAME=null, AMOUNT=10.10, CREATED='2017-07-14 02:40:30.03', REMARK=null, CATEGORY=2 Where ID=30;
+Update DML_TEST set NAME='Name 31', AMOUNT=10.47, CREATED='2017-07-14 02:40:31.031', REMARK='Remark ''no. 31''', CATEGORY=3 Where ID=31;
+Update DML_TEST set NAME='Name 32', AMOUNT=10.84, CREATED='2017-07-14 02:40:32.032', REMARK='Remark ''no. 32''', CATEGORY=4 Where ID=32;
+Update DML_TEST set NAME='Name 33', AMOUNT=11.21, CREATED='2017-07-14 02:40:33.033', REMARK=null, CATEGORY=5 Where ID=33;
+Update DML_TEST set NAME='Name 34', AMOUNT=11.58, CREATED='2017-07-14 02:40:34.034', REMARK='Remark ''no. 34''', CATEGORY=6 Where ID=34;
+Update DML_TEST set NAME=null, AMOUNT=11.95, CREATED='2017-07-14 02:40:35.035', REMARK='Remark ''no. 35''', CATEGORY=0 Where ID=35;
+Update DML_TEST set NAME='Name 36', AMOUNT=12.32, CREATED='2017-07-14 02:40:36.036', REMARK=null, CATEGORY=1 Where ID=36;
+Update DML_TEST set NAME='Name 37', AMOUNT=12.69, CREATED='2017-07-14 02:40:37.037', REMARK='Remark ''no. 37''', CATEGORY=2 Where ID=37;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (
+ Select 19 ID, 'Name 19' NAME, 6.03 AMOUNT, '2017-07-14 02:40:19.019' CREATED, 'Remark ''no. 19''' REMARK, 5 CATEGORY union all 
+ Select 22, 'Name 22', 7.14, '2017-07-14 02:40:22.022', 'Remark ''no. 22''', 1 union all 
+ Select 23, 'Name 23', 7.51, '2017-07-14 02:40:23.023', 'Remark ''no. 23''', 2 union all 
+ Select 26, 'Name 26', 8.62, '2017-07-14 02:40:26.026', 'Remark ''no. 26''', 5 union all 
+ Select 28, 'Name 28', 9.36, '2017-07-14 02:40:28.028', 'Remark ''no. 28''', 0 union all 
+ Select 29, 'Name 29', 9.73, '2017-07-14 02:40:29.029', 'Remark ''no. 29''', 1 union all 
+ Select 31, 'Name 31', 10.47, '2017-07-14 02:40:31.031', 'Remark ''no. 31''', 3 union all 
+ Select 32, 'Name 32', 10.84, '2017-07-14 02:40:32.032', 'Remark ''no. 32''', 4 union all 
+ Select 34, 'Name 34', 11.58, '2017-07-14 02:40:34.034', 'Remark ''no. 34''', 6 union all 
+ Select 37, 'Name 37', 12.69, '2017-07-14 02:40:37.037', 'Remark ''no. 37''', 2) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update DML_TEST set NAME='Name 38', AMOUNT=13.06, CREATED='2017-07-14 02:40:38.038', REMARK='Remark ''no. 38''', CATEGORY=3 Where ID=38;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, CATEGORY) Select * From (
+ Select 3 ID, 'Name 3' NAME, 0.11 AMOUNT, '2017-07-14 02:40:03.003' CREATED, 3 CATEGORY union all 
+ Select 6, 'Name 6', 1.22, '2017-07-14 02:40:06.006', 6 union all 
+ Select 9, 'Name 9', 2.33, '2017-07-14 02:40:09.009', 2 union all 
+ Select 12, 'Name 12', 3.44, '2017-07-14 02:40:12.012', 5 union all 
+ Select 18, 'Name 18', 5.66, '2017-07-14 02:40:18.018', 4 union all 
+ Select 21, 'Name 21', 6.77, '2017-07-14 02:40:21.021', 0 union all 
+ Select 24, 'Name 24', 7.88, '2017-07-14 02:40:24.024', 3 union all 
+ Select 27, 'Name 27', 8.99, '2017-07-14 02:40:27.027', 6 union all 
+ Select 33, 'Name 33', 11.21, '2017-07-14 02:40:33.033', 5 union all 
+ Select 36, 'Name 36', 12.32, '2017-07-14 02:40:36.036', 1) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update DML_TEST set NAME='Name 39', AMOUNT=13.43, CREATED='2017-07-14 02:40:39.039', REMARK=null, CATEGORY=4 Where ID=39;
+Insert into DML_TEST(ID, AMOUNT, CREATED, CATEGORY) Select * From (
+ Select 0 ID, -1.00 AMOUNT, '2017-07-14 02:40:00.0' CREATED, 0 CATEGORY union all 
+ Select 15, 4.55, '2017-07-14 02:40:15.015', 1 union all 
+ Select 30, 10.10, '2017-07-14 02:40:30.03', 2) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (
+ Select 38 ID, 'Name 38' NAME, 13.06 AMOUNT, '2017-07-14 02:40:38.038' CREATED, 'Remark ''no. 38''' REMARK, 3 CATEGORY) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (
+ Select 5 ID, 0.85 AMOUNT, '2017-07-14 02:40:05.005' CREATED, 'Remark ''no. 5''' REMARK, 5 CATEGORY union all 
+ Select 10, 2.70, '2017-07-14 02:40:10.01', 'Remark ''no. 10''', 3 union all 
+ Select 20, 6.40, '2017-07-14 02:40:20.02', 'Remark ''no. 20''', 6 union all 
+ Select 25, 8.25, '2017-07-14 02:40:25.025', 'Remark ''no. 25''', 4 union all 
+ Select 35, 11.95, '2017-07-14 02:40:35.035', 'Remark ''no. 35''', 0) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, CATEGORY) Select * From (
+ Select 39 ID, 'Name 39' NAME, 13.43 AMOUNT, '2017-07-14 02:40:39.039' CREATED, 4 CATEGORY) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
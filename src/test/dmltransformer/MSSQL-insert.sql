@@ -0,0 +1,44 @@
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) values 
+ (0, null, -1.00, convert(datetime, '2017-07-14T02:40:00.000', 126), null, 0), 
+ (1, 'Name 1', -0.63, convert(datetime, '2017-07-14T02:40:01.001', 126), 'Remark ''no. 1''', 1), 
+ (2, 'Name 2', -0.26, convert(datetime, '2017-07-14T02:40:02.002', 126), 'Remark ''no. 2''', 2), 
+ (3, 'Name 3', 0.11, convert(datetime, '2017-07-14T02:40:03.003', 126), null, 3), 
+ (4, 'Name 4', 0.48, convert(datetime, '2017-07-14T02:40:04.004', 126), 'Remark ''no. 4''', 4), 
+ (5, null, 0.85, convert(datetime, '2017-07-14T02:40:05.005', 126), 'Remark ''no. 5''', 5), 
+ (6, 'Name 6', 1.22, convert(datetime, '2017-07-14T02:40:06.006', 126), null, 6), 
+ (7, 'Name 7', 1.59, convert(datetime, '2017-07-14T02:40:07.007', 126), 'Remark ''no. 7''', 0), 
+ (8, 'Name 8', 1.96, convert(datetime, '2017-07-14T02:40:08.008', 126), 'Remark ''no. 8''', 1), 
+ (9, 'Name 9', 2.33, convert(datetime, '2017-07-14T02:40:09.009', 126), null, 2);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) values 
+ (10, null, 2.70, convert(datetime, '2017-07-14T02:40:10.010', 126), 'Remark ''no. 10''', 3), 
+ (11, 'Name 11', 3.07, convert(datetime, '2017-07-14T02:40:11.011', 126), 'Remark ''no. 11''', 4), 
+ (12, 'Name 12', 3.44, convert(datetime, '2017-07-14T02:40:12.012', 126), null, 5), 
+ (13, 'Name 13', 3.81, convert(datetime, '2017-07-14T02:40:13.013', 126), 'Remark ''no. 13''', 6), 
+ (14, 'Name 14', 4.18, convert(datetime, '2017-07-14T02:40:14.014', 126), 'Remark ''no. 14''', 0), 
+ (15, null, 4.55, convert(datetime, '2017-07-14T02:40:15.015', 126), null, 1), 
+ (16, 'Name 16', 4.92, convert(datetime, '2017-07-14T02:40:16.016', 126), 'Remark ''no. 16''', 2), 
+ (17, 'Name 17', 5.29, convert(datetime, '2017-07-14T02:40:17.017', 126), 'Remark ''no. 17''', 3), 
+ (18, 'Name 18', 5.66, convert(datetime, '2017-07-14T02:40:18.018', 126), null, 4), 
+ (19, 'Name 19', 6.03, convert(datetime, '2017-07-14T02:40:19.019', 126), 'Remark ''no. 19''', 5);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) values 
+ (20, null, 6.40, convert(datetime, '2017-07-14T02:40:20.020', 126), 'Remark ''no. 20''', 6), 
+ (21, 'Name 21', 6.77, convert(datetime, '2017-07-14T02:40:21.021', 126), null, 0), 
+ (22, 'Name 22', 7.14, convert(datetime, '2017-07-14T02:40:22.022', 126), 'Remark ''no. 22''', 1), 
+ (23, 'Name 23', 7.51, convert(datetime, '2017-07-14T02:40:23.023', 126), 'Remark ''no. 23''', 2), 
+ (24, 'Name 24', 7.88, convert(datetime, '2017-07-14T02:40:24.024', 126), null, 3), 
+ (25, null, 8.25, convert(datetime, '2017-07-14T02:40:25.025', 126), 'Remark ''no. 25''', 4), 
+ (26, 'Name 26', 8.62, convert(datetime, '2017-07-14T02:40:26.026', 126), 'Remark ''no. 26''', 5), 
+ (27, 'Name 27', 8.99, convert(datetime, '2017-07-14T02:40:27.027', 126), null, 6), 
+ (28, 'Name 28', 9.36, convert(datetime, '2017-07-14T02:40:28.028', 126), 'Remark ''no. 28''', 0), 
+ (29, 'Name 29', 9.73, convert(datetime, '2017-07-14T02:40:29.029', 126), 'Remark ''no. 29''', 1);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) values 
+ (30, null, 10.10, convert(datetime, '2017-07-14T02:40:30.030', 126), null, 2), 
+ (31, 'Name 31', 10.47, convert(datetime, '2017-07-14T02:40:31.031', 126), 'Remark ''no. 31''', 3), 
+ (32, 'Name 32', 10.84, convert(datetime, '2017-07-14T02:40:32.032', 126), 'Remark ''no. 32''', 4), 
+ (33, 'Name 33', 11.21, convert(datetime, '2017-07-14T02:40:33.033', 126), null, 5), 
+ (34, 'Name 34', 11.58, convert(datetime, '2017-07-14T02:40:34.034', 126), 'Remark ''no. 34''', 6), 
+ (35, null, 11.95, convert(datetime, '2017-07-14T02:40:35.035', 126), 'Remark ''no. 35''', 0), 
+ (36, 'Name 36', 12.32, convert(datetime, '2017-07-14T02:40:36.036', 126), null, 1), 
+ (37, 'Name 37', 12.69, convert(datetime, '2017-07-14T02:40:37.037', 126), 'Remark ''no. 37''', 2), 
+ (38, 'Name 38', 13.06, convert(datetime, '2017-07-14T02:40:38.038', 126), 'Remark ''no. 38''', 3), 
+ (39, 'Name 39', 13.43, convert(datetime, '2017-07-14T02:40:39.039', 126), null, 4);
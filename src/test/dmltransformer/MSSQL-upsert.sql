@@ -0,0 +1,95 @@
+Update T set T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY
+from DML_TEST T join (
+ Select 0, null, -1.00, convert(datetime, '2017-07-14T02:40:00.000', 126), null, 0 union all 
+ Select 1 ID, 'Name 1' NAME, -0.63 AMOUNT, convert(datetime, '2017-07-14T02:40:01.001', 126) CREATED, 'Remark ''no. 1''' REMARK, 1 CATEGORY union all 
+ Select 2 ID, 'Name 2' NAME, -0.26 AMOUNT, convert(datetime, '2017-07-14T02:40:02.002', 126) CREATED, 'Remark ''no. 2''' REMARK, 2 CATEGORY union all 
+ Select 3 ID, 'Name 3' NAME, 0.11 AMOUNT, convert(datetime, '2017-07-14T02:40:03.003', 126) CREATED, null REMARK, 3 CATEGORY union all 
+ Select 4 ID, 'Name 4' NAME, 0.48 AMOUNT, convert(datetime, '2017-07-14T02:40:04.004', 126) CREATED, 'Remark ''no. 4''' REMARK, 4 CATEGORY union all 
+ Select 5 ID, null NAME, 0.85 AMOUNT, convert(datetime, '2017-07-14T02:40:05.005', 126) CREATED, 'Remark ''no. 5''' REMARK, 5 CATEGORY union all 
+ Select 6 ID, 'Name 6' NAME, 1.22 AMOUNT, convert(datetime, '2017-07-14T02:40:06.006', 126) CREATED, null REMARK, 6 CATEGORY union all 
+ Select 7 ID, 'Name 7' NAME, 1.59 AMOUNT, convert(datetime, '2017-07-14T02:40:07.007', 126) CREATED, 'Remark ''no. 7''' REMARK, 0 CATEGORY union all 
+ Select 8 ID, 'Name 8' NAME, 1.96 AMOUNT, convert(datetime, '2017-07-14T02:40:08.008', 126) CREATED, 'Remark ''no. 8''' REMARK, 1 CATEGORY union all 
+ Select 9 ID, 'Name 9' NAME, 2.33 AMOUNT, convert(datetime, '2017-07-14T02:40:09.009', 126) CREATED, null REMARK, 2 CATEGORY) Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) on T.ID=Q.ID;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (values 
+ (1, 'Name 1', -0.63, convert(datetime, '2017-07-14T02:40:01.001', 126), 'Remark ''no. 1''', 1), 
+ (2, 'Name 2', -0.26, convert(datetime, '2017-07-14T02:40:02.002', 126), 'Remark ''no. 2''', 2), 
+ (4, 'Name 4', 0.48, convert(datetime, '2017-07-14T02:40:04.004', 126), 'Remark ''no. 4''', 4), 
+ (7, 'Name 7', 1.59, convert(datetime, '2017-07-14T02:40:07.007', 126), 'Remark ''no. 7''', 0), 
+ (8, 'Name 8', 1.96, convert(datetime, '2017-07-14T02:40:08.008', 126), 'Remark ''no. 8''', 1), 
+ (11, 'Name 11', 3.07, convert(datetime, '2017-07-14T02:40:11.011', 126), 'Remark ''no. 11''', 4), 
+ (13, 'Name 13', 3.81, convert(datetime, '2017-07-14T02:40:13.013', 126), 'Remark ''no. 13''', 6), 
+ (14, 'Name 14', 4.18, convert(datetime, '2017-07-14T02:40:14.014', 126), 'Remark ''no. 14''', 0), 
+ (16, 'Name 16', 4.92, convert(datetime, '2017-07-14T02:40:16.016', 126), 'Remark ''no. 16''', 2), 
+ (17, 'Name 17', 5.29, convert(datetime, '2017-07-14T02:40:17.017', 126), 'Remark ''no. 17''', 3)) as Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update T set T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY
+from DML_TEST T join (
+ Select 10 ID, null NAME, 2.70 AMOUNT, convert(datetime, '2017-07-14T02:40:10.010', 126) CREATED, 'Remark ''no. 10''' REMARK, 3 CATEGORY union all 
+ Select 11 ID, 'Name 11' NAME, 3.07 AMOUNT, convert(datetime, '2017-07-14T02:40:11.011', 126) CREATED, 'Remark ''no. 11''' REMARK, 4 CATEGORY union all 
+ Select 12 ID, 'Name 12' NAME, 3.44 AMOUNT, convert(datetime, '2017-07-14T02:40:12.012', 126) CREATED, null REMARK, 5 CATEGORY union all 
+ Select 13 ID, 'Name 13' NAME, 3.81 AMOUNT, convert(datetime, '2017-07-14T02:40:13.013', 126) CREATED, 'Remark ''no. 13''' REMARK, 6 CATEGORY union all 
+ Select 14 ID, 'Name 14' NAME, 4.18 AMOUNT, convert(datetime, '2017-07-14T02:40:14.014', 126) CREATED, 'Remark ''no. 14''' REMARK, 0 CATEGORY union all 
+ Select 15 ID, null NAME, 4.55 AMOUNT, convert(datetime, '2017-07-14T02:40:15.015', 126) CREATED, null REMARK, 1 CATEGORY union all 
+ Select 16 ID, 'Name 16' NAME, 4.92 AMOUNT, convert(datetime, '2017-07-14T02:40:16.016', 126) CREATED, 'Remark ''no. 16''' REMARK, 2 CATEGORY union all 
+ Select 17 ID, 'Name 17' NAME, 5.29 AMOUNT, convert(datetime, '2017-07-14T02:40:17.017', 126) CREATED, 'Remark ''no. 17''' REMARK, 3 CATEGORY union all 
+ Select 18 ID, 'Name 18' NAME, 5.66 AMOUNT, convert(datetime, '2017-07-14T02:40:18.018', 126) CREATED, null REMARK, 4 CATEGORY union all 
+ Select 19 ID, 'Name 19' NAME, 6.03 AMOUNT, convert(datetime, '2017-07-14T02:40:19.019', 126) CREATED, 'Remark ''no. 19''' REMARK, 5 CATEGORY) Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) on T.ID=Q.ID;
+Update T set T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY
+from DML_TEST T join (
+ Select 20 ID, null NAME, 6.40 AMOUNT, convert(datetime, '2017-07-14T02:40:20.020', 126) CREATED, 'Remark ''no. 20''' REMARK, 6 CATEGORY union all 
+ Select 21 ID, 'Name 21' NAME, 6.77 AMOUNT, convert(datetime, '2017-07-14T02:40:21.021', 126) CREATED, null REMARK, 0 CATEGORY union all 
+ Select 22 ID, 'Name 22' NAME, 7.14 AMOUNT, convert(datetime, '2017-07-14T02:40:22.022', 126) CREATED, 'Remark ''no. 22''' REMARK, 1 CATEGORY union all 
+ Select 23 ID, 'Name 23' NAME, 7.51 AMOUNT, convert(datetime, '2017-07-14T02:40:23.023', 126) CREATED, 'Remark ''no. 23''' REMARK, 2 CATEGORY union all 
+ Select 24 ID, 'Name 24' NAME, 7.88 AMOUNT, convert(datetime, '2017-07-14T02:40:24.024', 126) CREATED, null REMARK, 3 CATEGORY union all 
+ Select 25 ID, null NAME, 8.25 AMOUNT, convert(datetime, '2017-07-14T02:40:25.025', 126) CREATED, 'Remark ''no. 25''' REMARK, 4 CATEGORY union all 
+ Select 26 ID, 'Name 26' NAME, 8.62 AMOUNT, convert(datetime, '2017-07-14T02:40:26.026', 126) CREATED, 'Remark ''no. 26''' REMARK, 5 CATEGORY union all 
+ Select 27 ID, 'Name 27' NAME, 8.99 AMOUNT, convert(datetime, '2017-07-14T02:40:27.027', 126) CREATED, null REMARK, 6 CATEGORY union all 
+ Select 28 ID, 'Name 28' NAME, 9.36 AMOUNT, convert(datetime, '2017-07-14T02:40:28.028', 126) CREATED, 'Remark ''no. 28''' REMARK, 0 CATEGORY union all 
+ Select 29 ID, 'Name 29' NAME, 9.73 AMOUNT, convert(datetime, '2017-07-14T02:40:29.029', 126) CREATED, 'Remark ''no. 29''' REMARK, 1 CATEGORY) Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) on T.ID=Q.ID;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (values 
+ (19, 'Name 19', 6.03, convert(datetime, '2017-07-14T02:40:19.019', 126), 'Remark ''no. 19''', 5), 
+ (22, 'Name 22', 7.14, convert(datetime, '2017-07-14T02:40:22.022', 126), 'Remark ''no. 22''', 1), 
+ (23, 'Name 23', 7.51, convert(datetime, '2017-07-14T02:40:23.023', 126), 'Remark ''no. 23''', 2), 
+ (26, 'Name 26', 8.62, convert(datetime, '2017-07-14T02:40:26.026', 126), 'Remark ''no. 26''', 5), 
+ (28, 'Name 28', 9.36, convert(datetime, '2017-07-14T02:40:28.028', 126), 'Remark ''no. 28''', 0), 
+ (29, 'Name 29', 9.73, convert(datetime, '2017-07-14T02:40:29.029', 126), 'Remark ''no. 29''', 1), 
+ (31, 'Name 31', 10.47, convert(datetime, '2017-07-14T02:40:31.031', 126), 'Remark ''no. 31''', 3), 
+ (32, 'Name 32', 10.84, convert(datetime, '2017-07-14T02:40:32.032', 126), 'Remark ''no. 32''', 4), 
+ (34, 'Name 34', 11.58, convert(datetime, '2017-07-14T02:40:34.034', 126), 'Remark ''no. 34''', 6), 
+ (37, 'Name 37', 12.69, convert(datetime, '2017-07-14T02:40:37.037', 126), 'Remark ''no. 37''', 2)) as Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, CATEGORY) Select * From (values 
+ (3, 'Name 3', 0.11, convert(datetime, '2017-07-14T02:40:03.003', 126), 3), 
+ (6, 'Name 6', 1.22, convert(datetime, '2017-07-14T02:40:06.006', 126), 6), 
+ (9, 'Name 9', 2.33, convert(datetime, '2017-07-14T02:40:09.009', 126), 2), 
+ (12, 'Name 12', 3.44, convert(datetime, '2017-07-14T02:40:12.012', 126), 5), 
+ (18, 'Name 18', 5.66, convert(datetime, '2017-07-14T02:40:18.018', 126), 4), 
+ (21, 'Name 21', 6.77, convert(datetime, '2017-07-14T02:40:21.021', 126), 0), 
+ (24, 'Name 24', 7.88, convert(datetime, '2017-07-14T02:40:24.024', 126), 3), 
+ (27, 'Name 27', 8.99, convert(datetime, '2017-07-14T02:40:27.027', 126), 6), 
+ (33, 'Name 33', 11.21, convert(datetime, '2017-07-14T02:40:33.033', 126), 5), 
+ (36, 'Name 36', 12.32, convert(datetime, '2017-07-14T02:40:36.036', 126), 1)) as Q(ID, NAME, AMOUNT, CREATED, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update T set T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY
+from DML_TEST T join (
+ Select 30 ID, null NAME, 10.10 AMOUNT, convert(datetime, '2017-07-14T02:40:30.030', 126) CREATED, null REMARK, 2 CATEGORY union all 
+ Select 31 ID, 'Name 31' NAME, 10.47 AMOUNT, convert(datetime, '2017-07-14T02:40:31.031', 126) CREATED, 'Remark ''no. 31''' REMARK, 3 CATEGORY union all 
+ Select 32 ID, 'Name 32' NAME, 10.84 AMOUNT, convert(datetime, '2017-07-14T02:40:32.032', 126) CREATED, 'Remark ''no. 32''' REMARK, 4 CATEGORY union all 
+ Select 33 ID, 'Name 33' NAME, 11.21 AMOUNT, convert(datetime, '2017-07-14T02:40:33.033', 126) CREATED, null REMARK, 5 CATEGORY union all 
+ Select 34 ID, 'Name 34' NAME, 11.58 AMOUNT, convert(datetime, '2017-07-14T02:40:34.034', 126) CREATED, 'Remark ''no. 34''' REMARK, 6 CATEGORY union all 
+ Select 35 ID, null NAME, 11.95 AMOUNT, convert(datetime, '2017-07-14T02:40:35.035', 126) CREATED, 'Remark ''no. 35''' REMARK, 0 CATEGORY union all 
+ Select 36 ID, 'Name 36' NAME, 12.32 AMOUNT, convert(datetime, '2017-07-14T02:40:36.036', 126) CREATED, null REMARK, 1 CATEGORY union all 
+ Select 37 ID, 'Name 37' NAME, 12.69 AMOUNT, convert(datetime, '2017-07-14T02:40:37.037', 126) CREATED, 'Remark ''no. 37''' REMARK, 2 CATEGORY union all 
+ Select 38 ID, 'Name 38' NAME, 13.06 AMOUNT, convert(datetime, '2017-07-14T02:40:38.038', 126) CREATED, 'Remark ''no. 38''' REMARK, 3 CATEGORY union all 
+ Select 39 ID, 'Name 39' NAME, 13.43 AMOUNT, convert(datetime, '2017-07-14T02:40:39.039', 126) CREATED, null REMARK, 4 CATEGORY) Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) on T.ID=Q.ID;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, CATEGORY) Select * From (values 
+ (39, 'Name 39', 13.43, convert(datetime, '2017-07-14T02:40:39.039', 126), 4)) as Q(ID, NAME, AMOUNT, CREATED, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, AMOUNT, CREATED, CATEGORY) Select * From (values 
+ (0, -1.00, convert(datetime, '2017-07-14T02:40:00.000', 126), 0), 
+ (15, 4.55, convert(datetime, '2017-07-14T02:40:15.015', 126), 1), 
+ (30, 10.10, convert(datetime, '2017-07-14T02:40:30.030', 126), 2)) as Q(ID, AMOUNT, CREATED, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (values 
+ (5, 0.85, convert(datetime, '2017-07-14T02:40:05.005', 126), 'Remark ''no. 5''', 5), 
+ (10, 2.70, convert(datetime, '2017-07-14T02:40:10.010', 126), 'Remark ''no. 10''', 3), 
+ (20, 6.40, convert(datetime, '2017-07-14T02:40:20.020', 126), 'Remark ''no. 20''', 6), 
+ (25, 8.25, convert(datetime, '2017-07-14T02:40:25.025', 126), 'Remark ''no. 25''', 4), 
+ (35, 11.95, convert(datetime, '2017-07-14T02:40:35.035', 126), 'Remark ''no. 35''', 0)) as Q(ID, AMOUNT, CREATED, REMARK, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (values 
+ (38, 'Name 38', 13.06, convert(datetime, '2017-07-14T02:40:38.038', 126), 'Remark ''no. 38''', 3)) as Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
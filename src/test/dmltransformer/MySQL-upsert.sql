@@ -0,0 +1,102 @@
+Update DML_TEST T join (
+ Select 0 ID, null NAME, -1.00 AMOUNT, str_to_date('2017-07-14 02:40:00.0', '%Y-%m-%d %H:%i:%s.%f') CREATED, null REMARK, 0 CATEGORY union all 
+ Select 1, 'Name 1', -0.63, str_to_date('2017-07-14 02:40:01.001', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 1''', 1 union all 
+ Select 2, 'Name 2', -0.26, str_to_date('2017-07-14 02:40:02.002', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 2''', 2 union all 
+ Select 3, 'Name 3', 0.11, str_to_date('2017-07-14 02:40:03.003', '%Y-%m-%d %H:%i:%s.%f'), null, 3 union all 
+ Select 4, 'Name 4', 0.48, str_to_date('2017-07-14 02:40:04.004', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 4''', 4 union all 
+ Select 5, null, 0.85, str_to_date('2017-07-14 02:40:05.005', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 5''', 5 union all 
+ Select 6, 'Name 6', 1.22, str_to_date('2017-07-14 02:40:06.006', '%Y-%m-%d %H:%i:%s.%f'), null, 6 union all 
+ Select 7, 'Name 7', 1.59, str_to_date('2017-07-14 02:40:07.007', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 7''', 0 union all 
+ Select 8, 'Name 8', 1.96, str_to_date('2017-07-14 02:40:08.008', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 8''', 1 union all 
+ Select 9, 'Name 9', 2.33, str_to_date('2017-07-14 02:40:09.009', '%Y-%m-%d %H:%i:%s.%f'), null, 2) Q on T.ID=Q.ID
+set T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (
+ Select 1 ID, 'Name 1' NAME, -0.63 AMOUNT, str_to_date('2017-07-14 02:40:01.001', '%Y-%m-%d %H:%i:%s.%f') CREATED, 'Remark ''no. 1''' REMARK, 1 CATEGORY union all 
+ Select 2, 'Name 2', -0.26, str_to_date('2017-07-14 02:40:02.002', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 2''', 2 union all 
+ Select 4, 'Name 4', 0.48, str_to_date('2017-07-14 02:40:04.004', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 4''', 4 union all 
+ Select 7, 'Name 7', 1.59, str_to_date('2017-07-14 02:40:07.007', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 7''', 0 union all 
+ Select 8, 'Name 8', 1.96, str_to_date('2017-07-14 02:40:08.008', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 8''', 1 union all 
+ Select 11, 'Name 11', 3.07, str_to_date('2017-07-14 02:40:11.011', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 11''', 4 union all 
+ Select 13, 'Name 13', 3.81, str_to_date('2017-07-14 02:40:13.013', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 13''', 6 union all 
+ Select 14, 'Name 14', 4.18, str_to_date('2017-07-14 02:40:14.014', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 14''', 0 union all 
+ Select 16, 'Name 16', 4.92, str_to_date('2017-07-14 02:40:16.016', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 16''', 2 union all 
+ Select 17, 'Name 17', 5.29, str_to_date('2017-07-14 02:40:17.017', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 17''', 3) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update DML_TEST T join (
+ Select 10 ID, null NAME, 2.70 AMOUNT, str_to_date('2017-07-14 02:40:10.01', '%Y-%m-%d %H:%i:%s.%f') CREATED, 'Remark ''no. 10''' REMARK, 3 CATEGORY union all 
+ Select 11, 'Name 11', 3.07, str_to_date('2017-07-14 02:40:11.011', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 11''', 4 union all 
+ Select 12, 'Name 12', 3.44, str_to_date('2017-07-14 02:40:12.012', '%Y-%m-%d %H:%i:%s.%f'), null, 5 union all 
+ Select 13, 'Name 13', 3.81, str_to_date('2017-07-14 02:40:13.013', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 13''', 6 union all 
+ Select 14, 'Name 14', 4.18, str_to_date('2017-07-14 02:40:14.014', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 14''', 0 union all 
+ Select 15, null, 4.55, str_to_date('2017-07-14 02:40:15.015', '%Y-%m-%d %H:%i:%s.%f'), null, 1 union all 
+ Select 16, 'Name 16', 4.92, str_to_date('2017-07-14 02:40:16.016', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 16''', 2 union all 
+ Select 17, 'Name 17', 5.29, str_to_date('2017-07-14 02:40:17.017', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 17''', 3 union all 
+ Select 18, 'Name 18', 5.66, str_to_date('2017-07-14 02:40:18.018', '%Y-%m-%d %H:%i:%s.%f'), null, 4 union all 
+ Select 19, 'Name 19', 6.03, str_to_date('2017-07-14 02:40:19.019', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 19''', 5) Q on T.ID=Q.ID
+set T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY;
+Update DML_TEST T join (
+ Select 20 ID, null NAME, 6.40 AMOUNT, str_to_date('2017-07-14 02:40:20.02', '%Y-%m-%d %H:%i:%s.%f') CREATED, 'Remark ''no. 20''' REMARK, 6 CATEGORY union all 
+ Select 21, 'Name 21', 6.77, str_to_date('2017-07-14 02:40:21.021', '%Y-%m-%d %H:%i:%s.%f'), null, 0 union all 
+ Select 22, 'Name 22', 7.14, str_to_date('2017-07-14 02:40:22.022', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 22''', 1 union all 
+ Select 23, 'Name 23', 7.51, str_to_date('2017-07-14 02:40:23.023', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 23''', 2 union all 
+ Select 24, 'Name 24', 7.88, str_to_date('2017-07-14 02:40:24.024', '%Y-%m-%d %H:%i:%s.%f'), null, 3 union all 
+ Select 25, null, 8.25, str_to_date('2017-07-14 02:40:25.025', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 25''', 4 union all 
+ Select 26, 'Name 26', 8.62, str_to_date('2017-07-14 02:40:26.026', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 26''', 5 union all 
+ Select 27, 'Name 27', 8.99, str_to_date('2017-07-14 02:40:27.027', '%Y-%m-%d %H:%i:%s.%f'), null, 6 union all 
+ Select 28, 'Name 28', 9.36, str_to_date('2017-07-14 02:40:28.028', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 28''', 0 union all 
+ Select 29, 'Name 29', 9.73, str_to_date('2017-07-14 02:40:29.029', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 29''', 1) Q on T.ID=Q.ID
+set T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (
+ Select 19 ID, 'Name 19' NAME, 6.03 AMOUNT, str_to_date('2017-07-14 02:40:19.019', '%Y-%m-%d %H:%i:%s.%f') CREATED, 'Remark ''no. 19''' REMARK, 5 CATEGORY union all 
+ Select 22, 'Name 22', 7.14, str_to_date('2017-07-14 02:40:22.022', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 22''', 1 union all 
+ Select 23, 'Name 23', 7.51, str_to_date('2017-07-14 02:40:23.023', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 23''', 2 union all 
+ Select 26, 'Name 26', 8.62, str_to_date('2017-07-14 02:40:26.026', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 26''', 5 union all 
+ Select 28, 'Name 28', 9.36, str_to_date('2017-07-14 02:40:28.028', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 28''', 0 union all 
+ Select 29, 'Name 29', 9.73, str_to_date('2017-07-14 02:40:29.029', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 29''', 1 union all 
+ Select 31, 'Name 31', 10.47, str_to_date('2017-07-14 02:40:31.031', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 31''', 3 union all 
+ Select 32, 'Name 32', 10.84, str_to_date('2017-07-14 02:40:32.032', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 32''', 4 union all 
+ Select 34, 'Name 34', 11.58, str_to_date('2017-07-14 02:40:34.034', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 34''', 6 union all 
+ Select 37, 'Name 37', 12.69, str_to_date('2017-07-14 02:40:37.037', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 37''', 2) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, CATEGORY) Select * From (
+ Select 3 ID, 'Name 3' NAME, 0.11 AMOUNT, str_to_date('2017-07-14 02:40:03.003', '%Y-%m-%d %H:%i:%s.%f') CREATED, 3 CATEGORY union all 
+ Select 6, 'Name 6', 1.22, str_to_date('2017-07-14 02:40:06.006', '%Y-%m-%d %H:%i:%s.%f'), 6 union all 
+ Select 9, 'Name 9', 2.33, str_to_date('2017-07-14 02:40:09.009', '%Y-%m-%d %H:%i:%s.%f'), 2 union all 
+ Select 12, 'Name 12', 3.44, str_to_date('2017-07-14 02:40:12.012', '%Y-%m-%d %H:%i:%s.%f'), 5 union all 
+ Select 18, 'Name 18', 5.66, str_to_date('2017-07-14 02:40:18.018', '%Y-%m-%d %H:%i:%s.%f'), 4 union all 
+ Select 21, 'Name 21', 6.77, str_to_date('2017-07-14 02:40:21.021', '%Y-%m-%d %H:%i:%s.%f'), 0 union all 
+ Select 24, 'Name 24', 7.88, str_to_date('2017-07-14 02:40:24.024', '%Y-%m-%d %H:%i:%s.%f'), 3 union all 
+ Select 27, 'Name 27', 8.99, str_to_date('2017-07-14 02:40:27.027', '%Y-%m-%d %H:%i:%s.%f'), 6 union all 
+ Select 33, 'Name 33', 11.21, str_to_date('2017-07-14 02:40:33.033', '%Y-%m-%d %H:%i:%s.%f'), 5 union all 
+ Select 36, 'Name 36', 12.32, str_to_date('2017-07-14 02:40:36.036', '%Y-%m-%d %H:%i:%s.%f'), 1) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update DML_TEST T join (
+ Select 30 ID, null NAME, 10.10 AMOUNT, str_to_date('2017-07-14 02:40:30.03', '%Y-%m-%d %H:%i:%s.%f') CREATED, null REMARK, 2 CATEGORY union all 
+ Select 31, 'Name 31', 10.47, str_to_date('2017-07-14 02:40:31.031', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 31''', 3 union all 
+ Select 32, 'Name 32', 10.84, str_to_date('2017-07-14 02:40:32.032', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 32''', 4 union all 
+ Select 33, 'Name 33', 11.21, str_to_date('2017-07-14 02:40:33.033', '%Y-%m-%d %H:%i:%s.%f'), null, 5 union all 
+ Select 34, 'Name 34', 11.58, str_to_date('2017-07-14 02:40:34.034', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 34''', 6 union all 
+ Select 35, null, 11.95, str_to_date('2017-07-14 02:40:35.035', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 35''', 0 union all 
+ Select 36, 'Name 36', 12.32, str_to_date('2017-07-14 02:40:36.036', '%Y-%m-%d %H:%i:%s.%f'), null, 1 union all 
+ Select 37, 'Name 37', 12.69, str_to_date('2017-07-14 02:40:37.037', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 37''', 2 union all 
+ Select 38, 'Name 38', 13.06, str_to_date('2017-07-14 02:40:38.038', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 38''', 3 union all 
+ Select 39, 'Name 39', 13.43, str_to_date('2017-07-14 02:40:39.039', '%Y-%m-%d %H:%i:%s.%f'), null, 4) Q on T.ID=Q.ID
+set T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY;
+Insert into DML_TEST(ID, AMOUNT, CREATED, CATEGORY) Select * From (
+ Select 0 ID, -1.00 AMOUNT, str_to_date('2017-07-14 02:40:00.0', '%Y-%m-%d %H:%i:%s.%f') CREATED, 0 CATEGORY union all 
+ Select 15, 4.55, str_to_date('2017-07-14 02:40:15.015', '%Y-%m-%d %H:%i:%s.%f'), 1 union all 
+ Select 30, 10.10, str_to_date('2017-07-14 02:40:30.03', '%Y-%m-%d %H:%i:%s.%f'), 2) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (
+ Select 38 ID, 'Name 38' NAME, 13.06 AMOUNT, str_to_date('2017-07-14 02:40:38.038', '%Y-%m-%d %H:%i:%s.%f') CREATED, 'Remark ''no. 38''' REMARK, 3 CATEGORY) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (
+ Select 5 ID, 0.85 AMOUNT, str_to_date('2017-07-14 02:40:05.005', '%Y-%m-%d %H:%i:%s.%f') CREATED, 'Remark ''no. 5''' REMARK, 5 CATEGORY union all 
+ Select 10, 2.70, str_to_date('2017-07-14 02:40:10.01', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 10''', 3 union all 
+ Select 20, 6.40, str_to_date('2017-07-14 02:40:20.02', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 20''', 6 union all 
+ Select 25, 8.25, str_to_date('2017-07-14 02:40:25.025', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 25''', 4 union all 
+ Select 35, 11.95, str_to_date('2017-07-14 02:40:35.035', '%Y-%m-%d %H:%i:%s.%f'), 'Remark ''no. 35''', 0) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, CATEGORY) Select * From (
+ Select 39 ID, 'Name 39' NAME, 13.43 AMOUNT, str_to_date('2017-07-14 02:40:39.039', '%Y-%m-%d %H:%i:%s.%f') CREATED, 4 CATEGORY) as Q 
+Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
@@ -0,0 +1,52 @@
+MERGE INTO DML_TEST T USING(
+  Select 0 ID, null NAME, -1.00 AMOUNT, to_timestamp('2017-07-14 02.40.00.0', 'YYYY-MM-DD HH24.MI.SS.FF1') CREATED, null REMARK, 0 CATEGORY from dual UNION ALL 
+  Select 1, 'Name 1', -0.63, to_timestamp('2017-07-14 02.40.01.001', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 1''', 1 from dual UNION ALL 
+  Select 2, 'Name 2', -0.26, to_timestamp('2017-07-14 02.40.02.002', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 2''', 2 from dual UNION ALL 
+  Select 3, 'Name 3', 0.11, to_timestamp('2017-07-14 02.40.03.003', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 3 from dual UNION ALL 
+  Select 4, 'Name 4', 0.48, to_timestamp('2017-07-14 02.40.04.004', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 4''', 4 from dual UNION ALL 
+  Select 5, null, 0.85, to_timestamp('2017-07-14 02.40.05.005', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 5''', 5 from dual UNION ALL 
+  Select 6, 'Name 6', 1.22, to_timestamp('2017-07-14 02.40.06.006', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 6 from dual UNION ALL 
+  Select 7, 'Name 7', 1.59, to_timestamp('2017-07-14 02.40.07.007', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 7''', 0 from dual UNION ALL 
+  Select 8, 'Name 8', 1.96, to_timestamp('2017-07-14 02.40.08.008', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 8''', 1 from dual UNION ALL 
+  Select 9, 'Name 9', 2.33, to_timestamp('2017-07-14 02.40.09.009', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 2 from dual) Q ON(T.ID=Q.ID) 
+WHEN MATCHED THEN UPDATE SET T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY 
+WHEN NOT MATCHED THEN INSERT (T.ID, T.NAME, T.AMOUNT, T.CREATED, T.REMARK, T.CATEGORY) VALUES(Q.ID, Q.NAME, Q.AMOUNT, Q.CREATED, Q.REMARK, Q.CATEGORY);
+MERGE INTO DML_TEST T USING(
+  Select 10 ID, null NAME, 2.70 AMOUNT, to_timestamp('2017-07-14 02.40.10.01', 'YYYY-MM-DD HH24.MI.SS.FF2') CREATED, 'Remark ''no. 10''' REMARK, 3 CATEGORY from dual UNION ALL 
+  Select 11, 'Name 11', 3.07, to_timestamp('2017-07-14 02.40.11.011', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 11''', 4 from dual UNION ALL 
+  Select 12, 'Name 12', 3.44, to_timestamp('2017-07-14 02.40.12.012', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 5 from dual UNION ALL 
+  Select 13, 'Name 13', 3.81, to_timestamp('2017-07-14 02.40.13.013', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 13''', 6 from dual UNION ALL 
+  Select 14, 'Name 14', 4.18, to_timestamp('2017-07-14 02.40.14.014', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 14''', 0 from dual UNION ALL 
+  Select 15, null, 4.55, to_timestamp('2017-07-14 02.40.15.015', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 1 from dual UNION ALL 
+  Select 16, 'Name 16', 4.92, to_timestamp('2017-07-14 02.40.16.016', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 16''', 2 from dual UNION ALL 
+  Select 17, 'Name 17', 5.29, to_timestamp('2017-07-14 02.40.17.017', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 17''', 3 from dual UNION ALL 
+  Select 18, 'Name 18', 5.66, to_timestamp('2017-07-14 02.40.18.018', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 4 from dual UNION ALL 
+  Select 19, 'Name 19', 6.03, to_timestamp('2017-07-14 02.40.19.019', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 19''', 5 from dual) Q ON(T.ID=Q.ID) 
+WHEN MATCHED THEN UPDATE SET T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY 
+WHEN NOT MATCHED THEN INSERT (T.ID, T.NAME, T.AMOUNT, T.CREATED, T.REMARK, T.CATEGORY) VALUES(Q.ID, Q.NAME, Q.AMOUNT, Q.CREATED, Q.REMARK, Q.CATEGORY);
+MERGE INTO DML_TEST T USING(
+  Select 20 ID, null NAME, 6.40 AMOUNT, to_timestamp('2017-07-14 02.40.20.02', 'YYYY-MM-DD HH24.MI.SS.FF2') CREATED, 'Remark ''no. 20''' REMARK, 6 CATEGORY from dual UNION ALL 
+  Select 21, 'Name 21', 6.77, to_timestamp('2017-07-14 02.40.21.021', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 0 from dual UNION ALL 
+  Select 22, 'Name 22', 7.14, to_timestamp('2017-07-14 02.40.22.022', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 22''', 1 from dual UNION ALL 
+  Select 23, 'Name 23', 7.51, to_timestamp('2017-07-14 02.40.23.023', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 23''', 2 from dual UNION ALL 
+  Select 24, 'Name 24', 7.88, to_timestamp('2017-07-14 02.40.24.024', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 3 from dual UNION ALL 
+  Select 25, null, 8.25, to_timestamp('2017-07-14 02.40.25.025', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 25''', 4 from dual UNION ALL 
+  Select 26, 'Name 26', 8.62, to_timestamp('2017-07-14 02.40.26.026', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 26''', 5 from dual UNION ALL 
+  Select 27, 'Name 27', 8.99, to_timestamp('2017-07-14 02.40.27.027', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 6 from dual UNION ALL 
+  Select 28, 'Name 28', 9.36, to_timestamp('2017-07-14 02.40.28.028', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 28''', 0 from dual UNION ALL 
+  Select 29, 'Name 29', 9.73, to_timestamp('2017-07-14 02.40.29.029', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 29''', 1 from dual) Q ON(T.ID=Q.ID) 
+WHEN MATCHED THEN UPDATE SET T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY 
+WHEN NOT MATCHED THEN INSERT (T.ID, T.NAME, T.AMOUNT, T.CREATED, T.REMARK, T.CATEGORY) VALUES(Q.ID, Q.NAME, Q.AMOUNT, Q.CREATED, Q.REMARK, Q.CATEGORY);
+MERGE INTO DML_TEST T USING(
+  Select 30 ID, null NAME, 10.10 AMOUNT, to_timestamp('2017-07-14 02.40.30.03', 'YYYY-MM-DD HH24.MI.SS.FF2') CREATED, null REMARK, 2 CATEGORY from dual UNION ALL 
+  Select 31, 'Name 31', 10.47, to_timestamp('2017-07-14 02.40.31.031', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 31''', 3 from dual UNION ALL 
+  Select 32, 'Name 32', 10.84, to_timestamp('2017-07-14 02.40.32.032', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 32''', 4 from dual UNION ALL 
+  Select 33, 'Name 33', 11.21, to_timestamp('2017-07-14 02.40.33.033', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 5 from dual UNION ALL 
+  Select 34, 'Name 34', 11.58, to_timestamp('2017-07-14 02.40.34.034', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 34''', 6 from dual UNION ALL 
+  Select 35, null, 11.95, to_timestamp('2017-07-14 02.40.35.035', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 35''', 0 from dual UNION ALL 
+  Select 36, 'Name 36', 12.32, to_timestamp('2017-07-14 02.40.36.036', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 1 from dual UNION ALL 
+  Select 37, 'Name 37', 12.69, to_timestamp('2017-07-14 02.40.37.037', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 37''', 2 from dual UNION ALL 
+  Select 38, 'Name 38', 13.06, to_timestamp('2017-07-14 02.40.38.038', 'YYYY-MM-DD HH24.MI.SS.FF3'), 'Remark ''no. 38''', 3 from dual UNION ALL 
+  Select 39, 'Name 39', 13.43, to_timestamp('2017-07-14 02.40.39.039', 'YYYY-MM-DD HH24.MI.SS.FF3'), null, 4 from dual) Q ON(T.ID=Q.ID) 
+WHEN MATCHED THEN UPDATE SET T.NAME=Q.NAME, T.AMOUNT=Q.AMOUNT, T.CREATED=Q.CREATED, T.REMARK=Q.REMARK, T.CATEGORY=Q.CATEGORY 
+WHEN NOT MATCHED THEN INSERT (T.ID, T.NAME, T.AMOUNT, T.CREATED, T.REMARK, T.CATEGORY) VALUES(Q.ID, Q.NAME, Q.AMOUNT, Q.CREATED, Q.REMARK, Q.CATEGORY);
@@ -0,0 +1,87 @@
+Update DML_TEST set NAME=null::null, AMOUNT=-1.00, CREATED=to_timestamp('2017-07-14 02.40.00.0', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=0 Where ID=0;
+Update DML_TEST set NAME='Name 1', AMOUNT=-0.63, CREATED=to_timestamp('2017-07-14 02.40.01.001', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 1''', CATEGORY=1 Where ID=1;
+Update DML_TEST set NAME='Name 2', AMOUNT=-0.26, CREATED=to_timestamp('2017-07-14 02.40.02.002', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 2''', CATEGORY=2 Where ID=2;
+Update DML_TEST set NAME='Name 3', AMOUNT=0.11, CREATED=to_timestamp('2017-07-14 02.40.03.003', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=3 Where ID=3;
+Update DML_TEST set NAME='Name 4', AMOUNT=0.48, CREATED=to_timestamp('2017-07-14 02.40.04.004', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 4''', CATEGORY=4 Where ID=4;
+Update DML_TEST set NAME=null::null, AMOUNT=0.85, CREATED=to_timestamp('2017-07-14 02.40.05.005', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 5''', CATEGORY=5 Where ID=5;
+Update DML_TEST set NAME='Name 6', AMOUNT=1.22, CREATED=to_timestamp('2017-07-14 02.40.06.006', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=6 Where ID=6;
+Update DML_TEST set NAME='Name 7', AMOUNT=1.59, CREATED=to_timestamp('2017-07-14 02.40.07.007', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 7''', CATEGORY=0 Where ID=7;
+Update DML_TEST set NAME='Name 8', AMOUNT=1.96, CREATED=to_timestamp('2017-07-14 02.40.08.008', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 8''', CATEGORY=1 Where ID=8;
+Update DML_TEST set NAME='Name 9', AMOUNT=2.33, CREATED=to_timestamp('2017-07-14 02.40.09.009', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=2 Where ID=9;
+Update DML_TEST set NAME=null::null, AMOUNT=2.70, CREATED=to_timestamp('2017-07-14 02.40.10.01', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 10''', CATEGORY=3 Where ID=10;
+Update DML_TEST set NAME='Name 11', AMOUNT=3.07, CREATED=to_timestamp('2017-07-14 02.40.11.011', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 11''', CATEGORY=4 Where ID=11;
+Update DML_TEST set NAME='Name 12', AMOUNT=3.44, CREATED=to_timestamp('2017-07-14 02.40.12.012', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=5 Where ID=12;
+Update DML_TEST set NAME='Name 13', AMOUNT=3.81, CREATED=to_timestamp('2017-07-14 02.40.13.013', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 13''', CATEGORY=6 Where ID=13;
+Update DML_TEST set NAME='Name 14', AMOUNT=4.18, CREATED=to_timestamp('2017-07-14 02.40.14.014', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 14''', CATEGORY=0 Where ID=14;
+Update DML_TEST set NAME=null::null, AMOUNT=4.55, CREATED=to_timestamp('2017-07-14 02.40.15.015', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=1 Where ID=15;
+Update DML_TEST set NAME='Name 16', AMOUNT=4.92, CREATED=to_timestamp('2017-07-14 02.40.16.016', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 16''', CATEGORY=2 Where ID=16;
+Update DML_TEST set NAME='Name 17', AMOUNT=5.29, CREATED=to_timestamp('2017-07-14 02.40.17.017', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 17''', CATEGORY=3 Where ID=17;
+Update DML_TEST set NAME='Name 18', AMOUNT=5.66, CREATED=to_timestamp('2017-07-14 02.40.18.018', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=4 Where ID=18;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (values 
+ (1, 'Name 1', -0.63, to_timestamp('2017-07-14 02.40.01.001', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 1''', 1), 
+ (2, 'Name 2', -0.26, to_timestamp('2017-07-14 02.40.02.002', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 2''', 2), 
+ (4, 'Name 4', 0.48, to_timestamp('2017-07-14 02.40.04.004', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 4''', 4), 
+ (7, 'Name 7', 1.59, to_timestamp('2017-07-14 02.40.07.007', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 7''', 0), 
+ (8, 'Name 8', 1.96, to_timestamp('2017-07-14 02.40.08.008', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 8''', 1), 
+ (11, 'Name 11', 3.07, to_timestamp('2017-07-14 02.40.11.011', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 11''', 4), 
+ (13, 'Name 13', 3.81, to_timestamp('2017-07-14 02.40.13.013', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 13''', 6), 
+ (14, 'Name 14', 4.18, to_timestamp('2017-07-14 02.40.14.014', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 14''', 0), 
+ (16, 'Name 16', 4.92, to_timestamp('2017-07-14 02.40.16.016', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 16''', 2), 
+ (17, 'Name 17', 5.29, to_timestamp('2017-07-14 02.40.17.017', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 17''', 3)) as Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update DML_TEST set NAME='Name 19', AMOUNT=6.03, CREATED=to_timestamp('2017-07-14 02.40.19.019', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 19''', CATEGORY=5 Where ID=19;
+Update DML_TEST set NAME=null::null, AMOUNT=6.40, CREATED=to_timestamp('2017-07-14 02.40.20.02', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 20''', CATEGORY=6 Where ID=20;
+Update DML_TEST set NAME='Name 21', AMOUNT=6.77, CREATED=to_timestamp('2017-07-14 02.40.21.021', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=0 Where ID=21;
+Update DML_TEST set NAME='Name 22', AMOUNT=7.14, CREATED=to_timestamp('2017-07-14 02.40.22.022', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 22''', CATEGORY=1 Where ID=22;
+Update DML_TEST set NAME='Name 23', AMOUNT=7.51, CREATED=to_timestamp('2017-07-14 02.40.23.023', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 23''', CATEGORY=2 Where ID=23;
+Update DML_TEST set NAME='Name 24', AMOUNT=7.88, CREATED=to_timestamp('2017-07-14 02.40.24.024', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=3 Where ID=24;
+Update DML_TEST set NAME=null::null, AMOUNT=8.25, CREATED=to_timestamp('2017-07-14 02.40.25.025', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 25''', CATEGORY=4 Where ID=25;
+Update DML_TEST set NAME='Name 26', AMOUNT=8.62, CREATED=to_timestamp('2017-07-14 02.40.26.026', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 26''', CATEGORY=5 Where ID=26;
+Update DML_TEST set NAME='Name 27', AMOUNT=8.99, CREATED=to_timestamp('2017-07-14 02.40.27.027', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=6 Where ID=27;
+Update DML_TEST set NAME='Name 28', AMOUNT=9.36, CREATED=to_timestamp('2017-07-14 02.40.28.028', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 28''', CATEGORY=0 Where ID=28;
+Update DML_TEST set NAME='Name 29', AMOUNT=9.73, CREATED=to_timestamp('2017-07-14 02.40.29.029', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 29''', CATEGORY=1 Where ID=29;
+Update DML_TEST set NAME=null::null, AMOUNT=10.10, CREATED=to_timestamp('2017-07-14 02.40.30.03', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=2 Where ID=30;
+Update DML_TEST set NAME='Name 31', AMOUNT=10.47, CREATED=to_timestamp('2017-07-14 02.40.31.031', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 31''', CATEGORY=3 Where ID=31;
+Update DML_TEST set NAME='Name 32', AMOUNT=10.84, CREATED=to_timestamp('2017-07-14 02.40.32.032', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 32''', CATEGORY=4 Where ID=32;
+Update DML_TEST set NAME='Name 33', AMOUNT=11.21, CREATED=to_timestamp('2017-07-14 02.40.33.033', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=5 Where ID=33;
+Update DML_TEST set NAME='Name 34', AMOUNT=11.58, CREATED=to_timestamp('2017-07-14 02.40.34.034', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 34''', CATEGORY=6 Where ID=34;
+Update DML_TEST set NAME=null::null, AMOUNT=11.95, CREATED=to_timestamp('2017-07-14 02.40.35.035', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 35''', CATEGORY=0 Where ID=35;
+Update DML_TEST set NAME='Name 36', AMOUNT=12.32, CREATED=to_timestamp('2017-07-14 02.40.36.036', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=1 Where ID=36;
+Update DML_TEST set NAME='Name 37', AMOUNT=12.69, CREATED=to_timestamp('2017-07-14 02.40.37.037', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 37''', CATEGORY=2 Where ID=37;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (values 
+ (19, 'Name 19', 6.03, to_timestamp('2017-07-14 02.40.19.019', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 19''', 5), 
+ (22, 'Name 22', 7.14, to_timestamp('2017-07-14 02.40.22.022', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 22''', 1), 
+ (23, 'Name 23', 7.51, to_timestamp('2017-07-14 02.40.23.023', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 23''', 2), 
+ (26, 'Name 26', 8.62, to_timestamp('2017-07-14 02.40.26.026', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 26''', 5), 
+ (28, 'Name 28', 9.36, to_timestamp('2017-07-14 02.40.28.028', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 28''', 0), 
+ (29, 'Name 29', 9.73, to_timestamp('2017-07-14 02.40.29.029', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 29''', 1), 
+ (31, 'Name 31', 10.47, to_timestamp('2017-07-14 02.40.31.031', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 31''', 3), 
+ (32, 'Name 32', 10.84, to_timestamp('2017-07-14 02.40.32.032', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 32''', 4), 
+ (34, 'Name 34', 11.58, to_timestamp('2017-07-14 02.40.34.034', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 34''', 6), 
+ (37, 'Name 37', 12.69, to_timestamp('2017-07-14 02.40.37.037', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 37''', 2)) as Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update DML_TEST set NAME='Name 38', AMOUNT=13.06, CREATED=to_timestamp('2017-07-14 02.40.38.038', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK='Remark ''no. 38''', CATEGORY=3 Where ID=38;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, CATEGORY) Select * From (values 
+ (3, 'Name 3', 0.11, to_timestamp('2017-07-14 02.40.03.003', 'YYYY-MM-DD HH24.MI.SS.US'), 3), 
+ (6, 'Name 6', 1.22, to_timestamp('2017-07-14 02.40.06.006', 'YYYY-MM-DD HH24.MI.SS.US'), 6), 
+ (9, 'Name 9', 2.33, to_timestamp('2017-07-14 02.40.09.009', 'YYYY-MM-DD HH24.MI.SS.US'), 2), 
+ (12, 'Name 12', 3.44, to_timestamp('2017-07-14 02.40.12.012', 'YYYY-MM-DD HH24.MI.SS.US'), 5), 
+ (18, 'Name 18', 5.66, to_timestamp('2017-07-14 02.40.18.018', 'YYYY-MM-DD HH24.MI.SS.US'), 4), 
+ (21, 'Name 21', 6.77, to_timestamp('2017-07-14 02.40.21.021', 'YYYY-MM-DD HH24.MI.SS.US'), 0), 
+ (24, 'Name 24', 7.88, to_timestamp('2017-07-14 02.40.24.024', 'YYYY-MM-DD HH24.MI.SS.US'), 3), 
+ (27, 'Name 27', 8.99, to_timestamp('2017-07-14 02.40.27.027', 'YYYY-MM-DD HH24.MI.SS.US'), 6), 
+ (33, 'Name 33', 11.21, to_timestamp('2017-07-14 02.40.33.033', 'YYYY-MM-DD HH24.MI.SS.US'), 5), 
+ (36, 'Name 36', 12.32, to_timestamp('2017-07-14 02.40.36.036', 'YYYY-MM-DD HH24.MI.SS.US'), 1)) as Q(ID, NAME, AMOUNT, CREATED, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Update DML_TEST set NAME='Name 39', AMOUNT=13.43, CREATED=to_timestamp('2017-07-14 02.40.39.039', 'YYYY-MM-DD HH24.MI.SS.US'), REMARK=null::null, CATEGORY=4 Where ID=39;
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, CATEGORY) Select * From (values 
+ (39, 'Name 39', 13.43, to_timestamp('2017-07-14 02.40.39.039', 'YYYY-MM-DD HH24.MI.SS.US'), 4)) as Q(ID, NAME, AMOUNT, CREATED, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, AMOUNT, CREATED, CATEGORY) Select * From (values 
+ (0, -1.00, to_timestamp('2017-07-14 02.40.00.0', 'YYYY-MM-DD HH24.MI.SS.US'), 0), 
+ (15, 4.55, to_timestamp('2017-07-14 02.40.15.015', 'YYYY-MM-DD HH24.MI.SS.US'), 1), 
+ (30, 10.10, to_timestamp('2017-07-14 02.40.30.03', 'YYYY-MM-DD HH24.MI.SS.US'), 2)) as Q(ID, AMOUNT, CREATED, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (values 
+ (5, 0.85, to_timestamp('2017-07-14 02.40.05.005', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 5''', 5), 
+ (10, 2.70, to_timestamp('2017-07-14 02.40.10.01', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 10''', 3), 
+ (20, 6.40, to_timestamp('2017-07-14 02.40.20.02', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 20''', 6), 
+ (25, 8.25, to_timestamp('2017-07-14 02.40.25.025', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 25''', 4), 
+ (35, 11.95, to_timestamp('2017-07-14 02.40.35.035', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 35''', 0)) as Q(ID, AMOUNT, CREATED, REMARK, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Select * From (values 
+ (38, 'Name 38', 13.06, to_timestamp('2017-07-14 02.40.38.038', 'YYYY-MM-DD HH24.MI.SS.US'), 'Remark ''no. 38''', 3)) as Q(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) Where not exists (Select * from DML_TEST T Where T.ID=Q.ID);
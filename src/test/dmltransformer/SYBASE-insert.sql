@@ -0,0 +1,44 @@
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) values 
+ (0, null, -1.00, '2017-07-14 02:40:00.0', null, 0), 
+ (1, 'Name 1', -0.63, '2017-07-14 02:40:01.001', 'Remark ''no. 1''', 1), 
+ (2, 'Name 2', -0.26, '2017-07-14 02:40:02.002', 'Remark ''no. 2''', 2), 
+ (3, 'Name 3', 0.11, '2017-07-14 02:40:03.003', null, 3), 
+ (4, 'Name 4', 0.48, '2017-07-14 02:40:04.004', 'Remark ''no. 4''', 4), 
+ (5, null, 0.85, '2017-07-14 02:40:05.005', 'Remark ''no. 5''', 5), 
+ (6, 'Name 6', 1.22, '2017-07-14 02:40:06.006', null, 6), 
+ (7, 'Name 7', 1.59, '2017-07-14 02:40:07.007', 'Remark ''no. 7''', 0), 
+ (8, 'Name 8', 1.96, '2017-07-14 02:40:08.008', 'Remark ''no. 8''', 1), 
+ (9, 'Name 9', 2.33, '2017-07-14 02:40:09.009', null, 2);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) values 
+ (10, null, 2.70, '2017-07-14 02:40:10.01', 'Remark ''no. 10''', 3), 
+ (11, 'Name 11', 3.07, '2017-07-14 02:40:11.011', 'Remark ''no. 11''', 4), 
+ (12, 'Name 12', 3.44, '2017-07-14 02:40:12.012', null, 5), 
+ (13, 'Name 13', 3.81, '2017-07-14 02:40:13.013', 'Remark ''no. 13''', 6), 
+ (14, 'Name 14', 4.18, '2017-07-14 02:40:14.014', 'Remark ''no. 14''', 0), 
+ (15, null, 4.55, '2017-07-14 02:40:15.015', null, 1), 
+ (16, 'Name 16', 4.92, '2017-07-14 02:40:16.016', 'Remark ''no. 16''', 2), 
+ (17, 'Name 17', 5.29, '2017-07-14 02:40:17.017', 'Remark ''no. 17''', 3), 
+ (18, 'Name 18', 5.66, '2017-07-14 02:40:18.018', null, 4), 
+ (19, 'Name 19', 6.03, '2017-07-14 02:40:19.019', 'Remark ''no. 19''', 5);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) values 
+ (20, null, 6.40, '2017-07-14 02:40:20.02', 'Remark ''no. 20''', 6), 
+ (21, 'Name 21', 6.77, '2017-07-14 02:40:21.021', null, 0), 
+ (22, 'Name 22', 7.14, '2017-07-14 02:40:22.022', 'Remark ''no. 22''', 1), 
+ (23, 'Name 23', 7.51, '2017-07-14 02:40:23.023', 'Remark ''no. 23''', 2), 
+ (24, 'Name 24', 7.88, '2017-07-14 02:40:24.024', null, 3), 
+ (25, null, 8.25, '2017-07-14 02:40:25.025', 'Remark ''no. 25''', 4), 
+ (26, 'Name 26', 8.62, '2017-07-14 02:40:26.026', 'Remark ''no. 26''', 5), 
+ (27, 'Name 27', 8.99, '2017-07-14 02:40:27.027', null, 6), 
+ (28, 'Name 28', 9.36, '2017-07-14 02:40:28.028', 'Remark ''no. 28''', 0), 
+ (29, 'Name 29', 9.73, '2017-07-14 02:40:29.029', 'Remark ''no. 29''', 1);
+Insert into DML_TEST(ID, NAME, AMOUNT, CREATED, REMARK, CATEGORY) values 
+ (30, null, 10.10, '2017-07-14 02:40:30.03', null, 2), 
+ (31, 'Name 31', 10.47, '2017-07-14 02:40:31.031', 'Remark ''no. 31''', 3), 
+ (32, 'Name 32', 10.84, '2017-07-14 02:40:32.032', 'Remark ''no. 32''', 4), 
+ (33, 'Name 33', 11.21, '2017-07-14 02:40:33.033', null, 5), 
+ (34, 'Name 34', 11.58, '2017-07-14 02:40:34.034', 'Remark ''no. 34''', 6), 
+ (35, null, 11.95, '2017-07-14 02:40:35.035', 'Remark ''no. 35''', 0), 
+ (36, 'Name 36', 12.32, '2017-07-14 02:40:36.036', null, 1), 
+ (37, 'Name 37', 12.69, '2017-07-14 02:40:37.037', 'Remark ''no. 37''', 2), 
+ (38, 'Name 38', 13.06, '2017-07-14 02:40:38.038', 'Remark ''no. 38''', 3), 
+ (39, 'Name 39', 13.43, '2017-07-14 02:40:39.039', null, 4);
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.restrictionmodel.RestrictionModel;
+
+/**
+ * Tests that the association graph follows the insertion order of the (possibly transposed) restriction model.
+ *
+ * @author Ralf Wisser
+ */
+public class AssociationGraphTest extends TestCase {
+
+	private File folder;
+	private ExecutionContext executionContext;
+	private DataModel dataModel;
+	private Set<Table> tables;
+
+	@Override
+	protected void setUp() throws Exception {
+		folder = Files.createTempDirectory("datamodel").toFile();
+		for (File file: new File("datamodel/Demo-Scott").listFiles()) {
+			if (file.getName().endsWith(".csv")) {
+				Files.copy(file.toPath(), new File(folder, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		executionContext = new ExecutionContext();
+		executionContext.setDataModelURL(folder.toURI().toURL());
+		dataModel = new DataModel(executionContext);
+		dataModel.setRestrictionModel(new RestrictionModel(dataModel, executionContext));
+		tables = new HashSet<Table>(Arrays.asList(dataModel.getTable("PROJECT"), dataModel.getTable("PROJECT_PARTICIPATION")));
+		assertNotNull(dataModel.getAssociationGraph());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file: folder.listFiles()) {
+			file.delete();
+		}
+		folder.delete();
+	}
+
+	public void testTransposedModel() throws Exception {
+		assertEquals(Arrays.asList("PROJECT"), independentTables());
+		dataModel.transpose();
+		assertEquals(Arrays.asList("PROJECT_PARTICIPATION"), independentTables());
+		dataModel.transpose();
+		assertEquals(Arrays.asList("PROJECT"), independentTables());
+	}
+
+	public void testReplacedRestrictionModel() throws Exception {
+		assertEquals(Arrays.asList("PROJECT"), independentTables());
+		RestrictionModel restrictionModel = new RestrictionModel(dataModel, executionContext);
+		restrictionModel.transpose();
+		dataModel.setRestrictionModel(restrictionModel);
+		assertEquals(Arrays.asList("PROJECT_PARTICIPATION"), independentTables());
+	}
+
+	private List<String> independentTables() {
+		List<String> names = new ArrayList<String>();
+		for (Table table: dataModel.getIndependentTables(tables)) {
+			names.add(table.getName());
+		}
+		return names;
+	}
+
+}
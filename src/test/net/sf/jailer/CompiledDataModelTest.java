@@ -0,0 +1,108 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import junit.framework.TestCase;
+import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.Column;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.Table;
+
+/**
+ * Tests the compiled form of a data model.
+ * Loads a copy of the demo model from the CSV files and from the compiled form and compares the results.
+ *
+ * @author Ralf Wisser
+ */
+public class CompiledDataModelTest extends TestCase {
+
+	private static final String COMPILED_MODEL = "compiled-model.bin";
+
+	private File folder;
+
+	@Override
+	protected void setUp() throws Exception {
+		folder = Files.createTempDirectory("datamodel").toFile();
+		for (File file: new File("datamodel/Demo-Sakila").listFiles()) {
+			if (file.getName().endsWith(".csv")) {
+				Files.copy(file.toPath(), new File(folder, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file: folder.listFiles()) {
+			file.delete();
+		}
+		folder.delete();
+	}
+
+	public void testCompiledModel() throws Exception {
+		String fromCsv = dump(load());
+		assertTrue(new File(folder, COMPILED_MODEL).exists());
+		long compiledLastModified = new File(folder, COMPILED_MODEL).lastModified();
+		assertEquals(fromCsv, dump(load()));
+		assertEquals(compiledLastModified, new File(folder, COMPILED_MODEL).lastModified());
+	}
+
+	public void testChangedModel() throws Exception {
+		load();
+		File tableFile = new File(folder, "table.csv");
+		String tables = new String(Files.readAllBytes(tableFile.toPath()), StandardCharsets.ISO_8859_1);
+		// same length, same modification time
+		long lastModified = tableFile.lastModified();
+		Files.write(tableFile.toPath(), tables.replace("ACTOR; N;", "ACTOR; Y;").getBytes(StandardCharsets.ISO_8859_1));
+		tableFile.setLastModified(lastModified);
+
+		DataModel dataModel = load();
+		assertTrue(dataModel.getTable("ACTOR").getUpsert());
+		new File(folder, COMPILED_MODEL).delete();
+		assertEquals(dump(load()), dump(dataModel));
+	}
+
+	public void testCorruptCompiledModel() throws Exception {
+		String fromCsv = dump(load());
+		Files.write(new File(folder, COMPILED_MODEL).toPath(), new byte[] { 0x4A, 0x4C, 0x4D, 0x43, 0, 0, 0 });
+		assertEquals(fromCsv, dump(load()));
+	}
+
+	private DataModel load() throws Exception {
+		ExecutionContext executionContext = new ExecutionContext();
+		executionContext.setDataModelURL(folder.toURI().toURL());
+		return new DataModel(executionContext);
+	}
+
+	private String dump(DataModel dataModel) {
+		StringBuilder sb = new StringBuilder();
+		for (Table table: dataModel.getSortedTables()) {
+			sb.append(table.getName() + " " + table.getUpsert() + " " + table.getAuthor() + " " + table.primaryKey + "\n");
+			for (Column column: table.getColumns()) {
+				sb.append(" " + column.toSQL(null) + " " + column.isNullable + " " + column.isIdentityColumn + " " + column.isVirtual + "\n");
+			}
+			for (Association association: table.associations) {
+				sb.append("  " + association.getName() + " " + association.destination.getName() + " " + association.getJoinCondition() + " " + association.getCardinality() + " " + association.getAuthor() + "\n");
+			}
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import net.sf.jailer.configuration.Configuration;
+import net.sf.jailer.database.BasicDataSource;
+import net.sf.jailer.database.ConnectionPool;
+import net.sf.jailer.database.Session;
+
+/**
+ * Tests that threads never wait endlessly for a connection if there are more threads than pooled connections.
+ *
+ * @author Ralf Wisser
+ */
+public class ConnectionPoolTest extends TestCase {
+
+	private static final int MAX_CONNECTIONS = 2;
+	private static final int THREADS = 6;
+
+	private BasicDataSource dataSource;
+
+	@Override
+	protected void setUp() throws Exception {
+		dataSource = new BasicDataSource("org.h2.Driver", "jdbc:h2:mem:", "sa", "", 0);
+	}
+
+	public void testLeaseTimeout() throws Exception {
+		final ConnectionPool pool = new ConnectionPool(dataSource, 1, 0, 60000, new ConnectionPool.Lessee() {
+			@Override
+			public boolean isInUse(Connection connection) {
+				return false;
+			}
+			@Override
+			public void closed(Connection connection) {
+			}
+		});
+		try {
+			Connection connection = pool.lease(0);
+			final List<Object> result = new ArrayList<Object>();
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						result.add(pool.lease(200));
+					} catch (SQLException e) {
+						result.add(e);
+					}
+				}
+			});
+			thread.start();
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+			assertFalse("lease doesn't time out", thread.isAlive());
+			assertTrue(result.get(0) instanceof SQLException);
+
+			pool.release(connection);
+			assertSame(connection, pool.lease(0));
+			connection.close();
+		} finally {
+			pool.close();
+		}
+	}
+
+	public void testInterruptedLease() throws Exception {
+		// validates idle connections on every lease
+		final ConnectionPool pool = new ConnectionPool(dataSource, 1, 0, 0, new ConnectionPool.Lessee() {
+			@Override
+			public boolean isInUse(Connection connection) {
+				return false;
+			}
+			@Override
+			public void closed(Connection connection) {
+			}
+		});
+		try {
+			Connection connection = pool.lease(0);
+			final List<Object> result = new ArrayList<Object>();
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					Thread.currentThread().interrupt();
+					try {
+						result.add(pool.lease(TimeUnit.SECONDS.toMillis(30)));
+					} catch (SQLException e) {
+						result.add(e);
+					}
+					result.add(Thread.currentThread().isInterrupted());
+				}
+			});
+			thread.start();
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+			assertFalse("interrupted lease still waits", thread.isAlive());
+			assertTrue(result.get(0) instanceof SQLException);
+			assertEquals("interrupt flag lost", Boolean.TRUE, result.get(1));
+
+			pool.release(connection);
+			assertSame(connection, pool.lease(0));
+			connection.close();
+		} finally {
+			pool.close();
+		}
+	}
+
+	public void testMoreThreadsThanConnections() throws Exception {
+		Configuration configuration = Configuration.getInstance();
+		int maxDatabaseConnections = configuration.getMaxDatabaseConnections();
+		configuration.setMaxDatabaseConnections(MAX_CONNECTIONS);
+		final Session session;
+		try {
+			session = new Session(dataSource, dataSource.dbms, null);
+		} finally {
+			configuration.setMaxDatabaseConnections(maxDatabaseConnections);
+		}
+		try {
+			// all threads are alive and hold their connections until each of them has executed a query
+			final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+			final List<Throwable> errors = new ArrayList<Throwable>();
+			List<Thread> threads = new ArrayList<Thread>();
+			for (int i = 0; i < THREADS; ++i) {
+				Thread thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							query(session);
+							barrier.await(30, TimeUnit.SECONDS);
+							query(session);
+						} catch (Throwable t) {
+							synchronized (errors) {
+								errors.add(t);
+							}
+						}
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			for (Thread thread: threads) {
+				thread.join(TimeUnit.SECONDS.toMillis(60));
+				assertFalse("thread waits endlessly for a connection", thread.isAlive());
+			}
+			assertEquals(errors.toString(), 0, errors.size());
+			assertTrue(session.getConnectionPoolStatistics().toString(), session.getConnectionPoolStatistics().active <= MAX_CONNECTIONS);
+		} finally {
+			session.shutDown();
+		}
+	}
+
+	private static void query(Session session) throws SQLException {
+		final int[] count = new int[1];
+		session.executeQuery("SELECT 1", new Session.AbstractResultSetReader() {
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				++count[0];
+			}
+		});
+		assertEquals(1, count[0]);
+	}
+
+}
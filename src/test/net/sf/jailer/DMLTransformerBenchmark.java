@@ -0,0 +1,110 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.jailer.database.BasicDataSource;
+import net.sf.jailer.database.DMLTransformer;
+import net.sf.jailer.database.Session;
+import net.sf.jailer.database.Session.ResultSetReader;
+import net.sf.jailer.datamodel.Column;
+import net.sf.jailer.datamodel.PrimaryKey;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.modelbuilder.MemorizedResultSet;
+
+/**
+ * Measures the throughput (rows/sec) of {@link DMLTransformer#readCurrentRow(java.sql.ResultSet)}
+ * for inserts and upserts, reading the rows from a {@link MemorizedResultSet}.
+ * <br>
+ * Usage: <code>DMLTransformerBenchmark [rows [iterations]]</code>
+ *
+ * @author Ralf Wisser
+ */
+public class DMLTransformerBenchmark {
+
+	private static final String[] NAMES = new String[] { "ID", "NAME", "AMOUNT", "CREATED", "REMARK", "CATEGORY" };
+	private static final int[] TYPES = new int[] { Types.INTEGER, Types.VARCHAR, Types.DECIMAL, Types.TIMESTAMP, Types.VARCHAR, Types.INTEGER };
+	private static final String[] TYPE_NAMES = new String[] { "INTEGER", "VARCHAR", "DECIMAL", "TIMESTAMP", "VARCHAR", "INTEGER" };
+
+	public static void main(String[] args) throws Exception {
+		int numRows = args.length > 0? Integer.parseInt(args[0]) : 200000;
+		int iterations = args.length > 1? Integer.parseInt(args[1]) : 10;
+
+		BasicDataSource dataSource = new BasicDataSource("org.h2.Driver", "jdbc:h2:mem:", "sa", "", 0);
+		Session session = new Session(dataSource, dataSource.dbms, null);
+		ExecutionContext executionContext = new ExecutionContext();
+
+		List<Object[]> rows = new ArrayList<Object[]>();
+		long t = 1500000000000L;
+		for (int i = 0; i < numRows; ++i) {
+			rows.add(new Object[] {
+				i,
+				"Name " + i,
+				new BigDecimal(i).movePointLeft(2),
+				new Timestamp(t + i * 1000L),
+				i % 3 == 0? null : "Remark 'no. " + i + "'",
+				i % 7
+			});
+		}
+
+		for (boolean upsert: new boolean[] { false, true }) {
+			Table table = createTable(upsert);
+			for (int i = 0; i < iterations; ++i) {
+				OutputStreamWriter out = new OutputStreamWriter(new OutputStream() {
+					@Override
+					public void write(int b) {
+					}
+					@Override
+					public void write(byte[] b, int off, int len) {
+					}
+				});
+				DMLTransformer.Factory factory = new DMLTransformer.Factory(out, false, 10, session, session.dbms, executionContext);
+				ResultSetReader reader = factory.create(table);
+				MemorizedResultSet resultSet = new MemorizedResultSet(rows, NAMES.length, NAMES, TYPES, TYPE_NAMES);
+				long start = System.nanoTime();
+				while (resultSet.next()) {
+					reader.readCurrentRow(resultSet);
+				}
+				reader.close();
+				out.close();
+				long duration = System.nanoTime() - start;
+				System.out.println((upsert? "upsert" : "insert") + " #" + (i + 1) + ": " + (long) (numRows / (duration / 1000000000.0)) + " rows/sec");
+			}
+		}
+		session.shutDown();
+	}
+
+	private static Table createTable(boolean upsert) {
+		List<Column> columns = new ArrayList<Column>();
+		for (int i = 0; i < NAMES.length; ++i) {
+			Column column = new Column(NAMES[i], TYPE_NAMES[i], 0, -1);
+			column.isNullable = i > 0;
+			columns.add(column);
+		}
+		Table table = new Table("BENCHMARK", new PrimaryKey(Arrays.asList(columns.get(0)), false), upsert, false);
+		table.setColumns(columns);
+		return table;
+	}
+
+}
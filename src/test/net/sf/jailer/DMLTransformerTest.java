@@ -0,0 +1,122 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import net.sf.jailer.configuration.DBMS;
+import net.sf.jailer.database.BasicDataSource;
+import net.sf.jailer.database.DMLTransformer;
+import net.sf.jailer.database.Session;
+import net.sf.jailer.database.Session.ResultSetReader;
+import net.sf.jailer.datamodel.Column;
+import net.sf.jailer.datamodel.PrimaryKey;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.modelbuilder.MemorizedResultSet;
+
+/**
+ * Compares the inserts and upserts rendered by {@link DMLTransformer} with the output
+ * of the former implementation (in "dmltransformer/&lt;target DBMS&gt;-&lt;insert|upsert&gt;.sql").
+ *
+ * @author Ralf Wisser
+ */
+public class DMLTransformerTest extends TestCase {
+
+	private static final String[] NAMES = new String[] { "ID", "NAME", "AMOUNT", "CREATED", "REMARK", "CATEGORY" };
+	private static final int[] TYPES = new int[] { Types.INTEGER, Types.VARCHAR, Types.DECIMAL, Types.TIMESTAMP, Types.VARCHAR, Types.INTEGER };
+	private static final String[] TYPE_NAMES = new String[] { "INTEGER", "VARCHAR", "DECIMAL", "TIMESTAMP", "VARCHAR", "INTEGER" };
+
+	private static final DBMS[] TARGET_DBMS = new DBMS[] { DBMS.H2, DBMS.POSTGRESQL, DBMS.ORACLE, DBMS.MSSQL, DBMS.MySQL, DBMS.DB2, DBMS.SYBASE };
+
+	private Session session;
+
+	@Override
+	protected void setUp() throws Exception {
+		BasicDataSource dataSource = new BasicDataSource("org.h2.Driver", "jdbc:h2:mem:", "sa", "", 0);
+		session = new Session(dataSource, dataSource.dbms, null);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		session.shutDown();
+	}
+
+	public void testInsertsAndUpserts() throws Exception {
+		for (DBMS targetDBMS: TARGET_DBMS) {
+			for (boolean upsert: new boolean[] { false, true }) {
+				String expected = new String(Files.readAllBytes(expectedFile(targetDBMS, upsert).toPath()), StandardCharsets.UTF_8);
+				assertEquals(targetDBMS.getId() + (upsert? " upsert" : " insert"), expected, render(targetDBMS, upsert, session).replace("\r\n", "\n"));
+			}
+		}
+	}
+
+	static File expectedFile(DBMS targetDBMS, boolean upsert) {
+		return new File("src/test/dmltransformer/" + targetDBMS.getId() + "-" + (upsert? "upsert" : "insert") + ".sql");
+	}
+
+	/**
+	 * Renders some rows with nulls, quotes, decimals and timestamps.
+	 */
+	static String render(DBMS targetDBMS, boolean upsert, Session session) throws Exception {
+		List<Object[]> rows = new ArrayList<Object[]>();
+		Timestamp t = Timestamp.valueOf("2017-07-14 02:40:00");
+		for (int i = 0; i < 40; ++i) {
+			rows.add(new Object[] {
+				i,
+				i % 5 == 0? null : "Name " + i,
+				new BigDecimal(i * 37 - 100).movePointLeft(2),
+				new Timestamp(t.getTime() + i * 1001L),
+				i % 3 == 0? null : "Remark 'no. " + i + "'",
+				i % 7
+			});
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		OutputStreamWriter out = new OutputStreamWriter(bytes, StandardCharsets.UTF_8);
+		DMLTransformer.Factory factory = new DMLTransformer.Factory(out, false, 10, session, targetDBMS, new ExecutionContext());
+		ResultSetReader reader = factory.create(createTable(upsert));
+		MemorizedResultSet resultSet = new MemorizedResultSet(rows, NAMES.length, NAMES, TYPES, TYPE_NAMES);
+		while (resultSet.next()) {
+			reader.readCurrentRow(resultSet);
+		}
+		reader.close();
+		out.close();
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static Table createTable(boolean upsert) {
+		List<Column> columns = new ArrayList<Column>();
+		for (int i = 0; i < NAMES.length; ++i) {
+			Column column = new Column(NAMES[i], TYPE_NAMES[i], 0, -1);
+			column.isNullable = i > 0;
+			columns.add(column);
+		}
+		Table table = new Table("DML_TEST", new PrimaryKey(Arrays.asList(columns.get(0)), false), upsert, false);
+		table.setColumns(columns);
+		return table;
+	}
+
+}
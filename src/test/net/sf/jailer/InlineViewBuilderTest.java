@@ -0,0 +1,132 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import net.sf.jailer.database.BasicDataSource;
+import net.sf.jailer.database.InlineViewBuilder;
+import net.sf.jailer.database.InlineViewStyle;
+import net.sf.jailer.database.Session;
+import net.sf.jailer.database.SqlException;
+import net.sf.jailer.util.CellContentConverter;
+
+/**
+ * Tests that the rows of an inline-view that is too complex are processed again in smaller blocks
+ * and that other errors are not retried.
+ *
+ * @author Ralf Wisser
+ */
+public class InlineViewBuilderTest extends TestCase {
+
+	private static final int ROWS = 100;
+
+	private Session session;
+
+	@Override
+	protected void setUp() throws Exception {
+		// the learned block sizes are remembered per URL, so each test uses its own database
+		BasicDataSource dataSource = new BasicDataSource("org.h2.Driver", "jdbc:h2:mem:" + getName(), "sa", "", 0);
+		session = new Session(dataSource, dataSource.dbms, null);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		session.shutDown();
+	}
+
+	public void testSplitFailedBlocks() throws Exception {
+		List<Integer> ids = read(3, -1, new ArrayList<SQLException>());
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 1; i <= ROWS; ++i) {
+			expected.add(i);
+		}
+		Collections.sort(ids);
+		assertEquals(expected, ids);
+	}
+
+	public void testFailingRow() throws Exception {
+		final List<SQLException> errors = new ArrayList<SQLException>();
+		try {
+			read(ROWS, 42, errors);
+			fail("error of failing row has been lost");
+		} catch (SQLException e) {
+			assertEquals(1, errors.size());
+			assertSame(errors.get(0), e.getCause());
+		}
+	}
+
+	public void testTooComplexRow() throws Exception {
+		final List<SQLException> errors = new ArrayList<SQLException>();
+		try {
+			read(0, -1, errors);
+			fail("error of failing row has been lost");
+		} catch (SQLException e) {
+			assertTrue(errors.size() > 1);
+			assertSame(errors.get(0), e);
+		}
+	}
+
+	/**
+	 * Reads the IDs 1 to {@link #ROWS} via inline-views.
+	 *
+	 * @param maxRows inline-views with more rows are too complex
+	 * @param failingID inline-views containing this ID fail
+	 * @param errors collects the errors
+	 * @return the IDs read from the processed inline-views
+	 */
+	private List<Integer> read(final int maxRows, final int failingID, final List<SQLException> errors) throws SQLException {
+		final List<Integer> ids = new ArrayList<Integer>();
+		final InlineViewBuilder builder = new InlineViewBuilder(InlineViewStyle.forSession(session), "IV", session, new String[] { "ID" }) {
+			@Override
+			protected CellContentConverter createCellContentConverter() {
+				return new CellContentConverter(resultSetMetaData, session, session.dbms);
+			}
+
+			@Override
+			protected void process(String inlineView) throws SQLException {
+				final List<Integer> block = new ArrayList<Integer>();
+				final String query = "Select ID from " + inlineView;
+				session.executeQuery(query, new Session.AbstractResultSetReader() {
+					@Override
+					public void readCurrentRow(ResultSet resultSet) throws SQLException {
+						block.add(resultSet.getInt(1));
+					}
+				});
+				SQLException error = null;
+				if (block.size() > maxRows) {
+					error = new SqlException("too complex", query, new SQLException("too complex", "54001"));
+				} else if (block.contains(failingID)) {
+					error = new SQLException("row " + failingID);
+				}
+				if (error != null) {
+					errors.add(error);
+					throw error;
+				}
+				ids.addAll(block);
+			}
+		};
+		session.executeQuery("Select X from System_Range(1, " + ROWS + ")", builder);
+		builder.close();
+		return ids;
+	}
+
+}
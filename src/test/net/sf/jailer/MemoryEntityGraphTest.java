@@ -0,0 +1,159 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import junit.framework.TestCase;
+import net.sf.jailer.database.BasicDataSource;
+import net.sf.jailer.database.Session;
+import net.sf.jailer.database.WorkingTableScope;
+import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.RowIdSupport;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.ddl.DDLCreator;
+import net.sf.jailer.entitygraph.EntityGraph;
+import net.sf.jailer.entitygraph.memory.MemoryEntityGraph;
+import net.sf.jailer.entitygraph.remote.RemoteEntityGraph;
+import net.sf.jailer.extractionmodel.ExtractionModel;
+import net.sf.jailer.subsetting.TransformerFactory;
+
+/**
+ * Compares the {@link MemoryEntityGraph} with the {@link RemoteEntityGraph}
+ * by collecting, reading and deleting the entities of the "Demo-Scott" model.
+ *
+ * @author Ralf Wisser
+ */
+public class MemoryEntityGraphTest extends TestCase {
+
+	private File folder;
+	private Session session;
+	private ExecutionContext executionContext;
+	private DataModel dataModel;
+	private ExtractionModel extractionModel;
+	private EntityGraph remoteGraph;
+	private EntityGraph memoryGraph;
+
+	@Override
+	protected void setUp() throws Exception {
+		folder = Files.createTempDirectory("entitygraph").toFile();
+		Files.copy(new File("demo-db/demo-scott.mv.db").toPath(), new File(folder, "demo-scott.mv.db").toPath());
+		BasicDataSource dataSource = new BasicDataSource("org.h2.Driver", "jdbc:h2:" + new File(folder, "demo-scott").getAbsolutePath(), "sa", "", 0);
+		session = new Session(dataSource, dataSource.dbms, null);
+
+		executionContext = new ExecutionContext();
+		executionContext.setDataModelURL(new File("datamodel/Demo-Scott").toURI().toURL());
+		extractionModel = new ExtractionModel("extractionmodel/Demo-Scott.jm", new HashMap<String, String>(), new HashMap<String, String>(), executionContext);
+		dataModel = extractionModel.dataModel;
+		new DDLCreator(executionContext).createDDL(dataModel, session, WorkingTableScope.GLOBAL, null);
+
+		RowIdSupport rowIdSupport = new RowIdSupport(dataModel, session.dbms, executionContext);
+		remoteGraph = RemoteEntityGraph.create(dataModel, EntityGraph.createUniqueGraphID(), session, rowIdSupport.getUniversalPrimaryKey(session), null, executionContext);
+		memoryGraph = MemoryEntityGraph.create(dataModel, EntityGraph.createUniqueGraphID(), session, executionContext);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		remoteGraph.delete(true);
+		memoryGraph.delete(true);
+		session.shutDown();
+		for (File file: folder.listFiles()) {
+			file.delete();
+		}
+		folder.delete();
+	}
+
+	public void testAddAndResolve() throws Exception {
+		assertEquals(1, collect(remoteGraph));
+		assertEquals(1, collect(memoryGraph));
+		assertEquals(remoteGraph.getSize(), memoryGraph.getSize());
+		assertTrue(memoryGraph.getSize() > 1);
+		for (Table table: dataModel.getTables()) {
+			assertEquals(table.getName(), remoteGraph.countEntities(table), memoryGraph.countEntities(table));
+			assertEquals(table.getName(), readEntities(remoteGraph, table), readEntities(memoryGraph, table));
+		}
+	}
+
+	public void testDelete() throws Exception {
+		collect(remoteGraph);
+		collect(memoryGraph);
+		Table employee = dataModel.getTable("EMPLOYEE");
+		long rc = memoryGraph.deleteEntities(employee);
+		assertTrue(rc > 0);
+		assertEquals(remoteGraph.deleteEntities(employee), rc);
+		assertEquals(0, memoryGraph.countEntities(employee));
+		assertEquals(0, remoteGraph.countEntities(employee));
+		assertEquals(Collections.emptyList(), readEntities(memoryGraph, employee));
+		assertEquals(remoteGraph.getSize(), memoryGraph.getSize());
+		for (Table table: dataModel.getTables()) {
+			assertEquals(table.getName(), readEntities(remoteGraph, table), readEntities(memoryGraph, table));
+		}
+	}
+
+	/**
+	 * Adds the subject and resolves all associations day by day until the closure is complete.
+	 *
+	 * @return number of added subjects
+	 */
+	private long collect(EntityGraph graph) throws SQLException {
+		int today = 1;
+		long rc = graph.addEntities(extractionModel.subject, extractionModel.getCondition(), today);
+		graph.setBirthdayOfSubject(today);
+		for (long dayRc = rc; dayRc > 0; ) {
+			++today;
+			dayRc = 0;
+			for (Table table: dataModel.getTables()) {
+				for (Association association: table.associations) {
+					dayRc += Math.max(0, graph.resolveAssociation(table, association, today));
+				}
+			}
+		}
+		return rc;
+	}
+
+	/**
+	 * Reads the rows of the entities of a table, ordered by primary key.
+	 */
+	private List<String> readEntities(EntityGraph graph, Table table) throws SQLException {
+		final List<String> rows = new ArrayList<String>();
+		graph.setTransformerFactory(new TransformerFactory() {
+			@Override
+			public Session.ResultSetReader create(Table table) throws SQLException {
+				return new Session.AbstractResultSetReader() {
+					@Override
+					public void readCurrentRow(ResultSet resultSet) throws SQLException {
+						StringBuilder row = new StringBuilder();
+						for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); ++i) {
+							row.append(resultSet.getString(i)).append("|");
+						}
+						rows.add(row.toString());
+					}
+				};
+			}
+		});
+		graph.readEntities(table, true);
+		return rows;
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import junit.framework.TestCase;
+import net.sf.jailer.util.ParallelGZIPOutputStream;
+import net.sf.jailer.util.ParallelZipOutputStream;
+import net.sf.jailer.util.ReadAheadInputStream;
+
+/**
+ * Tests {@link ParallelGZIPOutputStream}, {@link ParallelZipOutputStream} and {@link ReadAheadInputStream}.
+ * Compresses data with small blocks and decompresses it with the JDK's streams.
+ *
+ * @author Ralf Wisser
+ */
+public class ParallelDeflaterOutputStreamTest extends TestCase {
+
+	public void testGZIP() throws Exception {
+		Random random = new Random(4711);
+		for (int length: new int[] { 0, 1, 1024, 100000, 1000000 }) {
+			byte[] data = createData(random, length);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			write(random, data, new ParallelGZIPOutputStream(out, 3, 1024));
+			InputStream in = new ReadAheadInputStream(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())), 2);
+			assertTrue(Arrays.equals(data, readAll(in)));
+			in.close();
+		}
+	}
+
+	public void testZip() throws Exception {
+		Random random = new Random(4711);
+		for (int length: new int[] { 0, 1, 1024, 100000, 1000000 }) {
+			byte[] data = createData(random, length);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			write(random, data, new ParallelZipOutputStream(out, "script.sql", 3, 1024));
+			ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+			ZipEntry entry = in.getNextEntry();
+			assertEquals("script.sql", entry.getName());
+			assertTrue(Arrays.equals(data, readAll(in)));
+			assertNull(in.getNextEntry());
+			in.close();
+		}
+	}
+
+	private byte[] createData(Random random, int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; ++i) {
+			data[i] = (byte) ("Insert into T(A) values (1);\n".charAt(random.nextInt(29)) + (random.nextInt(50) == 0? random.nextInt(100) : 0));
+		}
+		return data;
+	}
+
+	private void write(Random random, byte[] data, OutputStream out) throws IOException {
+		int pos = 0;
+		while (pos < data.length) {
+			if (random.nextBoolean()) {
+				out.write(data[pos++]);
+			} else {
+				int n = Math.min(data.length - pos, random.nextInt(5000));
+				out.write(data, pos, n);
+				pos += n;
+			}
+		}
+		out.close();
+	}
+
+	private byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[777];
+		int n;
+		while ((n = in.read(buffer)) >= 0) {
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+
+}
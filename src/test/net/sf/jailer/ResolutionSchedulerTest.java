@@ -0,0 +1,174 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.Cardinality;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.subsetting.ResolutionScheduler;
+import net.sf.jailer.util.JobManager;
+import net.sf.jailer.util.WorkStealingJobManager;
+
+/**
+ * Tests {@link ResolutionScheduler}. Compares the birthdays of the collected rows
+ * with those of a day-by-day resolution, using both {@link JobManager} implementations.
+ *
+ * @author Ralf Wisser
+ */
+public class ResolutionSchedulerTest extends TestCase {
+
+	private List<Table> tables;
+	private Map<Association, Integer> factor = new HashMap<Association, Integer>();
+
+	@Override
+	protected void setUp() throws Exception {
+		tables = new ArrayList<Table>();
+		for (int i = 0; i < 8; ++i) {
+			tables.add(new Table("T" + i, null, false, false));
+		}
+		Random random = new Random(4711);
+		for (int i = 0; i < 20; ++i) {
+			Table source = tables.get(random.nextInt(tables.size()));
+			Table destination = tables.get(random.nextInt(tables.size()));
+			Association association = new Association(source, destination, false, false, "", null, false, Cardinality.MANY_TO_MANY);
+			source.associations.add(association);
+			factor.put(association, 2 + random.nextInt(5));
+		}
+	}
+
+	/**
+	 * Simulated entity graph, maps row-IDs to birthdays.
+	 */
+	private class Graph {
+		final Map<Table, Map<Integer, Integer>> rows = new HashMap<Table, Map<Integer, Integer>>();
+		final Random random = new Random(42);
+
+		Graph() {
+			for (Table table: tables) {
+				rows.put(table, new HashMap<Integer, Integer>());
+			}
+			rows.get(tables.get(0)).put(1, 0);
+			rows.get(tables.get(0)).put(2, 0);
+		}
+
+		long resolve(Table table, Association association, int today, boolean slow) {
+			List<Integer> sources = new ArrayList<Integer>();
+			synchronized (this) {
+				for (Map.Entry<Integer, Integer> e: rows.get(table).entrySet()) {
+					if (e.getValue() == today - 1) {
+						sources.add(e.getKey());
+					}
+				}
+			}
+			if (slow) {
+				try {
+					Thread.sleep(random.nextInt(5));
+				} catch (InterruptedException e) {
+				}
+			}
+			long rc = 0;
+			synchronized (this) {
+				Map<Integer, Integer> dest = rows.get(association.destination);
+				for (Integer id: sources) {
+					int destId = (id * factor.get(association)) % 1000;
+					if (!dest.containsKey(destId)) {
+						dest.put(destId, today);
+						++rc;
+					}
+				}
+			}
+			return rc;
+		}
+	}
+
+	public void testBirthdays() throws Exception {
+		checkBirthdays(new JobManager(4) {
+			@Override
+			protected void onException(Throwable t) {
+			}
+		});
+	}
+
+	public void testBirthdaysWithWorkStealing() throws Exception {
+		checkBirthdays(new WorkStealingJobManager(4) {
+			@Override
+			protected void onException(Throwable t) {
+			}
+		});
+	}
+
+	private void checkBirthdays(JobManager jobManager) throws Exception {
+		Graph expected = new Graph();
+		Map<Table, Collection<Association>> progress = new HashMap<Table, Collection<Association>>();
+		progress.put(tables.get(0), new ArrayList<Association>());
+		int today = 0;
+		while (!progress.isEmpty()) {
+			++today;
+			Map<Table, Collection<Association>> newProgress = new HashMap<Table, Collection<Association>>();
+			for (Table table: progress.keySet()) {
+				for (Association association: table.associations) {
+					if (expected.resolve(table, association, today, false) > 0) {
+						newProgress.put(association.destination, new ArrayList<Association>());
+					}
+				}
+			}
+			progress = newProgress;
+		}
+
+		final Graph actual = new Graph();
+		ResolutionScheduler scheduler = new ResolutionScheduler(tables, jobManager, new ResolutionScheduler.Resolver() {
+			@Override
+			public boolean isResolutionRequired(Table table, Association association, Collection<Association> progressOfYesterday) {
+				return true;
+			}
+
+			@Override
+			public void enqueued(int today, Association association) {
+			}
+
+			@Override
+			public long cost(Table table, Association association, int today) {
+				return association.destination.getName().hashCode() % 7;
+			}
+
+			@Override
+			public long resolve(Table table, Association association, int today) throws SQLException {
+				return actual.resolve(table, association, today, true);
+			}
+		});
+		progress = new HashMap<Table, Collection<Association>>();
+		progress.put(tables.get(0), new ArrayList<Association>());
+		Set<Table> totalProgress = scheduler.resolve(0, progress);
+		jobManager.shutdown();
+
+		assertEquals(expected.rows, actual.rows);
+		assertEquals(today, scheduler.getLastDay());
+		for (Table table: tables) {
+			assertEquals(!expected.rows.get(table).isEmpty(), totalProgress.contains(table));
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import net.sf.jailer.util.ScriptLineReader;
+
+/**
+ * Tests {@link ScriptLineReader}. Compares the lines with those read by a {@link BufferedReader},
+ * using buffers that are smaller than some of the lines.
+ *
+ * @author Ralf Wisser
+ */
+public class ScriptLineReaderTest extends TestCase {
+
+	private static final String[] FRAGMENTS = new String[] {
+		"Insert into T(A, B) values (1, 'x');", "  -- comment", "\t", "  ", "'\u00e4\u00f6\u00fc \u20ac \ud83d\ude00'",
+		"--+CLOB:T,A,1=1", "--.", ";", "-- try: drop table T;", "values (2, 'y'),", "(3, 'z');"
+	};
+
+	private static final String[] LINE_BREAKS = new String[] { "\n", "\r\n", "\r", "\n\n", "\r\r\n" };
+
+	public void testLines() throws Exception {
+		Random random = new Random(4711);
+		for (int n = 0; n < 200; ++n) {
+			StringBuilder script = new StringBuilder();
+			int length = random.nextInt(100);
+			for (int i = 0; i < length; ++i) {
+				script.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+				if (random.nextInt(4) > 0) {
+					script.append(LINE_BREAKS[random.nextInt(LINE_BREAKS.length)]);
+				}
+			}
+			for (String encoding: new String[] { "UTF-8", "UTF-16" }) {
+				checkLines(script.toString(), Charset.forName(encoding), 1 + random.nextInt(64));
+			}
+		}
+	}
+
+	public void testStatements() throws Exception {
+		String script = "-- try: create table T(A int);\n  Insert into T(A)\r\n  values (1),\n\n(2)  ;\nUpdate T set A=3";
+		ScriptLineReader reader = new ScriptLineReader(Channels.newChannel(new ByteArrayInputStream(script.getBytes("UTF-8"))), Charset.forName("UTF-8"), 4);
+		List<String> statements = new ArrayList<String>();
+		while (reader.nextLine()) {
+			if (reader.isEmpty()) {
+				continue;
+			}
+			if (reader.startsWith("--")) {
+				reader.skip(2);
+				assertTrue(reader.startsWith("try:"));
+				reader.skip(4);
+			}
+			if (reader.endsWith(';')) {
+				reader.appendToStatement(true);
+				statements.add(reader.takeStatement());
+			} else {
+				reader.appendToStatement(false);
+			}
+		}
+		reader.close();
+		assertEquals(3, statements.size());
+		assertEquals("create table T(A int)", statements.get(0));
+		assertEquals("Insert into T(A)\nvalues (1),\n(2)  ", statements.get(1));
+		assertEquals("Update T set A=3\n", statements.get(2));
+	}
+
+	private void checkLines(String script, Charset encoding, int bufferSize) throws Exception {
+		BufferedReader expected = new BufferedReader(new StringReader(script));
+		byte[] bytes = script.getBytes(encoding);
+		ScriptLineReader reader = new ScriptLineReader(Channels.newChannel(new ByteArrayInputStream(bytes)), encoding, bufferSize);
+		String line;
+		while ((line = expected.readLine()) != null) {
+			assertTrue(reader.nextLine());
+			assertEquals(line.trim(), reader.getLine());
+			assertEquals(line.trim().isEmpty(), reader.isEmpty());
+			assertEquals(line.trim().startsWith("--"), reader.startsWith("--"));
+			assertEquals(line.trim().endsWith(";"), reader.endsWith(';'));
+		}
+		assertEquals(";", reader.readLine());
+		assertNull(reader.readLine());
+		reader.close();
+
+		if (encoding.name().equals("UTF-8")) {
+			assertEquals(bytes.length, reader.getPosition());
+		}
+		expected = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), encoding));
+		reader = new ScriptLineReader(Channels.newChannel(new ByteArrayInputStream(bytes)), encoding, bufferSize);
+		while ((line = expected.readLine()) != null) {
+			assertEquals(line, reader.readLine());
+		}
+		reader.close();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2007 - 2024 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import net.sf.jailer.util.JobManager;
+import net.sf.jailer.util.WorkStealingJobManager;
+
+/**
+ * Tests that {@link WorkStealingJobManager#executeJobs(java.util.Collection)} never swallows the error of a job,
+ * in particular not if the last job fails while the caller is about to return.
+ *
+ * @author Ralf Wisser
+ */
+public class WorkStealingJobManagerTest extends TestCase {
+
+	public void testFailingLastJob() throws Exception {
+		WorkStealingJobManager jobManager = new WorkStealingJobManager(4) {
+			@Override
+			protected void onException(Throwable t) {
+			}
+		};
+		try {
+			for (int run = 0; run < 200; ++run) {
+				final long delay = run % 3;
+				List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
+				for (int i = 0; i < 3; ++i) {
+					jobs.add(new JobManager.Job() {
+						@Override
+						public void run() {
+						}
+					});
+				}
+				jobs.add(new JobManager.Job() {
+					@Override
+					public void run() throws SQLException {
+						try {
+							Thread.sleep(delay);
+						} catch (InterruptedException e) {
+							throw new RuntimeException(e);
+						}
+						throw new SQLException("failed");
+					}
+				});
+				// lets the caller poll continuously instead of parking, so that the last job
+				// often fails between the caller's check for errors and the check for pending jobs
+				Thread.currentThread().interrupt();
+				try {
+					jobManager.executeJobs(jobs);
+					fail("error of job has been lost (run " + run + ")");
+				} catch (SQLException e) {
+					assertEquals("failed", e.getMessage());
+				} finally {
+					Thread.interrupted();
+				}
+			}
+		} finally {
+			jobManager.shutdown();
+		}
+	}
+
+}